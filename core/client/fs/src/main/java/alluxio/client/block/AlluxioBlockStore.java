@@ -26,14 +26,17 @@ import alluxio.exception.PreconditionMessage;
 import alluxio.exception.status.NotFoundException;
 import alluxio.exception.status.ResourceExhaustedException;
 import alluxio.exception.status.UnavailableException;
+import alluxio.metrics.MetricsSystem;
 import alluxio.network.TieredIdentityFactory;
 import alluxio.resource.CloseableResource;
 import alluxio.util.FormatUtils;
 import alluxio.wire.BlockInfo;
 import alluxio.wire.BlockLocation;
+import alluxio.wire.FileBlockInfo;
 import alluxio.wire.TieredIdentity;
 import alluxio.wire.WorkerNetAddress;
 
+import com.codahale.metrics.Counter;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import org.slf4j.Logger;
@@ -45,6 +48,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
@@ -103,10 +107,11 @@ public final class AlluxioBlockStore {
   }
 
   /**
-   * @return the info of all block workers eligible for reads and writes
+   * @return the info of all block workers eligible for reads and writes, as cached by the
+   *         {@link FileSystemContext}
    */
   public List<BlockWorkerInfo> getEligibleWorkers() throws IOException {
-    return getAllWorkers();
+    return mContext.getCachedWorkers(false);
   }
 
   /**
@@ -123,19 +128,38 @@ public final class AlluxioBlockStore {
 
   /**
    * Gets a stream to read the data of a block. This method is primarily responsible for
-   * determining the data source and type of data source. The latest BlockInfo will be fetched
-   * from the master to ensure the locations are up to date.
+   * determining the data source and type of data source. The block locations carried by the file
+   * status are used if there are any, otherwise the latest BlockInfo is fetched from the master.
    *
    * @param blockId the id of the block to read
    * @param options the options associated with the read request
    * @return a stream which reads from the beginning of the block
    */
   public BlockInStream getInStream(long blockId, InStreamOptions options) throws IOException {
-    // Get the latest block info from master
-    BlockInfo info;
-    try (CloseableResource<BlockMasterClient> masterClientResource =
-             mContext.acquireBlockMasterClientResource()) {
-      info = masterClientResource.get().getBlockInfo(blockId);
+    return getInStream(blockId, options, false);
+  }
+
+  /**
+   * Gets a stream to read the data of a block. This method is primarily responsible for
+   * determining the data source and type of data source.
+   *
+   * @param blockId the id of the block to read
+   * @param options the options associated with the read request
+   * @param refresh whether to always fetch the latest BlockInfo from the master instead of using
+   *        the block locations carried by the file status, e.g. because they turned out stale
+   * @return a stream which reads from the beginning of the block
+   */
+  public BlockInStream getInStream(long blockId, InStreamOptions options, boolean refresh)
+      throws IOException {
+    BlockInfo info = refresh ? null : getCachedInfo(blockId, options);
+    if (info == null) {
+      // Get the latest block info from master
+      try (CloseableResource<BlockMasterClient> masterClientResource =
+               mContext.acquireBlockMasterClientResource()) {
+        info = masterClientResource.get().getBlockInfo(blockId);
+      }
+    } else {
+      Metrics.BLOCK_MASTER_LOOKUPS_AVOIDED.inc();
     }
     List<BlockLocation> locations = info.getLocations();
     if (locations.isEmpty() && !options.getStatus().isPersisted()) {
@@ -153,6 +177,11 @@ public final class AlluxioBlockStore {
       GetWorkerOptions getWorkerOptions = GetWorkerOptions.defaults().setBlockId(info.getBlockId())
           .setBlockSize(info.getLength()).setBlockWorkerInfos(getEligibleWorkers());
       dataSource = policy.getWorker(getWorkerOptions);
+      if (dataSource == null) {
+        // The cached worker list may be stale, retry with the latest one
+        getWorkerOptions.setBlockWorkerInfos(mContext.getCachedWorkers(true));
+        dataSource = policy.getWorker(getWorkerOptions);
+      }
     } else { // Data will be read from Alluxio, determine which worker and if it is local
       // TODO(calvin): Get location via a policy
       List<TieredIdentity> tieredLocations =
@@ -227,6 +256,10 @@ public final class AlluxioBlockStore {
     FileWriteLocationPolicy locationPolicy = Preconditions.checkNotNull(options.getLocationPolicy(),
         PreconditionMessage.FILE_WRITE_LOCATION_POLICY_UNSPECIFIED);
     address = locationPolicy.getWorkerForNextBlock(getEligibleWorkers(), blockSize);
+    if (address == null) {
+      // The cached worker list may be stale, retry with the latest one
+      address = locationPolicy.getWorkerForNextBlock(mContext.getCachedWorkers(true), blockSize);
+    }
     if (address == null) {
       throw new UnavailableException(
           ExceptionMessage.NO_SPACE_FOR_BLOCK_ON_WORKER.getMessage(blockSize));
@@ -257,4 +290,32 @@ public final class AlluxioBlockStore {
       return blockMasterClientResource.get().getUsedBytes();
     }
   }
+
+  /**
+   * @param blockId the id of the block
+   * @param options the options carrying the file status
+   * @return the block info from the file status if it lists any location of the block, or null
+   */
+  @Nullable
+  private static BlockInfo getCachedInfo(long blockId, InStreamOptions options) {
+    for (FileBlockInfo fileBlockInfo : options.getStatus().getFileBlockInfos()) {
+      BlockInfo info = fileBlockInfo.getBlockInfo();
+      if (info != null && info.getBlockId() == blockId && !info.getLocations().isEmpty()) {
+        return info;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Class that contains metrics about AlluxioBlockStore.
+   */
+  @ThreadSafe
+  private static final class Metrics {
+    /** Block reads served with the locations in the file status, without a master lookup. */
+    private static final Counter BLOCK_MASTER_LOOKUPS_AVOIDED =
+        MetricsSystem.clientCounter("BlockMasterLookupsAvoided");
+
+    private Metrics() {} // prevent instantiation
+  }
 }
@@ -36,6 +36,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
@@ -248,15 +249,7 @@ public class BlockInStream extends InputStream implements BoundedStream, Seekabl
       return 0;
     }
 
-    readPacket();
-    if (mCurrentPacket == null) {
-      mEOF = true;
-    }
-    if (mEOF) {
-      closePacketReader();
-      Preconditions
-          .checkState(mPos >= mLength, PreconditionMessage.BLOCK_LENGTH_INCONSISTENT.toString(),
-              mId, mLength, mPos);
+    if (!readPacketUnlessEOF()) {
       return -1;
     }
     int toRead = Math.min(len, mCurrentPacket.readableBytes());
@@ -265,6 +258,29 @@ public class BlockInStream extends InputStream implements BoundedStream, Seekabl
     return toRead;
   }
 
+  /**
+   * Reads up to {@code buf.remaining()} bytes into the given buffer. The data is copied straight
+   * from the packets, so a direct buffer is filled without going through a byte array.
+   *
+   * @param buf the buffer to read into
+   * @return the number of bytes read, or -1 at the end of the block
+   */
+  public int read(ByteBuffer buf) throws IOException {
+    checkIfClosed();
+    Preconditions.checkArgument(buf != null, PreconditionMessage.ERR_READ_BUFFER_NULL);
+    if (!buf.hasRemaining()) {
+      return 0;
+    }
+
+    if (!readPacketUnlessEOF()) {
+      return -1;
+    }
+    int toRead = Math.min(buf.remaining(), mCurrentPacket.readableBytes());
+    mCurrentPacket.readBytes(buf);
+    mPos += toRead;
+    return toRead;
+  }
+
   @Override
   public int positionedRead(long pos, byte[] b, int off, int len) throws IOException {
     if (len == 0) {
@@ -350,6 +366,17 @@ public class BlockInStream extends InputStream implements BoundedStream, Seekabl
     mClosed = true;
   }
 
+  /**
+   * Starts reading from the current position and waits for the first packet, without consuming
+   * any data. This lets the data source start streaming before the data is needed.
+   */
+  public void prefetch() throws IOException {
+    checkIfClosed();
+    if (!mEOF && mPos < mLength) {
+      readPacket();
+    }
+  }
+
   /**
    * @return whether the packet in stream is reading packets directly from a local file
    */
@@ -374,6 +401,26 @@ public class BlockInStream extends InputStream implements BoundedStream, Seekabl
     }
   }
 
+  /**
+   * Reads a new packet if needed, and closes the packet reader if the end of the block is reached.
+   *
+   * @return whether there is a packet to read from
+   */
+  private boolean readPacketUnlessEOF() throws IOException {
+    readPacket();
+    if (mCurrentPacket == null) {
+      mEOF = true;
+    }
+    if (mEOF) {
+      closePacketReader();
+      Preconditions
+          .checkState(mPos >= mLength, PreconditionMessage.BLOCK_LENGTH_INCONSISTENT.toString(),
+              mId, mLength, mPos);
+      return false;
+    }
+    return true;
+  }
+
   /**
    * Close the current packet reader.
    */
@@ -15,16 +15,21 @@ import alluxio.Configuration;
 import alluxio.PropertyKey;
 import alluxio.client.file.FileSystemContext;
 import alluxio.client.file.options.InStreamOptions;
+import alluxio.metrics.MetricsSystem;
 import alluxio.network.netty.NettyRPC;
 import alluxio.network.netty.NettyRPCContext;
 import alluxio.network.protocol.databuffer.DataBuffer;
-import alluxio.network.protocol.databuffer.DataByteBuffer;
+import alluxio.network.protocol.databuffer.DataNettyBufferV2;
 import alluxio.proto.dataserver.Protocol;
+import alluxio.util.io.BufferUtils;
 import alluxio.util.proto.ProtoMessage;
 import alluxio.wire.WorkerNetAddress;
 import alluxio.worker.block.io.LocalFileBlockReader;
 
+import com.codahale.metrics.Counter;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 
 import java.io.IOException;
@@ -33,12 +38,13 @@ import java.nio.ByteBuffer;
 import javax.annotation.concurrent.NotThreadSafe;
 
 /**
- * A packet reader that simply reads packets from a local file.
+ * A packet reader that simply reads packets from a local file. The packets are slices of a memory
+ * mapped window of the file, which is shared by the packet readers of the same {@link Factory}.
  */
 @NotThreadSafe
 public final class LocalFilePacketReader implements PacketReader {
-  /** The file reader to read a local block. */
-  private final LocalFileBlockReader mReader;
+  /** The factory holding the file reader and the mapped window of the local block. */
+  private final Factory mFactory;
   private final long mEnd;
   private final long mPacketSize;
   private long mPos;
@@ -47,27 +53,33 @@ public final class LocalFilePacketReader implements PacketReader {
   /**
    * Creates an instance of {@link LocalFilePacketReader}.
    *
-   * @param reader the file reader to the block path
+   * @param factory the factory holding the file reader to the block path
    * @param offset the offset
    * @param len the length to read
    * @param packetSize the packet size
    */
-  private LocalFilePacketReader(LocalFileBlockReader reader, long offset, long len, long packetSize)
-      throws IOException {
-    mReader = reader;
+  private LocalFilePacketReader(Factory factory, long offset, long len, long packetSize) {
+    mFactory = factory;
     Preconditions.checkArgument(packetSize > 0);
     mPos = offset;
-    mEnd = Math.min(mReader.getLength(), offset + len);
+    mEnd = Math.min(mFactory.mReader.getLength(), offset + len);
     mPacketSize = packetSize;
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * The returned packet is only valid until the next packet is read or the factory is closed,
+   * because either may unmap the window it points into.
+   */
   @Override
   public DataBuffer readPacket() throws IOException {
     if (mPos >= mEnd) {
       return null;
     }
-    ByteBuffer buffer = mReader.read(mPos, Math.min(mPacketSize, mEnd - mPos));
-    DataBuffer dataBuffer = new DataByteBuffer(buffer, buffer.remaining());
+    ByteBuffer buffer = mFactory.slice(mPos, (int) Math.min(mPacketSize, mEnd - mPos));
+    // The wrapped buffer does not free the slice on release, the window is unmapped by the factory
+    DataBuffer dataBuffer = new DataNettyBufferV2(Unpooled.wrappedBuffer(buffer));
     mPos += dataBuffer.getLength();
     return dataBuffer;
   }
@@ -83,7 +95,7 @@ public final class LocalFilePacketReader implements PacketReader {
       return;
     }
     mClosed = true;
-    mReader.decreaseUsageCount();
+    mFactory.mReader.decreaseUsageCount();
   }
 
   /**
@@ -99,7 +111,13 @@ public final class LocalFilePacketReader implements PacketReader {
     private final long mBlockId;
     private final String mPath;
     private final long mPacketSize;
+    /** The size of the windows of the block file mapped at a time. */
+    private final long mWindowSize;
     private LocalFileBlockReader mReader;
+    /** The mapped window of the block file, or null if nothing is mapped. */
+    private ByteBuffer mWindow;
+    /** The offset in the block file of {@link #mWindow}. */
+    private long mWindowStart;
     private boolean mClosed;
 
     /**
@@ -117,6 +135,9 @@ public final class LocalFilePacketReader implements PacketReader {
       mAddress = address;
       mBlockId = blockId;
       mPacketSize = packetSize;
+      mWindowSize = Math.min(Integer.MAX_VALUE,
+          Math.max(packetSize, Configuration.getBytes(
+              PropertyKey.USER_LOCAL_READER_MMAP_WINDOW_SIZE_BYTES)));
 
       mChannel = context.acquireNettyChannel(address);
       Protocol.LocalBlockOpenRequest request =
@@ -141,7 +162,54 @@ public final class LocalFilePacketReader implements PacketReader {
       }
       Preconditions.checkState(mReader.getUsageCount() == 0);
       mReader.increaseUsageCount();
-      return new LocalFilePacketReader(mReader, offset, len, mPacketSize);
+      return new LocalFilePacketReader(this, offset, len, mPacketSize);
+    }
+
+    /**
+     * Returns a slice of the block file, mapping the window which covers it if it is not mapped
+     * yet. Windows are aligned to the window size unless the slice spans two of them.
+     *
+     * @param offset the offset in the block file
+     * @param len the length of the slice
+     * @return the slice, only valid until another window is mapped or the factory is closed
+     */
+    private ByteBuffer slice(long offset, int len) throws IOException {
+      if (mWindow == null || offset < mWindowStart
+          || offset + len > mWindowStart + mWindow.capacity()) {
+        unmapWindow();
+        long start = offset - offset % mWindowSize;
+        if (offset + len > start + mWindowSize) {
+          start = offset;
+        }
+        long size = Math.min(mWindowSize, mReader.getLength() - start);
+        mWindow = mReader.read(start, size);
+        mWindowStart = start;
+        Metrics.LOCAL_READER_MMAP_CALLS.inc();
+        Metrics.LOCAL_READER_MAPPED_BYTES.inc(size);
+      }
+      ByteBuffer slice = mWindow.duplicate();
+      slice.position((int) (offset - mWindowStart));
+      slice.limit(slice.position() + len);
+      return slice.slice();
+    }
+
+    /**
+     * Unmaps the current window, if any.
+     */
+    private void unmapWindow() {
+      if (mWindow != null) {
+        Metrics.LOCAL_READER_MAPPED_BYTES.dec(mWindow.capacity());
+        BufferUtils.cleanDirectBuffer(mWindow);
+        mWindow = null;
+      }
+    }
+
+    /**
+     * @return the offset in the block file of the mapped window, or -1 if nothing is mapped
+     */
+    @VisibleForTesting
+    long getWindowStart() {
+      return mWindow == null ? -1 : mWindowStart;
     }
 
     @Override
@@ -154,6 +222,7 @@ public final class LocalFilePacketReader implements PacketReader {
       if (mClosed) {
         return;
       }
+      unmapWindow();
       if (mReader != null) {
         mReader.close();
       }
@@ -168,5 +237,18 @@ public final class LocalFilePacketReader implements PacketReader {
       }
     }
   }
-}
 
+  /**
+   * Class that contains metrics about LocalFilePacketReader.
+   */
+  private static final class Metrics {
+    /** Number of times a window of a local block file was memory mapped. */
+    private static final Counter LOCAL_READER_MMAP_CALLS =
+        MetricsSystem.clientCounter("LocalReaderMmapCalls");
+    /** Number of bytes of local block files currently memory mapped. */
+    private static final Counter LOCAL_READER_MAPPED_BYTES =
+        MetricsSystem.clientCounter("LocalReaderMappedBytes");
+
+    private Metrics() {} // prevent instantiation
+  }
+}
@@ -104,6 +104,7 @@ public class BaseFileSystem implements FileSystem {
     } catch (AlluxioStatusException e) {
       throw e.toAlluxioException();
     } finally {
+      mFileSystemContext.getMetadataCache().invalidate(path);
       mFileSystemContext.releaseMasterClient(masterClient);
     }
   }
@@ -135,6 +136,7 @@ public class BaseFileSystem implements FileSystem {
     } catch (AlluxioStatusException e) {
       throw e.toAlluxioException();
     } finally {
+      mFileSystemContext.getMetadataCache().invalidate(path);
       mFileSystemContext.releaseMasterClient(masterClient);
     }
     OutStreamOptions outStreamOptions = options.toOutStreamOptions();
@@ -171,6 +173,7 @@ public class BaseFileSystem implements FileSystem {
     } catch (AlluxioStatusException e) {
       throw e.toAlluxioException();
     } finally {
+      mFileSystemContext.getMetadataCache().invalidate(path);
       mFileSystemContext.releaseMasterClient(masterClient);
     }
   }
@@ -184,10 +187,17 @@ public class BaseFileSystem implements FileSystem {
   @Override
   public boolean exists(AlluxioURI path, ExistsOptions options)
       throws InvalidPathException, IOException, AlluxioException {
+    MetadataCache cache = mFileSystemContext.getMetadataCache();
+    boolean useCache = useMetadataCache(options.getCommonOptions(), options.getLoadMetadataType());
+    if (useCache && cache.getStatus(path) != null) {
+      return true;
+    }
+    long cacheVersion = cache.getVersion();
     FileSystemMasterClient masterClient = mFileSystemContext.acquireMasterClient();
     try {
       // TODO(calvin): Make this more efficient
-      masterClient.getStatus(path, options.toGetStatusOptions());
+      URIStatus status = masterClient.getStatus(path, options.toGetStatusOptions());
+      cache.putStatus(path, status, cacheVersion);
       return true;
     } catch (NotFoundException e) {
       return false;
@@ -224,6 +234,7 @@ public class BaseFileSystem implements FileSystem {
     } catch (AlluxioStatusException e) {
       throw e.toAlluxioException();
     } finally {
+      mFileSystemContext.getMetadataCache().invalidate(path);
       mFileSystemContext.releaseMasterClient(masterClient);
     }
   }
@@ -237,9 +248,19 @@ public class BaseFileSystem implements FileSystem {
   @Override
   public URIStatus getStatus(AlluxioURI path, GetStatusOptions options)
       throws FileDoesNotExistException, IOException, AlluxioException {
+    MetadataCache cache = mFileSystemContext.getMetadataCache();
+    if (useMetadataCache(options.getCommonOptions(), options.getLoadMetadataType())) {
+      URIStatus status = cache.getStatus(path);
+      if (status != null) {
+        return status;
+      }
+    }
+    long cacheVersion = cache.getVersion();
     FileSystemMasterClient masterClient = mFileSystemContext.acquireMasterClient();
     try {
-      return masterClient.getStatus(path, options);
+      URIStatus status = masterClient.getStatus(path, options);
+      cache.putStatus(path, status, cacheVersion);
+      return status;
     } catch (NotFoundException e) {
       throw new FileDoesNotExistException(ExceptionMessage.PATH_DOES_NOT_EXIST.getMessage(path));
     } catch (UnavailableException e) {
@@ -260,10 +281,27 @@ public class BaseFileSystem implements FileSystem {
   @Override
   public List<URIStatus> listStatus(AlluxioURI path, ListStatusOptions options)
       throws FileDoesNotExistException, IOException, AlluxioException {
+    // Batches are served from a cached complete listing, so paging through a directory which
+    // fits in the first batch only asks the master once
+    MetadataCache cache = mFileSystemContext.getMetadataCache();
+    String startAfter = options.getStartAfter();
+    int batchSize = options.getBatchSize();
+    if (useMetadataCache(options.getCommonOptions(), options.getLoadMetadataType())) {
+      List<URIStatus> statuses = cache.getListing(path, startAfter, batchSize);
+      if (statuses != null) {
+        return statuses;
+      }
+    }
+    long cacheVersion = cache.getVersion();
     FileSystemMasterClient masterClient = mFileSystemContext.acquireMasterClient();
     // TODO(calvin): Fix the exception handling in the master
     try {
-      return masterClient.listStatus(path, options);
+      List<URIStatus> statuses = masterClient.listStatus(path, options);
+      // The first batch is the complete listing unless it is exactly as large as requested
+      if (startAfter.isEmpty() && (batchSize <= 0 || statuses.size() != batchSize)) {
+        cache.putListing(path, statuses, cacheVersion);
+      }
+      return statuses;
     } catch (NotFoundException e) {
       throw new FileDoesNotExistException(ExceptionMessage.PATH_DOES_NOT_EXIST.getMessage(path));
     } catch (UnavailableException e) {
@@ -307,6 +345,7 @@ public class BaseFileSystem implements FileSystem {
     } catch (AlluxioStatusException e) {
       throw e.toAlluxioException();
     } finally {
+      mFileSystemContext.getMetadataCache().invalidate(path);
       mFileSystemContext.releaseMasterClient(masterClient);
     }
   }
@@ -330,6 +369,7 @@ public class BaseFileSystem implements FileSystem {
     } catch (AlluxioStatusException e) {
       throw e.toAlluxioException();
     } finally {
+      mFileSystemContext.getMetadataCache().invalidate(alluxioPath);
       mFileSystemContext.releaseMasterClient(masterClient);
     }
   }
@@ -387,6 +427,8 @@ public class BaseFileSystem implements FileSystem {
     } catch (AlluxioStatusException e) {
       throw e.toAlluxioException();
     } finally {
+      mFileSystemContext.getMetadataCache().invalidate(src);
+      mFileSystemContext.getMetadataCache().invalidate(dst);
       mFileSystemContext.releaseMasterClient(masterClient);
     }
   }
@@ -411,6 +453,7 @@ public class BaseFileSystem implements FileSystem {
     } catch (AlluxioStatusException e) {
       throw e.toAlluxioException();
     } finally {
+      mFileSystemContext.getMetadataCache().invalidate(path);
       mFileSystemContext.releaseMasterClient(masterClient);
     }
   }
@@ -432,7 +475,21 @@ public class BaseFileSystem implements FileSystem {
     } catch (AlluxioStatusException e) {
       throw e.toAlluxioException();
     } finally {
+      mFileSystemContext.getMetadataCache().invalidate(path);
       mFileSystemContext.releaseMasterClient(masterClient);
     }
   }
+
+  /**
+   * Cached metadata may be stale with respect to the UFS, so it is only served for operations
+   * which neither sync nor force a load of metadata from the UFS.
+   *
+   * @param commonOptions the common options of the operation
+   * @param loadMetadataType the load metadata type of the operation
+   * @return whether the operation may be served from the metadata cache
+   */
+  private static boolean useMetadataCache(CommonOptions commonOptions,
+      LoadMetadataType loadMetadataType) {
+    return commonOptions.getSyncIntervalMs() < 0 && loadMetadataType != LoadMetadataType.Always;
+  }
 }
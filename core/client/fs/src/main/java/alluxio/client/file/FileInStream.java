@@ -28,13 +28,30 @@ import alluxio.util.proto.ProtoMessage;
 import alluxio.wire.WorkerNetAddress;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
 import io.netty.channel.Channel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
-
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.NotThreadSafe;
 
 /**
@@ -56,6 +73,12 @@ import javax.annotation.concurrent.NotThreadSafe;
  * sync between the two until {@link #updateStream()} is called.
  * 3. {@link #updateStream()} is only called when followed by a read request. Thus, if a
  * {@link #mBlockInStream} is created, it is guaranteed we read at least one byte from it.
+ * 4. If read-ahead is enabled, reading a block to its end is taken as a sign of a sequential
+ * scan, and the stream of the following block is opened in the background. {@link #mReadAhead}
+ * holds it until {@link #updateStream()} reaches that block, or until a seek discards it.
+ * 5. Positioned reads do not touch {@link #mBlockInStream}. They use separate block streams which
+ * are kept in {@link #mPositionedReadStreams} across calls. The least recently used of them is
+ * closed when there are too many, and the others are closed with this stream.
  */
 @PublicApi
 @NotThreadSafe
@@ -63,6 +86,9 @@ public class FileInStream extends InputStream implements BoundedStream, Position
     Seekable {
   private static final Logger LOG = LoggerFactory.getLogger(FileInStream.class);
 
+  /** The largest read of a vectored read, which is bounded by the largest byte array. */
+  private static final int MAX_VECTORED_READ_BYTES = Integer.MAX_VALUE - 8;
+
   private final URIStatus mStatus;
   private final InStreamOptions mOptions;
   private final AlluxioBlockStore mBlockStore;
@@ -79,6 +105,30 @@ public class FileInStream extends InputStream implements BoundedStream, Position
   private long mPosition;
   /** Underlying block stream, null if a position change has invalidated the previous stream. */
   private BlockInStream mBlockInStream;
+  /** Whether mBlockInStream was opened with the latest block locations from the master. */
+  private boolean mBlockInStreamRefreshed;
+
+  /** Whether to open the next block ahead of time during sequential reads. */
+  private final boolean mReadAheadEnabled;
+  /** The stream of the next block being opened in the background, or null. */
+  private CompletableFuture<BlockInStream> mReadAhead;
+  /** The offset in the file of the block {@link #mReadAhead} reads. */
+  private long mReadAheadPos;
+
+  /**
+   * Block streams kept open for positioned reads, by block index, in the order of their last use.
+   * A positioned read takes the stream of its block out of the map while reading, so a stream is
+   * never used by two threads at the same time.
+   */
+  @GuardedBy("mPositionedReadStreams")
+  private final LinkedHashMap<Integer, BlockInStream> mPositionedReadStreams =
+      new LinkedHashMap<>(16, 0.75f, true);
+  /** The maximum number of streams in {@link #mPositionedReadStreams}. */
+  private final int mMaxPositionedReadStreams;
+  /** Largest gap between ranges of a vectored read that are coalesced into one read. */
+  private final long mVectoredMergeGapBytes;
+  /** Largest size of a coalesced read of a vectored read. */
+  private final long mVectoredMergeMaxBytes;
 
   protected FileInStream(URIStatus status, InStreamOptions options, FileSystemContext context) {
     mStatus = status;
@@ -88,6 +138,13 @@ public class FileInStream extends InputStream implements BoundedStream, Position
 
     mLength = mStatus.getLength();
     mBlockSize = mStatus.getBlockSizeBytes();
+    mReadAheadEnabled = Configuration.getBoolean(PropertyKey.USER_FILE_READ_AHEAD_ENABLED);
+    mVectoredMergeGapBytes =
+        Configuration.getBytes(PropertyKey.USER_FILE_READ_VECTORED_MERGE_GAP_BYTES);
+    mVectoredMergeMaxBytes = Math.min(MAX_VECTORED_READ_BYTES,
+        Configuration.getBytes(PropertyKey.USER_FILE_READ_VECTORED_MERGE_MAX_BYTES));
+    mMaxPositionedReadStreams =
+        Configuration.getInt(PropertyKey.USER_FILE_POSITIONED_READ_STREAMS_MAX);
 
     mPosition = 0;
     mBlockInStream = null;
@@ -100,7 +157,13 @@ public class FileInStream extends InputStream implements BoundedStream, Position
       return -1;
     }
     updateStream();
-    int result = mBlockInStream.read();
+    int result;
+    try {
+      result = mBlockInStream.read();
+    } catch (IOException e) {
+      refreshStream(e);
+      result = mBlockInStream.read();
+    }
     if (result != -1) {
       mPosition++;
     }
@@ -128,7 +191,13 @@ public class FileInStream extends InputStream implements BoundedStream, Position
     int currentOffset = off;
     while (bytesLeft > 0 && mPosition != mLength) {
       updateStream();
-      int bytesRead = mBlockInStream.read(b, currentOffset, bytesLeft);
+      int bytesRead;
+      try {
+        bytesRead = mBlockInStream.read(b, currentOffset, bytesLeft);
+      } catch (IOException e) {
+        refreshStream(e);
+        bytesRead = mBlockInStream.read(b, currentOffset, bytesLeft);
+      }
       if (bytesRead > 0) {
         bytesLeft -= bytesRead;
         currentOffset += bytesRead;
@@ -138,6 +207,40 @@ public class FileInStream extends InputStream implements BoundedStream, Position
     return len - bytesLeft;
   }
 
+  /**
+   * Reads up to {@code buf.remaining()} bytes into the given buffer, advancing its position. The
+   * data is copied straight from the block streams, so a direct buffer is filled without going
+   * through an intermediate byte array.
+   *
+   * @param buf the buffer to read into
+   * @return the number of bytes read, or -1 at the end of the file
+   */
+  public int read(ByteBuffer buf) throws IOException {
+    Preconditions.checkArgument(buf != null, PreconditionMessage.ERR_READ_BUFFER_NULL);
+    int len = buf.remaining();
+    if (len == 0) {
+      return 0;
+    }
+    if (mPosition == mLength) { // at end of file
+      return -1;
+    }
+
+    while (buf.hasRemaining() && mPosition != mLength) {
+      updateStream();
+      int bytesRead;
+      try {
+        bytesRead = mBlockInStream.read(buf);
+      } catch (IOException e) {
+        refreshStream(e);
+        bytesRead = mBlockInStream.read(buf);
+      }
+      if (bytesRead > 0) {
+        mPosition += bytesRead;
+      }
+    }
+    return len - buf.remaining();
+  }
+
   @Override
   public long skip(long n) throws IOException {
     if (n <= 0) {
@@ -151,7 +254,9 @@ public class FileInStream extends InputStream implements BoundedStream, Position
 
   @Override
   public void close() throws IOException {
+    cancelReadAhead();
     closeBlockInStream(mBlockInStream);
+    closePositionedReadStreams();
   }
 
   /* Bounded Stream methods */
@@ -176,22 +281,219 @@ public class FileInStream extends InputStream implements BoundedStream, Position
       if (pos >= mLength) {
         break;
       }
-      long blockId = mStatus.getBlockIds().get(Math.toIntExact(pos / mBlockSize));
-      BlockInStream stream = null;
+      long offset = pos % mBlockSize;
+      int toRead = (int) Math.min(mBlockSize - offset, len);
+      int bytesRead =
+          positionedReadBlock(Math.toIntExact(pos / mBlockSize), offset, b, off, toRead);
+      pos += bytesRead;
+      off += bytesRead;
+      len -= bytesRead;
+    }
+    return lenCopy - len;
+  }
+
+  /**
+   * Reads a list of ranges of the file, which may overlap and need not be sorted. Ranges closer to
+   * each other than {@link PropertyKey#USER_FILE_READ_VECTORED_MERGE_GAP_BYTES} are coalesced into
+   * a single read, and the reads of different blocks are issued in parallel. Like
+   * {@link #positionedRead}, this does not change the position of the stream.
+   *
+   * @param ranges the ranges to read
+   * @return a buffer with the data of each range, in the order of the given ranges
+   * @throws EOFException if a range extends past the end of the file
+   * @throws IllegalArgumentException if a range is too large to be read into a single buffer
+   */
+  public List<ByteBuffer> readVectored(List<FileRange> ranges) throws IOException {
+    for (FileRange range : ranges) {
+      Preconditions.checkArgument(range.getLength() <= MAX_VECTORED_READ_BYTES,
+          "Range %s is larger than the largest vectored read of %s bytes, split it into smaller "
+              + "ranges", range, MAX_VECTORED_READ_BYTES);
+      if (range.getEnd() > mLength) {
+        throw new EOFException(String.format(
+            "Range %s extends past the end of the file of length %d", range, mLength));
+      }
+    }
+    // Coalesce the sorted ranges and remember which read serves each of them
+    List<FileRange> sorted = new ArrayList<>(ranges);
+    sorted.sort(Comparator.comparingLong(FileRange::getOffset));
+    List<VectoredRead> reads = new ArrayList<>();
+    Map<FileRange, VectoredRead> readOfRange = new HashMap<>();
+    VectoredRead read = null;
+    for (FileRange range : sorted) {
+      if (read == null || range.getOffset() > read.mEnd + mVectoredMergeGapBytes
+          || Math.max(read.mEnd, range.getEnd()) - read.mOffset > mVectoredMergeMaxBytes) {
+        read = new VectoredRead(range.getOffset(), range.getEnd());
+        reads.add(read);
+      } else {
+        read.mEnd = Math.max(read.mEnd, range.getEnd());
+      }
+      readOfRange.put(range, read);
+    }
+    // Split the coalesced reads by block, so that each block is read by a single thread
+    Map<Integer, List<VectoredRead>> readsOfBlock = new TreeMap<>();
+    for (VectoredRead r : reads) {
+      r.mData = new byte[Math.toIntExact(r.mEnd - r.mOffset)];
+      for (long pos = r.mOffset; pos < r.mEnd; pos = (pos / mBlockSize + 1) * mBlockSize) {
+        readsOfBlock.computeIfAbsent(Math.toIntExact(pos / mBlockSize), k -> new ArrayList<>())
+            .add(r);
+      }
+    }
+    // Read the first block in the calling thread and the others in the background, or in the
+    // calling thread as well when all the background threads are busy
+    List<FutureTask<Void>> tasks = new ArrayList<>();
+    for (Map.Entry<Integer, List<VectoredRead>> entry : readsOfBlock.entrySet()) {
+      FutureTask<Void> task = new FutureTask<>(() -> {
+        readVectoredBlock(entry.getKey(), entry.getValue());
+        return null;
+      });
+      if (!tasks.isEmpty()) {
+        mContext.getVectoredReadExecutor().execute(task);
+      }
+      tasks.add(task);
+    }
+    if (!tasks.isEmpty()) {
+      tasks.get(0).run();
+    }
+    waitForAll(tasks);
+
+    List<ByteBuffer> buffers = new ArrayList<>(ranges.size());
+    for (FileRange range : ranges) {
+      VectoredRead r = readOfRange.get(range);
+      buffers.add(ByteBuffer
+          .wrap(r.mData, (int) (range.getOffset() - r.mOffset), range.getLength()).slice());
+    }
+    return buffers;
+  }
+
+  /**
+   * Reads the parts of the given coalesced reads which fall into a block.
+   *
+   * @param blockIndex the index of the block in the file
+   * @param reads the reads overlapping the block
+   */
+  private void readVectoredBlock(int blockIndex, List<VectoredRead> reads) throws IOException {
+    long blockStart = blockIndex * mBlockSize;
+    for (VectoredRead r : reads) {
+      long pos = Math.max(r.mOffset, blockStart);
+      long end = Math.min(r.mEnd, blockStart + mBlockSize);
+      while (pos < end) {
+        pos += positionedReadBlock(blockIndex, pos - blockStart, r.mData,
+            (int) (pos - r.mOffset), (int) (end - pos));
+      }
+    }
+  }
+
+  /**
+   * Waits for all the given tasks to finish, and rethrows the failure of the first failed one.
+   *
+   * @param futures the futures of the tasks
+   */
+  private static void waitForAll(List<? extends Future<Void>> futures) throws IOException {
+    Throwable failure = null;
+    boolean interrupted = false;
+    for (Future<Void> future : futures) {
+      while (true) {
+        try {
+          future.get();
+          break;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        } catch (ExecutionException e) {
+          if (failure == null) {
+            failure = e.getCause();
+          }
+          break;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    if (failure != null) {
+      Throwables.propagateIfPossible(failure, IOException.class);
+      throw new IOException(failure);
+    }
+  }
+
+  /**
+   * Reads from a single block, with the stream of the block kept open from previous positioned
+   * reads if there is one.
+   *
+   * @param blockIndex the index of the block in the file
+   * @param offset the offset in the block to read from
+   * @param b the buffer to read into
+   * @param off the offset in the buffer
+   * @param len the number of bytes to read, not past the end of the block
+   * @return the number of bytes read
+   */
+  private int positionedReadBlock(int blockIndex, long offset, byte[] b, int off, int len)
+      throws IOException {
+    long blockId = mStatus.getBlockIds().get(blockIndex);
+    BlockInStream stream;
+    synchronized (mPositionedReadStreams) {
+      stream = mPositionedReadStreams.remove(blockIndex);
+    }
+    try {
+      if (stream == null) {
+        stream = mBlockStore.getInStream(blockId, mOptions, false);
+      }
+      int bytesRead;
+      try {
+        bytesRead = stream.positionedRead(offset, b, off, len);
+      } catch (IOException e) {
+        // The block locations in the file status may be stale, retry with the latest ones
+        LOG.debug("Failed to read block {}, retrying with the latest block locations", blockId,
+            e);
+        BlockInStream failed = stream;
+        stream = null;
+        failed.close();
+        stream = mBlockStore.getInStream(blockId, mOptions, true);
+        bytesRead = stream.positionedRead(offset, b, off, len);
+      }
+      Preconditions.checkState(bytesRead > 0, "No data is read before EOF");
+      // Keep the stream open for the next read of the block, or close it if another thread kept a
+      // stream of the same block open in the meantime
+      synchronized (mPositionedReadStreams) {
+        if (!mPositionedReadStreams.containsKey(blockIndex)) {
+          mPositionedReadStreams.put(blockIndex, stream);
+          stream = null;
+          if (mPositionedReadStreams.size() > mMaxPositionedReadStreams) {
+            Iterator<BlockInStream> eldest = mPositionedReadStreams.values().iterator();
+            stream = eldest.next();
+            eldest.remove();
+          }
+        }
+      }
+      return bytesRead;
+    } finally {
+      closeBlockInStream(stream);
+    }
+  }
+
+  /**
+   * Closes the block streams kept open for positioned reads.
+   */
+  private void closePositionedReadStreams() throws IOException {
+    List<BlockInStream> streams;
+    synchronized (mPositionedReadStreams) {
+      streams = new ArrayList<>(mPositionedReadStreams.values());
+      mPositionedReadStreams.clear();
+    }
+    IOException exception = null;
+    for (BlockInStream stream : streams) {
       try {
-        stream = mBlockStore.getInStream(blockId, mOptions);
-        long offset = pos % mBlockSize;
-        int bytesRead =
-            stream.positionedRead(offset, b, off, (int) Math.min(mBlockSize - offset, len));
-        Preconditions.checkState(bytesRead > 0, "No data is read before EOF");
-        pos += bytesRead;
-        off += bytesRead;
-        len -= bytesRead;
-      } finally {
         closeBlockInStream(stream);
+      } catch (IOException e) {
+        if (exception == null) {
+          exception = e;
+        } else {
+          exception.addSuppressed(e);
+        }
       }
     }
-    return lenCopy - len;
+    if (exception != null) {
+      throw exception;
+    }
   }
 
   /* Seekable methods */
@@ -218,6 +520,7 @@ public class FileInStream extends InputStream implements BoundedStream, Position
     if (delta <= mBlockInStream.remaining() && delta >= -mBlockInStream.getPos()) { // within block
       mBlockInStream.seek(mBlockInStream.getPos() + delta);
     } else { // close the underlying stream as the new position is no longer in bounds
+      cancelReadAhead();
       closeBlockInStream(mBlockInStream);
     }
     mPosition += delta;
@@ -232,20 +535,148 @@ public class FileInStream extends InputStream implements BoundedStream, Position
       return;
     }
 
+    boolean sequential = false;
     if (mBlockInStream != null && mBlockInStream.remaining() == 0) { // current stream is done
       closeBlockInStream(mBlockInStream);
+      sequential = true;
+    }
+
+    if (!useReadAheadStream()) {
+      openStream(false);
     }
+    if (sequential && mReadAheadEnabled) {
+      startReadAhead();
+    }
+  }
 
-    /* Create a new stream to read from mPosition. */
+  /**
+   * Starts opening the stream of the block following the one at mPosition in the background, and
+   * fetching its first packet. Nothing is read ahead when all the background threads are busy.
+   */
+  private void startReadAhead() {
+    long blockIndex = mPosition / mBlockSize + 1;
+    if (blockIndex * mBlockSize >= mLength) {
+      return;
+    }
+    long blockId = mStatus.getBlockIds().get(Math.toIntExact(blockIndex));
+    CompletableFuture<BlockInStream> readAhead = new CompletableFuture<>();
+    try {
+      mContext.getReadAheadExecutor().execute(() -> {
+        BlockInStream stream = null;
+        try {
+          stream = mBlockStore.getInStream(blockId, mOptions, false);
+          stream.prefetch();
+          readAhead.complete(stream);
+        } catch (Throwable t) { // must catch Throwable to always complete the future
+          if (stream != null) {
+            try {
+              stream.close();
+            } catch (IOException e) {
+              t.addSuppressed(e);
+            }
+          }
+          readAhead.completeExceptionally(t);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      // The block is opened when it is read instead of waiting for a thread to read it ahead
+      LOG.debug("Skipped reading ahead block {}, all read-ahead threads are busy", blockId);
+      return;
+    }
+    mReadAhead = readAhead;
+    mReadAheadPos = blockIndex * mBlockSize;
+  }
+
+  /**
+   * Takes the stream opened ahead of time as mBlockInStream if it reads the block at mPosition,
+   * and discards it otherwise.
+   *
+   * @return whether mBlockInStream was set from the read-ahead stream
+   */
+  private boolean useReadAheadStream() throws IOException {
+    if (mReadAhead == null) {
+      return false;
+    }
+    if (mPosition / mBlockSize != mReadAheadPos / mBlockSize) {
+      cancelReadAhead();
+      return false;
+    }
+    CompletableFuture<BlockInStream> readAhead = mReadAhead;
+    mReadAhead = null;
+    try {
+      mBlockInStream = readAhead.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      closeWhenDone(readAhead);
+      return false;
+    } catch (ExecutionException e) {
+      LOG.debug("Failed to open block at offset {} ahead of time", mReadAheadPos, e.getCause());
+      return false;
+    }
+    mBlockInStreamRefreshed = false;
+    mBlockInStream.seek(mPosition % mBlockSize);
+    return true;
+  }
+
+  /**
+   * Discards the stream being opened ahead of time, if any.
+   */
+  private void cancelReadAhead() {
+    if (mReadAhead != null) {
+      closeWhenDone(mReadAhead);
+      mReadAhead = null;
+    }
+  }
+
+  private static void closeWhenDone(CompletableFuture<BlockInStream> readAhead) {
+    readAhead.whenComplete((stream, t) -> {
+      if (stream != null) {
+        try {
+          stream.close();
+        } catch (IOException e) {
+          LOG.warn("Failed to close block stream {} opened ahead of time: {}", stream.getId(),
+              e.getMessage());
+        }
+      }
+    });
+  }
+
+  /**
+   * Creates a new block stream to read from mPosition.
+   *
+   * @param refresh whether to fetch the latest block locations from the master rather than use
+   *        the ones in the file status
+   */
+  private void openStream(boolean refresh) throws IOException {
     // Calculate block id.
     long blockId = mStatus.getBlockIds().get(Math.toIntExact(mPosition / mBlockSize));
     // Create stream
-    mBlockInStream = mBlockStore.getInStream(blockId, mOptions);
+    mBlockInStream = mBlockStore.getInStream(blockId, mOptions, refresh);
+    mBlockInStreamRefreshed = refresh;
     // Set the stream to the correct position.
     long offset = mPosition % mBlockSize;
     mBlockInStream.seek(offset);
   }
 
+  /**
+   * Reopens the current block stream with the latest block locations from the master after a read
+   * from it failed. The locations in the file status may be stale, for example when the block has
+   * been evicted from the worker or the worker was lost.
+   *
+   * @param e the exception of the failed read, rethrown if the stream was already refreshed
+   */
+  private void refreshStream(IOException e) throws IOException {
+    if (mBlockInStreamRefreshed) {
+      throw e;
+    }
+    LOG.debug("Failed to read block {}, retrying with the latest block locations",
+        mBlockInStream.getId(), e);
+    BlockInStream failed = mBlockInStream;
+    mBlockInStream = null;
+    failed.close();
+    openStream(true);
+  }
+
   private void closeBlockInStream(BlockInStream stream) throws IOException {
     if (stream != null) {
       // Get relevant information from the stream.
@@ -295,4 +726,21 @@ public class FileInStream extends InputStream implements BoundedStream, Position
       }
     }
   }
+
+  /**
+   * A read of a vectored read, serving one or more coalesced ranges.
+   */
+  private static final class VectoredRead {
+    /** Offset in the file of the first byte to read. */
+    private final long mOffset;
+    /** Offset in the file right after the last byte to read. */
+    private long mEnd;
+    /** The data read. */
+    private byte[] mData;
+
+    private VectoredRead(long offset, long end) {
+      mOffset = offset;
+      mEnd = end;
+    }
+  }
 }
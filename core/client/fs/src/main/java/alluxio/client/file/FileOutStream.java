@@ -166,6 +166,7 @@ public class FileOutStream extends AbstractOutStream {
       throw mCloser.rethrow(e); // IOException will be thrown as-is
     } finally {
       mClosed = true;
+      mContext.getMetadataCache().invalidate(mUri);
       mCloser.close();
     }
   }
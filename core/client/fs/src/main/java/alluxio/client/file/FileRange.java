@@ -0,0 +1,83 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file;
+
+import alluxio.annotation.PublicApi;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A range of bytes in a file, to be read by {@link FileInStream#readVectored}.
+ */
+@PublicApi
+@ThreadSafe
+public final class FileRange {
+  private final long mOffset;
+  private final int mLength;
+
+  /**
+   * @param offset the offset of the range in the file
+   * @param length the length of the range in bytes
+   */
+  public FileRange(long offset, int length) {
+    Preconditions.checkArgument(offset >= 0, "offset must be non-negative: %s", offset);
+    Preconditions.checkArgument(length >= 0, "length must be non-negative: %s", length);
+    mOffset = offset;
+    mLength = length;
+  }
+
+  /**
+   * @return the offset of the range in the file
+   */
+  public long getOffset() {
+    return mOffset;
+  }
+
+  /**
+   * @return the length of the range in bytes
+   */
+  public int getLength() {
+    return mLength;
+  }
+
+  /**
+   * @return the offset in the file right after the range
+   */
+  public long getEnd() {
+    return mOffset + mLength;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof FileRange)) {
+      return false;
+    }
+    FileRange that = (FileRange) o;
+    return mOffset == that.mOffset && mLength == that.mLength;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(mOffset, mLength);
+  }
+
+  @Override
+  public String toString() {
+    return Objects.toStringHelper(this).add("offset", mOffset).add("length", mLength).toString();
+  }
+}
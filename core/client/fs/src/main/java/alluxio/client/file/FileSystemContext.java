@@ -15,6 +15,7 @@ import alluxio.Configuration;
 import alluxio.PropertyKey;
 import alluxio.client.block.BlockMasterClient;
 import alluxio.client.block.BlockMasterClientPool;
+import alluxio.client.block.BlockWorkerInfo;
 import alluxio.exception.ExceptionMessage;
 import alluxio.exception.status.UnavailableException;
 import alluxio.master.MasterInquireClient;
@@ -22,6 +23,8 @@ import alluxio.metrics.MetricsSystem;
 import alluxio.network.netty.NettyChannelPool;
 import alluxio.network.netty.NettyClient;
 import alluxio.resource.CloseableResource;
+import alluxio.util.CommonUtils;
+import alluxio.util.ThreadFactoryUtils;
 import alluxio.util.network.NetworkAddressUtils;
 import alluxio.wire.WorkerInfo;
 import alluxio.wire.WorkerNetAddress;
@@ -36,8 +39,15 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
@@ -58,6 +68,9 @@ import javax.security.auth.Subject;
 public final class FileSystemContext implements Closeable {
   public static final FileSystemContext INSTANCE = create();
 
+  /** The time idle background threads wait for tasks before exiting. */
+  private static final long THREAD_KEEP_ALIVE_SECONDS = 60;
+
   static {
     MetricsSystem.startSinks();
     Metrics.initializeGauges();
@@ -71,6 +84,15 @@ public final class FileSystemContext implements Closeable {
   private final ConcurrentHashMap<SocketAddress, NettyChannelPool>
       mNettyChannelPools = new ConcurrentHashMap<>();
 
+  /** The cache of file metadata shared by the file systems using this context. */
+  private volatile MetadataCache mMetadataCache;
+
+  /** Threads opening block streams ahead of sequential reads. */
+  private volatile ExecutorService mReadAheadExecutor;
+
+  /** Threads reading the blocks of vectored reads in parallel. */
+  private volatile ExecutorService mVectoredReadExecutor;
+
   /** The shared master inquire client associated with the {@link FileSystemContext}. */
   @GuardedBy("this")
   private MasterInquireClient mMasterInquireClient;
@@ -87,6 +109,15 @@ public final class FileSystemContext implements Closeable {
   @GuardedBy("this")
   private WorkerNetAddress mLocalWorker;
 
+  /** Lock for refreshing {@link #mCachedWorkers}. */
+  private final Object mCachedWorkersLock = new Object();
+
+  /** The workers as last fetched from the master, or null if they have not been fetched yet. */
+  private volatile List<BlockWorkerInfo> mCachedWorkers;
+
+  /** The time in milliseconds after which {@link #mCachedWorkers} is refreshed. */
+  private volatile long mCachedWorkersExpirationMs;
+
   /** The parent user associated with the {@link FileSystemContext}. */
   private final Subject mParentSubject;
 
@@ -137,6 +168,33 @@ public final class FileSystemContext implements Closeable {
     mFileSystemMasterClientPool =
         new FileSystemMasterClientPool(mParentSubject, mMasterInquireClient);
     mBlockMasterClientPool = new BlockMasterClientPool(mParentSubject, mMasterInquireClient);
+    mMetadataCache = MetadataCache.create();
+    mReadAheadExecutor = newBoundedExecutor(
+        Configuration.getInt(PropertyKey.USER_FILE_READ_AHEAD_THREADS_MAX),
+        "file-in-stream-read-ahead-%d", new ThreadPoolExecutor.AbortPolicy());
+    // Run the tasks in the calling thread when all threads are busy, which still waits for them,
+    // or when the context is closed, so that the vectored reads are never left unfinished
+    mVectoredReadExecutor = newBoundedExecutor(
+        Configuration.getInt(PropertyKey.USER_FILE_READ_VECTORED_THREADS_MAX),
+        "file-in-stream-vectored-read-%d", (task, executor) -> task.run());
+  }
+
+  /**
+   * Creates an executor with a bounded number of threads, which does not queue tasks. Idle threads
+   * exit after a while.
+   *
+   * @param maxThreads the maximum number of threads
+   * @param threadNameFormat the name format of the threads
+   * @param rejectedHandler the handler of the tasks submitted when all the threads are busy
+   * @return the executor
+   */
+  private static ExecutorService newBoundedExecutor(int maxThreads, String threadNameFormat,
+      RejectedExecutionHandler rejectedHandler) {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads,
+        THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(),
+        ThreadFactoryUtils.build(threadNameFormat, true), rejectedHandler);
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
   }
 
   /**
@@ -152,6 +210,9 @@ public final class FileSystemContext implements Closeable {
     mBlockMasterClientPool.close();
     mBlockMasterClientPool = null;
     mMasterInquireClient = null;
+    mMetadataCache.invalidateAll();
+    mReadAheadExecutor.shutdownNow();
+    mVectoredReadExecutor.shutdownNow();
 
     for (NettyChannelPool pool : mNettyChannelPools.values()) {
       pool.close();
@@ -162,6 +223,7 @@ public final class FileSystemContext implements Closeable {
       mLocalWorkerInitialized = false;
       mLocalWorker = null;
     }
+    mCachedWorkers = null;
   }
 
   /**
@@ -180,6 +242,29 @@ public final class FileSystemContext implements Closeable {
     return mParentSubject;
   }
 
+  /**
+   * @return the file metadata cache
+   */
+  public MetadataCache getMetadataCache() {
+    return mMetadataCache;
+  }
+
+  /**
+   * @return the executor opening block streams ahead of sequential reads, which rejects the tasks
+   *         submitted when all its threads are busy
+   */
+  public ExecutorService getReadAheadExecutor() {
+    return mReadAheadExecutor;
+  }
+
+  /**
+   * @return the executor reading the blocks of vectored reads in parallel, which runs the tasks
+   *         submitted when all its threads are busy in the calling thread
+   */
+  public ExecutorService getVectoredReadExecutor() {
+    return mVectoredReadExecutor;
+  }
+
   /**
    * @return the master address
    * @throws UnavailableException if the master address cannot be determined
@@ -272,6 +357,41 @@ public final class FileSystemContext implements Closeable {
     mNettyChannelPools.get(address).release(channel);
   }
 
+  /**
+   * Gets the info of all block workers. The list is shared by all users of the context, and is
+   * only fetched from the master again once it is older than
+   * {@link PropertyKey#USER_WORKER_LIST_REFRESH_INTERVAL}, or when a refresh is forced.
+   *
+   * @param forceRefresh whether to fetch the list from the master regardless of its age, such as
+   *        when no worker in the cached list could be used
+   * @return an unmodifiable list of the info of all block workers
+   */
+  public List<BlockWorkerInfo> getCachedWorkers(boolean forceRefresh) throws IOException {
+    List<BlockWorkerInfo> workers = mCachedWorkers;
+    if (!forceRefresh && workers != null
+        && CommonUtils.getCurrentMs() < mCachedWorkersExpirationMs) {
+      return workers;
+    }
+    synchronized (mCachedWorkersLock) {
+      // Another thread may have refreshed the list while this one was waiting for the lock.
+      if (!forceRefresh && mCachedWorkers != workers && mCachedWorkers != null) {
+        return mCachedWorkers;
+      }
+      List<WorkerInfo> infos;
+      try (CloseableResource<BlockMasterClient> masterClientResource =
+          acquireBlockMasterClientResource()) {
+        infos = masterClientResource.get().getWorkerInfoList();
+      }
+      workers = Collections.unmodifiableList(infos.stream()
+          .map(w -> new BlockWorkerInfo(w.getAddress(), w.getCapacityBytes(), w.getUsedBytes()))
+          .collect(Collectors.toList()));
+      mCachedWorkersExpirationMs = CommonUtils.getCurrentMs()
+          + Configuration.getMs(PropertyKey.USER_WORKER_LIST_REFRESH_INTERVAL);
+      mCachedWorkers = workers;
+      return workers;
+    }
+  }
+
   /**
    * @return if there is a local worker running the same machine
    */
@@ -0,0 +1,116 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file;
+
+import alluxio.AlluxioURI;
+import alluxio.Configuration;
+import alluxio.PropertyKey;
+import alluxio.client.file.options.ListStatusOptions;
+import alluxio.exception.AlluxioException;
+import alluxio.wire.CommonOptions;
+import alluxio.wire.LoadMetadataType;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Iterates over the statuses of a directory's children, fetching them from the master in batches
+ * of bounded size. Children are returned in name order. Each batch is a separate listStatus call
+ * that resumes after the last name of the previous batch, so the listing as a whole is not an
+ * atomic snapshot of the directory.
+ *
+ * Metadata loading and syncing, if requested by the options, only happen for the first batch.
+ */
+@NotThreadSafe
+public final class ListStatusIterator {
+  private final FileSystem mFileSystem;
+  private final AlluxioURI mPath;
+  private final ListStatusOptions mOptions;
+  private final int mBatchSize;
+
+  private Iterator<URIStatus> mBatch = Collections.emptyIterator();
+  private String mLastName = null;
+  private boolean mDone = false;
+
+  /**
+   * Creates an iterator which uses the batch size from
+   * {@link PropertyKey#USER_FILE_LIST_STATUS_BATCH_SIZE}, unless one is set in the options.
+   *
+   * @param fileSystem the file system to list with
+   * @param path the path to list
+   * @param options the options for listing; the start-after name is where iteration begins
+   */
+  public ListStatusIterator(FileSystem fileSystem, AlluxioURI path, ListStatusOptions options) {
+    mFileSystem = Preconditions.checkNotNull(fileSystem, "fileSystem");
+    mPath = Preconditions.checkNotNull(path, "path");
+    mOptions = Preconditions.checkNotNull(options, "options");
+    mBatchSize = options.getBatchSize() > 0 ? options.getBatchSize()
+        : Configuration.getInt(PropertyKey.USER_FILE_LIST_STATUS_BATCH_SIZE);
+  }
+
+  /**
+   * @return whether there are more statuses, fetching the next batch from the master if needed
+   */
+  public boolean hasNext() throws IOException, AlluxioException {
+    while (!mBatch.hasNext() && !mDone) {
+      List<URIStatus> batch = mFileSystem.listStatus(mPath, nextBatchOptions());
+      // A batch larger than requested comes from a master which ignores the batch size and returns
+      // the full listing, so asking for more would only repeat it.
+      if (mBatchSize <= 0 || batch.size() != mBatchSize) {
+        mDone = true;
+      }
+      if (!batch.isEmpty()) {
+        mLastName = batch.get(batch.size() - 1).getName();
+      }
+      mBatch = batch.iterator();
+    }
+    return mBatch.hasNext();
+  }
+
+  /**
+   * @return the next status
+   * @throws NoSuchElementException if there are no more statuses
+   */
+  public URIStatus next() throws IOException, AlluxioException {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return mBatch.next();
+  }
+
+  /**
+   * @return the options for the next listStatus call
+   */
+  private ListStatusOptions nextBatchOptions() {
+    int batchSize = Math.max(mBatchSize, 0);
+    if (mLastName == null) {
+      return ListStatusOptions.defaults()
+          .setCommonOptions(mOptions.getCommonOptions())
+          .setLoadMetadataType(mOptions.getLoadMetadataType())
+          .setStartAfter(mOptions.getStartAfter())
+          .setBatchSize(batchSize);
+    }
+    // The first batch already loaded or synced the directory, so do not repeat it.
+    return ListStatusOptions.defaults()
+        .setCommonOptions(new CommonOptions(mOptions.getCommonOptions()).setSyncIntervalMs(-1))
+        .setLoadMetadataType(LoadMetadataType.Never)
+        .setStartAfter(mLastName)
+        .setBatchSize(batchSize);
+  }
+}
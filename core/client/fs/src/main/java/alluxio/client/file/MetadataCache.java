@@ -0,0 +1,306 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file;
+
+import alluxio.AlluxioURI;
+import alluxio.Configuration;
+import alluxio.PropertyKey;
+import alluxio.metrics.MetricsSystem;
+
+import com.codahale.metrics.Counter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A client side cache of file metadata, keyed by path. It holds the {@link URIStatus} of single
+ * paths and the full listings of directories. Entries expire a fixed amount of time after they
+ * are written; operations which modify the namespace through the owning {@link FileSystemContext}
+ * invalidate the affected entries eagerly.
+ *
+ * Statuses of incomplete files are never cached, since they are expected to change soon.
+ *
+ * The cached paths are also kept sorted, so that invalidating the entries below a path only visits
+ * those entries. Every invalidation bumps the version of the cache; metadata loaded from the master
+ * is only cached if no invalidation happened since the load started, so that a load racing with a
+ * modification cannot cache the metadata from before the modification.
+ */
+@ThreadSafe
+public final class MetadataCache {
+  private final boolean mEnabled;
+  private final Cache<String, URIStatus> mStatuses;
+  private final Cache<String, List<URIStatus>> mListings;
+  /** The paths of {@link #mStatuses}, possibly with some paths which are no longer cached. */
+  private final NavigableSet<String> mStatusPaths = new ConcurrentSkipListSet<>();
+  /** The paths of {@link #mListings}, possibly with some paths which are no longer cached. */
+  private final NavigableSet<String> mListingPaths = new ConcurrentSkipListSet<>();
+  /** Incremented by every invalidation. */
+  private final AtomicLong mVersion = new AtomicLong();
+
+  /**
+   * @return a metadata cache configured from the client configuration
+   */
+  public static MetadataCache create() {
+    return new MetadataCache(Configuration.getBoolean(PropertyKey.USER_FILE_METADATA_CACHE_ENABLED),
+        Configuration.getLong(PropertyKey.USER_FILE_METADATA_CACHE_MAX_SIZE),
+        Configuration.getMs(PropertyKey.USER_FILE_METADATA_CACHE_EXPIRATION_TIME));
+  }
+
+  /**
+   * Creates a new instance of {@link MetadataCache}.
+   *
+   * @param enabled whether caching is enabled; if not, the cache never holds any entry
+   * @param maxSize the maximum number of statuses and of listings to cache
+   * @param expirationTimeMs the time in milliseconds after which an entry expires
+   */
+  public MetadataCache(boolean enabled, long maxSize, long expirationTimeMs) {
+    mEnabled = enabled;
+    mStatuses = CacheBuilder.newBuilder().maximumSize(maxSize)
+        .expireAfterWrite(expirationTimeMs, TimeUnit.MILLISECONDS)
+        .removalListener(new RemovalListener<String, URIStatus>() {
+          @Override
+          public void onRemoval(RemovalNotification<String, URIStatus> notification) {
+            removePath(mStatuses, mStatusPaths, notification);
+          }
+        }).build();
+    mListings = CacheBuilder.newBuilder().maximumSize(maxSize)
+        .expireAfterWrite(expirationTimeMs, TimeUnit.MILLISECONDS)
+        .removalListener(new RemovalListener<String, List<URIStatus>>() {
+          @Override
+          public void onRemoval(RemovalNotification<String, List<URIStatus>> notification) {
+            removePath(mListings, mListingPaths, notification);
+          }
+        }).build();
+  }
+
+  /**
+   * @return whether the cache is enabled
+   */
+  public boolean isEnabled() {
+    return mEnabled;
+  }
+
+  /**
+   * @return the current version of the cache, to pass to {@link #putStatus} or
+   *         {@link #putListing} when the metadata to cache has been loaded
+   */
+  public long getVersion() {
+    return mVersion.get();
+  }
+
+  /**
+   * @param path the path to look up
+   * @return the cached status of the path, or null if it is not cached
+   */
+  @Nullable
+  public URIStatus getStatus(AlluxioURI path) {
+    if (!mEnabled) {
+      return null;
+    }
+    return record(mStatuses.getIfPresent(path.getPath()));
+  }
+
+  /**
+   * Caches the status of a path, unless the cache has been invalidated since the given version.
+   *
+   * @param path the path
+   * @param status the status of the path
+   * @param version the version of the cache before the status was loaded
+   */
+  public void putStatus(AlluxioURI path, URIStatus status, long version) {
+    if (mEnabled && isCacheable(status)) {
+      put(mStatuses, mStatusPaths, path.getPath(), status, version);
+    }
+  }
+
+  /**
+   * @param path the directory to look up
+   * @return the cached listing of the directory, or null if it is not cached
+   */
+  @Nullable
+  public List<URIStatus> getListing(AlluxioURI path) {
+    return getListing(path, "", 0);
+  }
+
+  /**
+   * Looks up a batch of the cached listing of a directory, in name order.
+   *
+   * @param path the directory to look up
+   * @param startAfter the name to start after, or the empty string to start from the first child
+   * @param batchSize the maximum number of statuses to return, or 0 to return all of them
+   * @return the statuses of the cached listing after the given name, or null if it is not cached
+   */
+  @Nullable
+  public List<URIStatus> getListing(AlluxioURI path, String startAfter, int batchSize) {
+    if (!mEnabled) {
+      return null;
+    }
+    List<URIStatus> listing = record(mListings.getIfPresent(path.getPath()));
+    if (listing == null) {
+      return null;
+    }
+    // The listing is sorted by name, so search for the first name after the start-after name
+    int low = 0;
+    int high = listing.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (listing.get(mid).getName().compareTo(startAfter) <= 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    int end = batchSize > 0 ? Math.min(listing.size(), low + batchSize) : listing.size();
+    // Callers own the returned list, so never hand out the cached instance
+    return new ArrayList<>(listing.subList(low, end));
+  }
+
+  /**
+   * Caches the full listing of a directory, unless the cache has been invalidated since the given
+   * version.
+   *
+   * @param path the directory
+   * @param listing the statuses of all children of the directory
+   * @param version the version of the cache before the listing was loaded
+   */
+  public void putListing(AlluxioURI path, List<URIStatus> listing, long version) {
+    if (!mEnabled) {
+      return;
+    }
+    for (URIStatus status : listing) {
+      if (!isCacheable(status)) {
+        return;
+      }
+    }
+    List<URIStatus> sorted = new ArrayList<>(listing);
+    sorted.sort(Comparator.comparing(URIStatus::getName));
+    put(mListings, mListingPaths, path.getPath(), sorted, version);
+  }
+
+  /**
+   * Invalidates the entries affected by a modification of the given path: the path itself, every
+   * cached path below it, and all of its ancestors, whose listings or modification times may have
+   * changed.
+   *
+   * @param path the modified path
+   */
+  public void invalidate(AlluxioURI path) {
+    if (!mEnabled) {
+      return;
+    }
+    mVersion.incrementAndGet();
+    invalidateDescendants(mStatuses, mStatusPaths, path.getPath());
+    invalidateDescendants(mListings, mListingPaths, path.getPath());
+    AlluxioURI current = path;
+    while (current != null) {
+      mStatuses.invalidate(current.getPath());
+      mListings.invalidate(current.getPath());
+      current = current.getParent();
+    }
+  }
+
+  /**
+   * Invalidates all cached entries.
+   */
+  public void invalidateAll() {
+    mVersion.incrementAndGet();
+    mStatuses.invalidateAll();
+    mListings.invalidateAll();
+  }
+
+  /**
+   * Caches an entry. If the cache was invalidated since the given version, the entry is dropped
+   * again, since it may have been loaded before the invalidation.
+   */
+  private <T> void put(Cache<String, T> cache, NavigableSet<String> paths, String path, T value,
+      long version) {
+    if (mVersion.get() != version) {
+      return;
+    }
+    cache.put(path, value);
+    paths.add(path);
+    if (mVersion.get() != version) {
+      cache.invalidate(path);
+    }
+  }
+
+  /**
+   * Invalidates the cached entries strictly below a path.
+   */
+  private static <T> void invalidateDescendants(Cache<String, T> cache, NavigableSet<String> paths,
+      String path) {
+    String prefix = path.endsWith(AlluxioURI.SEPARATOR) ? path : path + AlluxioURI.SEPARATOR;
+    // All the paths starting with the prefix sort before the prefix with its last character
+    // incremented.
+    String end = prefix.substring(0, prefix.length() - 1)
+        + (char) (prefix.charAt(prefix.length() - 1) + 1);
+    NavigableSet<String> descendants = paths.subSet(prefix, true, end, false);
+    for (String descendant : descendants) {
+      cache.invalidate(descendant);
+    }
+  }
+
+  /**
+   * Removes the path of an entry removed from a cache from the sorted paths of the cache.
+   */
+  private static <T> void removePath(Cache<String, T> cache, NavigableSet<String> paths,
+      RemovalNotification<String, T> notification) {
+    if (notification.getCause() == RemovalCause.REPLACED) {
+      return;
+    }
+    String path = notification.getKey();
+    paths.remove(path);
+    // The path may have been cached again after the removal, keep it then
+    if (cache.asMap().containsKey(path)) {
+      paths.add(path);
+    }
+  }
+
+  private static boolean isCacheable(URIStatus status) {
+    return status.isFolder() || status.isCompleted();
+  }
+
+  private static <T> T record(T value) {
+    if (value == null) {
+      Metrics.METADATA_CACHE_MISSES.inc();
+    } else {
+      Metrics.METADATA_CACHE_HITS.inc();
+    }
+    return value;
+  }
+
+  /**
+   * Class that contains metrics about MetadataCache.
+   */
+  @ThreadSafe
+  private static final class Metrics {
+    private static final Counter METADATA_CACHE_HITS =
+        MetricsSystem.clientCounter("MetadataCacheHits");
+    private static final Counter METADATA_CACHE_MISSES =
+        MetricsSystem.clientCounter("MetadataCacheMisses");
+
+    private Metrics() {} // prevent instantiation
+  }
+}
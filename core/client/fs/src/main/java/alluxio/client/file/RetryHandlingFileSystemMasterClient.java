@@ -38,9 +38,11 @@ import alluxio.thrift.ScheduleAsyncPersistenceTOptions;
 import alluxio.thrift.UnmountTOptions;
 import alluxio.wire.ThriftUtils;
 
+import com.google.common.base.Strings;
 import org.apache.thrift.TException;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -190,6 +192,15 @@ public final class RetryHandlingFileSystemMasterClient extends AbstractMasterCli
           .getFileInfoList()) {
         result.add(new URIStatus(ThriftUtils.fromThrift(fileInfo)));
       }
+      String startAfter = Strings.nullToEmpty(options.getStartAfter());
+      if (!startAfter.isEmpty() || options.getBatchSize() > 0) {
+        // Older masters ignore the batch options and return every child in no particular order,
+        // so always apply the start-after name here. Batches from masters which honor the options
+        // are already sorted and after the start-after name, so this only checks them. The result
+        // is not truncated, which would only cause more full listings.
+        result.sort(Comparator.comparing(URIStatus::getName));
+        result.removeIf(status -> status.getName().compareTo(startAfter) <= 0);
+      }
       return result;
     });
   }
@@ -33,6 +33,8 @@ import javax.annotation.concurrent.NotThreadSafe;
 public final class ListStatusOptions {
   private CommonOptions mCommonOptions;
   private LoadMetadataType mLoadMetadataType;
+  private String mStartAfter;
+  private int mBatchSize;
 
   /**
    * @return the default {@link ListStatusOptions}
@@ -45,6 +47,8 @@ public final class ListStatusOptions {
     mCommonOptions = CommonOptions.defaults();
     mLoadMetadataType =
         Configuration.getEnum(PropertyKey.USER_FILE_METADATA_LOAD_TYPE, LoadMetadataType.class);
+    mStartAfter = "";
+    mBatchSize = 0;
   }
 
   /**
@@ -62,6 +66,21 @@ public final class ListStatusOptions {
     return mLoadMetadataType;
   }
 
+  /**
+   * @return the name after which to start listing the children of a directory; empty to list
+   *         from the first child
+   */
+  public String getStartAfter() {
+    return mStartAfter;
+  }
+
+  /**
+   * @return the maximum number of entries to list, or 0 for no limit
+   */
+  public int getBatchSize() {
+    return mBatchSize;
+  }
+
   /**
    * @param options the common options
    * @return the updated options object
@@ -80,6 +99,27 @@ public final class ListStatusOptions {
     return this;
   }
 
+  /**
+   * Sets the name after which to start listing. Children are listed in name order, so a listing
+   * can be continued by passing the name of the last entry of the previous batch.
+   *
+   * @param startAfter the name after which to start listing
+   * @return the updated options
+   */
+  public ListStatusOptions setStartAfter(String startAfter) {
+    mStartAfter = startAfter;
+    return this;
+  }
+
+  /**
+   * @param batchSize the maximum number of entries to list, or 0 for no limit
+   * @return the updated options
+   */
+  public ListStatusOptions setBatchSize(int batchSize) {
+    mBatchSize = batchSize;
+    return this;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -90,12 +130,14 @@ public final class ListStatusOptions {
     }
     ListStatusOptions that = (ListStatusOptions) o;
     return Objects.equal(mCommonOptions, that.mCommonOptions)
-        && Objects.equal(mLoadMetadataType, that.mLoadMetadataType);
+        && Objects.equal(mLoadMetadataType, that.mLoadMetadataType)
+        && Objects.equal(mStartAfter, that.mStartAfter)
+        && mBatchSize == that.mBatchSize;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(mCommonOptions, mLoadMetadataType);
+    return Objects.hashCode(mCommonOptions, mLoadMetadataType, mStartAfter, mBatchSize);
   }
 
   @Override
@@ -103,6 +145,8 @@ public final class ListStatusOptions {
     return Objects.toStringHelper(this)
         .add("commonOptions", mCommonOptions)
         .add("loadMetadataType", mLoadMetadataType.toString())
+        .add("startAfter", mStartAfter)
+        .add("batchSize", mBatchSize)
         .toString();
   }
 
@@ -116,6 +160,12 @@ public final class ListStatusOptions {
 
     options.setLoadMetadataType(LoadMetadataType.toThrift(mLoadMetadataType));
     options.setCommonOptions(mCommonOptions.toThrift());
+    if (!mStartAfter.isEmpty()) {
+      options.setStartAfter(mStartAfter);
+    }
+    if (mBatchSize > 0) {
+      options.setBatchSize(mBatchSize);
+    }
     return options;
   }
 }
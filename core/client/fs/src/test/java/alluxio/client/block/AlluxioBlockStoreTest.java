@@ -13,6 +13,8 @@ package alluxio.client.block;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import alluxio.client.WriteType;
@@ -40,7 +42,6 @@ import alluxio.wire.BlockInfo;
 import alluxio.wire.BlockLocation;
 import alluxio.wire.FileBlockInfo;
 import alluxio.wire.FileInfo;
-import alluxio.wire.WorkerInfo;
 import alluxio.wire.WorkerNetAddress;
 
 import com.google.common.collect.Lists;
@@ -216,6 +217,22 @@ public final class AlluxioBlockStoreTest {
     assertEquals(worker2, stream2.getAddress());
   }
 
+  @Test
+  public void getOutStreamRefreshesWorkers() throws Exception {
+    WorkerNetAddress worker = new WorkerNetAddress().setHost("worker");
+    List<BlockWorkerInfo> workers =
+        Collections.singletonList(new BlockWorkerInfo(worker, BLOCK_LENGTH, 0));
+    when(mContext.getCachedWorkers(false)).thenReturn(Collections.emptyList());
+    when(mContext.getCachedWorkers(true)).thenReturn(workers);
+    // The policy finds no worker in the stale cached list, but does in the refreshed one.
+    OutStreamOptions options = OutStreamOptions.defaults().setBlockSizeBytes(BLOCK_LENGTH)
+        .setLocationPolicy(new MockFileWriteLocationPolicy(Arrays.asList(null, worker)))
+        .setWriteType(WriteType.MUST_CACHE);
+    BlockOutStream stream = mBlockStore.getOutStream(BLOCK_ID, BLOCK_LENGTH, options);
+    assertEquals(worker, stream.getAddress());
+    verify(mContext).getCachedWorkers(true);
+  }
+
   @Test
   public void getInStreamUfs() throws Exception {
     WorkerNetAddress worker1 = new WorkerNetAddress().setHost("worker1");
@@ -229,8 +246,8 @@ public final class AlluxioBlockStoreTest {
             new MockFileWriteLocationPolicy(Arrays.asList(worker1, worker2)));
     InStreamOptions options = new InStreamOptions(dummyStatus, readOptions);
     when(mMasterClient.getBlockInfo(BLOCK_ID)).thenReturn(new BlockInfo());
-    when(mMasterClient.getWorkerInfoList()).thenReturn(
-        Arrays.asList(new WorkerInfo().setAddress(worker1), new WorkerInfo().setAddress(worker2)));
+    when(mContext.getCachedWorkers(false)).thenReturn(Arrays.asList(
+        new BlockWorkerInfo(worker1, 0, 0), new BlockWorkerInfo(worker2, 0, 0)));
 
     // Location policy chooses worker1 first.
     assertEquals(worker1, mBlockStore.getInStream(BLOCK_ID, options).getAddress());
@@ -278,4 +295,25 @@ public final class AlluxioBlockStoreTest {
     }
     assertEquals(Sets.newHashSet(remote1, remote2), results);
   }
+
+  @Test
+  public void getInStreamCachedLocations() throws Exception {
+    WorkerNetAddress remote = new WorkerNetAddress().setHost("remote");
+    BlockInfo info = new BlockInfo().setBlockId(BLOCK_ID)
+        .setLocations(Arrays.asList(new BlockLocation().setWorkerAddress(remote)));
+    InStreamOptions options = new InStreamOptions(
+        new URIStatus(new FileInfo().setBlockIds(Lists.newArrayList(BLOCK_ID))
+            .setFileBlockInfos(Lists.newArrayList(new FileBlockInfo().setBlockInfo(info)))));
+
+    // The locations in the file status are used without asking the master.
+    assertEquals(remote, mBlockStore.getInStream(BLOCK_ID, options).getAddress());
+    verify(mMasterClient, never()).getBlockInfo(BLOCK_ID);
+
+    // A refresh always fetches the latest locations from the master.
+    WorkerNetAddress remote2 = new WorkerNetAddress().setHost("remote2");
+    when(mMasterClient.getBlockInfo(BLOCK_ID)).thenReturn(new BlockInfo().setBlockId(BLOCK_ID)
+        .setLocations(Arrays.asList(new BlockLocation().setWorkerAddress(remote2))));
+    assertEquals(remote2, mBlockStore.getInStream(BLOCK_ID, options, true).getAddress());
+    verify(mMasterClient).getBlockInfo(BLOCK_ID);
+  }
 }
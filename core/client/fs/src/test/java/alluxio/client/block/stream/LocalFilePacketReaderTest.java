@@ -0,0 +1,142 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.block.stream;
+
+import alluxio.ConfigurationRule;
+import alluxio.PropertyKey;
+import alluxio.client.file.FileSystemContext;
+import alluxio.client.file.URIStatus;
+import alluxio.client.file.options.InStreamOptions;
+import alluxio.network.netty.NettyRPC;
+import alluxio.network.netty.NettyRPCContext;
+import alluxio.network.protocol.databuffer.DataBuffer;
+import alluxio.proto.dataserver.Protocol;
+import alluxio.util.io.BufferUtils;
+import alluxio.util.proto.ProtoMessage;
+import alluxio.wire.FileInfo;
+import alluxio.wire.WorkerNetAddress;
+
+import io.netty.channel.Channel;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Matchers;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.io.Closeable;
+import java.util.Collections;
+
+/**
+ * Tests for the {@link LocalFilePacketReader} class.
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({FileSystemContext.class, NettyRPC.class})
+public class LocalFilePacketReaderTest {
+  private static final int BLOCK_SIZE = 1000;
+  private static final long PACKET_SIZE = 64;
+  private static final long WINDOW_SIZE = 256;
+
+  @Rule
+  public TemporaryFolder mFolder = new TemporaryFolder();
+
+  private Closeable mWindowSizeConf;
+  private LocalFilePacketReader.Factory mFactory;
+
+  @Before
+  public void before() throws Exception {
+    String path = mFolder.newFile().getAbsolutePath();
+    BufferUtils.writeBufferToFile(path, BufferUtils.getIncreasingByteArray(BLOCK_SIZE));
+    PowerMockito.mockStatic(NettyRPC.class);
+    PowerMockito.when(
+        NettyRPC.call(Matchers.any(NettyRPCContext.class), Matchers.any(ProtoMessage.class)))
+        .thenReturn(new ProtoMessage(
+            Protocol.LocalBlockOpenResponse.newBuilder().setPath(path).build()));
+    FileSystemContext context = PowerMockito.mock(FileSystemContext.class);
+    PowerMockito.when(context.acquireNettyChannel(Matchers.any(WorkerNetAddress.class)))
+        .thenReturn(PowerMockito.mock(Channel.class));
+    InStreamOptions options = new InStreamOptions(
+        new URIStatus(new FileInfo().setBlockIds(Collections.singletonList(1L))));
+    mWindowSizeConf = new ConfigurationRule(PropertyKey.USER_LOCAL_READER_MMAP_WINDOW_SIZE_BYTES,
+        Long.toString(WINDOW_SIZE)).toResource();
+    mFactory = new LocalFilePacketReader.Factory(context, new WorkerNetAddress(), 1L,
+        PACKET_SIZE, options);
+  }
+
+  @After
+  public void after() throws Exception {
+    mFactory.close();
+    mWindowSizeConf.close();
+  }
+
+  /**
+   * Tests that a sequential read of the whole block returns the correct data and maps each window
+   * of the block only once.
+   */
+  @Test
+  public void readFullBlock() throws Exception {
+    byte[] data = new byte[BLOCK_SIZE];
+    int pos = 0;
+    try (PacketReader reader = mFactory.create(0, BLOCK_SIZE)) {
+      DataBuffer packet;
+      while ((packet = reader.readPacket()) != null) {
+        Assert.assertEquals(pos - pos % WINDOW_SIZE, mFactory.getWindowStart());
+        int len = packet.readableBytes();
+        packet.readBytes(data, pos, len);
+        packet.release();
+        pos += len;
+      }
+    }
+    Assert.assertEquals(BLOCK_SIZE, pos);
+    Assert.assertArrayEquals(BufferUtils.getIncreasingByteArray(BLOCK_SIZE), data);
+  }
+
+  /**
+   * Tests that a packet crossing the boundary of two windows is served from a window starting at
+   * the packet, and that the window is kept for the readers created afterwards.
+   */
+  @Test
+  public void readAcrossWindows() throws Exception {
+    long offset = WINDOW_SIZE - 10;
+    try (PacketReader reader = mFactory.create(offset, PACKET_SIZE)) {
+      DataBuffer packet = reader.readPacket();
+      Assert.assertEquals(offset, mFactory.getWindowStart());
+      byte[] data = new byte[(int) PACKET_SIZE];
+      packet.readBytes(data, 0, data.length);
+      packet.release();
+      Assert.assertArrayEquals(
+          BufferUtils.getIncreasingByteArray((int) offset, (int) PACKET_SIZE), data);
+    }
+    try (PacketReader reader = mFactory.create(offset + PACKET_SIZE, PACKET_SIZE)) {
+      reader.readPacket().release();
+      Assert.assertEquals(offset, mFactory.getWindowStart());
+    }
+  }
+
+  /**
+   * Tests that closing the factory unmaps the window.
+   */
+  @Test
+  public void closeUnmapsWindow() throws Exception {
+    try (PacketReader reader = mFactory.create(0, PACKET_SIZE)) {
+      reader.readPacket().release();
+    }
+    Assert.assertEquals(0, mFactory.getWindowStart());
+    mFactory.close();
+    Assert.assertEquals(-1, mFactory.getWindowStart());
+  }
+}
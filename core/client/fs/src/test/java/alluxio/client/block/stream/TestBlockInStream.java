@@ -14,6 +14,7 @@ package alluxio.client.block.stream;
 import alluxio.wire.WorkerNetAddress;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * A {@link BlockInStream} which reads from the given byte array. The stream is able to track how
@@ -40,6 +41,16 @@ public class TestBlockInStream extends BlockInStream {
     return bytesRead;
   }
 
+  @Override
+  public int read(ByteBuffer buf) throws IOException {
+    int bytesRead = super.read(buf);
+    if (bytesRead <= 0) {
+      return bytesRead;
+    }
+    mBytesRead += bytesRead;
+    return bytesRead;
+  }
+
   @Override
   public int positionedRead(long pos, byte[] b, int off, int len) throws IOException {
     int bytesRead = super.positionedRead(pos, b, off, len);
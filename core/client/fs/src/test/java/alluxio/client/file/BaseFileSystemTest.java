@@ -37,6 +37,7 @@ import alluxio.client.file.options.UnmountOptions;
 import alluxio.wire.FileInfo;
 import alluxio.wire.LoadMetadataType;
 
+import com.google.common.collect.Lists;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -78,6 +79,7 @@ public final class BaseFileSystemTest {
     mFileSystem = new DummyAlluxioFileSystem(mFileContext);
     mFileSystemMasterClient = PowerMockito.mock(FileSystemMasterClient.class);
     when(mFileContext.acquireMasterClient()).thenReturn(mFileSystemMasterClient);
+    when(mFileContext.getMetadataCache()).thenReturn(new MetadataCache(false, 0, 0));
   }
 
   /**
@@ -191,6 +193,22 @@ public final class BaseFileSystemTest {
     verify(mFileSystemMasterClient).getStatus(file, getStatusOptions);
   }
 
+  /**
+   * Tests that {@link BaseFileSystem#getStatus(AlluxioURI, GetStatusOptions)} serves repeated
+   * lookups from the metadata cache when it is enabled.
+   */
+  @Test
+  public void getStatusCached() throws Exception {
+    when(mFileContext.getMetadataCache()).thenReturn(new MetadataCache(true, 10, Long.MAX_VALUE));
+    AlluxioURI file = new AlluxioURI("/file");
+    URIStatus status = new URIStatus(new FileInfo().setCompleted(true));
+    GetStatusOptions getStatusOptions = GetStatusOptions.defaults();
+    when(mFileSystemMasterClient.getStatus(file, getStatusOptions)).thenReturn(status);
+    assertSame(status, mFileSystem.getStatus(file, getStatusOptions));
+    assertSame(status, mFileSystem.getStatus(file, getStatusOptions));
+    verify(mFileSystemMasterClient).getStatus(file, getStatusOptions);
+  }
+
   /**
    * Ensures that an exception is propagated correctly when retrieving information.
    */
@@ -221,6 +239,25 @@ public final class BaseFileSystemTest {
     verify(mFileSystemMasterClient).listStatus(file, listStatusOptions);
   }
 
+  /**
+   * Tests that {@link BaseFileSystem#listStatus(AlluxioURI, ListStatusOptions)} caches a first
+   * batch which holds the complete listing, and serves the following batches from it.
+   */
+  @Test
+  public void listStatusBatchCached() throws Exception {
+    when(mFileContext.getMetadataCache()).thenReturn(new MetadataCache(true, 10, Long.MAX_VALUE));
+    AlluxioURI dir = new AlluxioURI("/dir");
+    URIStatus a = new URIStatus(new FileInfo().setName("a").setFolder(true));
+    URIStatus b = new URIStatus(new FileInfo().setName("b").setFolder(true));
+    ListStatusOptions firstBatch = ListStatusOptions.defaults().setBatchSize(3);
+    when(mFileSystemMasterClient.listStatus(dir, firstBatch)).thenReturn(Lists.newArrayList(a, b));
+    assertEquals(Lists.newArrayList(a, b), mFileSystem.listStatus(dir, firstBatch));
+    assertEquals(Lists.newArrayList(a, b), mFileSystem.listStatus(dir, firstBatch));
+    assertEquals(Lists.newArrayList(b),
+        mFileSystem.listStatus(dir, ListStatusOptions.defaults().setStartAfter("a")));
+    verify(mFileSystemMasterClient).listStatus(dir, firstBatch);
+  }
+
   /**
    * Ensures that an exception is propagated correctly when listing the status.
    */
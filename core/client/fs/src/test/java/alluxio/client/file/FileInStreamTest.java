@@ -13,13 +13,23 @@ package alluxio.client.file;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyBoolean;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
+import alluxio.ConfigurationRule;
+import alluxio.PropertyKey;
 import alluxio.client.ReadType;
 import alluxio.client.block.AlluxioBlockStore;
 import alluxio.client.block.BlockWorkerInfo;
@@ -49,11 +59,17 @@ import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.rule.PowerMockRule;
 
+import java.io.Closeable;
+import java.io.EOFException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Tests for the {@link FileInStream} class.
@@ -73,6 +89,8 @@ public final class FileInStreamTest {
   private AlluxioBlockStore mBlockStore;
   private BlockInStreamSource mBlockSource;
   private FileSystemContext mContext;
+  private ExecutorService mReadAheadExecutor;
+  private ExecutorService mVectoredReadExecutor;
   private FileInfo mInfo;
   private URIStatus mStatus;
 
@@ -114,6 +132,10 @@ public final class FileInStreamTest {
 
     mContext = PowerMockito.mock(FileSystemContext.class);
     PowerMockito.when(mContext.getLocalWorker()).thenReturn(new WorkerNetAddress());
+    mReadAheadExecutor = Executors.newCachedThreadPool();
+    PowerMockito.when(mContext.getReadAheadExecutor()).thenReturn(mReadAheadExecutor);
+    mVectoredReadExecutor = Executors.newCachedThreadPool();
+    PowerMockito.when(mContext.getVectoredReadExecutor()).thenReturn(mVectoredReadExecutor);
     mBlockStore = mock(AlluxioBlockStore.class);
     PowerMockito.mockStatic(AlluxioBlockStore.class);
     PowerMockito.when(AlluxioBlockStore.create(mContext)).thenReturn(mBlockStore);
@@ -132,8 +154,7 @@ public final class FileInStreamTest {
       mInStreams.add(new TestBlockInStream(input, i, input.length, false, mBlockSource));
       when(mBlockStore.getEligibleWorkers())
           .thenReturn(Arrays.asList(new BlockWorkerInfo(new WorkerNetAddress(), 0, 0)));
-      when(mBlockStore.getInStream(eq((long) i), any(InStreamOptions
-          .class)))
+      when(mBlockStore.getInStream(eq((long) i), any(InStreamOptions.class), anyBoolean()))
           .thenAnswer(new Answer<BlockInStream>() {
             @Override
             public BlockInStream answer(InvocationOnMock invocation) throws Throwable {
@@ -153,6 +174,8 @@ public final class FileInStreamTest {
 
   @After
   public void after() {
+    mReadAheadExecutor.shutdownNow();
+    mVectoredReadExecutor.shutdownNow();
     ClientTestUtils.resetClient();
   }
 
@@ -522,7 +545,7 @@ public final class FileInStreamTest {
   @Test
   public void failGetInStream() throws IOException {
     when(mBlockStore
-        .getInStream(anyLong(), any(InStreamOptions.class)))
+        .getInStream(anyLong(), any(InStreamOptions.class), anyBoolean()))
         .thenThrow(new UnavailableException("test exception"));
     try {
       mTestStream.read();
@@ -532,6 +555,89 @@ public final class FileInStreamTest {
     }
   }
 
+  /**
+   * Tests that a failed read from a stream opened with the block locations in the file status is
+   * retried with the latest locations from the master.
+   */
+  @Test
+  public void readRetriesWithLatestLocations() throws IOException {
+    BlockInStream staleStream = mock(BlockInStream.class);
+    when(staleStream.remaining()).thenReturn(BLOCK_LENGTH);
+    when(staleStream.read(any(byte[].class), anyInt(), anyInt()))
+        .thenThrow(new UnavailableException("stale location"));
+    when(mBlockStore.getInStream(eq(0L), any(InStreamOptions.class), eq(false)))
+        .thenReturn(staleStream);
+
+    byte[] buffer = new byte[(int) BLOCK_LENGTH];
+    assertEquals(BLOCK_LENGTH, mTestStream.read(buffer));
+    assertArrayEquals(BufferUtils.getIncreasingByteArray((int) BLOCK_LENGTH), buffer);
+    verify(staleStream).close();
+    verify(mBlockStore).getInStream(eq(0L), any(InStreamOptions.class), eq(true));
+  }
+
+  /**
+   * Tests that a sequential read with read-ahead enabled returns the correct data and opens each
+   * block only once.
+   */
+  @Test
+  public void sequentialReadAhead() throws Exception {
+    try (Closeable r =
+        new ConfigurationRule(PropertyKey.USER_FILE_READ_AHEAD_ENABLED, "true").toResource()) {
+      FileInStream stream = new FileInStream(mStatus,
+          new InStreamOptions(mStatus, OpenFileOptions.defaults()), mContext);
+      byte[] buffer = new byte[(int) FILE_LENGTH];
+      assertEquals(FILE_LENGTH, stream.read(buffer));
+      stream.close();
+      assertArrayEquals(BufferUtils.getIncreasingByteArray((int) FILE_LENGTH), buffer);
+      for (long i = 0; i < NUM_STREAMS; i++) {
+        verify(mBlockStore).getInStream(eq(i), any(InStreamOptions.class), eq(false));
+      }
+    }
+  }
+
+  /**
+   * Tests that a sequential read with read-ahead enabled opens the blocks when they are read if
+   * there is no thread to read them ahead.
+   */
+  @Test
+  public void sequentialReadAheadRejected() throws Exception {
+    ExecutorService executor = mock(ExecutorService.class);
+    doThrow(new RejectedExecutionException()).when(executor).execute(any(Runnable.class));
+    PowerMockito.when(mContext.getReadAheadExecutor()).thenReturn(executor);
+    try (Closeable r =
+        new ConfigurationRule(PropertyKey.USER_FILE_READ_AHEAD_ENABLED, "true").toResource()) {
+      FileInStream stream = new FileInStream(mStatus,
+          new InStreamOptions(mStatus, OpenFileOptions.defaults()), mContext);
+      byte[] buffer = new byte[(int) FILE_LENGTH];
+      assertEquals(FILE_LENGTH, stream.read(buffer));
+      stream.close();
+      assertArrayEquals(BufferUtils.getIncreasingByteArray((int) FILE_LENGTH), buffer);
+      verify(executor, atLeastOnce()).execute(any(Runnable.class));
+      for (long i = 0; i < NUM_STREAMS; i++) {
+        verify(mBlockStore).getInStream(eq(i), any(InStreamOptions.class), eq(false));
+      }
+    }
+  }
+
+  /**
+   * Tests that reading into a direct byte buffer across block boundaries returns the correct data.
+   */
+  @Test
+  public void readByteBuffer() throws IOException {
+    ByteBuffer buf = ByteBuffer.allocateDirect((int) FILE_LENGTH + 1);
+    for (int i = 0; i < FILE_LENGTH; i += 70) {
+      buf.limit(Math.min(i + 70, (int) FILE_LENGTH));
+      assertEquals(buf.limit() - i, mTestStream.read(buf));
+    }
+    buf.limit(buf.capacity());
+    assertEquals(-1, mTestStream.read(buf));
+    buf.flip();
+    byte[] data = new byte[(int) FILE_LENGTH];
+    buf.get(data);
+    assertArrayEquals(BufferUtils.getIncreasingByteArray((int) FILE_LENGTH), data);
+    mTestStream.close();
+  }
+
   /**
    * Tests that reading out of bounds properly returns -1.
    */
@@ -608,6 +714,95 @@ public final class FileInStreamTest {
         BLOCK_LENGTH * 2), b);
   }
 
+  /**
+   * Tests that positioned reads of the same block reuse the block stream opened by the first one.
+   */
+  @Test
+  public void positionedReadReusesStream() throws IOException {
+    byte[] b = new byte[10];
+    for (int i = 0; i < 3; i++) {
+      mTestStream.positionedRead(i * b.length, b, 0, b.length);
+      assertArrayEquals(BufferUtils.getIncreasingByteArray(i * b.length, b.length), b);
+    }
+    verify(mBlockStore, times(1)).getInStream(eq(0L), any(InStreamOptions.class), anyBoolean());
+    mTestStream.close();
+  }
+
+  /**
+   * Tests that the least recently used stream kept for positioned reads is closed when too many
+   * are kept open.
+   */
+  @Test
+  public void positionedReadStreamsBounded() throws Exception {
+    try (Closeable r = new ConfigurationRule(PropertyKey.USER_FILE_POSITIONED_READ_STREAMS_MAX,
+        "2").toResource()) {
+      FileInStream stream = new FileInStream(mStatus,
+          new InStreamOptions(mStatus, OpenFileOptions.defaults()), mContext);
+      byte[] b = new byte[10];
+      for (int i = 0; i < 3; i++) {
+        stream.positionedRead(i * BLOCK_LENGTH, b, 0, b.length);
+      }
+      assertTrue(mInStreams.get(0).isClosed());
+      assertFalse(mInStreams.get(1).isClosed());
+      assertFalse(mInStreams.get(2).isClosed());
+      stream.positionedRead(0, b, 0, b.length);
+      assertArrayEquals(BufferUtils.getIncreasingByteArray(b.length), b);
+      verify(mBlockStore, times(2)).getInStream(eq(0L), any(InStreamOptions.class), anyBoolean());
+      assertTrue(mInStreams.get(1).isClosed());
+      stream.close();
+      assertTrue(mInStreams.get(2).isClosed());
+    }
+  }
+
+  /**
+   * Tests that a vectored read of unsorted, overlapping and nearby ranges spanning several blocks
+   * returns the data of each range.
+   */
+  @Test
+  public void readVectored() throws IOException {
+    List<FileRange> ranges = Arrays.asList(new FileRange(210, 20), new FileRange(5, 10),
+        new FileRange(90, 30), new FileRange(20, 5), new FileRange(10, 10),
+        new FileRange(FILE_LENGTH - 1, 1), new FileRange(150, 0));
+    List<ByteBuffer> buffers = mTestStream.readVectored(ranges);
+    assertEquals(ranges.size(), buffers.size());
+    for (int i = 0; i < ranges.size(); i++) {
+      FileRange range = ranges.get(i);
+      byte[] data = new byte[buffers.get(i).remaining()];
+      buffers.get(i).get(data);
+      assertArrayEquals(
+          BufferUtils.getIncreasingByteArray((int) range.getOffset(), range.getLength()), data);
+    }
+    assertEquals(0, mTestStream.getPos());
+    mTestStream.close();
+  }
+
+  /**
+   * Tests that a vectored read of a range past the end of the file fails.
+   */
+  @Test
+  public void readVectoredPastEnd() throws IOException {
+    try {
+      mTestStream.readVectored(Arrays.asList(new FileRange(0, 10),
+          new FileRange(FILE_LENGTH - 5, 10)));
+      fail("reading a range past the end of the file should fail");
+    } catch (EOFException e) {
+      // expected
+    }
+  }
+
+  /**
+   * Tests that a vectored read of a range too large for a single buffer fails up front.
+   */
+  @Test
+  public void readVectoredTooLarge() throws IOException {
+    try {
+      mTestStream.readVectored(Arrays.asList(new FileRange(0, Integer.MAX_VALUE)));
+      fail("reading a range larger than the largest buffer should fail");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
   /**
    * Tests that when the underlying blocks are inconsistent with the metadata in terms of block
    * length, an exception is thrown rather than client hanging indefinitely. This case may happen if
@@ -616,7 +811,7 @@ public final class FileInStreamTest {
   @Test
   public void blockInStreamOutOfSync() throws Exception {
     when(
-        mBlockStore.getInStream(anyLong(), any(InStreamOptions.class)))
+        mBlockStore.getInStream(anyLong(), any(InStreamOptions.class), anyBoolean()))
         .thenAnswer(new Answer<BlockInStream>() {
           @Override
           public BlockInStream answer(InvocationOnMock invocation) throws Throwable {
@@ -107,6 +107,7 @@ public class FileOutStreamTest {
     mFileSystemContext = PowerMockito.mock(FileSystemContext.class);
     mBlockStore = PowerMockito.mock(AlluxioBlockStore.class);
     mFileSystemMasterClient = PowerMockito.mock(FileSystemMasterClient.class);
+    when(mFileSystemContext.getMetadataCache()).thenReturn(new MetadataCache(false, 0, 0));
 
     PowerMockito.mockStatic(AlluxioBlockStore.class);
     PowerMockito.when(AlluxioBlockStore.create(mFileSystemContext)).thenReturn(mBlockStore);
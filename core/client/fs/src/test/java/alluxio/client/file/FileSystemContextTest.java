@@ -20,6 +20,7 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Tests {@link FileSystemContext}.
@@ -66,6 +67,19 @@ public final class FileSystemContextTest {
     }
   }
 
+  /**
+   * Tests that the tasks of vectored reads still run, in the calling thread, once the context is
+   * closed.
+   */
+  @Test
+  public void vectoredReadAfterClose() throws Exception {
+    FileSystemContext context = FileSystemContext.create();
+    context.close();
+    final AtomicReference<Thread> runner = new AtomicReference<>();
+    context.getVectoredReadExecutor().execute(() -> runner.set(Thread.currentThread()));
+    Assert.assertEquals(Thread.currentThread(), runner.get());
+  }
+
   class AcquireClient implements Runnable {
     @Override
     public void run() {
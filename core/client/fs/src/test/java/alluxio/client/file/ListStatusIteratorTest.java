@@ -0,0 +1,123 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import alluxio.AlluxioURI;
+import alluxio.client.file.options.ListStatusOptions;
+import alluxio.wire.FileInfo;
+import alluxio.wire.LoadMetadataType;
+
+import com.google.common.collect.Lists;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for {@link ListStatusIterator}.
+ */
+public final class ListStatusIteratorTest {
+  private static final AlluxioURI DIR = new AlluxioURI("/dir");
+
+  private FileSystem mFileSystem;
+
+  @Before
+  public void before() {
+    mFileSystem = mock(FileSystem.class);
+  }
+
+  /**
+   * Tests that a directory is listed in batches which resume after the previous batch.
+   */
+  @Test
+  public void listInBatches() throws Exception {
+    when(mFileSystem.listStatus(eq(DIR), any(ListStatusOptions.class)))
+        .thenReturn(statuses("a", "b"), statuses("c", "d"), statuses("e"));
+
+    ListStatusIterator iterator = new ListStatusIterator(mFileSystem, DIR,
+        ListStatusOptions.defaults().setLoadMetadataType(LoadMetadataType.Always)
+            .setBatchSize(2));
+    List<String> names = new ArrayList<>();
+    while (iterator.hasNext()) {
+      names.add(iterator.next().getName());
+    }
+    Assert.assertEquals(Lists.newArrayList("a", "b", "c", "d", "e"), names);
+
+    ArgumentCaptor<ListStatusOptions> captor = ArgumentCaptor.forClass(ListStatusOptions.class);
+    verify(mFileSystem, times(3)).listStatus(eq(DIR), captor.capture());
+    List<ListStatusOptions> options = captor.getAllValues();
+    Assert.assertEquals("", options.get(0).getStartAfter());
+    Assert.assertEquals(LoadMetadataType.Always, options.get(0).getLoadMetadataType());
+    Assert.assertEquals("b", options.get(1).getStartAfter());
+    Assert.assertEquals(LoadMetadataType.Never, options.get(1).getLoadMetadataType());
+    Assert.assertEquals(-1, options.get(1).getCommonOptions().getSyncIntervalMs());
+    Assert.assertEquals("d", options.get(2).getStartAfter());
+    for (ListStatusOptions option : options) {
+      Assert.assertEquals(2, option.getBatchSize());
+    }
+  }
+
+  /**
+   * Tests that a full last batch is followed by one more call which returns nothing.
+   */
+  @Test
+  public void fullLastBatch() throws Exception {
+    when(mFileSystem.listStatus(eq(DIR), any(ListStatusOptions.class)))
+        .thenReturn(statuses("a", "b"), Collections.<URIStatus>emptyList());
+
+    ListStatusIterator iterator = new ListStatusIterator(mFileSystem, DIR,
+        ListStatusOptions.defaults().setBatchSize(2));
+    Assert.assertEquals("a", iterator.next().getName());
+    Assert.assertEquals("b", iterator.next().getName());
+    Assert.assertFalse(iterator.hasNext());
+    Assert.assertFalse(iterator.hasNext());
+    verify(mFileSystem, times(2)).listStatus(eq(DIR), any(ListStatusOptions.class));
+  }
+
+  /**
+   * Tests that a batch larger than requested, as returned by masters which ignore the batch size,
+   * is taken as the full listing.
+   */
+  @Test
+  public void oversizedBatch() throws Exception {
+    when(mFileSystem.listStatus(eq(DIR), any(ListStatusOptions.class)))
+        .thenReturn(statuses("a", "b", "c"));
+
+    ListStatusIterator iterator = new ListStatusIterator(mFileSystem, DIR,
+        ListStatusOptions.defaults().setBatchSize(2));
+    List<String> names = new ArrayList<>();
+    while (iterator.hasNext()) {
+      names.add(iterator.next().getName());
+    }
+    Assert.assertEquals(Lists.newArrayList("a", "b", "c"), names);
+    verify(mFileSystem, times(1)).listStatus(eq(DIR), any(ListStatusOptions.class));
+  }
+
+  private static List<URIStatus> statuses(String... names) {
+    List<URIStatus> statuses = new ArrayList<>();
+    for (String name : names) {
+      statuses.add(new URIStatus(new FileInfo().setName(name).setPath(DIR.join(name).getPath())));
+    }
+    return statuses;
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import alluxio.AlluxioURI;
+import alluxio.Constants;
+import alluxio.wire.FileInfo;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link MetadataCache}.
+ */
+public final class MetadataCacheTest {
+  private MetadataCache mCache;
+
+  @Before
+  public void before() {
+    mCache = new MetadataCache(true, 100, Constants.HOUR_MS);
+  }
+
+  @Test
+  public void disabled() {
+    MetadataCache cache = new MetadataCache(false, 100, Constants.HOUR_MS);
+    AlluxioURI path = new AlluxioURI("/a");
+    cache.putStatus(path, completeFile("/a"), cache.getVersion());
+    assertNull(cache.getStatus(path));
+  }
+
+  @Test
+  public void putAndGet() {
+    AlluxioURI dir = new AlluxioURI("/dir");
+    URIStatus status = completeFile("/dir/a");
+    mCache.putStatus(new AlluxioURI("/dir/a"), status, mCache.getVersion());
+    mCache.putListing(dir, Lists.newArrayList(status), mCache.getVersion());
+    assertSame(status, mCache.getStatus(new AlluxioURI("/dir/a")));
+    assertEquals(Lists.newArrayList(status), mCache.getListing(dir));
+    assertNull(mCache.getStatus(new AlluxioURI("/dir/b")));
+  }
+
+  @Test
+  public void getListingBatch() {
+    AlluxioURI dir = new AlluxioURI("/dir");
+    URIStatus a = completeFile("/dir/a");
+    URIStatus b = completeFile("/dir/b");
+    URIStatus c = completeFile("/dir/c");
+    mCache.putListing(dir, Lists.newArrayList(c, a, b), mCache.getVersion());
+    // The listing is sorted by name, and batches resume after the given name.
+    assertEquals(Lists.newArrayList(a, b, c), mCache.getListing(dir));
+    assertEquals(Lists.newArrayList(a, b), mCache.getListing(dir, "", 2));
+    assertEquals(Lists.newArrayList(c), mCache.getListing(dir, "b", 2));
+    assertEquals(Lists.newArrayList(b, c), mCache.getListing(dir, "aa", 0));
+    assertEquals(0, mCache.getListing(dir, "c", 2).size());
+  }
+
+  @Test
+  public void incompleteFileNotCached() {
+    AlluxioURI path = new AlluxioURI("/a");
+    mCache.putStatus(path, new URIStatus(new FileInfo().setPath("/a")), mCache.getVersion());
+    assertNull(mCache.getStatus(path));
+    mCache.putListing(new AlluxioURI("/"),
+        Lists.newArrayList(completeFile("/b"), new URIStatus(new FileInfo().setPath("/a"))),
+        mCache.getVersion());
+    assertNull(mCache.getListing(new AlluxioURI("/")));
+  }
+
+  @Test
+  public void invalidate() {
+    for (String path : new String[] {"/", "/a", "/a/b", "/a/b/c", "/a/bc", "/d"}) {
+      mCache.putStatus(new AlluxioURI(path), completeFile(path), mCache.getVersion());
+      mCache.putListing(new AlluxioURI(path), Lists.<URIStatus>newArrayList(),
+          mCache.getVersion());
+    }
+    mCache.invalidate(new AlluxioURI("/a/b"));
+    // The path, its descendants and its ancestors are invalidated.
+    for (String path : new String[] {"/", "/a", "/a/b", "/a/b/c"}) {
+      assertNull(mCache.getStatus(new AlluxioURI(path)));
+      assertNull(mCache.getListing(new AlluxioURI(path)));
+    }
+    // Siblings are not affected, even if they share a name prefix.
+    for (String path : new String[] {"/a/bc", "/d"}) {
+      assertEquals(path, mCache.getStatus(new AlluxioURI(path)).getPath());
+      assertEquals(0, mCache.getListing(new AlluxioURI(path)).size());
+    }
+  }
+
+  @Test
+  public void staleLoadNotCached() {
+    AlluxioURI path = new AlluxioURI("/a/b");
+    long version = mCache.getVersion();
+    // A modification of an unrelated path invalidates the cache while the status is loaded.
+    mCache.invalidate(new AlluxioURI("/c"));
+    mCache.putStatus(path, completeFile("/a/b"), version);
+    mCache.putListing(path, Lists.<URIStatus>newArrayList(), version);
+    assertNull(mCache.getStatus(path));
+    assertNull(mCache.getListing(path));
+    mCache.putStatus(path, completeFile("/a/b"), mCache.getVersion());
+    assertEquals("/a/b", mCache.getStatus(path).getPath());
+  }
+
+  @Test
+  public void invalidateRoot() {
+    for (String path : new String[] {"/a", "/a/b", "/c"}) {
+      mCache.putStatus(new AlluxioURI(path), completeFile(path), mCache.getVersion());
+    }
+    mCache.invalidate(new AlluxioURI("/"));
+    for (String path : new String[] {"/a", "/a/b", "/c"}) {
+      assertNull(mCache.getStatus(new AlluxioURI(path)));
+    }
+  }
+
+  @Test
+  public void invalidateAll() {
+    AlluxioURI path = new AlluxioURI("/a");
+    mCache.putStatus(path, completeFile("/a"), mCache.getVersion());
+    mCache.invalidateAll();
+    assertNull(mCache.getStatus(path));
+  }
+
+  private static URIStatus completeFile(String path) {
+    return new URIStatus(new FileInfo().setPath(path).setName(new AlluxioURI(path).getName())
+        .setCompleted(true));
+  }
+}
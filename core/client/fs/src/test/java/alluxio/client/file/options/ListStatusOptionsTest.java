@@ -28,12 +28,17 @@ public class ListStatusOptionsTest {
     ListStatusOptions options = ListStatusOptions.defaults();
 
     Assert.assertEquals(LoadMetadataType.Once, options.getLoadMetadataType());
+    Assert.assertEquals("", options.getStartAfter());
+    Assert.assertEquals(0, options.getBatchSize());
   }
 
   @Test
   public void fields() {
     ListStatusOptions options = ListStatusOptions.defaults();
     Assert.assertEquals(LoadMetadataType.Once, options.getLoadMetadataType());
+    options.setStartAfter("foo").setBatchSize(10);
+    Assert.assertEquals("foo", options.getStartAfter());
+    Assert.assertEquals(10, options.getBatchSize());
   }
 
   @Test
@@ -41,6 +46,12 @@ public class ListStatusOptionsTest {
     ListStatusOptions options = ListStatusOptions.defaults();
     ListStatusTOptions thriftOptions = options.toThrift();
     Assert.assertEquals(LoadMetadataTType.Once, thriftOptions.getLoadMetadataType());
+    Assert.assertFalse(thriftOptions.isSetStartAfter());
+    Assert.assertFalse(thriftOptions.isSetBatchSize());
+
+    thriftOptions = options.setStartAfter("foo").setBatchSize(10).toThrift();
+    Assert.assertEquals("foo", thriftOptions.getStartAfter());
+    Assert.assertEquals(10, thriftOptions.getBatchSize());
   }
 
   @Test
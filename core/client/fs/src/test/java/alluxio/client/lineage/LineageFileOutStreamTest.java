@@ -15,6 +15,7 @@ import alluxio.AlluxioURI;
 import alluxio.client.WriteType;
 import alluxio.client.file.FileSystemContext;
 import alluxio.client.file.FileSystemMasterClient;
+import alluxio.client.file.MetadataCache;
 import alluxio.client.file.options.OutStreamOptions;
 import alluxio.resource.DummyCloseableResource;
 
@@ -41,6 +42,7 @@ public final class LineageFileOutStreamTest {
         client = PowerMockito.mock(FileSystemMasterClient.class);
     Mockito.when(context.acquireMasterClientResource())
         .thenReturn(new DummyCloseableResource<>(client));
+    Mockito.when(context.getMetadataCache()).thenReturn(new MetadataCache(false, 0, 0));
 
     LineageFileOutStream stream = new LineageFileOutStream(context, new AlluxioURI("/path"),
         OutStreamOptions.defaults().setWriteType(WriteType.ASYNC_THROUGH));
@@ -16,6 +16,7 @@ import alluxio.Constants;
 import alluxio.client.file.FileOutStream;
 import alluxio.client.file.FileSystemContext;
 import alluxio.client.file.FileSystemMasterClient;
+import alluxio.client.file.MetadataCache;
 import alluxio.client.file.URIStatus;
 import alluxio.client.file.options.CreateFileOptions;
 import alluxio.client.file.options.GetStatusOptions;
@@ -59,6 +60,8 @@ public final class LineageFileSystemTest {
     FileSystemMasterClient
         fileSystemMasterClient = PowerMockito.mock(FileSystemMasterClient.class);
     Mockito.when(fileSystemContext.acquireMasterClient()).thenReturn(fileSystemMasterClient);
+    Mockito.when(fileSystemContext.getMetadataCache())
+        .thenReturn(new MetadataCache(false, 0, 0));
     Mockito.when(fileSystemMasterClient
         .getStatus(Mockito.any(AlluxioURI.class), Mockito.any(GetStatusOptions.class)))
         .thenReturn(new URIStatus(new FileInfo()));
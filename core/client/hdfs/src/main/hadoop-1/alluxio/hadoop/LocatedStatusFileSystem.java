@@ -0,0 +1,36 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.hadoop;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * The Hadoop 1 variant of the {@link AbstractFileSystem} which streams located listings in Hadoop 2
+ * builds. Hadoop 1 has no {@code listLocatedStatus}, so there is nothing to override.
+ */
+@NotThreadSafe
+abstract class LocatedStatusFileSystem extends AbstractFileSystem {
+  /**
+   * Constructs a new {@link LocatedStatusFileSystem} instance with specified a
+   * {@link alluxio.client.file.FileSystem} handler for tests.
+   *
+   * @param fileSystem handler to file system
+   */
+  LocatedStatusFileSystem(alluxio.client.file.FileSystem fileSystem) {
+    super(fileSystem);
+  }
+
+  /**
+   * Constructs a new {@link LocatedStatusFileSystem} instance.
+   */
+  LocatedStatusFileSystem() {}
+}
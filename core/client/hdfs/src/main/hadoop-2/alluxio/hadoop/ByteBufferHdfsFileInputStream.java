@@ -0,0 +1,36 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.hadoop;
+
+import alluxio.client.file.FileInStream;
+
+import org.apache.hadoop.fs.ByteBufferReadable;
+import org.apache.hadoop.fs.FileSystem.Statistics;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * An {@link HdfsFileInputStream} which lets {@code FSDataInputStream#read(ByteBuffer)} read
+ * directly into the given buffer. {@link ByteBufferReadable} was added in Hadoop 2, so Hadoop 1
+ * builds compile a variant of this class from src/main/hadoop-1 instead.
+ */
+@NotThreadSafe
+public class ByteBufferHdfsFileInputStream extends HdfsFileInputStream
+    implements ByteBufferReadable {
+  /**
+   * @param inputStream the Alluxio stream to read the file from
+   * @param stats filesystem statistics
+   */
+  ByteBufferHdfsFileInputStream(FileInStream inputStream, Statistics stats) {
+    super(inputStream, stats);
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.hadoop;
+
+import alluxio.client.file.ListStatusIterator;
+import alluxio.exception.AlluxioException;
+import alluxio.exception.FileDoesNotExistException;
+
+import org.apache.hadoop.fs.BlockLocation;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.LocatedFileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.PathFilter;
+import org.apache.hadoop.fs.RemoteIterator;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * An {@link AbstractFileSystem} which streams {@link #listLocatedStatus(Path, PathFilter)}.
+ * {@link RemoteIterator} and {@link LocatedFileStatus} were added in Hadoop 2, so Hadoop 1 builds
+ * compile a variant of this class from src/main/hadoop-1 instead.
+ */
+@NotThreadSafe
+abstract class LocatedStatusFileSystem extends AbstractFileSystem {
+  /**
+   * Constructs a new {@link LocatedStatusFileSystem} instance with specified a
+   * {@link alluxio.client.file.FileSystem} handler for tests.
+   *
+   * @param fileSystem handler to file system
+   */
+  LocatedStatusFileSystem(alluxio.client.file.FileSystem fileSystem) {
+    super(fileSystem);
+  }
+
+  /**
+   * Constructs a new {@link LocatedStatusFileSystem} instance.
+   */
+  LocatedStatusFileSystem() {}
+
+  /**
+   * {@inheritDoc}
+   *
+   * The children are fetched from Alluxio in batches while iterating, so that listing a large
+   * directory does not require holding all of its entries in memory.
+   */
+  @Override
+  protected RemoteIterator<LocatedFileStatus> listLocatedStatus(final Path path,
+      final PathFilter filter) throws IOException {
+    final ListStatusIterator iterator = listStatusIterator(path);
+    return new RemoteIterator<LocatedFileStatus>() {
+      private LocatedFileStatus mNext = null;
+
+      @Override
+      public boolean hasNext() throws IOException {
+        try {
+          while (mNext == null && iterator.hasNext()) {
+            FileStatus status = toFileStatus(iterator.next());
+            if (filter.accept(status.getPath())) {
+              BlockLocation[] locations = status.isFile()
+                  ? getFileBlockLocations(status, 0, status.getLen()) : null;
+              mNext = new LocatedFileStatus(status, locations);
+            }
+          }
+        } catch (FileDoesNotExistException e) {
+          throw new FileNotFoundException(HadoopUtils.getPathWithoutScheme(path));
+        } catch (AlluxioException e) {
+          throw new IOException(e);
+        }
+        return mNext != null;
+      }
+
+      @Override
+      public LocatedFileStatus next() throws IOException {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        LocatedFileStatus next = mNext;
+        mNext = null;
+        return next;
+      }
+    };
+  }
+}
@@ -18,10 +18,12 @@ import alluxio.client.file.FileOutStream;
 import alluxio.client.file.FileSystem;
 import alluxio.client.file.FileSystemContext;
 import alluxio.client.file.FileSystemMasterClient;
+import alluxio.client.file.ListStatusIterator;
 import alluxio.client.file.URIStatus;
 import alluxio.client.file.options.CreateDirectoryOptions;
 import alluxio.client.file.options.CreateFileOptions;
 import alluxio.client.file.options.DeleteOptions;
+import alluxio.client.file.options.ListStatusOptions;
 import alluxio.client.file.options.SetAttributeOptions;
 import alluxio.client.lineage.LineageContext;
 import alluxio.exception.AlluxioException;
@@ -578,25 +580,45 @@ abstract class AbstractFileSystem extends org.apache.hadoop.fs.FileSystem {
     }
 
     AlluxioURI uri = new AlluxioURI(HadoopUtils.getPathWithoutScheme(path));
-    List<URIStatus> statuses;
+    ListStatusIterator iterator =
+        new ListStatusIterator(mFileSystem, uri, ListStatusOptions.defaults());
+    List<FileStatus> ret = new ArrayList<>();
     try {
-      statuses = mFileSystem.listStatus(uri);
+      while (iterator.hasNext()) {
+        ret.add(toFileStatus(iterator.next()));
+      }
     } catch (FileDoesNotExistException e) {
       throw new FileNotFoundException(HadoopUtils.getPathWithoutScheme(path));
     } catch (AlluxioException e) {
       throw new IOException(e);
     }
+    return ret.toArray(new FileStatus[ret.size()]);
+  }
 
-    FileStatus[] ret = new FileStatus[statuses.size()];
-    for (int k = 0; k < statuses.size(); k++) {
-      URIStatus status = statuses.get(k);
+  /**
+   * @param path the directory to list
+   * @return an iterator which fetches the children of the directory from Alluxio in batches
+   */
+  ListStatusIterator listStatusIterator(Path path) {
+    LOG.debug("listStatusIterator({})", path);
 
-      ret[k] = new FileStatus(status.getLength(), status.isFolder(), getReplica(status),
-          status.getBlockSizeBytes(), status.getLastModificationTimeMs(),
-          status.getCreationTimeMs(), new FsPermission((short) status.getMode()), status.getOwner(),
-          status.getGroup(), new Path(mAlluxioHeader + status.getPath()));
+    if (mStatistics != null) {
+      mStatistics.incrementReadOps(1);
     }
-    return ret;
+
+    AlluxioURI uri = new AlluxioURI(HadoopUtils.getPathWithoutScheme(path));
+    return new ListStatusIterator(mFileSystem, uri, ListStatusOptions.defaults());
+  }
+
+  /**
+   * @param status the Alluxio status of a path
+   * @return the Hadoop {@link FileStatus} representation of the status
+   */
+  FileStatus toFileStatus(URIStatus status) {
+    return new FileStatus(status.getLength(), status.isFolder(), getReplica(status),
+        status.getBlockSizeBytes(), status.getLastModificationTimeMs(),
+        status.getCreationTimeMs(), new FsPermission((short) status.getMode()), status.getOwner(),
+        status.getGroup(), new Path(mAlluxioHeader + status.getPath()));
   }
 
   /**
@@ -640,7 +662,7 @@ abstract class AbstractFileSystem extends org.apache.hadoop.fs.FileSystem {
     }
 
     AlluxioURI uri = new AlluxioURI(HadoopUtils.getPathWithoutScheme(path));
-    return new FSDataInputStream(new HdfsFileInputStream(mContext, uri, mStatistics));
+    return new FSDataInputStream(HdfsFileInputStream.create(mContext, uri, mStatistics));
   }
 
   @Override
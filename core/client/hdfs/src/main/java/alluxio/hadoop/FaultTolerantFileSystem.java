@@ -34,7 +34,7 @@ import javax.annotation.concurrent.NotThreadSafe;
  */
 @NotThreadSafe
 @Deprecated
-public final class FaultTolerantFileSystem extends AbstractFileSystem {
+public final class FaultTolerantFileSystem extends LocatedStatusFileSystem {
   private static final Logger LOG = LoggerFactory.getLogger(FaultTolerantFileSystem.class);
 
   /**
@@ -26,7 +26,7 @@ import javax.annotation.concurrent.NotThreadSafe;
  */
 @PublicApi
 @NotThreadSafe
-public final class FileSystem extends AbstractFileSystem {
+public final class FileSystem extends LocatedStatusFileSystem {
   /**
    * Constructs a new {@link FileSystem}.
    */
@@ -13,6 +13,7 @@ package alluxio.hadoop;
 
 import alluxio.AlluxioURI;
 import alluxio.client.file.FileInStream;
+import alluxio.client.file.FileRange;
 import alluxio.client.file.FileSystem;
 import alluxio.client.file.FileSystemContext;
 import alluxio.client.file.options.OpenFileOptions;
@@ -30,6 +31,8 @@ import java.io.EOFException;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
@@ -55,12 +58,42 @@ public class HdfsFileInputStream extends InputStream implements Seekable, Positi
    */
   public HdfsFileInputStream(FileSystemContext context, AlluxioURI uri, Statistics stats)
       throws IOException {
+    this(openFile(context, uri), stats);
     LOG.debug("HdfsFileInputStream({}, {})", uri, stats);
+  }
 
+  /**
+   * Constructs a new stream for reading a file from HDFS, wrapping an open Alluxio stream.
+   *
+   * @param inputStream the Alluxio stream to read the file from
+   * @param stats filesystem statistics
+   */
+  protected HdfsFileInputStream(FileInStream inputStream, Statistics stats) {
+    mInputStream = inputStream;
     mStatistics = stats;
+  }
+
+  /**
+   * Opens a file for reading from HDFS. The returned stream also supports reading into byte
+   * buffers through {@code FSDataInputStream#read(ByteBuffer)} if the Hadoop version allows it.
+   *
+   * @param context the file system context
+   * @param uri the Alluxio file URI
+   * @param stats filesystem statistics
+   * @return the stream
+   */
+  public static HdfsFileInputStream create(FileSystemContext context, AlluxioURI uri,
+      Statistics stats) throws IOException {
+    LOG.debug("HdfsFileInputStream.create({}, {})", uri, stats);
+    // The class is compiled from the source directory of the Hadoop version built against
+    return new ByteBufferHdfsFileInputStream(openFile(context, uri), stats);
+  }
+
+  private static FileInStream openFile(FileSystemContext context, AlluxioURI uri)
+      throws IOException {
     FileSystem fs = FileSystem.Factory.get(context);
     try {
-      mInputStream = fs.openFile(uri, OpenFileOptions.defaults());
+      return fs.openFile(uri, OpenFileOptions.defaults());
     } catch (FileDoesNotExistException e) {
       // Transform the Alluxio exception to a Java exception to satisfy the HDFS API contract.
       throw new FileNotFoundException(ExceptionMessage.PATH_DOES_NOT_EXIST.getMessage(uri));
@@ -122,6 +155,25 @@ public class HdfsFileInputStream extends InputStream implements Seekable, Positi
     return bytesRead;
   }
 
+  /**
+   * Reads up to {@code buf.remaining()} bytes into the given buffer, see
+   * {@link FileInStream#read(ByteBuffer)}.
+   *
+   * @param buf the buffer to read into
+   * @return the number of bytes read, or -1 at the end of the file
+   */
+  public int read(ByteBuffer buf) throws IOException {
+    if (mClosed) {
+      throw new IOException(ExceptionMessage.READ_CLOSED_STREAM.getMessage());
+    }
+
+    int bytesRead = mInputStream.read(buf);
+    if (bytesRead != -1 && mStatistics != null) {
+      mStatistics.incrementBytesRead(bytesRead);
+    }
+    return bytesRead;
+  }
+
   @Override
   public int read(long position, byte[] buffer, int offset, int length) throws IOException {
     if (mClosed) {
@@ -135,6 +187,26 @@ public class HdfsFileInputStream extends InputStream implements Seekable, Positi
     return bytesRead;
   }
 
+  /**
+   * Reads a list of ranges of the file, see {@link FileInStream#readVectored}.
+   *
+   * @param ranges the ranges to read
+   * @return a buffer with the data of each range, in the order of the given ranges
+   */
+  public List<ByteBuffer> readVectored(List<FileRange> ranges) throws IOException {
+    if (mClosed) {
+      throw new IOException(ExceptionMessage.READ_CLOSED_STREAM.getMessage());
+    }
+
+    List<ByteBuffer> buffers = mInputStream.readVectored(ranges);
+    if (mStatistics != null) {
+      for (ByteBuffer buffer : buffers) {
+        mStatistics.incrementBytesRead(buffer.remaining());
+      }
+    }
+    return buffers;
+  }
+
   @Override
   public void readFully(long position, byte[] buffer) throws IOException {
     readFully(position, buffer, 0, buffer.length);
@@ -285,6 +285,23 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.SERVER)
           .build();
+  public static final PropertyKey KEY_VALUE_CLIENT_BLOOM_FILTER_CACHE_SIZE_BYTES =
+      new Builder(Name.KEY_VALUE_CLIENT_BLOOM_FILTER_CACHE_SIZE_BYTES)
+          .setDefaultValue("64MB")
+          .setDescription("The maximum size of the Bloom filters of key-value partitions cached "
+              + "by the key-value store readers of a client.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey KEY_VALUE_PARTITION_BLOOM_FILTER_FPP =
+      new Builder(Name.KEY_VALUE_PARTITION_BLOOM_FILTER_FPP)
+          .setDefaultValue(0.01)
+          .setDescription("The false positive probability of the Bloom filter written in each "
+              + "key-value partition, which lets readers answer lookups of absent keys without "
+              + "querying the partition. Set it to 0 to write partitions without a Bloom filter.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
   public static final PropertyKey KEY_VALUE_PARTITION_SIZE_BYTES_MAX =
       new Builder(Name.KEY_VALUE_PARTITION_SIZE_BYTES_MAX)
           .setDefaultValue("512MB")
@@ -295,6 +312,14 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.CLIENT)
           .build();
+  public static final PropertyKey KEY_VALUE_WORKER_PARTITION_READER_CACHE_SIZE =
+      new Builder(Name.KEY_VALUE_WORKER_PARTITION_READER_CACHE_SIZE)
+          .setDefaultValue(256)
+          .setDescription("The maximum number of key-value partitions a worker keeps open and "
+              + "memory mapped to serve queries. Set it to 0 to map a partition for each query.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey LOGGER_TYPE =
       new Builder(Name.LOGGER_TYPE)
           .setDefaultValue("Console")
@@ -983,6 +1008,17 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.MASTER)
           .build();
+  public static final PropertyKey MASTER_JOURNAL_QUEUE_CAPACITY =
+      new Builder(Name.MASTER_JOURNAL_QUEUE_CAPACITY)
+          .setDefaultValue(65536)
+          .setDescription(String.format("The maximum number of journal entries buffered by "
+              + "the master before they are written to the journal. When the buffer is full, "
+              + "threads appending journal entries wait until entries are written. If the buffer "
+              + "stays full for longer than %s, the master shuts down.",
+              Name.MASTER_JOURNAL_FLUSH_TIMEOUT_MS))
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.MASTER)
+          .build();
   public static final PropertyKey MASTER_JOURNAL_TAILER_SHUTDOWN_QUIET_WAIT_TIME_MS =
       new Builder(Name.MASTER_JOURNAL_TAILER_SHUTDOWN_QUIET_WAIT_TIME_MS)
           .setAlias(new String[]{"alluxio.master.journal.tailer.shutdown.quiet.wait.time.ms"})
@@ -1010,6 +1046,14 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.MASTER)
           .build();
+  public static final PropertyKey MASTER_JOURNAL_CHECKPOINT_THREADS =
+      new Builder(Name.MASTER_JOURNAL_CHECKPOINT_THREADS)
+          .setDefaultValue(8)
+          .setDescription("The number of threads used to serialize journal checkpoints when "
+              + "writing them and to parse them when replaying them.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.MASTER)
+          .build();
   public static final PropertyKey MASTER_JOURNAL_GC_PERIOD_MS =
       new Builder(Name.MASTER_JOURNAL_GC_PERIOD_MS)
           .setAlias(new String[] {"alluxio.master.journal.gc.period.ms"})
@@ -1075,6 +1119,23 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.MASTER)
           .build();
+  public static final PropertyKey MASTER_METADATA_SYNC_UFS_PREFETCH_LISTINGS_MAX =
+      new Builder(Name.MASTER_METADATA_SYNC_UFS_PREFETCH_LISTINGS_MAX)
+          .setDefaultValue(64)
+          .setDescription("The maximum number of UFS directory listings each metadata sync "
+              + "fetches ahead and holds in memory before it processes them.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.MASTER)
+          .build();
+  public static final PropertyKey MASTER_METADATA_SYNC_UFS_PREFETCH_THREADS =
+      new Builder(Name.MASTER_METADATA_SYNC_UFS_PREFETCH_THREADS)
+          .setDefaultValue(32)
+          .setDescription("The number of threads listing UFS directories ahead of metadata syncs, "
+              + "so that the listings of a recursive sync are fetched in parallel. If this is set "
+              + "to 0, directories are listed one at a time by the thread syncing them.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.MASTER)
+          .build();
   public static final PropertyKey MASTER_PRINCIPAL = new Builder(Name.MASTER_PRINCIPAL)
       .setDescription("Kerberos principal for Alluxio master.")
       .setConsistencyCheckLevel(ConsistencyCheckLevel.ENFORCE)
@@ -1101,6 +1162,26 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.ALL)
           .build();
+  public static final PropertyKey MASTER_RPC_SERVER_TYPE =
+      new Builder(Name.MASTER_RPC_SERVER_TYPE)
+          .setDefaultValue("THREAD_POOL")
+          .setDescription("The type of Thrift RPC server of the master. Valid options are "
+              + "`THREAD_POOL`, which uses one server thread per client connection, and "
+              + "`THREADED_SELECTOR`, which serves all client connections with a few selector "
+              + "threads and processes requests with a pool of alluxio.master.worker.threads.max "
+              + "threads. With KERBEROS authentication, which the selector threads cannot "
+              + "negotiate, the `THREAD_POOL` server is used and a warning is logged at startup.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.MASTER)
+          .build();
+  public static final PropertyKey MASTER_RPC_SELECTOR_THREADS =
+      new Builder(Name.MASTER_RPC_SELECTOR_THREADS)
+          .setDefaultValue(4)
+          .setDescription("The number of selector threads handling client connections when "
+              + "alluxio.master.rpc.server.type is THREADED_SELECTOR.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.MASTER)
+          .build();
   public static final PropertyKey MASTER_SERVING_THREAD_TIMEOUT =
       new Builder(Name.MASTER_SERVING_THREAD_TIMEOUT)
           .setDefaultValue("5m")
@@ -1296,6 +1377,16 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
+  public static final PropertyKey WORKER_BLOCK_REPORT_CHUNK_SIZE =
+      new Builder(Name.WORKER_BLOCK_REPORT_CHUNK_SIZE)
+          .setDefaultValue(100000)
+          .setDescription("The maximum number of blocks in each chunk of the compact block report "
+              + "sent by a worker when it registers with the master. Set it to 0 to send all "
+              + "blocks in a single uncompressed register request, which is also what workers "
+              + "do with masters that do not support block report chunks.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey WORKER_BLOCK_THREADS_MAX =
       new Builder(Name.WORKER_BLOCK_THREADS_MAX)
           .setDefaultValue(2048)
@@ -1407,6 +1498,24 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
+  public static final PropertyKey WORKER_FILE_PERSIST_BUFFER_SIZE =
+      new Builder(Name.WORKER_FILE_PERSIST_BUFFER_SIZE)
+          .setDefaultValue("4MB")
+          .setDescription("The size of the buffer of each file being persisted, which holds the "
+              + "data read from the blocks of the file until it is written to the under storage. "
+              + "The blocks are read while the under storage is written, as long as the buffer is "
+              + "not full.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_FILE_PERSIST_MOUNT_CONCURRENCY =
+      new Builder(Name.WORKER_FILE_PERSIST_MOUNT_CONCURRENCY)
+          .setDefaultValue(0)
+          .setDescription("The maximum number of files persisted concurrently to the under "
+              + "storage of each mount point, or 0 for no limit. The limit applies per worker.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey WORKER_FILE_PERSIST_POOL_SIZE =
       new Builder(Name.WORKER_FILE_PERSIST_POOL_SIZE)
           .setDefaultValue(64)
@@ -1518,7 +1627,18 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setDefaultValue("MAPPED")
           .setDescription("When returning files to the user, select how the data is "
               + "transferred; valid options are `MAPPED` (uses java MappedByteBuffer) and "
-              + "`TRANSFER` (uses Java FileChannel.transferTo).")
+              + "`TRANSFER` (uses Java FileChannel.transferTo). With `MAPPED`, only blocks in the "
+              + "MEM tier are served from memory mappings, blocks in the other tiers are sent "
+              + "with FileChannel.transferTo.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_NETWORK_NETTY_MMAP_CACHE_SIZE =
+      new Builder(Name.WORKER_NETWORK_NETTY_MMAP_CACHE_SIZE)
+          .setDefaultValue("512MB")
+          .setDescription("The maximum number of bytes of block file memory mappings retained by "
+              + "the data server to serve remote reads of blocks in the MEM tier without copying. "
+              + "Set to 0 to copy block data into netty buffers instead.")
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
@@ -1643,6 +1763,26 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
+  public static final PropertyKey WORKER_RPC_SERVER_TYPE =
+      new Builder(Name.WORKER_RPC_SERVER_TYPE)
+          .setDefaultValue("THREAD_POOL")
+          .setDescription("The type of Thrift RPC server of the worker. Valid options are "
+              + "`THREAD_POOL`, which uses one server thread per client connection, and "
+              + "`THREADED_SELECTOR`, which serves all client connections with a few selector "
+              + "threads and processes requests with a pool of alluxio.worker.block.threads.max "
+              + "threads. With KERBEROS authentication, which the selector threads cannot "
+              + "negotiate, the `THREAD_POOL` server is used and a warning is logged at startup.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_RPC_SELECTOR_THREADS =
+      new Builder(Name.WORKER_RPC_SELECTOR_THREADS)
+          .setDefaultValue(2)
+          .setDescription("The number of selector threads handling client connections when "
+              + "alluxio.worker.rpc.server.type is THREADED_SELECTOR.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey WORKER_SESSION_TIMEOUT_MS =
       new Builder(Name.WORKER_SESSION_TIMEOUT_MS)
           .setAlias(new String[]{"alluxio.worker.session.timeout.ms"})
@@ -1869,6 +2009,16 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
+  public static final PropertyKey WORKER_UFS_BLOCK_READ_COALESCE_WINDOW_BYTES =
+      new Builder(Name.WORKER_UFS_BLOCK_READ_COALESCE_WINDOW_BYTES)
+          .setDefaultValue("8MB")
+          .setDescription("The number of most recently fetched bytes of a UFS block that the "
+              + "worker keeps in memory, so that concurrent readers of the same block share one "
+              + "UFS input stream. Readers falling further behind than this window read from "
+              + "their own UFS input stream. Set to 0 to disable coalescing UFS block reads.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey WORKER_UFS_INSTREAM_CACHE_ENABLED =
       new Builder(Name.WORKER_UFS_INSTREAM_CACHE_ENABLED)
           .setDefaultValue("true")
@@ -2144,6 +2294,16 @@ public final class PropertyKey implements Comparable<PropertyKey> {
               + "before attempting to delete persisted directories recursively.")
           .setScope(Scope.CLIENT)
           .build();
+  public static final PropertyKey USER_FILE_LIST_STATUS_BATCH_SIZE =
+      new Builder(Name.USER_FILE_LIST_STATUS_BATCH_SIZE)
+          .setDefaultValue(1000)
+          .setDescription("The maximum number of directory entries fetched from the master per "
+              + "listStatus RPC when listing through an iterator or the Hadoop client. Larger "
+              + "directories are listed in several batches. If this is set to 0, each directory "
+              + "is listed in a single RPC.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
   public static final PropertyKey USER_FILE_MASTER_CLIENT_THREADS =
       new Builder(Name.USER_FILE_MASTER_CLIENT_THREADS)
           .setDefaultValue(10)
@@ -2152,6 +2312,32 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.CLIENT)
           .build();
+  public static final PropertyKey USER_FILE_METADATA_CACHE_ENABLED =
+      new Builder(Name.USER_FILE_METADATA_CACHE_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("Whether to cache file metadata (the results of getStatus and full "
+              + "listStatus calls) on the client. Cached entries are invalidated by operations "
+              + "issued through the same client, but changes made by other clients are only "
+              + "observed after the entries expire, see "
+              + "\"alluxio.user.file.metadata.cache.expiration.time\".")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_FILE_METADATA_CACHE_EXPIRATION_TIME =
+      new Builder(Name.USER_FILE_METADATA_CACHE_EXPIRATION_TIME)
+          .setDefaultValue("10sec")
+          .setDescription("The amount of time a cached file metadata entry stays valid on the "
+              + "client before it is fetched from the master again.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_FILE_METADATA_CACHE_MAX_SIZE =
+      new Builder(Name.USER_FILE_METADATA_CACHE_MAX_SIZE)
+          .setDefaultValue(10000)
+          .setDescription("The maximum number of paths whose metadata is cached on the client.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
   public static final PropertyKey USER_FILE_METADATA_LOAD_TYPE =
       new Builder(Name.USER_FILE_METADATA_LOAD_TYPE)
           .setDefaultValue("Once")
@@ -2187,6 +2373,60 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.CLIENT)
           .build();
+  public static final PropertyKey USER_FILE_POSITIONED_READ_STREAMS_MAX =
+      new Builder(Name.USER_FILE_POSITIONED_READ_STREAMS_MAX)
+          .setDefaultValue(16)
+          .setDescription("The maximum number of block streams a file input stream keeps open "
+              + "across positioned and vectored reads. The least recently used stream is closed "
+              + "when the limit is exceeded.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_FILE_READ_AHEAD_ENABLED =
+      new Builder(Name.USER_FILE_READ_AHEAD_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("Whether file input streams open the next block ahead of time once they "
+              + "detect a sequential scan, i.e. a block was read to its end. The next block "
+              + "stream is opened and its first packet fetched in the background, hiding the "
+              + "setup cost at block boundaries.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_FILE_READ_AHEAD_THREADS_MAX =
+      new Builder(Name.USER_FILE_READ_AHEAD_THREADS_MAX)
+          .setDefaultValue(64)
+          .setDescription("The maximum number of threads per file system context opening "
+              + "block streams ahead of sequential reads. When all of them are busy, nothing is "
+              + "read ahead.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_FILE_READ_VECTORED_MERGE_GAP_BYTES =
+      new Builder(Name.USER_FILE_READ_VECTORED_MERGE_GAP_BYTES)
+          .setDefaultValue("16KB")
+          .setDescription("The largest gap between two ranges of a vectored read that are still "
+              + "coalesced into a single read. Reading the bytes in between is usually cheaper "
+              + "than issuing another request.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_FILE_READ_VECTORED_MERGE_MAX_BYTES =
+      new Builder(Name.USER_FILE_READ_VECTORED_MERGE_MAX_BYTES)
+          .setDefaultValue("1MB")
+          .setDescription("The largest size of a read that ranges of a vectored read are "
+              + "coalesced into.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_FILE_READ_VECTORED_THREADS_MAX =
+      new Builder(Name.USER_FILE_READ_VECTORED_THREADS_MAX)
+          .setDefaultValue(64)
+          .setDescription("The maximum number of threads per file system context reading the "
+              + "blocks of vectored reads in parallel. When all of them are busy, the blocks are "
+              + "read by the thread calling the vectored read.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
   public static final PropertyKey USER_FILE_READ_TYPE_DEFAULT =
       new Builder(Name.USER_FILE_READ_TYPE_DEFAULT)
           .setDefaultValue("CACHE_PROMOTE")
@@ -2289,6 +2529,16 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.CLIENT)
           .build();
+  public static final PropertyKey USER_LOCAL_READER_MMAP_WINDOW_SIZE_BYTES =
+      new Builder(Name.USER_LOCAL_READER_MMAP_WINDOW_SIZE_BYTES)
+          .setDefaultValue("64MB")
+          .setDescription("When a client reads from a local worker, the size of the windows of "
+              + "the block file that are memory mapped at a time. Packets are served from the "
+              + "current window, which is unmapped as soon as the reader moves past it or is "
+              + "closed.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
   public static final PropertyKey USER_LOCAL_READER_PACKET_SIZE_BYTES =
       new Builder(Name.USER_LOCAL_READER_PACKET_SIZE_BYTES)
           .setDefaultValue("8MB")
@@ -2505,6 +2755,16 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.CLIENT)
           .build();
+  public static final PropertyKey USER_WORKER_LIST_REFRESH_INTERVAL =
+      new Builder(Name.USER_WORKER_LIST_REFRESH_INTERVAL)
+          .setDefaultValue("1sec")
+          .setDescription("The interval at which the client refreshes its cached list of workers "
+              + "from the master. Block placement and UFS read location policies choose workers "
+              + "from this list, which is also refreshed whenever no worker could be found for a "
+              + "new block.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
 
   //
   // FUSE integration related properties
@@ -2785,8 +3045,14 @@ public final class PropertyKey implements Comparable<PropertyKey> {
     public static final String INTEGRATION_YARN_WORKERS_PER_HOST_MAX =
         "alluxio.integration.yarn.workers.per.host.max";
     public static final String KEY_VALUE_ENABLED = "alluxio.keyvalue.enabled";
+    public static final String KEY_VALUE_CLIENT_BLOOM_FILTER_CACHE_SIZE_BYTES =
+        "alluxio.keyvalue.client.bloom.filter.cache.size.bytes";
+    public static final String KEY_VALUE_PARTITION_BLOOM_FILTER_FPP =
+        "alluxio.keyvalue.partition.bloom.filter.fpp";
     public static final String KEY_VALUE_PARTITION_SIZE_BYTES_MAX =
         "alluxio.keyvalue.partition.size.bytes.max";
+    public static final String KEY_VALUE_WORKER_PARTITION_READER_CACHE_SIZE =
+        "alluxio.keyvalue.worker.partition.reader.cache.size";
     public static final String LOGGER_TYPE = "alluxio.logger.type";
     public static final String LOGS_DIR = "alluxio.logs.dir";
     public static final String METRICS_CONF_FILE = "alluxio.metrics.conf.file";
@@ -2922,6 +3188,8 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.master.journal.formatter.class";
     public static final String MASTER_JOURNAL_LOG_SIZE_BYTES_MAX =
         "alluxio.master.journal.log.size.bytes.max";
+    public static final String MASTER_JOURNAL_QUEUE_CAPACITY =
+        "alluxio.master.journal.queue.capacity";
     public static final String MASTER_JOURNAL_TAILER_SHUTDOWN_QUIET_WAIT_TIME_MS =
         "alluxio.master.journal.tailer.shutdown.quiet.wait.time";
     public static final String MASTER_JOURNAL_TAILER_SLEEP_TIME_MS =
@@ -2935,9 +3203,15 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.master.lineage.recompute.interval";
     public static final String MASTER_LINEAGE_RECOMPUTE_LOG_PATH =
         "alluxio.master.lineage.recompute.log.path";
+    public static final String MASTER_METADATA_SYNC_UFS_PREFETCH_LISTINGS_MAX =
+        "alluxio.master.metadata.sync.ufs.prefetch.listings.max";
+    public static final String MASTER_METADATA_SYNC_UFS_PREFETCH_THREADS =
+        "alluxio.master.metadata.sync.ufs.prefetch.threads";
     public static final String MASTER_PRINCIPAL = "alluxio.master.principal";
     public static final String MASTER_RETRY = "alluxio.master.retry";
     public static final String MASTER_RPC_PORT = "alluxio.master.port";
+    public static final String MASTER_RPC_SERVER_TYPE = "alluxio.master.rpc.server.type";
+    public static final String MASTER_RPC_SELECTOR_THREADS = "alluxio.master.rpc.selector.threads";
     public static final String MASTER_SERVING_THREAD_TIMEOUT =
         "alluxio.master.serving.thread.timeout";
     public static final String MASTER_STARTUP_CONSISTENCY_CHECK_ENABLED =
@@ -2971,6 +3245,8 @@ public final class PropertyKey implements Comparable<PropertyKey> {
     public static final String MASTER_WORKER_TIMEOUT_MS = "alluxio.master.worker.timeout";
     public static final String MASTER_JOURNAL_CHECKPOINT_PERIOD_ENTRIES =
         "alluxio.master.journal.checkpoint.period.entries";
+    public static final String MASTER_JOURNAL_CHECKPOINT_THREADS =
+        "alluxio.master.journal.checkpoint.threads";
     public static final String MASTER_JOURNAL_GC_PERIOD_MS = "alluxio.master.journal.gc.period";
     public static final String MASTER_JOURNAL_GC_THRESHOLD_MS =
         "alluxio.master.journal.gc.threshold";
@@ -2986,6 +3262,8 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.worker.block.heartbeat.interval";
     public static final String WORKER_BLOCK_HEARTBEAT_TIMEOUT_MS =
         "alluxio.worker.block.heartbeat.timeout";
+    public static final String WORKER_BLOCK_REPORT_CHUNK_SIZE =
+        "alluxio.worker.block.report.chunk.size";
     public static final String WORKER_BLOCK_THREADS_MAX = "alluxio.worker.block.threads.max";
     public static final String WORKER_BLOCK_THREADS_MIN = "alluxio.worker.block.threads.min";
     public static final String WORKER_DATA_BIND_HOST = "alluxio.worker.data.bind.host";
@@ -3002,6 +3280,10 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.worker.evictor.lrfu.attenuation.factor";
     public static final String WORKER_EVICTOR_LRFU_STEP_FACTOR =
         "alluxio.worker.evictor.lrfu.step.factor";
+    public static final String WORKER_FILE_PERSIST_BUFFER_SIZE =
+        "alluxio.worker.file.persist.buffer.size";
+    public static final String WORKER_FILE_PERSIST_MOUNT_CONCURRENCY =
+        "alluxio.worker.file.persist.mount.concurrency";
     public static final String WORKER_FILESYSTEM_HEARTBEAT_INTERVAL_MS =
         "alluxio.worker.filesystem.heartbeat.interval";
     public static final String WORKER_FILE_PERSIST_POOL_SIZE =
@@ -3027,6 +3309,8 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.worker.network.netty.channel";
     public static final String WORKER_NETWORK_NETTY_FILE_TRANSFER_TYPE =
         "alluxio.worker.network.netty.file.transfer";
+    public static final String WORKER_NETWORK_NETTY_MMAP_CACHE_SIZE =
+        "alluxio.worker.network.netty.mmap.cache.size";
     public static final String WORKER_NETWORK_NETTY_SHUTDOWN_QUIET_PERIOD =
         "alluxio.worker.network.netty.shutdown.quiet.period";
     public static final String WORKER_NETWORK_NETTY_SHUTDOWN_TIMEOUT =
@@ -3057,6 +3341,8 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.worker.block.master.client.pool.size";
     public static final String WORKER_PRINCIPAL = "alluxio.worker.principal";
     public static final String WORKER_RPC_PORT = "alluxio.worker.port";
+    public static final String WORKER_RPC_SERVER_TYPE = "alluxio.worker.rpc.server.type";
+    public static final String WORKER_RPC_SELECTOR_THREADS = "alluxio.worker.rpc.selector.threads";
     public static final String WORKER_SESSION_TIMEOUT_MS = "alluxio.worker.session.timeout";
     public static final String WORKER_TIERED_STORE_BLOCK_LOCK_READERS =
         "alluxio.worker.tieredstore.block.lock.readers";
@@ -3073,6 +3359,8 @@ public final class PropertyKey implements Comparable<PropertyKey> {
     public static final String WORKER_WEB_PORT = "alluxio.worker.web.port";
     public static final String WORKER_UFS_BLOCK_OPEN_TIMEOUT_MS =
         "alluxio.worker.ufs.block.open.timeout";
+    public static final String WORKER_UFS_BLOCK_READ_COALESCE_WINDOW_BYTES =
+        "alluxio.worker.ufs.block.read.coalesce.window.bytes";
     public static final String WORKER_UFS_INSTREAM_CACHE_EXPIRATION_TIME =
         "alluxio.worker.ufs.instream.cache.expiration.time";
     public static final String WORKER_UFS_INSTREAM_CACHE_ENABLED =
@@ -3138,14 +3426,34 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.user.file.copyfromlocal.write.location.policy.class";
     public static final String USER_FILE_DELETE_UNCHECKED =
         "alluxio.user.file.delete.unchecked";
+    public static final String USER_FILE_LIST_STATUS_BATCH_SIZE =
+        "alluxio.user.file.list.status.batch.size";
     public static final String USER_FILE_MASTER_CLIENT_THREADS =
         "alluxio.user.file.master.client.threads";
+    public static final String USER_FILE_METADATA_CACHE_ENABLED =
+        "alluxio.user.file.metadata.cache.enabled";
+    public static final String USER_FILE_METADATA_CACHE_EXPIRATION_TIME =
+        "alluxio.user.file.metadata.cache.expiration.time";
+    public static final String USER_FILE_METADATA_CACHE_MAX_SIZE =
+        "alluxio.user.file.metadata.cache.max.size";
     public static final String USER_FILE_METADATA_LOAD_TYPE =
         "alluxio.user.file.metadata.load.type";
     public static final String USER_FILE_METADATA_SYNC_INTERVAL =
         "alluxio.user.file.metadata.sync.interval";
     public static final String USER_FILE_PASSIVE_CACHE_ENABLED =
         "alluxio.user.file.passive.cache.enabled";
+    public static final String USER_FILE_POSITIONED_READ_STREAMS_MAX =
+        "alluxio.user.file.positioned.read.streams.max";
+    public static final String USER_FILE_READ_AHEAD_ENABLED =
+        "alluxio.user.file.read.ahead.enabled";
+    public static final String USER_FILE_READ_AHEAD_THREADS_MAX =
+        "alluxio.user.file.read.ahead.threads.max";
+    public static final String USER_FILE_READ_VECTORED_MERGE_GAP_BYTES =
+        "alluxio.user.file.read.vectored.merge.gap.bytes";
+    public static final String USER_FILE_READ_VECTORED_MERGE_MAX_BYTES =
+        "alluxio.user.file.read.vectored.merge.max.bytes";
+    public static final String USER_FILE_READ_VECTORED_THREADS_MAX =
+        "alluxio.user.file.read.vectored.threads.max";
     public static final String USER_FILE_READ_TYPE_DEFAULT = "alluxio.user.file.readtype.default";
     public static final String USER_FILE_SEEK_BUFFER_SIZE_BYTES =
         "alluxio.user.file.seek.buffer.size.bytes";
@@ -3163,6 +3471,8 @@ public final class PropertyKey implements Comparable<PropertyKey> {
     public static final String USER_LINEAGE_ENABLED = "alluxio.user.lineage.enabled";
     public static final String USER_LINEAGE_MASTER_CLIENT_THREADS =
         "alluxio.user.lineage.master.client.threads";
+    public static final String USER_LOCAL_READER_MMAP_WINDOW_SIZE_BYTES =
+        "alluxio.user.local.reader.mmap.window.size.bytes";
     public static final String USER_LOCAL_READER_PACKET_SIZE_BYTES =
         "alluxio.user.local.reader.packet.size.bytes";
     public static final String USER_LOCAL_WRITER_PACKET_SIZE_BYTES =
@@ -3209,6 +3519,8 @@ public final class PropertyKey implements Comparable<PropertyKey> {
     public static final String USER_UFS_BLOCK_READ_CONCURRENCY_MAX =
         "alluxio.user.ufs.block.read.concurrency.max";
     public static final String USER_SHORT_CIRCUIT_ENABLED = "alluxio.user.short.circuit.enabled";
+    public static final String USER_WORKER_LIST_REFRESH_INTERVAL =
+        "alluxio.user.worker.list.refresh.interval";
 
     //
     // FUSE integration related properties
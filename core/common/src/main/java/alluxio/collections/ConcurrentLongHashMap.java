@@ -0,0 +1,487 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.collections;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.StampedLock;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A concurrent hash map from primitive long keys to non-null values. Unlike a
+ * {@link java.util.concurrent.ConcurrentHashMap} with {@link Long} keys, it does not allocate a
+ * boxed key and a node for each entry: the map is split into segments, each of which is an open
+ * addressing table stored in a long array of keys and an array of values. An entry takes about 12
+ * bytes per slot, instead of about 50 bytes.
+ *
+ * Reads are optimistic and do not block. Writes lock only the segment of the key. Removed
+ * entries leave a marker in their slot until the segment is rehashed, so entries never move
+ * within a table and iteration is weakly consistent, as with a
+ * {@link java.util.concurrent.ConcurrentHashMap}.
+ *
+ * @param <V> the type of the values
+ */
+@ThreadSafe
+public final class ConcurrentLongHashMap<V> {
+  /** The marker of a slot whose entry was removed. */
+  private static final Object REMOVED = new Object();
+  private static final int MIN_SEGMENT_CAPACITY = 4;
+
+  private final Segment[] mSegments;
+  /** The number of bits of the hash which select the segment. */
+  private final int mSegmentBits;
+  private final float mLoadFactor;
+
+  /**
+   * Creates a new {@link ConcurrentLongHashMap}.
+   */
+  public ConcurrentLongHashMap() {
+    this(16, 0.75f, 16);
+  }
+
+  /**
+   * Creates a new {@link ConcurrentLongHashMap}.
+   *
+   * @param initialCapacity the initial capacity
+   * @param loadFactor the load factor threshold, used to control resizing
+   * @param concurrencyLevel the estimated number of concurrently updating threads
+   */
+  public ConcurrentLongHashMap(int initialCapacity, float loadFactor, int concurrencyLevel) {
+    Preconditions.checkArgument(initialCapacity >= 0, "initialCapacity must be non-negative");
+    Preconditions.checkArgument(loadFactor > 0 && loadFactor < 1,
+        "loadFactor must be in (0, 1)");
+    Preconditions.checkArgument(concurrencyLevel > 0, "concurrencyLevel must be positive");
+    mLoadFactor = loadFactor;
+    int segmentBits = 0;
+    while ((1 << segmentBits) < concurrencyLevel && segmentBits < 16) {
+      segmentBits++;
+    }
+    mSegmentBits = segmentBits;
+    mSegments = new Segment[1 << segmentBits];
+    int segmentCapacity = tableSize((initialCapacity >> segmentBits) + 1, loadFactor);
+    for (int i = 0; i < mSegments.length; i++) {
+      mSegments[i] = new Segment(segmentCapacity);
+    }
+  }
+
+  /**
+   * @param key the key
+   * @return the value of the key, or null if the map does not contain the key
+   */
+  @Nullable
+  public V get(long key) {
+    long hash = hash(key);
+    Segment segment = segmentFor(hash);
+    StampedLock lock = segment.mLock;
+    long stamp = lock.tryOptimisticRead();
+    Object value = segment.find(key, hash);
+    if (!lock.validate(stamp)) {
+      stamp = lock.readLock();
+      try {
+        value = segment.find(key, hash);
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+    return cast(value);
+  }
+
+  /**
+   * @param key the key
+   * @return whether the map contains the key
+   */
+  public boolean containsKey(long key) {
+    return get(key) != null;
+  }
+
+  /**
+   * Associates the value with the key, replacing any previous value of the key.
+   *
+   * @param key the key
+   * @param value the value
+   * @return the previous value of the key, or null if there was none
+   */
+  @Nullable
+  public V put(long key, V value) {
+    return putInternal(key, value, false);
+  }
+
+  /**
+   * Associates the value with the key if the map does not contain the key.
+   *
+   * @param key the key
+   * @param value the value
+   * @return the current value of the key, or null if the value was added
+   */
+  @Nullable
+  public V putIfAbsent(long key, V value) {
+    return putInternal(key, value, true);
+  }
+
+  /**
+   * Removes a key from the map.
+   *
+   * @param key the key
+   * @return the value of the key, or null if the map did not contain the key
+   */
+  @Nullable
+  public V remove(long key) {
+    long hash = hash(key);
+    Segment segment = segmentFor(hash);
+    long stamp = segment.mLock.writeLock();
+    try {
+      return cast(segment.remove(key, hash));
+    } finally {
+      segment.mLock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * @return the number of entries in the map
+   */
+  public int size() {
+    long size = 0;
+    for (Segment segment : mSegments) {
+      long stamp = segment.mLock.readLock();
+      try {
+        size += segment.mSize;
+      } finally {
+        segment.mLock.unlockRead(stamp);
+      }
+    }
+    return (int) Math.min(size, Integer.MAX_VALUE);
+  }
+
+  /**
+   * @return whether the map is empty
+   */
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * Removes all entries from the map.
+   */
+  public void clear() {
+    int capacity = tableSize(1, mLoadFactor);
+    for (Segment segment : mSegments) {
+      long stamp = segment.mLock.writeLock();
+      try {
+        segment.reset(capacity);
+      } finally {
+        segment.mLock.unlockWrite(stamp);
+      }
+    }
+  }
+
+  /**
+   * Returns a weakly consistent iterator over the keys, which reflects the state of the map at
+   * some point at or since the creation of the iterator, and does not support removal.
+   *
+   * @return an iterator over the keys
+   */
+  public Iterator<Long> keyIterator() {
+    return new EntryIterator<Long>() {
+      @Override
+      Long current() {
+        return mKey;
+      }
+    };
+  }
+
+  /**
+   * Returns a weakly consistent iterator over the values, which reflects the state of the map at
+   * some point at or since the creation of the iterator, and does not support removal.
+   *
+   * @return an iterator over the values
+   */
+  public Iterator<V> valueIterator() {
+    return new EntryIterator<V>() {
+      @Override
+      V current() {
+        return cast(mValue);
+      }
+    };
+  }
+
+  private V putInternal(long key, V value, boolean onlyIfAbsent) {
+    Preconditions.checkNotNull(value, "value");
+    long hash = hash(key);
+    Segment segment = segmentFor(hash);
+    long stamp = segment.mLock.writeLock();
+    try {
+      return cast(segment.put(key, hash, value, onlyIfAbsent, mLoadFactor));
+    } finally {
+      segment.mLock.unlockWrite(stamp);
+    }
+  }
+
+  private Segment segmentFor(long hash) {
+    return mSegments[mSegmentBits == 0 ? 0 : (int) (hash >>> (64 - mSegmentBits))];
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <V> V cast(Object value) {
+    return (V) value;
+  }
+
+  private static long hash(long key) {
+    return key * 0x9E3779B97F4A7C15L;
+  }
+
+  private static int tableSize(int entries, float loadFactor) {
+    int size = MIN_SEGMENT_CAPACITY;
+    while (size * loadFactor < entries && size < (1 << 30)) {
+      size <<= 1;
+    }
+    return size;
+  }
+
+  /**
+   * An open addressing table with linear probing. A slot is empty if its value is null, and
+   * removed if its value is {@link #REMOVED}. The fields are written with the write lock held,
+   * and read either with the read lock held or optimistically.
+   */
+  private static final class Segment {
+    private final StampedLock mLock = new StampedLock();
+    private long[] mKeys;
+    private Object[] mValues;
+    /** The number of entries. */
+    private int mSize;
+    /** The number of slots which are not empty, including removed slots. */
+    private int mUsed;
+
+    private Segment(int capacity) {
+      reset(capacity);
+    }
+
+    private void reset(int capacity) {
+      mKeys = new long[capacity];
+      mValues = new Object[capacity];
+      mSize = 0;
+      mUsed = 0;
+    }
+
+    /**
+     * Finds the value of a key. This may run concurrently with writes when reading
+     * optimistically, so it reads the arrays once and never probes more slots than they have.
+     */
+    private Object find(long key, long hash) {
+      long[] keys = mKeys;
+      Object[] values = mValues;
+      int length = Math.min(keys.length, values.length);
+      int mask = length - 1;
+      int slot = slot(hash) & mask;
+      for (int probes = 0; probes < length; probes++, slot = (slot + 1) & mask) {
+        Object value = values[slot];
+        if (value == null) {
+          return null;
+        }
+        if (value != REMOVED && keys[slot] == key) {
+          return value;
+        }
+      }
+      return null;
+    }
+
+    private Object put(long key, long hash, Object value, boolean onlyIfAbsent,
+        float loadFactor) {
+      int mask = mKeys.length - 1;
+      int slot = slot(hash) & mask;
+      int free = -1;
+      for (;; slot = (slot + 1) & mask) {
+        Object current = mValues[slot];
+        if (current == null) {
+          break;
+        }
+        if (current == REMOVED) {
+          if (free < 0) {
+            free = slot;
+          }
+        } else if (mKeys[slot] == key) {
+          if (!onlyIfAbsent) {
+            mValues[slot] = value;
+          }
+          return current;
+        }
+      }
+      if (free < 0) {
+        if (mUsed + 1 > mKeys.length * loadFactor) {
+          rehash(tableSize(mSize + 1, loadFactor));
+          insert(key, hash, value);
+          mSize++;
+          return null;
+        }
+        free = slot;
+        mUsed++;
+      }
+      mKeys[free] = key;
+      mValues[free] = value;
+      mSize++;
+      return null;
+    }
+
+    private Object remove(long key, long hash) {
+      int mask = mKeys.length - 1;
+      int slot = slot(hash) & mask;
+      for (int probes = 0; probes < mKeys.length; probes++, slot = (slot + 1) & mask) {
+        Object value = mValues[slot];
+        if (value == null) {
+          return null;
+        }
+        if (value != REMOVED && mKeys[slot] == key) {
+          mValues[slot] = REMOVED;
+          mSize--;
+          return value;
+        }
+      }
+      return null;
+    }
+
+    /**
+     * Moves the entries to new arrays, dropping the removed slots. The old arrays are left
+     * unchanged for iterators which are still reading them.
+     */
+    private void rehash(int capacity) {
+      long[] keys = mKeys;
+      Object[] values = mValues;
+      long[] newKeys = new long[capacity];
+      Object[] newValues = new Object[capacity];
+      int mask = capacity - 1;
+      for (int i = 0; i < keys.length; i++) {
+        Object value = values[i];
+        if (value != null && value != REMOVED) {
+          int slot = slot(hash(keys[i])) & mask;
+          while (newValues[slot] != null) {
+            slot = (slot + 1) & mask;
+          }
+          newKeys[slot] = keys[i];
+          newValues[slot] = value;
+        }
+      }
+      mKeys = newKeys;
+      mValues = newValues;
+      mUsed = mSize;
+    }
+
+    private void insert(long key, long hash, Object value) {
+      int mask = mKeys.length - 1;
+      int slot = slot(hash) & mask;
+      while (mValues[slot] != null) {
+        slot = (slot + 1) & mask;
+      }
+      mKeys[slot] = key;
+      mValues[slot] = value;
+      mUsed++;
+    }
+
+    private static int slot(long hash) {
+      return (int) (hash ^ (hash >>> 32));
+    }
+  }
+
+  /**
+   * Iterates over the slots of each segment in turn. The arrays of a segment are read when the
+   * iterator reaches it; a rehash replaces the arrays instead of changing them, so the iterator
+   * visits each entry present in them exactly once.
+   *
+   * @param <T> the type of the iterated elements
+   */
+  private abstract class EntryIterator<T> implements Iterator<T> {
+    private int mSegmentIndex = -1;
+    private long[] mKeys = new long[0];
+    private Object[] mValues = new Object[0];
+    private int mSlot = 0;
+    private boolean mHasNext;
+    /** The key of the current entry. */
+    protected long mKey;
+    /** The value of the current entry. */
+    protected Object mValue;
+
+    EntryIterator() {
+      advance();
+    }
+
+    /**
+     * @return the element for the current entry
+     */
+    abstract T current();
+
+    @Override
+    public boolean hasNext() {
+      return mHasNext;
+    }
+
+    @Override
+    public T next() {
+      if (!mHasNext) {
+        throw new NoSuchElementException();
+      }
+      T element = current();
+      advance();
+      return element;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException("ConcurrentLongHashMap#Iterator#remove");
+    }
+
+    /**
+     * Moves to the next entry, setting {@link #mKey} and {@link #mValue}.
+     */
+    private void advance() {
+      for (;;) {
+        while (mSlot < mKeys.length) {
+          int slot = mSlot++;
+          StampedLock lock = mSegments[mSegmentIndex].mLock;
+          long stamp = lock.tryOptimisticRead();
+          long key = mKeys[slot];
+          Object value = mValues[slot];
+          if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+              key = mKeys[slot];
+              value = mValues[slot];
+            } finally {
+              lock.unlockRead(stamp);
+            }
+          }
+          if (value != null && value != REMOVED) {
+            mKey = key;
+            mValue = value;
+            mHasNext = true;
+            return;
+          }
+        }
+        if (++mSegmentIndex == mSegments.length) {
+          mHasNext = false;
+          mValue = null;
+          return;
+        }
+        Segment segment = mSegments[mSegmentIndex];
+        long stamp = segment.mLock.readLock();
+        try {
+          mKeys = segment.mKeys;
+          mValues = segment.mValues;
+        } finally {
+          segment.mLock.unlockRead(stamp);
+        }
+        mSlot = 0;
+      }
+    }
+  }
+}
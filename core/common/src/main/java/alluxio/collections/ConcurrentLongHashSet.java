@@ -0,0 +1,124 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.collections;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A concurrent hash set of primitive long values. This is backed by a
+ * {@link ConcurrentLongHashMap}, and {@link java.util.Set} operations are translated to
+ * {@link ConcurrentLongHashMap} operations. The primitive overloads avoid boxing the values.
+ */
+@ThreadSafe
+public final class ConcurrentLongHashSet extends AbstractSet<Long> {
+  private final ConcurrentLongHashMap<Boolean> mMap;
+
+  /**
+   * Creates a new {@link ConcurrentLongHashSet}.
+   */
+  public ConcurrentLongHashSet() {
+    this(2, 0.75f, 1);
+  }
+
+  /**
+   * Creates a new {@link ConcurrentLongHashSet}.
+   *
+   * @param initialCapacity the initial capacity
+   * @param loadFactor the load factor threshold, used to control resizing
+   * @param concurrencyLevel the estimated number of concurrently updating threads
+   */
+  public ConcurrentLongHashSet(int initialCapacity, float loadFactor, int concurrencyLevel) {
+    mMap = new ConcurrentLongHashMap<>(initialCapacity, loadFactor, concurrencyLevel);
+  }
+
+  @Override
+  public Iterator<Long> iterator() {
+    return mMap.keyIterator();
+  }
+
+  @Override
+  public int size() {
+    return mMap.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return mMap.isEmpty();
+  }
+
+  /**
+   * @param value the value to add into the set
+   * @return true if this set did not already contain the value
+   */
+  public boolean add(long value) {
+    return mMap.putIfAbsent(value, Boolean.TRUE) == null;
+  }
+
+  @Override
+  public boolean add(Long value) {
+    return add(value.longValue());
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends Long> c) {
+    boolean changed = false;
+    for (long value : c) {
+      changed |= add(value);
+    }
+    return changed;
+  }
+
+  /**
+   * @param value the value to check
+   * @return whether the set contains the value
+   */
+  public boolean contains(long value) {
+    return mMap.containsKey(value);
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return o instanceof Long && contains(((Long) o).longValue());
+  }
+
+  /**
+   * @param value the value to remove
+   * @return whether the set contained the value
+   */
+  public boolean remove(long value) {
+    return mMap.remove(value) != null;
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    return o instanceof Long && remove(((Long) o).longValue());
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> c) {
+    // The iterator does not support removal, so always remove the elements of the collection.
+    boolean changed = false;
+    for (Object o : c) {
+      changed |= remove(o);
+    }
+    return changed;
+  }
+
+  @Override
+  public void clear() {
+    mMap.clear();
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.block;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Encodes the blocks on a worker into compact block report chunks, and decodes them on the
+ * master. A chunk is a sequence of tier sections, each of which is:
+ * <ul>
+ * <li>the length of the UTF-8 encoded tier alias as a varint, followed by the alias bytes;</li>
+ * <li>the number of blocks in the section as a varint;</li>
+ * <li>the block ids in ascending order, each encoded as the varint of its difference from the
+ * previous id (the first id is encoded as is).</li>
+ * </ul>
+ * Block ids of the same container are numbered consecutively, so most ids take one or two bytes,
+ * instead of a boxed {@link Long} for each id in a thrift list.
+ */
+@ThreadSafe
+public final class BlockReportCodec {
+  private static final int MAX_VARINT_BYTES = 10;
+
+  private BlockReportCodec() {} // prevent instantiation
+
+  /**
+   * Encodes the blocks on each tier into chunks of at most the given number of blocks. There is
+   * always at least one chunk, which is empty if there are no blocks.
+   *
+   * @param blocksOnTiers mapping from storage tier alias to the ids of the blocks on the tier
+   * @param maxBlocksPerChunk the maximum number of blocks in a chunk
+   * @return the encoded chunks
+   */
+  public static List<byte[]> encode(Map<String, long[]> blocksOnTiers, int maxBlocksPerChunk) {
+    Preconditions.checkArgument(maxBlocksPerChunk > 0, "maxBlocksPerChunk must be positive");
+    List<byte[]> chunks = new ArrayList<>();
+    ChunkWriter writer = new ChunkWriter();
+    for (Map.Entry<String, long[]> entry : blocksOnTiers.entrySet()) {
+      long[] blockIds = entry.getValue().clone();
+      Arrays.sort(blockIds);
+      byte[] alias = entry.getKey().getBytes(StandardCharsets.UTF_8);
+      int from = 0;
+      while (from < blockIds.length) {
+        int to = Math.min(blockIds.length, from + maxBlocksPerChunk - writer.mBlockCount);
+        writer.writeSection(alias, blockIds, from, to);
+        from = to;
+        if (writer.mBlockCount == maxBlocksPerChunk) {
+          chunks.add(writer.toByteArray());
+          writer = new ChunkWriter();
+        }
+      }
+    }
+    if (writer.mBlockCount > 0 || chunks.isEmpty()) {
+      chunks.add(writer.toByteArray());
+    }
+    return chunks;
+  }
+
+  /**
+   * Decodes a chunk created by {@link #encode(Map, int)}.
+   *
+   * @param chunk the chunk, read from its position to its limit
+   * @return mapping from storage tier alias to the ids of the blocks on the tier in the chunk
+   */
+  public static Map<String, List<Long>> decode(ByteBuffer chunk) {
+    ByteBuffer buf = chunk.duplicate();
+    Map<String, List<Long>> blocksOnTiers = new LinkedHashMap<>();
+    try {
+      while (buf.hasRemaining()) {
+        byte[] alias = new byte[readLength(buf)];
+        buf.get(alias);
+        int count = readLength(buf);
+        // Every block takes at least one byte, which bounds the list to the size of the chunk.
+        Preconditions.checkArgument(count <= buf.remaining(),
+            "Block report section has %s blocks in %s bytes", count, buf.remaining());
+        String tierAlias = new String(alias, StandardCharsets.UTF_8);
+        List<Long> blockIds = blocksOnTiers.get(tierAlias);
+        if (blockIds == null) {
+          blockIds = new ArrayList<>(count);
+          blocksOnTiers.put(tierAlias, blockIds);
+        }
+        long blockId = 0;
+        for (int i = 0; i < count; i++) {
+          blockId += readVarint(buf);
+          blockIds.add(blockId);
+        }
+      }
+    } catch (BufferUnderflowException e) {
+      throw new IllegalArgumentException("Truncated block report chunk", e);
+    }
+    return blocksOnTiers;
+  }
+
+  private static int readLength(ByteBuffer buf) {
+    long length = readVarint(buf);
+    Preconditions.checkArgument(length >= 0 && length <= Integer.MAX_VALUE,
+        "Invalid length %s in block report chunk", length);
+    return (int) length;
+  }
+
+  private static long readVarint(ByteBuffer buf) {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = buf.get();
+      value |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Malformed varint in block report chunk");
+  }
+
+  /**
+   * Accumulates the sections of one chunk.
+   */
+  private static final class ChunkWriter {
+    private byte[] mBuf = new byte[64];
+    private int mSize;
+    private int mBlockCount;
+
+    private void writeSection(byte[] alias, long[] blockIds, int from, int to) {
+      ensureCapacity(2 * MAX_VARINT_BYTES + alias.length + (to - from) * MAX_VARINT_BYTES);
+      writeVarint(alias.length);
+      System.arraycopy(alias, 0, mBuf, mSize, alias.length);
+      mSize += alias.length;
+      writeVarint(to - from);
+      // Differences are written as unsigned values, so they are correct even if they overflow.
+      long previous = 0;
+      for (int i = from; i < to; i++) {
+        writeVarint(blockIds[i] - previous);
+        previous = blockIds[i];
+      }
+      mBlockCount += to - from;
+    }
+
+    private void writeVarint(long value) {
+      while ((value & ~0x7FL) != 0) {
+        mBuf[mSize++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      mBuf[mSize++] = (byte) value;
+    }
+
+    private void ensureCapacity(int extra) {
+      if (mSize + extra > mBuf.length) {
+        mBuf = Arrays.copyOf(mBuf, Math.max(mBuf.length * 2, mSize + extra));
+      }
+    }
+
+    private byte[] toByteArray() {
+      return Arrays.copyOf(mBuf, mSize);
+    }
+  }
+}
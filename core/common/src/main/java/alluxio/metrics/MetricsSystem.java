@@ -19,6 +19,7 @@ import alluxio.util.network.NetworkAddressUtils;
 
 import com.codahale.metrics.Counter;
 import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import com.codahale.metrics.jvm.GarbageCollectorMetricSet;
@@ -245,6 +246,14 @@ public final class MetricsSystem {
     return METRIC_REGISTRY.counter((getMasterMetricName(name)));
   }
 
+  /**
+   * @param name the metric name
+   * @return the histogram
+   */
+  public static Histogram masterHistogram(String name) {
+    return METRIC_REGISTRY.histogram(getMasterMetricName(name));
+  }
+
   /**
    * @param name the metric name
    * @return the timer
@@ -260,6 +269,14 @@ public final class MetricsSystem {
     return METRIC_REGISTRY.counter((getWorkerMetricName(name)));
   }
 
+  /**
+   * @param name the metric name
+   * @return the histogram
+   */
+  public static Histogram workerHistogram(String name) {
+    return METRIC_REGISTRY.histogram(getWorkerMetricName(name));
+  }
+
   /**
    * @param name the metric name
    * @return the timer
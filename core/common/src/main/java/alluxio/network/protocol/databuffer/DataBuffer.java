@@ -50,6 +50,16 @@ public interface DataBuffer {
    */
   void readBytes(byte[] dst, int dstIndex, int length);
 
+  /**
+   * Transfers this buffer's data to the specified destination starting at the current
+   * {@code readerIndex}, until the destination is full or this buffer has no more readable bytes.
+   * The {@code readerIndex} and the position of the destination are increased by the number of
+   * the transferred bytes.
+   *
+   * @param outputBuf the destination
+   */
+  void readBytes(ByteBuffer outputBuf);
+
   /**
    * @return the number of readable bytes remaining
    */
@@ -60,6 +60,15 @@ public final class DataByteBuffer implements DataBuffer {
     mBuffer.get(dst, dstIndex, length);
   }
 
+  @Override
+  public void readBytes(ByteBuffer outputBuf) {
+    int length = Math.min(mBuffer.remaining(), outputBuf.remaining());
+    ByteBuffer src = mBuffer.duplicate();
+    src.limit(src.position() + length);
+    outputBuf.put(src);
+    mBuffer.position(mBuffer.position() + length);
+  }
+
   @Override
   public int readableBytes() {
     return mBuffer.remaining();
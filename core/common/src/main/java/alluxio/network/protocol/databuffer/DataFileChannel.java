@@ -59,6 +59,11 @@ public final class DataFileChannel implements DataBuffer {
     throw new UnsupportedOperationException("DataFileChannel#readBytes is not implemented.");
   }
 
+  @Override
+  public void readBytes(ByteBuffer outputBuf) {
+    throw new UnsupportedOperationException("DataFileChannel#readBytes is not implemented.");
+  }
+
   @Override
   public int readableBytes() {
     throw new UnsupportedOperationException("DataFileChannel#readableBytes is not implemented.");
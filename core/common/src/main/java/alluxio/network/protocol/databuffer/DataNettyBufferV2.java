@@ -57,6 +57,18 @@ public final class DataNettyBufferV2 implements DataBuffer {
     mNettyBuf.readBytes(dst, dstIndex, length);
   }
 
+  @Override
+  public void readBytes(ByteBuffer outputBuf) {
+    int length = Math.min(mNettyBuf.readableBytes(), outputBuf.remaining());
+    int limit = outputBuf.limit();
+    outputBuf.limit(outputBuf.position() + length);
+    try {
+      mNettyBuf.readBytes(outputBuf);
+    } finally {
+      outputBuf.limit(limit);
+    }
+  }
+
   @Override
   public int readableBytes() {
     return mNettyBuf.readableBytes();
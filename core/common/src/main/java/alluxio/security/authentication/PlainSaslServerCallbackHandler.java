@@ -30,6 +30,8 @@ import javax.security.sasl.AuthorizeCallback;
 public final class PlainSaslServerCallbackHandler implements CallbackHandler {
   private final AuthenticationProvider mAuthenticationProvider;
   private final Runnable mCallback;
+  /** Whether to set the authenticated user for the thread running the authentication. */
+  private final boolean mSetClientUser;
 
   /**
    * Constructs a new callback handler.
@@ -42,6 +44,20 @@ public final class PlainSaslServerCallbackHandler implements CallbackHandler {
     mAuthenticationProvider = Preconditions.checkNotNull(authenticationProvider,
         "authenticationProvider");
     mCallback = callback;
+    mSetClientUser = true;
+  }
+
+  /**
+   * Constructs a new callback handler which does not set the authenticated user for the thread
+   * running the authentication, for servers whose connections are not served by a single thread.
+   *
+   * @param authenticationProvider the authentication provider used
+   */
+  public PlainSaslServerCallbackHandler(AuthenticationProvider authenticationProvider) {
+    mAuthenticationProvider = Preconditions.checkNotNull(authenticationProvider,
+        "authenticationProvider");
+    mCallback = null;
+    mSetClientUser = false;
   }
 
   @Override
@@ -69,10 +85,12 @@ public final class PlainSaslServerCallbackHandler implements CallbackHandler {
     if (ac != null) {
       ac.setAuthorized(true);
 
-      // After verification succeeds, a user with this authz id will be set to a Threadlocal.
-      AuthenticatedClientUser.set(ac.getAuthorizedID());
+      if (mSetClientUser) {
+        // After verification succeeds, a user with this authz id will be set to a Threadlocal.
+        AuthenticatedClientUser.set(ac.getAuthorizedID());
 
-      mCallback.run();
+        mCallback.run();
+      }
     }
   }
 }
@@ -41,6 +41,8 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
   private static final org.apache.thrift.protocol.TField LOAD_DIRECT_CHILDREN_FIELD_DESC = new org.apache.thrift.protocol.TField("loadDirectChildren", org.apache.thrift.protocol.TType.BOOL, (short)1);
   private static final org.apache.thrift.protocol.TField LOAD_METADATA_TYPE_FIELD_DESC = new org.apache.thrift.protocol.TField("loadMetadataType", org.apache.thrift.protocol.TType.I32, (short)2);
   private static final org.apache.thrift.protocol.TField COMMON_OPTIONS_FIELD_DESC = new org.apache.thrift.protocol.TField("commonOptions", org.apache.thrift.protocol.TType.STRUCT, (short)3);
+  private static final org.apache.thrift.protocol.TField START_AFTER_FIELD_DESC = new org.apache.thrift.protocol.TField("startAfter", org.apache.thrift.protocol.TType.STRING, (short)4);
+  private static final org.apache.thrift.protocol.TField BATCH_SIZE_FIELD_DESC = new org.apache.thrift.protocol.TField("batchSize", org.apache.thrift.protocol.TType.I32, (short)5);
 
   private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
   static {
@@ -51,6 +53,8 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
   private boolean loadDirectChildren; // optional
   private LoadMetadataTType loadMetadataType; // optional
   private FileSystemMasterCommonTOptions commonOptions; // optional
+  private String startAfter; // optional
+  private int batchSize; // optional
 
   /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
   public enum _Fields implements org.apache.thrift.TFieldIdEnum {
@@ -60,7 +64,9 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
      * @see LoadMetadataTType
      */
     LOAD_METADATA_TYPE((short)2, "loadMetadataType"),
-    COMMON_OPTIONS((short)3, "commonOptions");
+    COMMON_OPTIONS((short)3, "commonOptions"),
+    START_AFTER((short)4, "startAfter"),
+    BATCH_SIZE((short)5, "batchSize");
 
     private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -81,6 +87,10 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
           return LOAD_METADATA_TYPE;
         case 3: // COMMON_OPTIONS
           return COMMON_OPTIONS;
+        case 4: // START_AFTER
+          return START_AFTER;
+        case 5: // BATCH_SIZE
+          return BATCH_SIZE;
         default:
           return null;
       }
@@ -122,8 +132,9 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
 
   // isset id assignments
   private static final int __LOADDIRECTCHILDREN_ISSET_ID = 0;
+  private static final int __BATCHSIZE_ISSET_ID = 1;
   private byte __isset_bitfield = 0;
-  private static final _Fields optionals[] = {_Fields.LOAD_DIRECT_CHILDREN,_Fields.LOAD_METADATA_TYPE,_Fields.COMMON_OPTIONS};
+  private static final _Fields optionals[] = {_Fields.LOAD_DIRECT_CHILDREN,_Fields.LOAD_METADATA_TYPE,_Fields.COMMON_OPTIONS,_Fields.START_AFTER,_Fields.BATCH_SIZE};
   public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
   static {
     Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
@@ -133,6 +144,10 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
         new org.apache.thrift.meta_data.EnumMetaData(org.apache.thrift.protocol.TType.ENUM, LoadMetadataTType.class)));
     tmpMap.put(_Fields.COMMON_OPTIONS, new org.apache.thrift.meta_data.FieldMetaData("commonOptions", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
         new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, FileSystemMasterCommonTOptions.class)));
+    tmpMap.put(_Fields.START_AFTER, new org.apache.thrift.meta_data.FieldMetaData("startAfter", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
+    tmpMap.put(_Fields.BATCH_SIZE, new org.apache.thrift.meta_data.FieldMetaData("batchSize", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
     metaDataMap = Collections.unmodifiableMap(tmpMap);
     org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(ListStatusTOptions.class, metaDataMap);
   }
@@ -152,6 +167,10 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
     if (other.isSetCommonOptions()) {
       this.commonOptions = new FileSystemMasterCommonTOptions(other.commonOptions);
     }
+    if (other.isSetStartAfter()) {
+      this.startAfter = other.startAfter;
+    }
+    this.batchSize = other.batchSize;
   }
 
   public ListStatusTOptions deepCopy() {
@@ -164,6 +183,9 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
     this.loadDirectChildren = false;
     this.loadMetadataType = null;
     this.commonOptions = null;
+    this.startAfter = null;
+    setBatchSizeIsSet(false);
+    this.batchSize = 0;
   }
 
   public boolean isLoadDirectChildren() {
@@ -245,6 +267,53 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
     }
   }
 
+  public String getStartAfter() {
+    return this.startAfter;
+  }
+
+  public ListStatusTOptions setStartAfter(String startAfter) {
+    this.startAfter = startAfter;
+    return this;
+  }
+
+  public void unsetStartAfter() {
+    this.startAfter = null;
+  }
+
+  /** Returns true if field startAfter is set (has been assigned a value) and false otherwise */
+  public boolean isSetStartAfter() {
+    return this.startAfter != null;
+  }
+
+  public void setStartAfterIsSet(boolean value) {
+    if (!value) {
+      this.startAfter = null;
+    }
+  }
+
+  public int getBatchSize() {
+    return this.batchSize;
+  }
+
+  public ListStatusTOptions setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+    setBatchSizeIsSet(true);
+    return this;
+  }
+
+  public void unsetBatchSize() {
+    __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __BATCHSIZE_ISSET_ID);
+  }
+
+  /** Returns true if field batchSize is set (has been assigned a value) and false otherwise */
+  public boolean isSetBatchSize() {
+    return EncodingUtils.testBit(__isset_bitfield, __BATCHSIZE_ISSET_ID);
+  }
+
+  public void setBatchSizeIsSet(boolean value) {
+    __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __BATCHSIZE_ISSET_ID, value);
+  }
+
   public void setFieldValue(_Fields field, Object value) {
     switch (field) {
     case LOAD_DIRECT_CHILDREN:
@@ -271,6 +340,22 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
       }
       break;
 
+    case START_AFTER:
+      if (value == null) {
+        unsetStartAfter();
+      } else {
+        setStartAfter((String)value);
+      }
+      break;
+
+    case BATCH_SIZE:
+      if (value == null) {
+        unsetBatchSize();
+      } else {
+        setBatchSize((Integer)value);
+      }
+      break;
+
     }
   }
 
@@ -285,6 +370,12 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
     case COMMON_OPTIONS:
       return getCommonOptions();
 
+    case START_AFTER:
+      return getStartAfter();
+
+    case BATCH_SIZE:
+      return getBatchSize();
+
     }
     throw new IllegalStateException();
   }
@@ -302,6 +393,10 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
       return isSetLoadMetadataType();
     case COMMON_OPTIONS:
       return isSetCommonOptions();
+    case START_AFTER:
+      return isSetStartAfter();
+    case BATCH_SIZE:
+      return isSetBatchSize();
     }
     throw new IllegalStateException();
   }
@@ -346,6 +441,24 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
         return false;
     }
 
+    boolean this_present_startAfter = true && this.isSetStartAfter();
+    boolean that_present_startAfter = true && that.isSetStartAfter();
+    if (this_present_startAfter || that_present_startAfter) {
+      if (!(this_present_startAfter && that_present_startAfter))
+        return false;
+      if (!this.startAfter.equals(that.startAfter))
+        return false;
+    }
+
+    boolean this_present_batchSize = true && this.isSetBatchSize();
+    boolean that_present_batchSize = true && that.isSetBatchSize();
+    if (this_present_batchSize || that_present_batchSize) {
+      if (!(this_present_batchSize && that_present_batchSize))
+        return false;
+      if (this.batchSize != that.batchSize)
+        return false;
+    }
+
     return true;
   }
 
@@ -368,6 +481,16 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
     if (present_commonOptions)
       list.add(commonOptions);
 
+    boolean present_startAfter = true && (isSetStartAfter());
+    list.add(present_startAfter);
+    if (present_startAfter)
+      list.add(startAfter);
+
+    boolean present_batchSize = true && (isSetBatchSize());
+    list.add(present_batchSize);
+    if (present_batchSize)
+      list.add(batchSize);
+
     return list.hashCode();
   }
 
@@ -409,6 +532,26 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
         return lastComparison;
       }
     }
+    lastComparison = Boolean.valueOf(isSetStartAfter()).compareTo(other.isSetStartAfter());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetStartAfter()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.startAfter, other.startAfter);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
+    lastComparison = Boolean.valueOf(isSetBatchSize()).compareTo(other.isSetBatchSize());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetBatchSize()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.batchSize, other.batchSize);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
     return 0;
   }
 
@@ -454,6 +597,22 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
       }
       first = false;
     }
+    if (isSetStartAfter()) {
+      if (!first) sb.append(", ");
+      sb.append("startAfter:");
+      if (this.startAfter == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.startAfter);
+      }
+      first = false;
+    }
+    if (isSetBatchSize()) {
+      if (!first) sb.append(", ");
+      sb.append("batchSize:");
+      sb.append(this.batchSize);
+      first = false;
+    }
     sb.append(")");
     return sb.toString();
   }
@@ -527,6 +686,22 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
             }
             break;
+          case 4: // START_AFTER
+            if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
+              struct.startAfter = iprot.readString();
+              struct.setStartAfterIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
+          case 5: // BATCH_SIZE
+            if (schemeField.type == org.apache.thrift.protocol.TType.I32) {
+              struct.batchSize = iprot.readI32();
+              struct.setBatchSizeIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
           default:
             org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
         }
@@ -561,6 +736,18 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
           oprot.writeFieldEnd();
         }
       }
+      if (struct.startAfter != null) {
+        if (struct.isSetStartAfter()) {
+          oprot.writeFieldBegin(START_AFTER_FIELD_DESC);
+          oprot.writeString(struct.startAfter);
+          oprot.writeFieldEnd();
+        }
+      }
+      if (struct.isSetBatchSize()) {
+        oprot.writeFieldBegin(BATCH_SIZE_FIELD_DESC);
+        oprot.writeI32(struct.batchSize);
+        oprot.writeFieldEnd();
+      }
       oprot.writeFieldStop();
       oprot.writeStructEnd();
     }
@@ -588,7 +775,13 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
       if (struct.isSetCommonOptions()) {
         optionals.set(2);
       }
-      oprot.writeBitSet(optionals, 3);
+      if (struct.isSetStartAfter()) {
+        optionals.set(3);
+      }
+      if (struct.isSetBatchSize()) {
+        optionals.set(4);
+      }
+      oprot.writeBitSet(optionals, 5);
       if (struct.isSetLoadDirectChildren()) {
         oprot.writeBool(struct.loadDirectChildren);
       }
@@ -598,12 +791,18 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
       if (struct.isSetCommonOptions()) {
         struct.commonOptions.write(oprot);
       }
+      if (struct.isSetStartAfter()) {
+        oprot.writeString(struct.startAfter);
+      }
+      if (struct.isSetBatchSize()) {
+        oprot.writeI32(struct.batchSize);
+      }
     }
 
     @Override
     public void read(org.apache.thrift.protocol.TProtocol prot, ListStatusTOptions struct) throws org.apache.thrift.TException {
       TTupleProtocol iprot = (TTupleProtocol) prot;
-      BitSet incoming = iprot.readBitSet(3);
+      BitSet incoming = iprot.readBitSet(5);
       if (incoming.get(0)) {
         struct.loadDirectChildren = iprot.readBool();
         struct.setLoadDirectChildrenIsSet(true);
@@ -617,6 +816,14 @@ public class ListStatusTOptions implements org.apache.thrift.TBase<ListStatusTOp
         struct.commonOptions.read(iprot);
         struct.setCommonOptionsIsSet(true);
       }
+      if (incoming.get(3)) {
+        struct.startAfter = iprot.readString();
+        struct.setStartAfterIsSet(true);
+      }
+      if (incoming.get(4)) {
+        struct.batchSize = iprot.readI32();
+        struct.setBatchSizeIsSet(true);
+      }
     }
   }
 
@@ -38,6 +38,10 @@ import org.slf4j.LoggerFactory;
 public class RegisterWorkerTOptions implements org.apache.thrift.TBase<RegisterWorkerTOptions, RegisterWorkerTOptions._Fields>, java.io.Serializable, Cloneable, Comparable<RegisterWorkerTOptions> {
   private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("RegisterWorkerTOptions");
 
+  private static final org.apache.thrift.protocol.TField BLOCK_REPORT_ID_FIELD_DESC = new org.apache.thrift.protocol.TField("blockReportId", org.apache.thrift.protocol.TType.I64, (short)1);
+  private static final org.apache.thrift.protocol.TField BLOCK_REPORT_CHUNK_FIELD_DESC = new org.apache.thrift.protocol.TField("blockReportChunk", org.apache.thrift.protocol.TType.STRING, (short)2);
+  private static final org.apache.thrift.protocol.TField CHUNK_INDEX_FIELD_DESC = new org.apache.thrift.protocol.TField("chunkIndex", org.apache.thrift.protocol.TType.I32, (short)3);
+  private static final org.apache.thrift.protocol.TField LAST_CHUNK_FIELD_DESC = new org.apache.thrift.protocol.TField("lastChunk", org.apache.thrift.protocol.TType.BOOL, (short)4);
 
   private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
   static {
@@ -45,10 +49,17 @@ public class RegisterWorkerTOptions implements org.apache.thrift.TBase<RegisterW
     schemes.put(TupleScheme.class, new RegisterWorkerTOptionsTupleSchemeFactory());
   }
 
+  private long blockReportId; // optional
+  private ByteBuffer blockReportChunk; // optional
+  private int chunkIndex; // optional
+  private boolean lastChunk; // optional
 
   /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
   public enum _Fields implements org.apache.thrift.TFieldIdEnum {
-;
+    BLOCK_REPORT_ID((short)1, "blockReportId"),
+    BLOCK_REPORT_CHUNK((short)2, "blockReportChunk"),
+    CHUNK_INDEX((short)3, "chunkIndex"),
+    LAST_CHUNK((short)4, "lastChunk");
 
     private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -63,6 +74,14 @@ public class RegisterWorkerTOptions implements org.apache.thrift.TBase<RegisterW
      */
     public static _Fields findByThriftId(int fieldId) {
       switch(fieldId) {
+        case 1: // BLOCK_REPORT_ID
+          return BLOCK_REPORT_ID;
+        case 2: // BLOCK_REPORT_CHUNK
+          return BLOCK_REPORT_CHUNK;
+        case 3: // CHUNK_INDEX
+          return CHUNK_INDEX;
+        case 4: // LAST_CHUNK
+          return LAST_CHUNK;
         default:
           return null;
       }
@@ -101,9 +120,24 @@ public class RegisterWorkerTOptions implements org.apache.thrift.TBase<RegisterW
       return _fieldName;
     }
   }
+
+  // isset id assignments
+  private static final int __BLOCKREPORTID_ISSET_ID = 0;
+  private static final int __CHUNKINDEX_ISSET_ID = 1;
+  private static final int __LASTCHUNK_ISSET_ID = 2;
+  private byte __isset_bitfield = 0;
+  private static final _Fields optionals[] = {_Fields.BLOCK_REPORT_ID,_Fields.BLOCK_REPORT_CHUNK,_Fields.CHUNK_INDEX,_Fields.LAST_CHUNK};
   public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
   static {
     Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+    tmpMap.put(_Fields.BLOCK_REPORT_ID, new org.apache.thrift.meta_data.FieldMetaData("blockReportId", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64)));
+    tmpMap.put(_Fields.BLOCK_REPORT_CHUNK, new org.apache.thrift.meta_data.FieldMetaData("blockReportChunk", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING        , true)));
+    tmpMap.put(_Fields.CHUNK_INDEX, new org.apache.thrift.meta_data.FieldMetaData("chunkIndex", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
+    tmpMap.put(_Fields.LAST_CHUNK, new org.apache.thrift.meta_data.FieldMetaData("lastChunk", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.BOOL)));
     metaDataMap = Collections.unmodifiableMap(tmpMap);
     org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(RegisterWorkerTOptions.class, metaDataMap);
   }
@@ -115,6 +149,13 @@ public class RegisterWorkerTOptions implements org.apache.thrift.TBase<RegisterW
    * Performs a deep copy on <i>other</i>.
    */
   public RegisterWorkerTOptions(RegisterWorkerTOptions other) {
+    __isset_bitfield = other.__isset_bitfield;
+    this.blockReportId = other.blockReportId;
+    if (other.isSetBlockReportChunk()) {
+      this.blockReportChunk = org.apache.thrift.TBaseHelper.copyBinary(other.blockReportChunk);
+    }
+    this.chunkIndex = other.chunkIndex;
+    this.lastChunk = other.lastChunk;
   }
 
   public RegisterWorkerTOptions deepCopy() {
@@ -123,15 +164,173 @@ public class RegisterWorkerTOptions implements org.apache.thrift.TBase<RegisterW
 
   @Override
   public void clear() {
+    setBlockReportIdIsSet(false);
+    this.blockReportId = 0;
+    this.blockReportChunk = null;
+    setChunkIndexIsSet(false);
+    this.chunkIndex = 0;
+    setLastChunkIsSet(false);
+    this.lastChunk = false;
+  }
+
+  public long getBlockReportId() {
+    return this.blockReportId;
+  }
+
+  public RegisterWorkerTOptions setBlockReportId(long blockReportId) {
+    this.blockReportId = blockReportId;
+    setBlockReportIdIsSet(true);
+    return this;
+  }
+
+  public void unsetBlockReportId() {
+    __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __BLOCKREPORTID_ISSET_ID);
+  }
+
+  /** Returns true if field blockReportId is set (has been assigned a value) and false otherwise */
+  public boolean isSetBlockReportId() {
+    return EncodingUtils.testBit(__isset_bitfield, __BLOCKREPORTID_ISSET_ID);
+  }
+
+  public void setBlockReportIdIsSet(boolean value) {
+    __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __BLOCKREPORTID_ISSET_ID, value);
+  }
+
+  public byte[] getBlockReportChunk() {
+    setBlockReportChunk(org.apache.thrift.TBaseHelper.rightSize(blockReportChunk));
+    return blockReportChunk == null ? null : blockReportChunk.array();
+  }
+
+  public ByteBuffer bufferForBlockReportChunk() {
+    return org.apache.thrift.TBaseHelper.copyBinary(blockReportChunk);
+  }
+
+  public RegisterWorkerTOptions setBlockReportChunk(byte[] blockReportChunk) {
+    this.blockReportChunk = blockReportChunk == null ? (ByteBuffer)null : ByteBuffer.wrap(Arrays.copyOf(blockReportChunk, blockReportChunk.length));
+    return this;
+  }
+
+  public RegisterWorkerTOptions setBlockReportChunk(ByteBuffer blockReportChunk) {
+    this.blockReportChunk = org.apache.thrift.TBaseHelper.copyBinary(blockReportChunk);
+    return this;
+  }
+
+  public void unsetBlockReportChunk() {
+    this.blockReportChunk = null;
+  }
+
+  /** Returns true if field blockReportChunk is set (has been assigned a value) and false otherwise */
+  public boolean isSetBlockReportChunk() {
+    return this.blockReportChunk != null;
+  }
+
+  public void setBlockReportChunkIsSet(boolean value) {
+    if (!value) {
+      this.blockReportChunk = null;
+    }
+  }
+
+  public int getChunkIndex() {
+    return this.chunkIndex;
+  }
+
+  public RegisterWorkerTOptions setChunkIndex(int chunkIndex) {
+    this.chunkIndex = chunkIndex;
+    setChunkIndexIsSet(true);
+    return this;
+  }
+
+  public void unsetChunkIndex() {
+    __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __CHUNKINDEX_ISSET_ID);
+  }
+
+  /** Returns true if field chunkIndex is set (has been assigned a value) and false otherwise */
+  public boolean isSetChunkIndex() {
+    return EncodingUtils.testBit(__isset_bitfield, __CHUNKINDEX_ISSET_ID);
+  }
+
+  public void setChunkIndexIsSet(boolean value) {
+    __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __CHUNKINDEX_ISSET_ID, value);
+  }
+
+  public boolean isLastChunk() {
+    return this.lastChunk;
+  }
+
+  public RegisterWorkerTOptions setLastChunk(boolean lastChunk) {
+    this.lastChunk = lastChunk;
+    setLastChunkIsSet(true);
+    return this;
+  }
+
+  public void unsetLastChunk() {
+    __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __LASTCHUNK_ISSET_ID);
+  }
+
+  /** Returns true if field lastChunk is set (has been assigned a value) and false otherwise */
+  public boolean isSetLastChunk() {
+    return EncodingUtils.testBit(__isset_bitfield, __LASTCHUNK_ISSET_ID);
+  }
+
+  public void setLastChunkIsSet(boolean value) {
+    __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __LASTCHUNK_ISSET_ID, value);
   }
 
   public void setFieldValue(_Fields field, Object value) {
     switch (field) {
+    case BLOCK_REPORT_ID:
+      if (value == null) {
+        unsetBlockReportId();
+      } else {
+        setBlockReportId((Long)value);
+      }
+      break;
+
+    case BLOCK_REPORT_CHUNK:
+      if (value == null) {
+        unsetBlockReportChunk();
+      } else {
+        if (value instanceof byte[]) {
+          setBlockReportChunk((byte[])value);
+        } else {
+          setBlockReportChunk((ByteBuffer)value);
+        }
+      }
+      break;
+
+    case CHUNK_INDEX:
+      if (value == null) {
+        unsetChunkIndex();
+      } else {
+        setChunkIndex((Integer)value);
+      }
+      break;
+
+    case LAST_CHUNK:
+      if (value == null) {
+        unsetLastChunk();
+      } else {
+        setLastChunk((Boolean)value);
+      }
+      break;
+
     }
   }
 
   public Object getFieldValue(_Fields field) {
     switch (field) {
+    case BLOCK_REPORT_ID:
+      return getBlockReportId();
+
+    case BLOCK_REPORT_CHUNK:
+      return getBlockReportChunk();
+
+    case CHUNK_INDEX:
+      return getChunkIndex();
+
+    case LAST_CHUNK:
+      return isLastChunk();
+
     }
     throw new IllegalStateException();
   }
@@ -143,6 +342,14 @@ public class RegisterWorkerTOptions implements org.apache.thrift.TBase<RegisterW
     }
 
     switch (field) {
+    case BLOCK_REPORT_ID:
+      return isSetBlockReportId();
+    case BLOCK_REPORT_CHUNK:
+      return isSetBlockReportChunk();
+    case CHUNK_INDEX:
+      return isSetChunkIndex();
+    case LAST_CHUNK:
+      return isSetLastChunk();
     }
     throw new IllegalStateException();
   }
@@ -160,6 +367,42 @@ public class RegisterWorkerTOptions implements org.apache.thrift.TBase<RegisterW
     if (that == null)
       return false;
 
+    boolean this_present_blockReportId = true && this.isSetBlockReportId();
+    boolean that_present_blockReportId = true && that.isSetBlockReportId();
+    if (this_present_blockReportId || that_present_blockReportId) {
+      if (!(this_present_blockReportId && that_present_blockReportId))
+        return false;
+      if (this.blockReportId != that.blockReportId)
+        return false;
+    }
+
+    boolean this_present_blockReportChunk = true && this.isSetBlockReportChunk();
+    boolean that_present_blockReportChunk = true && that.isSetBlockReportChunk();
+    if (this_present_blockReportChunk || that_present_blockReportChunk) {
+      if (!(this_present_blockReportChunk && that_present_blockReportChunk))
+        return false;
+      if (!this.blockReportChunk.equals(that.blockReportChunk))
+        return false;
+    }
+
+    boolean this_present_chunkIndex = true && this.isSetChunkIndex();
+    boolean that_present_chunkIndex = true && that.isSetChunkIndex();
+    if (this_present_chunkIndex || that_present_chunkIndex) {
+      if (!(this_present_chunkIndex && that_present_chunkIndex))
+        return false;
+      if (this.chunkIndex != that.chunkIndex)
+        return false;
+    }
+
+    boolean this_present_lastChunk = true && this.isSetLastChunk();
+    boolean that_present_lastChunk = true && that.isSetLastChunk();
+    if (this_present_lastChunk || that_present_lastChunk) {
+      if (!(this_present_lastChunk && that_present_lastChunk))
+        return false;
+      if (this.lastChunk != that.lastChunk)
+        return false;
+    }
+
     return true;
   }
 
@@ -167,6 +410,26 @@ public class RegisterWorkerTOptions implements org.apache.thrift.TBase<RegisterW
   public int hashCode() {
     List<Object> list = new ArrayList<Object>();
 
+    boolean present_blockReportId = true && (isSetBlockReportId());
+    list.add(present_blockReportId);
+    if (present_blockReportId)
+      list.add(blockReportId);
+
+    boolean present_blockReportChunk = true && (isSetBlockReportChunk());
+    list.add(present_blockReportChunk);
+    if (present_blockReportChunk)
+      list.add(blockReportChunk);
+
+    boolean present_chunkIndex = true && (isSetChunkIndex());
+    list.add(present_chunkIndex);
+    if (present_chunkIndex)
+      list.add(chunkIndex);
+
+    boolean present_lastChunk = true && (isSetLastChunk());
+    list.add(present_lastChunk);
+    if (present_lastChunk)
+      list.add(lastChunk);
+
     return list.hashCode();
   }
 
@@ -178,6 +441,46 @@ public class RegisterWorkerTOptions implements org.apache.thrift.TBase<RegisterW
 
     int lastComparison = 0;
 
+    lastComparison = Boolean.valueOf(isSetBlockReportId()).compareTo(other.isSetBlockReportId());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetBlockReportId()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.blockReportId, other.blockReportId);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
+    lastComparison = Boolean.valueOf(isSetBlockReportChunk()).compareTo(other.isSetBlockReportChunk());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetBlockReportChunk()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.blockReportChunk, other.blockReportChunk);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
+    lastComparison = Boolean.valueOf(isSetChunkIndex()).compareTo(other.isSetChunkIndex());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetChunkIndex()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.chunkIndex, other.chunkIndex);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
+    lastComparison = Boolean.valueOf(isSetLastChunk()).compareTo(other.isSetLastChunk());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetLastChunk()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.lastChunk, other.lastChunk);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
     return 0;
   }
 
@@ -198,6 +501,33 @@ public class RegisterWorkerTOptions implements org.apache.thrift.TBase<RegisterW
     StringBuilder sb = new StringBuilder("RegisterWorkerTOptions(");
     boolean first = true;
 
+    if (isSetBlockReportId()) {
+      sb.append("blockReportId:");
+      sb.append(this.blockReportId);
+      first = false;
+    }
+    if (isSetBlockReportChunk()) {
+      if (!first) sb.append(", ");
+      sb.append("blockReportChunk:");
+      if (this.blockReportChunk == null) {
+        sb.append("null");
+      } else {
+        org.apache.thrift.TBaseHelper.toString(this.blockReportChunk, sb);
+      }
+      first = false;
+    }
+    if (isSetChunkIndex()) {
+      if (!first) sb.append(", ");
+      sb.append("chunkIndex:");
+      sb.append(this.chunkIndex);
+      first = false;
+    }
+    if (isSetLastChunk()) {
+      if (!first) sb.append(", ");
+      sb.append("lastChunk:");
+      sb.append(this.lastChunk);
+      first = false;
+    }
     sb.append(")");
     return sb.toString();
   }
@@ -217,6 +547,8 @@ public class RegisterWorkerTOptions implements org.apache.thrift.TBase<RegisterW
 
   private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
     try {
+      // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
+      __isset_bitfield = 0;
       read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
     } catch (org.apache.thrift.TException te) {
       throw new java.io.IOException(te);
@@ -241,6 +573,38 @@ public class RegisterWorkerTOptions implements org.apache.thrift.TBase<RegisterW
           break;
         }
         switch (schemeField.id) {
+          case 1: // BLOCK_REPORT_ID
+            if (schemeField.type == org.apache.thrift.protocol.TType.I64) {
+              struct.blockReportId = iprot.readI64();
+              struct.setBlockReportIdIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
+          case 2: // BLOCK_REPORT_CHUNK
+            if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
+              struct.blockReportChunk = iprot.readBinary();
+              struct.setBlockReportChunkIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
+          case 3: // CHUNK_INDEX
+            if (schemeField.type == org.apache.thrift.protocol.TType.I32) {
+              struct.chunkIndex = iprot.readI32();
+              struct.setChunkIndexIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
+          case 4: // LAST_CHUNK
+            if (schemeField.type == org.apache.thrift.protocol.TType.BOOL) {
+              struct.lastChunk = iprot.readBool();
+              struct.setLastChunkIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
           default:
             org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
         }
@@ -256,6 +620,28 @@ public class RegisterWorkerTOptions implements org.apache.thrift.TBase<RegisterW
       struct.validate();
 
       oprot.writeStructBegin(STRUCT_DESC);
+      if (struct.isSetBlockReportId()) {
+        oprot.writeFieldBegin(BLOCK_REPORT_ID_FIELD_DESC);
+        oprot.writeI64(struct.blockReportId);
+        oprot.writeFieldEnd();
+      }
+      if (struct.blockReportChunk != null) {
+        if (struct.isSetBlockReportChunk()) {
+          oprot.writeFieldBegin(BLOCK_REPORT_CHUNK_FIELD_DESC);
+          oprot.writeBinary(struct.blockReportChunk);
+          oprot.writeFieldEnd();
+        }
+      }
+      if (struct.isSetChunkIndex()) {
+        oprot.writeFieldBegin(CHUNK_INDEX_FIELD_DESC);
+        oprot.writeI32(struct.chunkIndex);
+        oprot.writeFieldEnd();
+      }
+      if (struct.isSetLastChunk()) {
+        oprot.writeFieldBegin(LAST_CHUNK_FIELD_DESC);
+        oprot.writeBool(struct.lastChunk);
+        oprot.writeFieldEnd();
+      }
       oprot.writeFieldStop();
       oprot.writeStructEnd();
     }
@@ -273,11 +659,54 @@ public class RegisterWorkerTOptions implements org.apache.thrift.TBase<RegisterW
     @Override
     public void write(org.apache.thrift.protocol.TProtocol prot, RegisterWorkerTOptions struct) throws org.apache.thrift.TException {
       TTupleProtocol oprot = (TTupleProtocol) prot;
+      BitSet optionals = new BitSet();
+      if (struct.isSetBlockReportId()) {
+        optionals.set(0);
+      }
+      if (struct.isSetBlockReportChunk()) {
+        optionals.set(1);
+      }
+      if (struct.isSetChunkIndex()) {
+        optionals.set(2);
+      }
+      if (struct.isSetLastChunk()) {
+        optionals.set(3);
+      }
+      oprot.writeBitSet(optionals, 4);
+      if (struct.isSetBlockReportId()) {
+        oprot.writeI64(struct.blockReportId);
+      }
+      if (struct.isSetBlockReportChunk()) {
+        oprot.writeBinary(struct.blockReportChunk);
+      }
+      if (struct.isSetChunkIndex()) {
+        oprot.writeI32(struct.chunkIndex);
+      }
+      if (struct.isSetLastChunk()) {
+        oprot.writeBool(struct.lastChunk);
+      }
     }
 
     @Override
     public void read(org.apache.thrift.protocol.TProtocol prot, RegisterWorkerTOptions struct) throws org.apache.thrift.TException {
       TTupleProtocol iprot = (TTupleProtocol) prot;
+      BitSet incoming = iprot.readBitSet(4);
+      if (incoming.get(0)) {
+        struct.blockReportId = iprot.readI64();
+        struct.setBlockReportIdIsSet(true);
+      }
+      if (incoming.get(1)) {
+        struct.blockReportChunk = iprot.readBinary();
+        struct.setBlockReportChunkIsSet(true);
+      }
+      if (incoming.get(2)) {
+        struct.chunkIndex = iprot.readI32();
+        struct.setChunkIndexIsSet(true);
+      }
+      if (incoming.get(3)) {
+        struct.lastChunk = iprot.readBool();
+        struct.setLastChunkIsSet(true);
+      }
     }
   }
 
@@ -38,6 +38,7 @@ import org.slf4j.LoggerFactory;
 public class RegisterWorkerTResponse implements org.apache.thrift.TBase<RegisterWorkerTResponse, RegisterWorkerTResponse._Fields>, java.io.Serializable, Cloneable, Comparable<RegisterWorkerTResponse> {
   private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("RegisterWorkerTResponse");
 
+  private static final org.apache.thrift.protocol.TField CHUNK_ACCEPTED_FIELD_DESC = new org.apache.thrift.protocol.TField("chunkAccepted", org.apache.thrift.protocol.TType.BOOL, (short)1);
 
   private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
   static {
@@ -45,10 +46,11 @@ public class RegisterWorkerTResponse implements org.apache.thrift.TBase<Register
     schemes.put(TupleScheme.class, new RegisterWorkerTResponseTupleSchemeFactory());
   }
 
+  private boolean chunkAccepted; // optional
 
   /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
   public enum _Fields implements org.apache.thrift.TFieldIdEnum {
-;
+    CHUNK_ACCEPTED((short)1, "chunkAccepted");
 
     private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -63,6 +65,8 @@ public class RegisterWorkerTResponse implements org.apache.thrift.TBase<Register
      */
     public static _Fields findByThriftId(int fieldId) {
       switch(fieldId) {
+        case 1: // CHUNK_ACCEPTED
+          return CHUNK_ACCEPTED;
         default:
           return null;
       }
@@ -101,9 +105,16 @@ public class RegisterWorkerTResponse implements org.apache.thrift.TBase<Register
       return _fieldName;
     }
   }
+
+  // isset id assignments
+  private static final int __CHUNKACCEPTED_ISSET_ID = 0;
+  private byte __isset_bitfield = 0;
+  private static final _Fields optionals[] = {_Fields.CHUNK_ACCEPTED};
   public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
   static {
     Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+    tmpMap.put(_Fields.CHUNK_ACCEPTED, new org.apache.thrift.meta_data.FieldMetaData("chunkAccepted", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.BOOL)));
     metaDataMap = Collections.unmodifiableMap(tmpMap);
     org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(RegisterWorkerTResponse.class, metaDataMap);
   }
@@ -115,6 +126,8 @@ public class RegisterWorkerTResponse implements org.apache.thrift.TBase<Register
    * Performs a deep copy on <i>other</i>.
    */
   public RegisterWorkerTResponse(RegisterWorkerTResponse other) {
+    __isset_bitfield = other.__isset_bitfield;
+    this.chunkAccepted = other.chunkAccepted;
   }
 
   public RegisterWorkerTResponse deepCopy() {
@@ -123,15 +136,51 @@ public class RegisterWorkerTResponse implements org.apache.thrift.TBase<Register
 
   @Override
   public void clear() {
+    setChunkAcceptedIsSet(false);
+    this.chunkAccepted = false;
+  }
+
+  public boolean isChunkAccepted() {
+    return this.chunkAccepted;
+  }
+
+  public RegisterWorkerTResponse setChunkAccepted(boolean chunkAccepted) {
+    this.chunkAccepted = chunkAccepted;
+    setChunkAcceptedIsSet(true);
+    return this;
+  }
+
+  public void unsetChunkAccepted() {
+    __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __CHUNKACCEPTED_ISSET_ID);
+  }
+
+  /** Returns true if field chunkAccepted is set (has been assigned a value) and false otherwise */
+  public boolean isSetChunkAccepted() {
+    return EncodingUtils.testBit(__isset_bitfield, __CHUNKACCEPTED_ISSET_ID);
+  }
+
+  public void setChunkAcceptedIsSet(boolean value) {
+    __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __CHUNKACCEPTED_ISSET_ID, value);
   }
 
   public void setFieldValue(_Fields field, Object value) {
     switch (field) {
+    case CHUNK_ACCEPTED:
+      if (value == null) {
+        unsetChunkAccepted();
+      } else {
+        setChunkAccepted((Boolean)value);
+      }
+      break;
+
     }
   }
 
   public Object getFieldValue(_Fields field) {
     switch (field) {
+    case CHUNK_ACCEPTED:
+      return isChunkAccepted();
+
     }
     throw new IllegalStateException();
   }
@@ -143,6 +192,8 @@ public class RegisterWorkerTResponse implements org.apache.thrift.TBase<Register
     }
 
     switch (field) {
+    case CHUNK_ACCEPTED:
+      return isSetChunkAccepted();
     }
     throw new IllegalStateException();
   }
@@ -160,6 +211,15 @@ public class RegisterWorkerTResponse implements org.apache.thrift.TBase<Register
     if (that == null)
       return false;
 
+    boolean this_present_chunkAccepted = true && this.isSetChunkAccepted();
+    boolean that_present_chunkAccepted = true && that.isSetChunkAccepted();
+    if (this_present_chunkAccepted || that_present_chunkAccepted) {
+      if (!(this_present_chunkAccepted && that_present_chunkAccepted))
+        return false;
+      if (this.chunkAccepted != that.chunkAccepted)
+        return false;
+    }
+
     return true;
   }
 
@@ -167,6 +227,11 @@ public class RegisterWorkerTResponse implements org.apache.thrift.TBase<Register
   public int hashCode() {
     List<Object> list = new ArrayList<Object>();
 
+    boolean present_chunkAccepted = true && (isSetChunkAccepted());
+    list.add(present_chunkAccepted);
+    if (present_chunkAccepted)
+      list.add(chunkAccepted);
+
     return list.hashCode();
   }
 
@@ -178,6 +243,16 @@ public class RegisterWorkerTResponse implements org.apache.thrift.TBase<Register
 
     int lastComparison = 0;
 
+    lastComparison = Boolean.valueOf(isSetChunkAccepted()).compareTo(other.isSetChunkAccepted());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetChunkAccepted()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.chunkAccepted, other.chunkAccepted);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
     return 0;
   }
 
@@ -198,6 +273,11 @@ public class RegisterWorkerTResponse implements org.apache.thrift.TBase<Register
     StringBuilder sb = new StringBuilder("RegisterWorkerTResponse(");
     boolean first = true;
 
+    if (isSetChunkAccepted()) {
+      sb.append("chunkAccepted:");
+      sb.append(this.chunkAccepted);
+      first = false;
+    }
     sb.append(")");
     return sb.toString();
   }
@@ -217,6 +297,8 @@ public class RegisterWorkerTResponse implements org.apache.thrift.TBase<Register
 
   private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
     try {
+      // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
+      __isset_bitfield = 0;
       read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
     } catch (org.apache.thrift.TException te) {
       throw new java.io.IOException(te);
@@ -241,6 +323,14 @@ public class RegisterWorkerTResponse implements org.apache.thrift.TBase<Register
           break;
         }
         switch (schemeField.id) {
+          case 1: // CHUNK_ACCEPTED
+            if (schemeField.type == org.apache.thrift.protocol.TType.BOOL) {
+              struct.chunkAccepted = iprot.readBool();
+              struct.setChunkAcceptedIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
           default:
             org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
         }
@@ -256,6 +346,11 @@ public class RegisterWorkerTResponse implements org.apache.thrift.TBase<Register
       struct.validate();
 
       oprot.writeStructBegin(STRUCT_DESC);
+      if (struct.isSetChunkAccepted()) {
+        oprot.writeFieldBegin(CHUNK_ACCEPTED_FIELD_DESC);
+        oprot.writeBool(struct.chunkAccepted);
+        oprot.writeFieldEnd();
+      }
       oprot.writeFieldStop();
       oprot.writeStructEnd();
     }
@@ -273,11 +368,24 @@ public class RegisterWorkerTResponse implements org.apache.thrift.TBase<Register
     @Override
     public void write(org.apache.thrift.protocol.TProtocol prot, RegisterWorkerTResponse struct) throws org.apache.thrift.TException {
       TTupleProtocol oprot = (TTupleProtocol) prot;
+      BitSet optionals = new BitSet();
+      if (struct.isSetChunkAccepted()) {
+        optionals.set(0);
+      }
+      oprot.writeBitSet(optionals, 1);
+      if (struct.isSetChunkAccepted()) {
+        oprot.writeBool(struct.chunkAccepted);
+      }
     }
 
     @Override
     public void read(org.apache.thrift.protocol.TProtocol prot, RegisterWorkerTResponse struct) throws org.apache.thrift.TException {
       TTupleProtocol iprot = (TTupleProtocol) prot;
+      BitSet incoming = iprot.readBitSet(1);
+      if (incoming.get(0)) {
+        struct.chunkAccepted = iprot.readBool();
+        struct.setChunkAcceptedIsSet(true);
+      }
     }
   }
 
@@ -0,0 +1,101 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio;
+
+import alluxio.util.CommonUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Harness shared by the micro benchmarks which are run from the test classpath with a main method.
+ */
+@ThreadSafe
+public final class BenchmarkUtils {
+  /** Receives the results of benchmarked operations, so the JIT cannot drop their computation. */
+  private static volatile Object sSink;
+
+  private BenchmarkUtils() {} // prevent instantiation
+
+  /**
+   * An operation whose throughput is measured.
+   */
+  public interface Operation {
+    /**
+     * @param thread the index of the thread running the operation
+     * @param iteration how many times the thread has run the operation before
+     */
+    void run(int thread, long iteration) throws Exception;
+  }
+
+  /**
+   * Runs an operation in a loop on each of the given number of threads, all starting at once.
+   *
+   * @param numThreads the number of threads
+   * @param durationMs how long to run for
+   * @param operation the operation
+   * @return the number of operations per second, summed over all threads
+   */
+  public static long measureThroughput(int numThreads, long durationMs,
+      final Operation operation) throws Exception {
+    final AtomicBoolean done = new AtomicBoolean(false);
+    final AtomicLong operations = new AtomicLong();
+    final AtomicReference<Exception> failure = new AtomicReference<>();
+    final CyclicBarrier barrier = new CyclicBarrier(numThreads + 1);
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < numThreads; i++) {
+      final int thread = i;
+      Thread t = new Thread(() -> {
+        long count = 0;
+        try {
+          barrier.await();
+          while (!done.get()) {
+            operation.run(thread, count);
+            count++;
+          }
+        } catch (Exception e) {
+          failure.compareAndSet(null, e);
+        }
+        operations.addAndGet(count);
+      });
+      t.start();
+      threads.add(t);
+    }
+    barrier.await();
+    long startMs = CommonUtils.getCurrentMs();
+    CommonUtils.sleepMs(durationMs);
+    done.set(true);
+    for (Thread t : threads) {
+      t.join();
+    }
+    long elapsedMs = CommonUtils.getCurrentMs() - startMs;
+    if (failure.get() != null) {
+      throw failure.get();
+    }
+    return operations.get() * Constants.SECOND_MS / elapsedMs;
+  }
+
+  /**
+   * Consumes the result of a benchmarked operation, or keeps an object reachable until this call.
+   *
+   * @param result the result
+   */
+  public static void consume(Object result) {
+    sSink = result;
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.collections;
+
+import alluxio.BenchmarkUtils;
+import alluxio.util.CommonUtils;
+import alluxio.util.FormatUtils;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compares the heap footprint and the insertion time of the boxed concurrent collections with the
+ * primitive long keyed ones, for the number of entries given. The values of the maps are one
+ * shared object, so only the cost of the collection itself is measured. Run it with a heap large
+ * enough for the boxed collections, e.g. {@code -Xmx4g} for the default of ten million entries.
+ *
+ * Usage: {@code ConcurrentLongHashMapBenchmark [numEntries]}
+ */
+public final class ConcurrentLongHashMapBenchmark {
+  private static final Object VALUE = new Object();
+
+  private ConcurrentLongHashMapBenchmark() {} // prevent instantiation
+
+  /**
+   * @param args the number of entries
+   */
+  public static void main(String[] args) {
+    int numEntries = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+    System.out.printf("%-30s %15s %15s %10s%n", "collection", "heap", "bytes/entry", "put ms");
+    run("ConcurrentHashMap<Long, V>", numEntries, new Filler() {
+      @Override
+      public Object fill(int n) {
+        ConcurrentHashMap<Long, Object> map = new ConcurrentHashMap<>(16, 0.75f, 64);
+        for (long key = 0; key < n; key++) {
+          map.put(key * 7, VALUE);
+        }
+        return map;
+      }
+    });
+    run("ConcurrentLongHashMap<V>", numEntries, new Filler() {
+      @Override
+      public Object fill(int n) {
+        ConcurrentLongHashMap<Object> map = new ConcurrentLongHashMap<>(16, 0.75f, 64);
+        for (long key = 0; key < n; key++) {
+          map.put(key * 7, VALUE);
+        }
+        return map;
+      }
+    });
+    run("ConcurrentHashSet<Long>", numEntries, new Filler() {
+      @Override
+      public Object fill(int n) {
+        ConcurrentHashSet<Long> set = new ConcurrentHashSet<>(16, 0.75f, 64);
+        for (long key = 0; key < n; key++) {
+          set.add(key * 7);
+        }
+        return set;
+      }
+    });
+    run("ConcurrentLongHashSet", numEntries, new Filler() {
+      @Override
+      public Object fill(int n) {
+        ConcurrentLongHashSet set = new ConcurrentLongHashSet(16, 0.75f, 64);
+        for (long key = 0; key < n; key++) {
+          set.add(key * 7);
+        }
+        return set;
+      }
+    });
+  }
+
+  /**
+   * Creates and fills a collection.
+   */
+  private interface Filler {
+    /**
+     * @param n the number of entries
+     * @return the filled collection
+     */
+    Object fill(int n);
+  }
+
+  private static void run(String name, int numEntries, Filler filler) {
+    long before = usedHeap();
+    long startMs = CommonUtils.getCurrentMs();
+    Object collection = filler.fill(numEntries);
+    long elapsedMs = CommonUtils.getCurrentMs() - startMs;
+    long bytes = usedHeap() - before;
+    System.out.printf("%-30s %15s %15.1f %10d%n", name, FormatUtils.getSizeFromBytes(bytes),
+        (double) bytes / numEntries, elapsedMs);
+    // Keeps the collection reachable until it has been measured, then lets the next run free it.
+    BenchmarkUtils.consume(collection);
+    BenchmarkUtils.consume(null);
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+      CommonUtils.sleepMs(100);
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Unit tests for {@link ConcurrentLongHashMap}.
+ */
+public final class ConcurrentLongHashMapTest {
+
+  /**
+   * Tests the basic map operations.
+   */
+  @Test
+  public void basic() {
+    ConcurrentLongHashMap<String> map = new ConcurrentLongHashMap<>();
+    Assert.assertTrue(map.isEmpty());
+    Assert.assertNull(map.put(1L, "a"));
+    Assert.assertEquals("a", map.put(1L, "b"));
+    Assert.assertEquals("b", map.putIfAbsent(1L, "c"));
+    Assert.assertNull(map.putIfAbsent(-1L, "d"));
+    Assert.assertEquals("b", map.get(1L));
+    Assert.assertEquals("d", map.get(-1L));
+    Assert.assertTrue(map.containsKey(-1L));
+    Assert.assertFalse(map.containsKey(2L));
+    Assert.assertEquals(2, map.size());
+
+    Assert.assertEquals("b", map.remove(1L));
+    Assert.assertNull(map.remove(1L));
+    Assert.assertNull(map.get(1L));
+    Assert.assertEquals(1, map.size());
+
+    map.clear();
+    Assert.assertTrue(map.isEmpty());
+    Assert.assertFalse(map.valueIterator().hasNext());
+  }
+
+  /**
+   * Tests random puts and removes against a {@link HashMap}, including growing and rehashing.
+   */
+  @Test
+  public void randomOperations() {
+    Random random = new Random(42);
+    ConcurrentLongHashMap<Long> map = new ConcurrentLongHashMap<>(0, 0.75f, 4);
+    Map<Long, Long> expected = new HashMap<>();
+    for (int i = 0; i < 100000; i++) {
+      long key = random.nextInt(5000);
+      switch (random.nextInt(3)) {
+        case 0:
+          Assert.assertEquals(expected.remove(key), map.remove(key));
+          break;
+        case 1:
+          Assert.assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+          break;
+        default:
+          Assert.assertEquals(expected.get(key), map.get(key));
+          break;
+      }
+    }
+    Assert.assertEquals(expected.size(), map.size());
+
+    Set<Long> keys = new HashSet<>();
+    Iterator<Long> keyIterator = map.keyIterator();
+    while (keyIterator.hasNext()) {
+      long key = keyIterator.next();
+      Assert.assertTrue(keys.add(key));
+      Assert.assertEquals(expected.get(key), map.get(key));
+    }
+    Assert.assertEquals(expected.keySet(), keys);
+    List<Long> values = new ArrayList<>();
+    Iterator<Long> valueIterator = map.valueIterator();
+    while (valueIterator.hasNext()) {
+      values.add(valueIterator.next());
+    }
+    Assert.assertEquals(new HashSet<>(expected.values()), new HashSet<>(values));
+  }
+
+  /**
+   * Tests concurrent puts and removes from several threads, and that an iterator returns every
+   * entry present for its whole lifetime exactly once.
+   */
+  @Test
+  public void concurrentOperations() throws Exception {
+    final ConcurrentLongHashMap<Long> map = new ConcurrentLongHashMap<>(16, 0.75f, 4);
+    final int numThreads = 4;
+    final int keysPerThread = 20000;
+    for (long key = 0; key < keysPerThread; key++) {
+      // stable entries, never removed while the threads run
+      map.put(-key - 1, key);
+    }
+    final Map<Long, Long> failures = new ConcurrentHashMap<>();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < numThreads; t++) {
+      final long base = (long) t * keysPerThread;
+      Thread thread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int round = 0; round < 3; round++) {
+            for (long key = base; key < base + keysPerThread; key++) {
+              map.put(key, key);
+            }
+            for (long key = base; key < base + keysPerThread; key++) {
+              if (!Long.valueOf(key).equals(map.remove(key))) {
+                failures.put(key, key);
+              }
+            }
+          }
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+    Set<Long> stable = new HashSet<>();
+    Iterator<Long> it = map.keyIterator();
+    while (it.hasNext()) {
+      long key = it.next();
+      if (key < 0) {
+        Assert.assertTrue(stable.add(key));
+      }
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    Assert.assertTrue(failures.isEmpty());
+    Assert.assertEquals(keysPerThread, stable.size());
+    Assert.assertEquals(keysPerThread, map.size());
+  }
+}
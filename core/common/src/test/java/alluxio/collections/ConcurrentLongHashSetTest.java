@@ -0,0 +1,46 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.collections;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ConcurrentLongHashSet}.
+ */
+public final class ConcurrentLongHashSetTest {
+
+  /**
+   * Tests the set operations with primitive and boxed values.
+   */
+  @Test
+  public void basic() {
+    ConcurrentLongHashSet set = new ConcurrentLongHashSet();
+    Assert.assertTrue(set.add(1L));
+    Assert.assertFalse(set.add(Long.valueOf(1L)));
+    Assert.assertTrue(set.addAll(Lists.newArrayList(2L, 3L)));
+    Assert.assertTrue(set.contains(2L));
+    Assert.assertTrue(set.contains((Object) 3L));
+    Assert.assertFalse(set.contains("3"));
+    Assert.assertEquals(ImmutableSet.of(1L, 2L, 3L), ImmutableSet.copyOf(set));
+
+    Assert.assertTrue(set.remove(1L));
+    Assert.assertFalse(set.remove((Object) 1L));
+    Assert.assertTrue(set.removeAll(Lists.newArrayList(2L, 4L)));
+    Assert.assertEquals(ImmutableSet.of(3L), set);
+
+    set.clear();
+    Assert.assertTrue(set.isEmpty());
+  }
+}
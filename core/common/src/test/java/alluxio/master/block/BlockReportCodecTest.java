@@ -0,0 +1,88 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.block;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Longs;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests for the {@link BlockReportCodec} class.
+ */
+public final class BlockReportCodecTest {
+
+  /**
+   * Tests that blocks are split into chunks of the given size and decoded in ascending order.
+   */
+  @Test
+  public void encodeChunks() {
+    Map<String, long[]> blocksOnTiers = ImmutableMap.of(
+        "MEM", new long[] {BlockId.createBlockId(2, 1), BlockId.createBlockId(1, 5),
+            BlockId.createBlockId(1, 4)},
+        "SSD", new long[] {Long.MAX_VALUE, -1L});
+    List<byte[]> chunks = BlockReportCodec.encode(blocksOnTiers, 2);
+    Assert.assertEquals(3, chunks.size());
+
+    Assert.assertEquals(ImmutableMap.of("MEM",
+        Lists.newArrayList(BlockId.createBlockId(1, 4), BlockId.createBlockId(1, 5))),
+        BlockReportCodec.decode(ByteBuffer.wrap(chunks.get(0))));
+    Assert.assertEquals(ImmutableMap.of("MEM", Lists.newArrayList(BlockId.createBlockId(2, 1)),
+        "SSD", Lists.newArrayList(-1L)),
+        BlockReportCodec.decode(ByteBuffer.wrap(chunks.get(1))));
+    Assert.assertEquals(ImmutableMap.of("SSD", Lists.newArrayList(Long.MAX_VALUE)),
+        BlockReportCodec.decode(ByteBuffer.wrap(chunks.get(2))));
+  }
+
+  /**
+   * Tests that an empty report is encoded as a single empty chunk.
+   */
+  @Test
+  public void encodeEmpty() {
+    List<byte[]> chunks =
+        BlockReportCodec.encode(Collections.<String, long[]>emptyMap(), 10);
+    Assert.assertEquals(1, chunks.size());
+    Assert.assertTrue(BlockReportCodec.decode(ByteBuffer.wrap(chunks.get(0))).isEmpty());
+  }
+
+  /**
+   * Tests that consecutive block ids take one byte each.
+   */
+  @Test
+  public void compactEncoding() {
+    long[] blockIds = new long[1000];
+    for (int i = 0; i < blockIds.length; i++) {
+      blockIds[i] = BlockId.createBlockId(123456, i);
+    }
+    List<byte[]> chunks = BlockReportCodec.encode(ImmutableMap.of("MEM", blockIds), 1000);
+    Assert.assertEquals(1, chunks.size());
+    Assert.assertTrue(chunks.get(0).length < 1100);
+    Assert.assertEquals(ImmutableMap.of("MEM", Longs.asList(blockIds)),
+        BlockReportCodec.decode(ByteBuffer.wrap(chunks.get(0))));
+  }
+
+  /**
+   * Tests that a truncated chunk is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void decodeTruncated() {
+    byte[] chunk = BlockReportCodec.encode(
+        ImmutableMap.of("MEM", new long[] {1L, 1000L}), 10).get(0);
+    BlockReportCodec.decode(ByteBuffer.wrap(chunk, 0, chunk.length - 1));
+  }
+}
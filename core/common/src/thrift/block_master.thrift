@@ -82,8 +82,20 @@ struct GetWorkerIdTResponse {
   1: i64 workerId
 }
 
-struct RegisterWorkerTOptions {}
-struct RegisterWorkerTResponse {}
+struct RegisterWorkerTOptions {
+  // Identifies a block report sent in chunks, the same for all chunks of the report
+  1: optional i64 blockReportId
+  // A compact block report chunk, replacing currentBlocksOnTiers when set
+  2: optional binary blockReportChunk
+  // The index of the chunk in the block report, starting from 0
+  3: optional i32 chunkIndex
+  // Whether this is the last chunk of the block report
+  4: optional bool lastChunk
+}
+struct RegisterWorkerTResponse {
+  // Whether the master applied the block report chunk, unset by masters which ignore the chunk
+  1: optional bool chunkAccepted
+}
 
 /**
  * This interface contains block master service endpoints for Alluxio workers.
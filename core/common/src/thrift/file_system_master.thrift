@@ -83,6 +83,10 @@ struct ListStatusTOptions {
   1: optional bool loadDirectChildren
   2: optional LoadMetadataTType loadMetadataType
   3: optional FileSystemMasterCommonTOptions commonOptions
+  // Only children whose names sort after this name are listed; empty means from the beginning.
+  4: optional string startAfter
+  // The maximum number of children to list; 0 or unset means no limit.
+  5: optional i32 batchSize
 }
 struct ListStatusTResponse {
   1: list<FileInfo> fileInfoList
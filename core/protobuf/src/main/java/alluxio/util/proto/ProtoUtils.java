@@ -12,7 +12,9 @@
 package alluxio.util.proto;
 
 import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.MessageLite;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -36,6 +38,31 @@ public final class ProtoUtils {
     return CodedInputStream.readRawVarint32(firstByte, input);
   }
 
+  /**
+   * @param message the message
+   * @return the number of bytes of the message in the length delimited format
+   */
+  public static int getDelimitedSize(MessageLite message) {
+    int size = message.getSerializedSize();
+    return CodedOutputStream.computeRawVarint32Size(size) + size;
+  }
+
+  /**
+   * Writes the message to the beginning of the buffer in the same format as
+   * {@link MessageLite#writeDelimitedTo(java.io.OutputStream)}.
+   *
+   * @param message the message
+   * @param buffer the buffer, which must hold at least {@link #getDelimitedSize(MessageLite)} bytes
+   */
+  public static void writeDelimitedTo(MessageLite message, byte[] buffer) throws IOException {
+    int size = message.getSerializedSize();
+    CodedOutputStream output = CodedOutputStream.newInstance(buffer, 0,
+        CodedOutputStream.computeRawVarint32Size(size) + size);
+    output.writeRawVarint32(size);
+    message.writeTo(output);
+    output.checkNoSpaceLeft();
+  }
+
   /**
    * Checks whether the exception is an {@link InvalidProtocolBufferException} thrown because of
    * a truncated message.
@@ -0,0 +1,27 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio;
+
+/**
+ * The types of Thrift RPC servers run by Alluxio processes.
+ */
+public enum RpcServerType {
+  /**
+   * A server that dedicates a thread of a bounded pool to each client connection.
+   */
+  THREAD_POOL,
+  /**
+   * A non-blocking server whose selector threads handle the client connections and hand complete
+   * requests to a bounded pool of threads.
+   */
+  THREADED_SELECTOR,
+}
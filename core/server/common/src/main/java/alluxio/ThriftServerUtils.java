@@ -0,0 +1,119 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio;
+
+import alluxio.security.authentication.AuthType;
+import alluxio.security.authentication.SaslNonblockingServerTransport;
+import alluxio.util.ThreadFactoryUtils;
+
+import com.google.common.base.Preconditions;
+import org.apache.thrift.TProcessor;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.server.TServer;
+import org.apache.thrift.server.TThreadedSelectorServer;
+import org.apache.thrift.transport.TNonblockingServerSocket;
+import org.apache.thrift.transport.TNonblockingServerTransport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Utility methods for the Thrift RPC servers of Alluxio processes.
+ */
+@ThreadSafe
+public final class ThriftServerUtils {
+  private static final Logger LOG = LoggerFactory.getLogger(ThriftServerUtils.class);
+
+  /**
+   * Gets the type of RPC server to run. The non-blocking server only supports the authentication
+   * types whose SASL mechanism does not wrap the data, so for the other types, i.e.
+   * {@link AuthType#KERBEROS}, the thread pool server is used instead.
+   *
+   * @param serverTypeKey the property key of the server type
+   * @return the server type to run
+   */
+  public static RpcServerType getServerType(PropertyKey serverTypeKey) {
+    RpcServerType serverType = Configuration.getEnum(serverTypeKey, RpcServerType.class);
+    AuthType authType =
+        Configuration.getEnum(PropertyKey.SECURITY_AUTHENTICATION_TYPE, AuthType.class);
+    if (serverType == RpcServerType.THREADED_SELECTOR && !isSelectorServerSupported(authType)) {
+      LOG.warn("{}={} is ignored: the non-blocking Thrift server does not support {}={}. Running "
+          + "the {} server instead, which uses one thread per client connection.", serverTypeKey,
+          serverType, PropertyKey.SECURITY_AUTHENTICATION_TYPE, authType,
+          RpcServerType.THREAD_POOL);
+      return RpcServerType.THREAD_POOL;
+    }
+    return serverType;
+  }
+
+  /**
+   * Creates a non-blocking Thrift server. Client connections are handled by the selector threads,
+   * so the number of connections does not determine the number of server threads. Unless the
+   * authentication type is {@link AuthType#NOSASL}, the connections are authenticated with the
+   * same SASL negotiation as the thread pool server, whose messages are evaluated by the threads
+   * processing requests.
+   *
+   * The requests being read are buffered up to the maximum Thrift frame size in total, which also
+   * bounds the size of a single request as the frame size does for the thread pool server.
+   *
+   * @param serverSocket the non-blocking server socket to accept connections from
+   * @param processor the processor of the requests
+   * @param selectorThreads the number of selector threads
+   * @param workerThreads the number of threads processing requests
+   * @param stopTimeoutMs the time in milliseconds to wait for requests in progress when stopping
+   * @param threadNameFormat the name format of the threads processing requests
+   * @return the server
+   * @throws IllegalArgumentException if the authentication type is not supported, see
+   *         {@link #getServerType(PropertyKey)}
+   */
+  public static TServer createThreadedSelectorServer(TNonblockingServerSocket serverSocket,
+      TProcessor processor, int selectorThreads, int workerThreads, int stopTimeoutMs,
+      String threadNameFormat) {
+    AuthType authType =
+        Configuration.getEnum(PropertyKey.SECURITY_AUTHENTICATION_TYPE, AuthType.class);
+    Preconditions.checkArgument(isSelectorServerSupported(authType),
+        "The non-blocking Thrift server does not support authentication type %s", authType);
+    ExecutorService executor = Executors.newFixedThreadPool(workerThreads,
+        ThreadFactoryUtils.build(threadNameFormat, true));
+    TNonblockingServerTransport serverTransport = serverSocket;
+    TProcessor serverProcessor = processor;
+    if (authType != AuthType.NOSASL) {
+      serverTransport = new SaslNonblockingServerTransport(serverSocket, authType, executor);
+      serverProcessor = SaslNonblockingServerTransport.getProcessor(processor);
+    }
+    TThreadedSelectorServer.Args args = new TThreadedSelectorServer.Args(serverTransport)
+        .selectorThreads(selectorThreads)
+        .executorService(executor)
+        .stopTimeoutVal(stopTimeoutMs)
+        .stopTimeoutUnit(TimeUnit.MILLISECONDS)
+        .processor(serverProcessor)
+        .protocolFactory(new TBinaryProtocol.Factory(true, true));
+    args.maxReadBufferBytes =
+        Configuration.getBytes(PropertyKey.NETWORK_THRIFT_FRAME_SIZE_BYTES_MAX);
+    return new TThreadedSelectorServer(args);
+  }
+
+  /**
+   * @param authType the authentication type
+   * @return whether the non-blocking server supports the authentication type
+   */
+  private static boolean isSelectorServerSupported(AuthType authType) {
+    return authType == AuthType.NOSASL || SaslNonblockingServerTransport.isSupported(authType);
+  }
+
+  private ThriftServerUtils() {} // prevent instantiation
+}
@@ -13,27 +13,60 @@ package alluxio.master.journal;
 
 import alluxio.Configuration;
 import alluxio.PropertyKey;
+import alluxio.metrics.MetricsSystem;
 import alluxio.proto.journal.Journal.JournalEntry;
 import alluxio.resource.LockResource;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
 import com.google.common.base.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.ArrayDeque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 
+import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
  * This enables async journal writing, as well as some batched journal flushing.
+ *
+ * Appended entries are kept in a bounded ring buffer. A flushing thread commits a group of entries
+ * at once: it moves the buffered entries to the journal writer and then flushes the writer a single
+ * time for the whole group. When the ring buffer is full, appending threads apply back-pressure
+ * by writing the buffered entries themselves, or by waiting for the flushing thread to drain them.
+ * An append fails if the queue stays full for longer than the journal flush timeout.
  */
 @ThreadSafe
 public final class AsyncJournalWriter {
+  private static final Logger LOG = LoggerFactory.getLogger(AsyncJournalWriter.class);
+  /** Time to wait before retrying to append an entry to a full queue. */
+  private static final long QUEUE_FULL_WAIT_NS = TimeUnit.MICROSECONDS.toNanos(100);
+  /** Minimum time between two warnings about failing to write entries from a full queue. */
+  private static final long QUEUE_FULL_WARN_INTERVAL_NS = TimeUnit.SECONDS.toNanos(10);
+
   private final JournalWriter mJournalWriter;
-  private final ConcurrentLinkedQueue<JournalEntry> mQueue;
+  private final ArrayBlockingQueue<JournalEntry> mQueue;
+  /**
+   * Entries removed from {@link #mQueue} which have not been written to the journal writer yet,
+   * e.g. because a previous write failed.
+   */
+  @GuardedBy("mFlushLock")
+  private final ArrayDeque<JournalEntry> mPendingEntries;
   /** Represents the count of entries added to the journal queue. */
   private final AtomicLong mCounter;
+  /**
+   * Represents the count of entries which were counted by {@link #mCounter}, but were never added
+   * to the queue because the append timed out, and which have not been counted as written yet.
+   */
+  private final AtomicLong mSkippedCounter;
   /** Represents the count of entries flushed to the journal writer. */
   private final AtomicLong mFlushCounter;
   /**
@@ -43,6 +76,10 @@ public final class AsyncJournalWriter {
   private final AtomicLong mWriteCounter;
   /** Maximum number of nanoseconds for a batch flush. */
   private final long mFlushBatchTimeNs;
+  /** Maximum number of nanoseconds to wait for room in a full queue. */
+  private final long mAppendTimeoutNs;
+  /** The time in nanoseconds of the last warning about a full queue. */
+  private final AtomicLong mLastQueueFullWarnNs;
 
   /**
    * Use a {@link ReentrantLock} to guard the journal writing. Using the fairness policy seems to
@@ -57,29 +94,36 @@ public final class AsyncJournalWriter {
    */
   public AsyncJournalWriter(JournalWriter journalWriter) {
     mJournalWriter = Preconditions.checkNotNull(journalWriter, "journalWriter");
-    mQueue = new ConcurrentLinkedQueue<>();
+    mQueue = new ArrayBlockingQueue<>(
+        Configuration.getInt(PropertyKey.MASTER_JOURNAL_QUEUE_CAPACITY));
+    mPendingEntries = new ArrayDeque<>();
     mCounter = new AtomicLong(0);
+    mSkippedCounter = new AtomicLong(0);
     mFlushCounter = new AtomicLong(0);
     mWriteCounter = new AtomicLong(0);
     // convert milliseconds to nanoseconds.
     mFlushBatchTimeNs =
         1000000L * Configuration.getMs(PropertyKey.MASTER_JOURNAL_FLUSH_BATCH_TIME_MS);
+    mAppendTimeoutNs = TimeUnit.MILLISECONDS
+        .toNanos(Configuration.getMs(PropertyKey.MASTER_JOURNAL_FLUSH_TIMEOUT_MS));
+    mLastQueueFullWarnNs = new AtomicLong(System.nanoTime() - QUEUE_FULL_WARN_INTERVAL_NS);
   }
 
   /**
-   * Appends a {@link JournalEntry} for writing to the journal.
+   * Appends a {@link JournalEntry} for writing to the journal. If the queue is full, this blocks
+   * until there is room for the entry, or until the journal flush timeout elapses.
    *
    * @param entry the {@link JournalEntry} to append
    * @return a counter for the entry, for flushing
+   * @throws IOException if the queue stayed full for longer than the journal flush timeout
    */
-  public long appendEntry(JournalEntry entry) {
-    // TODO(gpang): handle bounding the queue if it becomes too large.
-
+  public long appendEntry(JournalEntry entry) throws IOException {
     /**
      * Protocol for appending entries
      *
-     * This protocol is lock free, to reduce the overhead in critical sections. It uses
-     * {@link AtomicLong} and {@link ConcurrentLinkedQueue} which are both lock-free.
+     * This protocol is lock free when the queue is not full, to reduce the overhead in critical
+     * sections. It uses {@link AtomicLong} and {@link ArrayBlockingQueue#offer}, which does not
+     * wait.
      *
      * The invariant that must be satisfied is that the 'counter' that is returned must be
      * greater than or equal to the actual counter of the entry in the queue.
@@ -91,12 +135,61 @@ public final class AsyncJournalWriter {
      * Therefore, the {@link #mCounter} must be read AFTER the entry is added to the queue. The
      * resulting read of the counter AFTER the entry is added is guaranteed to be greater than or
      * equal to the counter for the entries in the queue.
+     *
+     * When the queue is full, the entries in the queue are written to the journal writer by this
+     * thread if no other thread is flushing. Otherwise the flushing thread is draining the queue,
+     * so this thread waits and retries. The flush lock is never waited for here, because the
+     * flushing thread may be waiting for this entry to be added to the queue.
+     *
+     * If the entry cannot be added before the timeout, the counter is never decremented, since
+     * other threads may already have returned a counter which includes this entry. Instead, the
+     * entry is counted in {@link #mSkippedCounter}, and is counted as written once all the entries
+     * appended before it have been written.
      */
     mCounter.incrementAndGet();
-    mQueue.offer(entry);
+    long startNs = System.nanoTime();
+    IOException lastFailure = null;
+    while (!mQueue.offer(entry)) {
+      Metrics.JOURNAL_QUEUE_FULL.inc();
+      if (mFlushLock.tryLock()) {
+        try {
+          // Write all the queued entries, so the queue has room for more than one entry.
+          writeEntries(mCounter.get(), System.nanoTime());
+          continue;
+        } catch (IOException e) {
+          // The entries stay pending, and the failure is reported by the next flush.
+          lastFailure = e;
+          warnQueueFull(e);
+        } finally {
+          mFlushLock.unlock();
+        }
+      }
+      if (System.nanoTime() - startNs >= mAppendTimeoutNs) {
+        mSkippedCounter.incrementAndGet();
+        throw new IOException(String.format(
+            "Timed out after %d ms waiting for room in the full journal queue",
+            TimeUnit.NANOSECONDS.toMillis(mAppendTimeoutNs)), lastFailure);
+      }
+      LockSupport.parkNanos(QUEUE_FULL_WAIT_NS);
+    }
     return mCounter.get();
   }
 
+  /**
+   * Logs a failure to write entries from a full queue, at most once per
+   * {@link #QUEUE_FULL_WARN_INTERVAL_NS} across all appending threads.
+   *
+   * @param e the failure
+   */
+  private void warnQueueFull(IOException e) {
+    long lastWarnNs = mLastQueueFullWarnNs.get();
+    long nowNs = System.nanoTime();
+    if (nowNs - lastWarnNs >= QUEUE_FULL_WARN_INTERVAL_NS
+        && mLastQueueFullWarnNs.compareAndSet(lastWarnNs, nowNs)) {
+      LOG.warn("Failed to write journal entries from a full queue: {}", e.getMessage());
+    }
+  }
+
   /**
    * Flushes and waits until the specified counter is flushed to the journal. If the specified
    * counter is already flushed, this is essentially a no-op.
@@ -117,29 +210,68 @@ public final class AsyncJournalWriter {
       }
       long writeCounter = mWriteCounter.get();
       while (targetCounter > writeCounter) {
-        for (;;) {
-          // Get, but do not remove, the head entry.
-          JournalEntry entry = mQueue.peek();
-          if (entry == null) {
-            // No more entries in the queue. Break out of the infinite for-loop.
-            break;
-          }
-          mJournalWriter.write(entry);
-          // Remove the head entry, after the entry was successfully written.
-          mQueue.poll();
-          writeCounter = mWriteCounter.incrementAndGet();
-
-          if (writeCounter >= targetCounter) {
-            if ((System.nanoTime() - startTime) >= mFlushBatchTimeNs) {
-              // This thread has been writing to the journal for enough time. Break out of the
-              // infinite for-loop.
-              break;
-            }
+        writeCounter = writeEntries(targetCounter, startTime);
+      }
+      try (Timer.Context ctx = Metrics.JOURNAL_FLUSH_TIMER.time()) {
+        mJournalWriter.flush();
+      }
+      Metrics.JOURNAL_FLUSH_BATCH_SIZE.update(writeCounter - flushCounter);
+      mFlushCounter.set(writeCounter);
+    }
+  }
+
+  /**
+   * Writes the entries in the queue to the journal writer. This stops when the queue is empty,
+   * or when at least the target counter is written and the batch time since the start time has
+   * elapsed.
+   *
+   * @param targetCounter the counter to write
+   * @param startTime the start time of the flush in nanoseconds
+   * @return the count of entries written to the journal writer
+   */
+  @GuardedBy("mFlushLock")
+  private long writeEntries(long targetCounter, long startTime) throws IOException {
+    long writeCounter = mWriteCounter.get();
+    for (;;) {
+      if (mPendingEntries.isEmpty()) {
+        // Read the skipped entries before draining the queue. If the queue is empty, every entry
+        // counted before the skipped entries was written, so they can be counted as written too.
+        long skipped = mSkippedCounter.getAndSet(0);
+        if (mQueue.drainTo(mPendingEntries) == 0) {
+          // No more entries in the queue.
+          return skipped == 0 ? writeCounter : mWriteCounter.addAndGet(skipped);
+        }
+        mSkippedCounter.addAndGet(skipped);
+      }
+      // Get, but do not remove, the head entry.
+      JournalEntry entry;
+      while ((entry = mPendingEntries.peek()) != null) {
+        mJournalWriter.write(entry);
+        // Remove the head entry, after the entry was successfully written.
+        mPendingEntries.poll();
+        writeCounter = mWriteCounter.incrementAndGet();
+
+        if (writeCounter >= targetCounter) {
+          if ((System.nanoTime() - startTime) >= mFlushBatchTimeNs) {
+            // This thread has been writing to the journal for enough time.
+            return writeCounter;
           }
         }
       }
-      mJournalWriter.flush();
-      mFlushCounter.set(writeCounter);
     }
   }
+
+  /**
+   * Class that contains metrics about the async journal writer.
+   */
+  @ThreadSafe
+  private static final class Metrics {
+    private static final Counter JOURNAL_QUEUE_FULL =
+        MetricsSystem.masterCounter("JournalQueueFull");
+    private static final Histogram JOURNAL_FLUSH_BATCH_SIZE =
+        MetricsSystem.masterHistogram("JournalFlushBatchSize");
+    private static final Timer JOURNAL_FLUSH_TIMER = MetricsSystem.masterTimer("JournalFlushTimer");
+
+    private Metrics() {} // prevent instantiation
+  }
 }
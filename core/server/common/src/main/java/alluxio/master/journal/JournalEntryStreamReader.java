@@ -44,9 +44,24 @@ public class JournalEntryStreamReader implements Closeable {
    * @return the journal entry, null if no journal entry is found
    */
   public JournalEntry readEntry() throws IOException {
+    int size = readEntryBytes();
+    if (size < 0) {
+      return null;
+    }
+    JournalEntry entry = JournalEntry.parseFrom(new ByteArrayInputStream(mBuffer, 0, size));
+    return entry;
+  }
+
+  /**
+   * Reads the serialized bytes of the next journal entry from the input stream. The bytes are
+   * available from {@link #getBuffer()} until the next call to this method.
+   *
+   * @return the number of bytes of the journal entry, -1 if no journal entry is found
+   */
+  protected int readEntryBytes() throws IOException {
     int firstByte = mStream.read();
     if (firstByte == -1) {
-      return null;
+      return -1;
     }
     // All journal entries start with their size in bytes written as a varint.
     int size;
@@ -74,11 +89,17 @@ public class JournalEntryStreamReader implements Closeable {
       // this case, we can ignore the last entry because it was not acked to the client.
       LOG.warn("Journal entry was truncated. Expected to read {} bytes but only got {}", size,
           totalBytesRead);
-      return null;
+      return -1;
     }
+    return size;
+  }
 
-    JournalEntry entry = JournalEntry.parseFrom(new ByteArrayInputStream(mBuffer, 0, size));
-    return entry;
+  /**
+   * @return the buffer holding the bytes of the journal entry last read by
+   *         {@link #readEntryBytes()}
+   */
+  protected byte[] getBuffer() {
+    return mBuffer;
   }
 
   @Override
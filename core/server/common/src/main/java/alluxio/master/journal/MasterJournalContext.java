@@ -50,9 +50,25 @@ public final class MasterJournalContext implements JournalContext {
     mFlushCounter = INVALID_FLUSH_COUNTER;
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * If the journal queue stays full for longer than
+   * {@link PropertyKey#MASTER_JOURNAL_FLUSH_TIMEOUT_MS}, the master process is terminated, the same
+   * as when a flush fails for that long. Callers usually hold inode locks while appending, so
+   * other operations on those inodes are blocked until then.
+   */
   @Override
   public void append(JournalEntry entry) {
-    mFlushCounter = mAsyncJournalWriter.appendEntry(entry);
+    try {
+      mFlushCounter = mAsyncJournalWriter.appendEntry(entry);
+    } catch (IOException e) {
+      LOG.error("Journal append failed. Terminating process to prevent inconsistency.", e);
+      if (Configuration.getBoolean(PropertyKey.TEST_MODE)) {
+        throw new RuntimeException("Journal append failed", e);
+      }
+      System.exit(-1);
+    }
   }
 
   /**
@@ -0,0 +1,132 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.journal;
+
+import alluxio.proto.journal.Journal.JournalEntry;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Reads journal entries from an input stream in sections of consecutive entries. The calling
+ * thread only frames the serialized entries of each section, and the sections are parsed in
+ * parallel by an executor, so that reading a large journal file such as a checkpoint is not bound
+ * by a single core. Entries are still returned in the order they appear in the stream, because a
+ * master applies its entries in order, for example the parents of an inode before the inode.
+ * Applying the entries of different masters in parallel is left to the journal system.
+ */
+@NotThreadSafe
+public final class ParallelJournalEntryStreamReader extends JournalEntryStreamReader {
+  private final ExecutorService mExecutor;
+  /** The maximum number of entries in a section. */
+  private final int mSectionSize;
+  /** The maximum number of sections read ahead of the section being returned. */
+  private final int mMaxSections;
+  /** The sections being parsed, in stream order. */
+  private final Queue<Future<List<JournalEntry>>> mSections = new ArrayDeque<>();
+  /** The entries of the section being returned. */
+  private Iterator<JournalEntry> mEntries;
+  /** Whether the end of the stream has been reached. */
+  private boolean mEof;
+
+  /**
+   * @param stream the stream to read from
+   * @param executor the executor to parse sections with
+   * @param sectionSize the maximum number of entries in a section
+   * @param maxSections the maximum number of sections to read ahead
+   */
+  public ParallelJournalEntryStreamReader(InputStream stream, ExecutorService executor,
+      int sectionSize, int maxSections) {
+    super(stream);
+    Preconditions.checkArgument(sectionSize > 0, "sectionSize must be positive");
+    Preconditions.checkArgument(maxSections > 0, "maxSections must be positive");
+    mExecutor = Preconditions.checkNotNull(executor, "executor");
+    mSectionSize = sectionSize;
+    mMaxSections = maxSections;
+  }
+
+  @Override
+  public JournalEntry readEntry() throws IOException {
+    while (mEntries == null || !mEntries.hasNext()) {
+      readSections();
+      Future<List<JournalEntry>> section = mSections.poll();
+      if (section == null) {
+        return null;
+      }
+      try {
+        mEntries = section.get().iterator();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while parsing journal entries", e);
+      } catch (ExecutionException e) {
+        Throwables.propagateIfPossible(e.getCause(), IOException.class);
+        throw new IOException(e.getCause());
+      }
+    }
+    return mEntries.next();
+  }
+
+  /**
+   * Frames sections from the stream and submits them for parsing, until enough sections are read
+   * ahead or the end of the stream is reached.
+   */
+  private void readSections() throws IOException {
+    while (!mEof && mSections.size() < mMaxSections) {
+      final List<byte[]> serializedEntries = new ArrayList<>(mSectionSize);
+      while (serializedEntries.size() < mSectionSize) {
+        int size = readEntryBytes();
+        if (size < 0) {
+          mEof = true;
+          break;
+        }
+        serializedEntries.add(Arrays.copyOf(getBuffer(), size));
+      }
+      if (serializedEntries.isEmpty()) {
+        return;
+      }
+      mSections.add(mExecutor.submit(new Callable<List<JournalEntry>>() {
+        @Override
+        public List<JournalEntry> call() throws IOException {
+          List<JournalEntry> entries = new ArrayList<>(serializedEntries.size());
+          for (byte[] serializedEntry : serializedEntries) {
+            entries.add(JournalEntry.parseFrom(serializedEntry));
+          }
+          return entries;
+        }
+      }));
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    for (Future<List<JournalEntry>> section : mSections) {
+      section.cancel(true);
+    }
+    mSections.clear();
+    super.close();
+  }
+}
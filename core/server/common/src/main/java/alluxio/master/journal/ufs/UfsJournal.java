@@ -31,12 +31,14 @@ import alluxio.util.UnderFileSystemUtils;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.URI;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -74,6 +76,14 @@ public class UfsJournal implements Journal {
   /** Directory for temporary files. */
   private static final String TMP_DIRNAME = ".tmp";
 
+  /** The maximum number of journal entries in a checkpoint section. */
+  static final int CHECKPOINT_SECTION_SIZE = 4096;
+  /** The number of threads serializing and parsing checkpoint sections. */
+  static final int CHECKPOINT_THREADS =
+      Configuration.getInt(PropertyKey.MASTER_JOURNAL_CHECKPOINT_THREADS);
+  /** The maximum number of checkpoint sections being serialized or parsed by a journal. */
+  static final int CHECKPOINT_MAX_SECTIONS = 2 * CHECKPOINT_THREADS;
+
   private final URI mLogDir;
   private final URI mCheckpointDir;
   private final URI mTmpDir;
@@ -86,6 +96,8 @@ public class UfsJournal implements Journal {
   private final UnderFileSystem mUfs;
   /** The amount of time to wait to pass without seeing a new journal entry when gaining primacy. */
   private final long mQuietPeriodMs;
+  /** The executor to serialize and parse checkpoint sections with. */
+  private final ExecutorService mCheckpointExecutor;
   /** The current log writer. Null when in secondary mode. */
   private UfsJournalLogWriter mWriter;
   /** Asynchronous journal writer. */
@@ -112,7 +124,8 @@ public class UfsJournal implements Journal {
   }
 
   /**
-   * Creates a new instance of {@link UfsJournal}.
+   * Creates a new instance of {@link UfsJournal}, which serializes and parses checkpoints in the
+   * calling thread.
    *
    * @param location the location for this journal
    * @param stateMachine the state machine to manage
@@ -120,8 +133,7 @@ public class UfsJournal implements Journal {
    *        gaining primacy
    */
   public UfsJournal(URI location, JournalEntryStateMachine stateMachine, long quietPeriodMs) {
-    this(location, stateMachine,
-        UnderFileSystem.Factory.create(location.toString(), getJournalUfsConf()), quietPeriodMs);
+    this(location, stateMachine, quietPeriodMs, MoreExecutors.sameThreadExecutor());
   }
 
   /**
@@ -129,16 +141,51 @@ public class UfsJournal implements Journal {
    *
    * @param location the location for this journal
    * @param stateMachine the state machine to manage
+   * @param quietPeriodMs the amount of time to wait to pass without seeing a new journal entry when
+   *        gaining primacy
+   * @param checkpointExecutor the executor to serialize and parse checkpoint sections with, which
+   *        is owned by the caller
+   */
+  public UfsJournal(URI location, JournalEntryStateMachine stateMachine, long quietPeriodMs,
+      ExecutorService checkpointExecutor) {
+    this(location, stateMachine,
+        UnderFileSystem.Factory.create(location.toString(), getJournalUfsConf()), quietPeriodMs,
+        checkpointExecutor);
+  }
+
+  /**
+   * Creates a new instance of {@link UfsJournal}, which serializes and parses checkpoints in the
+   * calling thread.
+   *
+   * @param location the location for this journal
+   * @param stateMachine the state machine to manage
    * @param ufs the under file system
    * @param quietPeriodMs the amount of time to wait to pass without seeing a new journal entry when
    *        gaining primacy
    */
   UfsJournal(URI location, JournalEntryStateMachine stateMachine, UnderFileSystem ufs,
       long quietPeriodMs) {
+    this(location, stateMachine, ufs, quietPeriodMs, MoreExecutors.sameThreadExecutor());
+  }
+
+  /**
+   * Creates a new instance of {@link UfsJournal}.
+   *
+   * @param location the location for this journal
+   * @param stateMachine the state machine to manage
+   * @param ufs the under file system
+   * @param quietPeriodMs the amount of time to wait to pass without seeing a new journal entry when
+   *        gaining primacy
+   * @param checkpointExecutor the executor to serialize and parse checkpoint sections with, which
+   *        is owned by the caller
+   */
+  UfsJournal(URI location, JournalEntryStateMachine stateMachine, UnderFileSystem ufs,
+      long quietPeriodMs, ExecutorService checkpointExecutor) {
     mLocation = URIUtils.appendPathOrDie(location, VERSION);
     mMaster = stateMachine;
     mUfs = ufs;
     mQuietPeriodMs = quietPeriodMs;
+    mCheckpointExecutor = Preconditions.checkNotNull(checkpointExecutor, "checkpointExecutor");
 
     mLogDir = URIUtils.appendPathOrDie(mLocation, LOG_DIRNAME);
     mCheckpointDir = URIUtils.appendPathOrDie(mLocation, CHECKPOINT_DIRNAME);
@@ -327,6 +374,13 @@ public class UfsJournal implements Journal {
     return mUfs;
   }
 
+  /**
+   * @return the executor to serialize and parse checkpoint sections with
+   */
+  ExecutorService getCheckpointExecutor() {
+    return mCheckpointExecutor;
+  }
+
   /**
    * Reads and applies all journal entries starting from the specified sequence number.
    *
@@ -16,12 +16,21 @@ import alluxio.proto.journal.Journal.JournalEntry;
 import alluxio.underfs.UnderFileSystem;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
@@ -32,6 +41,10 @@ import javax.annotation.concurrent.NotThreadSafe;
  * It first writes checkpoint to a temporary location. After it is done with writing the temporary
  * checkpoint, commit it by renaming the temporary checkpoint to the final location. If the same
  * checkpoint has already been created by another secondary master, the checkpoint is aborted.
+ *
+ * Entries are grouped into sections of consecutive entries. The sections are serialized in
+ * parallel and written to the checkpoint in order, so the checkpoint format is the same as if the
+ * entries were written one at a time.
  */
 @NotThreadSafe
 final class UfsJournalCheckpointWriter {
@@ -53,6 +66,11 @@ final class UfsJournalCheckpointWriter {
    */
   private long mNextSequenceNumber;
 
+  /** The entries of the section being built. */
+  private List<JournalEntry> mSection;
+  /** The sections being serialized, in checkpoint order. */
+  private final Queue<Future<byte[]>> mSections = new ArrayDeque<>();
+
   /** Whether this journal writer is closed. */
   private boolean mClosed;
 
@@ -68,6 +86,7 @@ final class UfsJournalCheckpointWriter {
     mJournal = Preconditions.checkNotNull(journal, "journal");
     mUfs = mJournal.getUfs();
     mNextSequenceNumber = 0;
+    mSection = new ArrayList<>(UfsJournal.CHECKPOINT_SECTION_SIZE);
 
     mTmpCheckpointFileLocation = UfsJournalFile.encodeTemporaryCheckpointFileLocation(mJournal);
     mTmpCheckpointStream = mUfs.create(mTmpCheckpointFileLocation.toString());
@@ -80,23 +99,74 @@ final class UfsJournalCheckpointWriter {
     if (mClosed) {
       throw new IOException(ExceptionMessage.JOURNAL_WRITE_AFTER_CLOSE.getMessage());
     }
-    try {
-      entry.toBuilder().setSequenceNumber(mNextSequenceNumber).build()
-          .writeDelimitedTo(mTmpCheckpointStream);
-    } catch (IOException e) {
-      throw e;
-    }
+    mSection.add(entry);
     mNextSequenceNumber++;
+    if (mSection.size() >= UfsJournal.CHECKPOINT_SECTION_SIZE) {
+      submitSection();
+      while (mSections.size() > UfsJournal.CHECKPOINT_MAX_SECTIONS) {
+        writeSection(mSections.poll());
+      }
+    }
   }
 
   public void flush() throws IOException {
+    submitSection();
+    while (!mSections.isEmpty()) {
+      writeSection(mSections.poll());
+    }
     mTmpCheckpointStream.flush();
   }
 
+  /**
+   * Submits the section being built for serialization.
+   */
+  private void submitSection() {
+    if (mSection.isEmpty()) {
+      return;
+    }
+    final List<JournalEntry> section = mSection;
+    final long firstSequenceNumber = mNextSequenceNumber - section.size();
+    mSection = new ArrayList<>(UfsJournal.CHECKPOINT_SECTION_SIZE);
+    mSections.add(mJournal.getCheckpointExecutor().submit(new Callable<byte[]>() {
+      @Override
+      public byte[] call() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long sequenceNumber = firstSequenceNumber;
+        for (JournalEntry entry : section) {
+          entry.toBuilder().setSequenceNumber(sequenceNumber++).build().writeDelimitedTo(out);
+        }
+        return out.toByteArray();
+      }
+    }));
+  }
+
+  /**
+   * Waits for a section to be serialized and writes it to the temporary checkpoint.
+   *
+   * @param section the serialized section
+   */
+  private void writeSection(Future<byte[]> section) throws IOException {
+    try {
+      mTmpCheckpointStream.write(section.get());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while serializing the checkpoint", e);
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause(), IOException.class);
+      throw new IOException(e.getCause());
+    }
+  }
+
   public void close() throws IOException {
     if (mClosed) {
       return;
     }
+    try {
+      flush();
+    } catch (IOException e) {
+      cancel();
+      throw e;
+    }
     mClosed = true;
     mTmpCheckpointStream.close();
 
@@ -144,6 +214,10 @@ final class UfsJournalCheckpointWriter {
       return;
     }
     mClosed = true;
+    for (Future<byte[]> section : mSections) {
+      section.cancel(true);
+    }
+    mSections.clear();
 
     mTmpCheckpointStream.close();
     if (mUfs.exists(mTmpCheckpointFileLocation.toString())) {
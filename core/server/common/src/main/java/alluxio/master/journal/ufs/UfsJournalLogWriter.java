@@ -21,6 +21,7 @@ import alluxio.master.journal.JournalWriter;
 import alluxio.proto.journal.Journal.JournalEntry;
 import alluxio.underfs.UnderFileSystem;
 import alluxio.underfs.options.CreateOptions;
+import alluxio.util.proto.ProtoUtils;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
@@ -51,6 +52,7 @@ import javax.annotation.concurrent.ThreadSafe;
 @ThreadSafe
 final class UfsJournalLogWriter implements JournalWriter {
   private static final Logger LOG = LoggerFactory.getLogger(UfsJournalLogWriter.class);
+  private static final int INITIAL_SERIALIZATION_BUFFER_SIZE = 4096;
 
   private final UfsJournal mJournal;
   private final UnderFileSystem mUfs;
@@ -85,6 +87,8 @@ final class UfsJournalLogWriter implements JournalWriter {
    * journal entries.
    */
   private Queue<JournalEntry> mEntriesToFlush;
+  /** The buffer reused to serialize journal entries, so each entry is a single stream write. */
+  private byte[] mSerializationBuffer = new byte[INITIAL_SERIALIZATION_BUFFER_SIZE];
 
   /**
    * A simple wrapper that wraps a output stream to the current log file.
@@ -185,7 +189,7 @@ final class UfsJournalLogWriter implements JournalWriter {
     try {
       JournalEntry entryToWrite =
           entry.toBuilder().setSequenceNumber(mNextSequenceNumber).build();
-      entryToWrite.writeDelimitedTo(mJournalOutputStream.mOutputStream);
+      writeDelimited(entryToWrite, mJournalOutputStream.mOutputStream);
       LOG.debug("Adding journal entry (seq={}) to retryList with {} entries.",
           entryToWrite.getSequenceNumber(), mEntriesToFlush.size());
       mEntriesToFlush.add(entryToWrite);
@@ -200,6 +204,23 @@ final class UfsJournalLogWriter implements JournalWriter {
     }
   }
 
+  /**
+   * Writes a length delimited journal entry to the output stream, in the same format as
+   * {@link JournalEntry#writeDelimitedTo}. The entry is serialized into a reused buffer and then
+   * written with a single call to the stream.
+   *
+   * @param entry the journal entry
+   * @param outputStream the output stream
+   */
+  private void writeDelimited(JournalEntry entry, OutputStream outputStream) throws IOException {
+    int length = ProtoUtils.getDelimitedSize(entry);
+    if (mSerializationBuffer.length < length) {
+      mSerializationBuffer = new byte[Math.max(length, mSerializationBuffer.length * 2)];
+    }
+    ProtoUtils.writeDelimitedTo(entry, mSerializationBuffer);
+    outputStream.write(mSerializationBuffer, 0, length);
+  }
+
   /**
    * Core logic of UFS journal recovery from UFS failures.
    *
@@ -236,8 +257,7 @@ final class UfsJournalLogWriter implements JournalWriter {
       for (JournalEntry entry : mEntriesToFlush) {
         if (entry.getSequenceNumber() > lastPersistSeq) {
           try {
-            entry.toBuilder().build()
-                .writeDelimitedTo(mJournalOutputStream.mOutputStream);
+            writeDelimited(entry, mJournalOutputStream.mOutputStream);
             retryEndSeq = entry.getSequenceNumber();
           } catch (IOException e) {
             throw new IOException(ExceptionMessage.JOURNAL_WRITE_FAILURE
@@ -15,6 +15,7 @@ import alluxio.exception.ExceptionMessage;
 import alluxio.exception.InvalidJournalEntryException;
 import alluxio.master.journal.JournalEntryStreamReader;
 import alluxio.master.journal.JournalReader;
+import alluxio.master.journal.ParallelJournalEntryStreamReader;
 import alluxio.proto.journal.Journal;
 import alluxio.proto.journal.Journal.JournalEntry;
 import alluxio.underfs.UnderFileSystem;
@@ -25,6 +26,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayDeque;
 import java.util.Queue;
 
@@ -69,7 +71,14 @@ public final class UfsJournalReader implements JournalReader {
     JournalInputStream(UfsJournalFile file) throws IOException {
       mFile = file;
       LOG.info("Reading journal file {}.", file.getLocation());
-      mReader = new JournalEntryStreamReader(mUfs.open(file.getLocation().toString()));
+      InputStream stream = mUfs.open(file.getLocation().toString());
+      if (file.isCheckpoint()) {
+        // Checkpoints are complete and can be large, so they are parsed in parallel.
+        mReader = new ParallelJournalEntryStreamReader(stream, mJournal.getCheckpointExecutor(),
+            UfsJournal.CHECKPOINT_SECTION_SIZE, UfsJournal.CHECKPOINT_MAX_SECTIONS);
+      } else {
+        mReader = new JournalEntryStreamReader(stream);
+      }
     }
 
     /**
@@ -13,15 +13,24 @@ package alluxio.master.journal.ufs;
 
 import alluxio.master.journal.AbstractJournalSystem;
 import alluxio.master.journal.JournalEntryStateMachine;
+import alluxio.util.ThreadFactoryUtils;
 import alluxio.util.URIUtils;
 
+import com.google.common.base.Throwables;
 import com.google.common.io.Closer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
@@ -35,6 +44,10 @@ public class UfsJournalSystem extends AbstractJournalSystem {
   private final URI mBase;
   private final long mQuietTimeMs;
   private ConcurrentHashMap<String, UfsJournal> mJournals;
+  /** The threads serializing and parsing the checkpoint sections of all journals. */
+  private final ExecutorService mCheckpointExecutor;
+  /** The threads catching up the journals when gaining primacy, one per journal. */
+  private final ExecutorService mGainPrimacyExecutor;
 
   /**
    * Creates a UFS journal system with the specified base location. When journals are created, their
@@ -48,24 +61,54 @@ public class UfsJournalSystem extends AbstractJournalSystem {
     mBase = base;
     mQuietTimeMs = quietTimeMs;
     mJournals = new ConcurrentHashMap<>();
+    mCheckpointExecutor = Executors.newFixedThreadPool(UfsJournal.CHECKPOINT_THREADS,
+        ThreadFactoryUtils.build("journal-checkpoint-%d", true));
+    mGainPrimacyExecutor =
+        Executors.newCachedThreadPool(ThreadFactoryUtils.build("journal-gain-primacy-%d", true));
   }
 
   @Override
   public UfsJournal createJournal(JournalEntryStateMachine master) {
-    UfsJournal journal =
-        new UfsJournal(URIUtils.appendPathOrDie(mBase, master.getName()), master, mQuietTimeMs);
+    UfsJournal journal = new UfsJournal(URIUtils.appendPathOrDie(mBase, master.getName()), master,
+        mQuietTimeMs, mCheckpointExecutor);
     mJournals.put(master.getName(), journal);
     return journal;
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * The journals of the masters are independent, and are already tailed by one thread each in
+   * secondary mode, so they are also caught up in parallel, one thread per journal. Failover then
+   * takes as long as catching up the largest journal rather than all of them.
+   */
   @Override
   protected void gainPrimacy() {
+    List<Future<Void>> futures = new ArrayList<>();
     try {
-      for (UfsJournal journal : mJournals.values()) {
-        journal.gainPrimacy();
+      for (final UfsJournal journal : mJournals.values()) {
+        futures.add(mGainPrimacyExecutor.submit(new Callable<Void>() {
+          @Override
+          public Void call() throws IOException {
+            journal.gainPrimacy();
+            return null;
+          }
+        }));
+      }
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while upgrading journal to primary", e);
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause());
+      throw new RuntimeException("Failed to upgrade journal to primary", e.getCause());
+    } finally {
+      // Stop catching up the other journals if one of them failed
+      for (Future<Void> future : futures) {
+        future.cancel(true);
       }
-    } catch (IOException e) {
-      throw new RuntimeException("Failed to upgrade journal to primary", e);
     }
   }
 
@@ -97,6 +140,9 @@ public class UfsJournalSystem extends AbstractJournalSystem {
       closer.close();
     } catch (IOException e) {
       throw new RuntimeException("Failed to stop journal system", e);
+    } finally {
+      mGainPrimacyExecutor.shutdownNow();
+      mCheckpointExecutor.shutdownNow();
     }
   }
 
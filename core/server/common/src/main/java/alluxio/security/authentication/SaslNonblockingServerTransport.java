@@ -0,0 +1,158 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.security.authentication;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import org.apache.thrift.TException;
+import org.apache.thrift.TProcessor;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.transport.TNonblockingServerTransport;
+import org.apache.thrift.transport.TNonblockingTransport;
+import org.apache.thrift.transport.TTransport;
+import org.apache.thrift.transport.TTransportException;
+
+import java.nio.channels.Selector;
+import java.security.Security;
+import java.util.HashMap;
+import java.util.concurrent.Executor;
+
+import javax.annotation.concurrent.ThreadSafe;
+import javax.security.auth.callback.CallbackHandler;
+import javax.security.sasl.AuthenticationException;
+import javax.security.sasl.Sasl;
+import javax.security.sasl.SaslException;
+import javax.security.sasl.SaslServer;
+
+/**
+ * A non-blocking server transport which authenticates the accepted connections with the PLAIN SASL
+ * mechanism, for {@link AuthType#SIMPLE} and {@link AuthType#CUSTOM}. The selector threads of the
+ * server only read and write the negotiation messages; the messages are evaluated, and the
+ * authentication provider is called, by the given executor, so a slow authentication does not
+ * hold up the other connections.
+ *
+ * The accepted transports put the authenticated user in front of every request, so the server must
+ * process the requests with the processor of {@link #getProcessor(TProcessor)}, which sets that
+ * user for the thread processing the request, as
+ * {@link org.apache.thrift.transport.TSaslServerTransport} does for the blocking servers.
+ */
+@ThreadSafe
+public final class SaslNonblockingServerTransport extends TNonblockingServerTransport {
+  static {
+    Security.addProvider(new PlainSaslServerProvider());
+  }
+
+  private final TNonblockingServerTransport mServerTransport;
+  private final CallbackHandler mCallbackHandler;
+  private final Executor mExecutor;
+
+  /**
+   * @param serverTransport the server transport to accept connections from
+   * @param authType the authentication type, {@link AuthType#SIMPLE} or {@link AuthType#CUSTOM}
+   * @param executor the executor to evaluate the negotiation messages with
+   */
+  public SaslNonblockingServerTransport(TNonblockingServerTransport serverTransport,
+      AuthType authType, Executor executor) {
+    Preconditions.checkArgument(isSupported(authType),
+        "Unsupported authentication type %s", authType);
+    mServerTransport = Preconditions.checkNotNull(serverTransport, "serverTransport");
+    mExecutor = Preconditions.checkNotNull(executor, "executor");
+    try {
+      mCallbackHandler =
+          new PlainSaslServerCallbackHandler(AuthenticationProvider.Factory.create(authType));
+    } catch (AuthenticationException e) {
+      throw Throwables.propagate(e);
+    }
+  }
+
+  /**
+   * @param authType the authentication type
+   * @return whether the transport supports the authentication type
+   */
+  public static boolean isSupported(AuthType authType) {
+    return authType == AuthType.SIMPLE || authType == AuthType.CUSTOM;
+  }
+
+  /**
+   * Wraps the processor of the requests read from the accepted transports. The wrapped processor
+   * reads the user the accepted transport put in front of the request, and processes the request
+   * as that user.
+   *
+   * @param processor the processor of the requests
+   * @return the processor to set to the server
+   */
+  public static TProcessor getProcessor(final TProcessor processor) {
+    return new TProcessor() {
+      @Override
+      public boolean process(TProtocol in, TProtocol out) throws TException {
+        AuthenticatedClientUser.set(in.readString());
+        try {
+          return processor.process(in, out);
+        } finally {
+          AuthenticatedClientUser.remove();
+        }
+      }
+    };
+  }
+
+  @Override
+  public void listen() throws TTransportException {
+    mServerTransport.listen();
+  }
+
+  @Override
+  public void close() {
+    mServerTransport.close();
+  }
+
+  @Override
+  public void interrupt() {
+    mServerTransport.interrupt();
+  }
+
+  @Override
+  public void registerSelector(Selector selector) {
+    mServerTransport.registerSelector(selector);
+  }
+
+  @Override
+  protected TTransport acceptImpl() throws TTransportException {
+    return new SaslNonblockingTransport((TNonblockingTransport) mServerTransport.accept(), this);
+  }
+
+  /**
+   * Runs a step of the negotiation of an accepted transport.
+   *
+   * @param step the step
+   */
+  void execute(Runnable step) {
+    mExecutor.execute(step);
+  }
+
+  /**
+   * Creates the SASL server of a connection.
+   *
+   * @param mechanism the mechanism chosen by the client
+   * @return the SASL server
+   */
+  SaslServer createSaslServer(String mechanism) throws SaslException {
+    if (!PlainSaslServerProvider.MECHANISM.equals(mechanism)) {
+      throw new SaslException("Unsupported mechanism type " + mechanism);
+    }
+    SaslServer saslServer = Sasl.createSaslServer(PlainSaslServerProvider.MECHANISM, null, null,
+        new HashMap<String, String>(), mCallbackHandler);
+    if (saslServer == null) {
+      throw new SaslException("No SASL server for mechanism type " + mechanism);
+    }
+    return saslServer;
+  }
+}
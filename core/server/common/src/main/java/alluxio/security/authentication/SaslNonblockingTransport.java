@@ -0,0 +1,459 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.security.authentication;
+
+import alluxio.Constants;
+import alluxio.util.CommonUtils;
+
+import com.google.common.base.Preconditions;
+import org.apache.thrift.transport.TNonblockingTransport;
+import org.apache.thrift.transport.TTransportException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.security.sasl.Sasl;
+import javax.security.sasl.SaslException;
+import javax.security.sasl.SaslServer;
+
+/**
+ * A non-blocking transport which runs the server side of the Thrift SASL negotiation on an accepted
+ * connection, before passing any data through. The negotiation messages have the format of
+ * {@link org.apache.thrift.transport.TSaslTransport}: a status byte, the length of the payload in
+ * four bytes, and the payload.
+ *
+ * The selector thread serving the connection reads the negotiation messages. Each message is
+ * answered by a step run by the executor of the server transport, and the connection is not read
+ * until the step is done, as the client waits for the answer anyway. The answers are small, so
+ * they rarely fill the socket send buffer; if they do, the step waits for the rest to be written.
+ *
+ * The data after the negotiation is passed through unwrapped. The clients send it as frames
+ * prefixed by their length, like the frames read by the non-blocking servers, so only the
+ * mechanisms which neither sign nor encrypt the data are supported. The authenticated user is
+ * written in front of the data of every frame, for the processor of
+ * {@link SaslNonblockingServerTransport#getProcessor} to read.
+ */
+@NotThreadSafe
+final class SaslNonblockingTransport extends TNonblockingTransport {
+  private static final Logger LOG = LoggerFactory.getLogger(SaslNonblockingTransport.class);
+
+  // The negotiation status codes of TSaslTransport.
+  private static final byte STATUS_START = 0x01;
+  private static final byte STATUS_OK = 0x02;
+  private static final byte STATUS_BAD = 0x03;
+  private static final byte STATUS_ERROR = 0x04;
+  private static final byte STATUS_COMPLETE = 0x05;
+
+  private static final int HEADER_LENGTH = 5;
+  private static final int MAX_PAYLOAD_LENGTH = 64 * Constants.KB;
+  /** The time to wait for the client to read the rest of a negotiation message. */
+  private static final long SEND_TIMEOUT_MS = 30 * Constants.SECOND_MS;
+
+  private final TNonblockingTransport mTransport;
+  private final SaslNonblockingServerTransport mServerTransport;
+  /** The header of the negotiation message being read. */
+  private final ByteBuffer mHeader = ByteBuffer.allocate(HEADER_LENGTH);
+  /** The length of the frame being read from the client. */
+  private final ByteBuffer mFrameHeader = ByteBuffer.allocate(4);
+
+  /** The key of the selector serving the connection. */
+  private SelectionKey mSelectionKey;
+  /** The payload of the negotiation message being read, or null if the header is being read. */
+  private ByteBuffer mPayload;
+  /** The SASL server, created once the client chose the mechanism. Only used by the steps. */
+  private SaslServer mSaslServer;
+  /** Whether a step of the negotiation is running. */
+  private volatile boolean mStepRunning;
+  private volatile boolean mFailed;
+  /**
+   * The length of the frame being read and the authenticated user, to pass on before the rest of
+   * the frame, or null until the negotiation completes.
+   */
+  private ByteBuffer mFramePrefix;
+  /** The bytes of the frame being read which are still to be passed on. */
+  private int mFrameRemaining;
+  /** The authenticated user, or null until the negotiation completes. */
+  private volatile String mClientUser;
+
+  /**
+   * @param transport the accepted transport
+   * @param serverTransport the server transport which accepted the transport
+   */
+  SaslNonblockingTransport(TNonblockingTransport transport,
+      SaslNonblockingServerTransport serverTransport) {
+    mTransport = Preconditions.checkNotNull(transport, "transport");
+    mServerTransport = Preconditions.checkNotNull(serverTransport, "serverTransport");
+  }
+
+  /**
+   * @return the authenticated user, or null if the negotiation is not complete
+   */
+  @Nullable
+  String getClientUser() {
+    return mClientUser;
+  }
+
+  @Override
+  public SelectionKey registerSelector(Selector selector, int interests) throws IOException {
+    mSelectionKey = mTransport.registerSelector(selector, interests);
+    return mSelectionKey;
+  }
+
+  @Override
+  public int read(ByteBuffer buffer) throws IOException {
+    if (mClientUser != null) {
+      return readFrames(buffer);
+    }
+    if (mStepRunning) {
+      return 0;
+    }
+    if (mFailed || !readNegotiation()) {
+      return -1;
+    }
+    // The client only sends data once it received the end of the negotiation.
+    return 0;
+  }
+
+  @Override
+  public int write(ByteBuffer buffer) throws IOException {
+    if (mClientUser == null) {
+      throw new IOException("The SASL negotiation is not complete");
+    }
+    return mTransport.write(buffer);
+  }
+
+  @Override
+  public boolean startConnect() throws IOException {
+    return mTransport.startConnect();
+  }
+
+  @Override
+  public boolean finishConnect() throws IOException {
+    return mTransport.finishConnect();
+  }
+
+  @Override
+  public boolean isOpen() {
+    return mTransport.isOpen();
+  }
+
+  @Override
+  public void open() throws TTransportException {
+    mTransport.open();
+  }
+
+  @Override
+  public void close() {
+    mTransport.close();
+    if (!mStepRunning) {
+      disposeSaslServer();
+    }
+  }
+
+  @Override
+  public int read(byte[] buf, int off, int len) throws TTransportException {
+    if (mClientUser == null) {
+      throw new TTransportException("The SASL negotiation is not complete");
+    }
+    return mTransport.read(buf, off, len);
+  }
+
+  @Override
+  public void write(byte[] buf, int off, int len) throws TTransportException {
+    if (mClientUser == null) {
+      throw new TTransportException("The SASL negotiation is not complete");
+    }
+    mTransport.write(buf, off, len);
+  }
+
+  /**
+   * Reads the frames sent by the client, inserting the authenticated user in front of the data of
+   * each frame.
+   *
+   * @param buffer the buffer to read into
+   * @return the number of bytes read, or -1 if the connection is closed by the client
+   */
+  private int readFrames(ByteBuffer buffer) throws IOException {
+    int read = 0;
+    while (buffer.hasRemaining()) {
+      if (mFramePrefix.hasRemaining()) {
+        int length = Math.min(mFramePrefix.remaining(), buffer.remaining());
+        ByteBuffer prefix = mFramePrefix.duplicate();
+        prefix.limit(prefix.position() + length);
+        buffer.put(prefix);
+        mFramePrefix.position(mFramePrefix.position() + length);
+        read += length;
+        continue;
+      }
+      int bytes;
+      if (mFrameRemaining > 0) {
+        int limit = buffer.limit();
+        buffer.limit(Math.min(limit, buffer.position() + mFrameRemaining));
+        try {
+          bytes = mTransport.read(buffer);
+        } finally {
+          buffer.limit(limit);
+        }
+        if (bytes > 0) {
+          mFrameRemaining -= bytes;
+          read += bytes;
+        }
+      } else {
+        bytes = mTransport.read(mFrameHeader);
+        if (bytes > 0 && !mFrameHeader.hasRemaining()) {
+          startFrame();
+        }
+      }
+      if (bytes < 0) {
+        return read > 0 ? read : -1;
+      }
+      if (bytes == 0) {
+        break;
+      }
+    }
+    return read;
+  }
+
+  /**
+   * Starts passing on the frame whose length has been read.
+   */
+  private void startFrame() throws IOException {
+    mFrameHeader.flip();
+    int length = mFrameHeader.getInt();
+    mFrameHeader.clear();
+    int prefixLength = mFramePrefix.capacity() - 4;
+    if (length <= 0 || length > Integer.MAX_VALUE - prefixLength) {
+      throw new IOException("Invalid frame length " + length);
+    }
+    byte[] user = mClientUser.getBytes(StandardCharsets.UTF_8);
+    mFramePrefix.clear();
+    mFramePrefix.putInt(length + prefixLength).putInt(user.length).put(user);
+    mFramePrefix.flip();
+    mFrameRemaining = length;
+  }
+
+  /**
+   * Reads the negotiation message available on the connection, and starts a step answering it once
+   * it is complete.
+   *
+   * @return false if the connection is closed by the client
+   */
+  private boolean readNegotiation() throws IOException {
+    while (true) {
+      ByteBuffer buffer = mPayload == null ? mHeader : mPayload;
+      if (buffer.hasRemaining()) {
+        if (mTransport.read(buffer) < 0) {
+          return false;
+        }
+        if (buffer.hasRemaining()) {
+          // Wait for the rest of the message.
+          return true;
+        }
+      }
+      if (mPayload == null) {
+        mHeader.flip();
+        mHeader.get();
+        final int length = mHeader.getInt();
+        if (length < 0 || length > MAX_PAYLOAD_LENGTH) {
+          runStep(new Runnable() {
+            @Override
+            public void run() {
+              fail(STATUS_ERROR, "Invalid SASL negotiation payload length " + length);
+            }
+          });
+          return true;
+        }
+        mPayload = ByteBuffer.allocate(length);
+        continue;
+      }
+      final byte status = mHeader.get(0);
+      final byte[] payload = mPayload.array();
+      mHeader.clear();
+      mPayload = null;
+      runStep(new Runnable() {
+        @Override
+        public void run() {
+          handleMessage(status, payload);
+        }
+      });
+      return true;
+    }
+  }
+
+  /**
+   * Runs a step of the negotiation with the executor of the server transport. The connection is not
+   * read until the step is done.
+   *
+   * @param step the step
+   */
+  private void runStep(final Runnable step) {
+    mStepRunning = true;
+    mSelectionKey.interestOps(0);
+    try {
+      mServerTransport.execute(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            step.run();
+          } finally {
+            mStepRunning = false;
+            resumeReading();
+          }
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      LOG.warn("Failed to run the SASL negotiation: {}", e.getMessage());
+      mFailed = true;
+      mStepRunning = false;
+      resumeReading();
+    }
+  }
+
+  /**
+   * Lets the selector read the connection again.
+   */
+  private void resumeReading() {
+    try {
+      mSelectionKey.interestOps(SelectionKey.OP_READ);
+      mSelectionKey.selector().wakeup();
+    } catch (CancelledKeyException e) {
+      // The connection has been closed in the meantime.
+    }
+  }
+
+  /**
+   * Answers a negotiation message, following the server side of
+   * {@link org.apache.thrift.transport.TSaslTransport#open()}.
+   *
+   * @param status the status of the message
+   * @param payload the payload of the message
+   */
+  private void handleMessage(byte status, byte[] payload) {
+    if (mSaslServer == null) {
+      if (status != STATUS_START) {
+        fail(STATUS_ERROR, "Expecting START status, received " + status);
+        return;
+      }
+      String mechanism = new String(payload, StandardCharsets.UTF_8);
+      try {
+        mSaslServer = mServerTransport.createSaslServer(mechanism);
+      } catch (SaslException e) {
+        fail(STATUS_BAD, e.getMessage());
+      }
+      return;
+    }
+    if (status != STATUS_OK && status != STATUS_COMPLETE) {
+      fail(STATUS_ERROR, "Expecting COMPLETE or OK, received " + status);
+      return;
+    }
+    byte[] challenge;
+    try {
+      challenge = mSaslServer.evaluateResponse(payload);
+    } catch (SaslException e) {
+      fail(STATUS_BAD, e.getMessage());
+      return;
+    }
+    try {
+      if (!mSaslServer.isComplete()) {
+        send(STATUS_OK, challenge);
+        return;
+      }
+      String qop = (String) mSaslServer.getNegotiatedProperty(Sasl.QOP);
+      if (qop != null && !qop.equalsIgnoreCase("auth")) {
+        fail(STATUS_BAD, "Unsupported SASL quality of protection " + qop);
+        return;
+      }
+      String user = mSaslServer.getAuthorizationID();
+      send(STATUS_COMPLETE, challenge);
+      disposeSaslServer();
+      int userLength = user.getBytes(StandardCharsets.UTF_8).length;
+      mFramePrefix = ByteBuffer.allocate(8 + userLength);
+      mFramePrefix.limit(0);
+      mClientUser = user;
+    } catch (IOException e) {
+      LOG.warn("Failed to send the SASL negotiation message: {}", e.getMessage());
+      mFailed = true;
+      disposeSaslServer();
+    }
+  }
+
+  /**
+   * Sends the failure of the negotiation to the client.
+   *
+   * @param status the status of the failure
+   * @param message the message of the failure
+   */
+  private void fail(byte status, String message) {
+    LOG.warn("SASL negotiation failure: {}", message);
+    mFailed = true;
+    disposeSaslServer();
+    try {
+      send(status, (message == null ? "" : message).getBytes(StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      LOG.debug("Failed to send the SASL negotiation failure", e);
+    }
+  }
+
+  /**
+   * Sends a negotiation message. If the socket send buffer cannot take the whole message, the rest
+   * is written once the connection is writable again.
+   *
+   * @param status the status of the message
+   * @param payload the payload of the message, or null if it is empty
+   */
+  private void send(byte status, @Nullable byte[] payload) throws IOException {
+    byte[] bytes = payload == null ? new byte[0] : payload;
+    ByteBuffer message = ByteBuffer.allocate(HEADER_LENGTH + bytes.length);
+    message.put(status).putInt(bytes.length).put(bytes);
+    message.flip();
+    mTransport.write(message);
+    if (!message.hasRemaining()) {
+      return;
+    }
+    // The selector of the server only expects writes for responses to requests, so wait for the
+    // connection to be writable with a selector of this step.
+    try (Selector selector = Selector.open()) {
+      mTransport.registerSelector(selector, SelectionKey.OP_WRITE);
+      long deadlineMs = CommonUtils.getCurrentMs() + SEND_TIMEOUT_MS;
+      while (message.hasRemaining()) {
+        long timeoutMs = deadlineMs - CommonUtils.getCurrentMs();
+        if (timeoutMs <= 0) {
+          throw new IOException("Timed out sending the SASL negotiation message");
+        }
+        selector.select(timeoutMs);
+        selector.selectedKeys().clear();
+        mTransport.write(message);
+      }
+    }
+  }
+
+  private void disposeSaslServer() {
+    if (mSaslServer == null) {
+      return;
+    }
+    try {
+      mSaslServer.dispose();
+    } catch (SaslException e) {
+      LOG.debug("Failed to dispose the SASL server", e);
+    }
+    mSaslServer = null;
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio;
+
+import alluxio.security.authentication.AuthType;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.Closeable;
+
+/**
+ * Unit tests for {@link ThriftServerUtils}.
+ */
+public final class ThriftServerUtilsTest {
+
+  /**
+   * Tests that the threaded selector server is used when SASL is disabled.
+   */
+  @Test
+  public void threadedSelectorWithoutSasl() throws Exception {
+    try (Closeable c = new ConfigurationRule(ImmutableMap.of(
+        PropertyKey.MASTER_RPC_SERVER_TYPE, RpcServerType.THREADED_SELECTOR.toString(),
+        PropertyKey.SECURITY_AUTHENTICATION_TYPE, AuthType.NOSASL.getAuthName()))
+        .toResource()) {
+      Assert.assertEquals(RpcServerType.THREADED_SELECTOR,
+          ThriftServerUtils.getServerType(PropertyKey.MASTER_RPC_SERVER_TYPE));
+    }
+  }
+
+  /**
+   * Tests that the threaded selector server is used with SIMPLE authentication.
+   */
+  @Test
+  public void threadedSelectorWithSimpleSasl() throws Exception {
+    try (Closeable c = new ConfigurationRule(ImmutableMap.of(
+        PropertyKey.MASTER_RPC_SERVER_TYPE, RpcServerType.THREADED_SELECTOR.toString(),
+        PropertyKey.SECURITY_AUTHENTICATION_TYPE, AuthType.SIMPLE.getAuthName()))
+        .toResource()) {
+      Assert.assertEquals(RpcServerType.THREADED_SELECTOR,
+          ThriftServerUtils.getServerType(PropertyKey.MASTER_RPC_SERVER_TYPE));
+    }
+  }
+
+  /**
+   * Tests that the thread pool server is used with KERBEROS authentication.
+   */
+  @Test
+  public void threadedSelectorWithKerberos() throws Exception {
+    try (Closeable c = new ConfigurationRule(ImmutableMap.of(
+        PropertyKey.MASTER_RPC_SERVER_TYPE, RpcServerType.THREADED_SELECTOR.toString(),
+        PropertyKey.SECURITY_AUTHENTICATION_TYPE, AuthType.KERBEROS.getAuthName()))
+        .toResource()) {
+      Assert.assertEquals(RpcServerType.THREAD_POOL,
+          ThriftServerUtils.getServerType(PropertyKey.MASTER_RPC_SERVER_TYPE));
+    }
+  }
+}
@@ -16,8 +16,10 @@ import static org.junit.Assert.fail;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -25,12 +27,19 @@ import alluxio.Configuration;
 import alluxio.ConfigurationTestUtils;
 import alluxio.PropertyKey;
 import alluxio.proto.journal.Journal.JournalEntry;
+import alluxio.util.CommonUtils;
+import alluxio.util.WaitForOptions;
 
 import org.junit.After;
 import org.junit.Test;
 import org.powermock.api.mockito.PowerMockito;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Unit tests for {@link AsyncJournalWriter}.
@@ -198,4 +207,122 @@ public class AsyncJournalWriterTest {
   public void failedFlushWithBatching() throws Exception {
     failedFlushInternal(true);
   }
+
+  /**
+   * Tests that appending to a full queue writes the queued entries without flushing them.
+   */
+  @Test(timeout = 10000)
+  public void boundedQueue() throws Exception {
+    Configuration.set(PropertyKey.MASTER_JOURNAL_QUEUE_CAPACITY, "2");
+    setupAsyncJournalWriter(false);
+    int entries = 10;
+
+    for (int i = 0; i < entries; i++) {
+      assertEquals(i + 1, mAsyncJournalWriter.appendEntry(JournalEntry.getDefaultInstance()));
+    }
+    // All but the entries still in the queue were written by the appending thread.
+    verify(mMockJournalWriter, times(entries - 2)).write(any(JournalEntry.class));
+    verify(mMockJournalWriter, never()).flush();
+
+    mAsyncJournalWriter.flush(entries);
+    verify(mMockJournalWriter, times(entries)).write(any(JournalEntry.class));
+    verify(mMockJournalWriter, times(1)).flush();
+  }
+
+  /**
+   * Tests that appending to a full queue fails once the journal flush timeout elapses, if the
+   * queued entries cannot be written.
+   */
+  @Test(timeout = 10000)
+  public void fullQueueTimeout() throws Exception {
+    Configuration.set(PropertyKey.MASTER_JOURNAL_QUEUE_CAPACITY, "1");
+    Configuration.set(PropertyKey.MASTER_JOURNAL_FLUSH_TIMEOUT_MS, "100ms");
+    setupAsyncJournalWriter(false);
+    doThrow(new IOException("write failed")).when(mMockJournalWriter)
+        .write(any(JournalEntry.class));
+
+    assertEquals(1, mAsyncJournalWriter.appendEntry(JournalEntry.getDefaultInstance()));
+    // The queued entry is moved out of the queue to be written, and stays pending.
+    assertEquals(2, mAsyncJournalWriter.appendEntry(JournalEntry.getDefaultInstance()));
+    try {
+      mAsyncJournalWriter.appendEntry(JournalEntry.getDefaultInstance());
+      fail("Appending to a full queue should time out");
+    } catch (IOException e) {
+      assertEquals("write failed", e.getCause().getMessage());
+    }
+
+    // Once the journal recovers, the entries which were appended are flushed.
+    doNothing().when(mMockJournalWriter).write(any(JournalEntry.class));
+    mAsyncJournalWriter.flush(2);
+    verify(mMockJournalWriter, times(1)).flush();
+  }
+
+  /**
+   * Tests that when one of two appenders to a full queue times out, the counter returned to the
+   * other appender can still be flushed.
+   */
+  @Test(timeout = 20000)
+  public void fullQueueTimeoutWithConcurrentAppend() throws Exception {
+    Configuration.set(PropertyKey.MASTER_JOURNAL_QUEUE_CAPACITY, "1");
+    Configuration.set(PropertyKey.MASTER_JOURNAL_FLUSH_TIMEOUT_MS, "2s");
+    setupAsyncJournalWriter(false);
+    final CountDownLatch firstWrite = new CountDownLatch(1);
+    final CountDownLatch secondWrite = new CountDownLatch(1);
+    final AtomicInteger writes = new AtomicInteger();
+    doAnswer(invocation -> {
+      int write = writes.incrementAndGet();
+      if (write == 1) {
+        firstWrite.await();
+      } else if (write == 2) {
+        secondWrite.await();
+      }
+      return null;
+    }).when(mMockJournalWriter).write(any(JournalEntry.class));
+
+    assertEquals(1, mAsyncJournalWriter.appendEntry(JournalEntry.getDefaultInstance()));
+    // The flushing thread moves the first entry out of the queue, and blocks writing it.
+    Thread flusher = new Thread(() -> {
+      try {
+        mAsyncJournalWriter.flush(2);
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    });
+    flusher.start();
+    CommonUtils.waitFor("the first entry to be written", (input) -> writes.get() == 1,
+        WaitForOptions.defaults().setTimeoutMs(5000));
+    assertEquals(2, mAsyncJournalWriter.appendEntry(JournalEntry.getDefaultInstance()));
+
+    // Both appenders count their entries, and wait for room in the full queue.
+    final AtomicLong appendedCounter = new AtomicLong();
+    final AtomicInteger timeouts = new AtomicInteger();
+    List<Thread> appenders = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      appenders.add(new Thread(() -> {
+        try {
+          appendedCounter.set(mAsyncJournalWriter.appendEntry(JournalEntry.getDefaultInstance()));
+        } catch (IOException e) {
+          timeouts.incrementAndGet();
+        }
+      }));
+    }
+    for (Thread appender : appenders) {
+      appender.start();
+    }
+    CommonUtils.sleepMs(200);
+    // The flushing thread drains the second entry, which makes room for exactly one appender.
+    // The other appender times out, since the flushing thread blocks writing the second entry.
+    firstWrite.countDown();
+    for (Thread appender : appenders) {
+      appender.join();
+    }
+    assertEquals(1, timeouts.get());
+    assertEquals(4, appendedCounter.get());
+    secondWrite.countDown();
+    flusher.join();
+
+    // The entry which timed out counts as written, so the returned counter can be flushed.
+    mAsyncJournalWriter.flush(appendedCounter.get());
+    verify(mMockJournalWriter, times(3)).write(any(JournalEntry.class));
+  }
 }
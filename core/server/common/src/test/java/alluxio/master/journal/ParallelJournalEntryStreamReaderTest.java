@@ -0,0 +1,77 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.journal;
+
+import alluxio.proto.journal.Journal.JournalEntry;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Unit tests for {@link ParallelJournalEntryStreamReader}.
+ */
+public final class ParallelJournalEntryStreamReaderTest {
+  private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(4);
+
+  @AfterClass
+  public static void afterClass() {
+    EXECUTOR.shutdownNow();
+  }
+
+  /**
+   * Tests that entries spanning many sections are read in order.
+   */
+  @Test
+  public void readInOrder() throws Exception {
+    int entries = 1000;
+    byte[] journal = writeEntries(entries);
+    try (JournalEntryStreamReader reader = new ParallelJournalEntryStreamReader(
+        new ByteArrayInputStream(journal), EXECUTOR, 7, 3)) {
+      for (int i = 0; i < entries; i++) {
+        Assert.assertEquals(i, reader.readEntry().getSequenceNumber());
+      }
+      Assert.assertNull(reader.readEntry());
+    }
+  }
+
+  /**
+   * Tests that a truncated final entry is ignored like {@link JournalEntryStreamReader} does.
+   */
+  @Test
+  public void truncatedEntry() throws Exception {
+    int entries = 10;
+    byte[] journal = writeEntries(entries);
+    journal = Arrays.copyOf(journal, journal.length - 1);
+    try (JournalEntryStreamReader reader = new ParallelJournalEntryStreamReader(
+        new ByteArrayInputStream(journal), EXECUTOR, 4, 2)) {
+      for (int i = 0; i < entries - 1; i++) {
+        Assert.assertEquals(i, reader.readEntry().getSequenceNumber());
+      }
+      Assert.assertNull(reader.readEntry());
+    }
+  }
+
+  private static byte[] writeEntries(int entries) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int i = 0; i < entries; i++) {
+      JournalEntry.newBuilder().setSequenceNumber(i).build().writeDelimitedTo(out);
+    }
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,262 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.security.authentication;
+
+import static org.junit.Assert.assertEquals;
+
+import alluxio.Configuration;
+import alluxio.ConfigurationTestUtils;
+import alluxio.PropertyKey;
+import alluxio.ThriftServerUtils;
+import alluxio.util.network.NetworkAddressUtils;
+
+import org.apache.thrift.TException;
+import org.apache.thrift.TProcessor;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.server.TServer;
+import org.apache.thrift.transport.TNonblockingServerSocket;
+import org.apache.thrift.transport.TTransport;
+import org.apache.thrift.transport.TTransportException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.security.sasl.AuthenticationException;
+
+/**
+ * Unit tests for {@link SaslNonblockingServerTransport}.
+ *
+ * The tests build a non-blocking Thrift server whose requests are answered with the user
+ * authenticated for the connection, and connect to it with the SASL clients.
+ */
+public final class SaslNonblockingServerTransportTest {
+  private TServer mServer;
+  private InetSocketAddress mServerAddress;
+  private PlainSaslTransportProvider mTransportProvider;
+
+  /**
+   * The exception expected to be thrown.
+   */
+  @Rule
+  public ExpectedException mThrown = ExpectedException.none();
+
+  /**
+   * Sets up the server address before running a test.
+   */
+  @Before
+  public void before() throws Exception {
+    String localhost = NetworkAddressUtils.getLocalHostName();
+    try (ServerSocket socket = new ServerSocket(0)) {
+      mServerAddress = new InetSocketAddress(localhost, socket.getLocalPort());
+    }
+  }
+
+  @After
+  public void after() {
+    if (mServer != null) {
+      mServer.stop();
+    }
+    ConfigurationTestUtils.resetConfiguration();
+  }
+
+  /**
+   * Tests that the requests of each connection are processed as the user of the connection.
+   */
+  @Test(timeout = 10000)
+  public void simpleAuthentication() throws Exception {
+    Configuration.set(PropertyKey.SECURITY_AUTHENTICATION_TYPE, AuthType.SIMPLE.getAuthName());
+    startServerThread();
+
+    TTransport client1 = mTransportProvider.getClientTransport("user1", "whatever", mServerAddress);
+    TTransport client2 = mTransportProvider.getClientTransport("user2", "whatever", mServerAddress);
+    client1.open();
+    client2.open();
+    try {
+      assertEquals("user1", getClientUser(client1));
+      assertEquals("user2", getClientUser(client2));
+      assertEquals("user1", getClientUser(client1));
+    } finally {
+      client1.close();
+      client2.close();
+    }
+  }
+
+  /**
+   * Tests that the authentication failure is sent to the client.
+   */
+  @Test(timeout = 10000)
+  public void simpleAuthenticationEmptyUser() throws Exception {
+    Configuration.set(PropertyKey.SECURITY_AUTHENTICATION_TYPE, AuthType.SIMPLE.getAuthName());
+    startServerThread();
+
+    mThrown.expect(TTransportException.class);
+    mThrown.expectMessage("Peer indicated failure: Plain authentication failed: No authentication"
+        + " identity provided");
+    mTransportProvider.getClientTransport("", "whatever", mServerAddress).open();
+  }
+
+  /**
+   * Tests that the custom authentication provider authenticates the connections.
+   */
+  @Test(timeout = 10000)
+  public void customAuthenticationWrongPassword() throws Exception {
+    Configuration.set(PropertyKey.SECURITY_AUTHENTICATION_TYPE, AuthType.CUSTOM.getAuthName());
+    Configuration.set(PropertyKey.SECURITY_AUTHENTICATION_CUSTOM_PROVIDER_CLASS,
+        TransportProviderTest.ExactlyMatchAuthenticationProvider.class.getName());
+    startServerThread();
+
+    TTransport client = mTransportProvider.getClientTransport(
+        TransportProviderTest.ExactlyMatchAuthenticationProvider.USERNAME,
+        TransportProviderTest.ExactlyMatchAuthenticationProvider.PASSWORD, mServerAddress);
+    client.open();
+    try {
+      assertEquals(TransportProviderTest.ExactlyMatchAuthenticationProvider.USERNAME,
+          getClientUser(client));
+    } finally {
+      client.close();
+    }
+
+    mThrown.expect(TTransportException.class);
+    mThrown.expectMessage("Peer indicated failure: Plain authentication failed: "
+        + "User authentication fails");
+    mTransportProvider.getClientTransport(
+        TransportProviderTest.ExactlyMatchAuthenticationProvider.USERNAME, "wrong-password",
+        mServerAddress).open();
+  }
+
+  /**
+   * Tests that a slow authentication does not hold up the negotiation and the requests of the other
+   * connections.
+   */
+  @Test(timeout = 10000)
+  public void slowAuthentication() throws Exception {
+    Configuration.set(PropertyKey.SECURITY_AUTHENTICATION_TYPE, AuthType.CUSTOM.getAuthName());
+    Configuration.set(PropertyKey.SECURITY_AUTHENTICATION_CUSTOM_PROVIDER_CLASS,
+        SlowAuthenticationProvider.class.getName());
+    startServerThread();
+
+    final TTransport slowClient = mTransportProvider.getClientTransport(
+        SlowAuthenticationProvider.SLOW_USER, "whatever", mServerAddress);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> slowOpen = executor.submit(new Callable<Void>() {
+        @Override
+        public Void call() throws Exception {
+          slowClient.open();
+          return null;
+        }
+      });
+      SlowAuthenticationProvider.STARTED.await();
+
+      TTransport client =
+          mTransportProvider.getClientTransport("user1", "whatever", mServerAddress);
+      client.open();
+      try {
+        assertEquals("user1", getClientUser(client));
+      } finally {
+        client.close();
+      }
+
+      SlowAuthenticationProvider.RELEASE.countDown();
+      slowOpen.get();
+      assertEquals(SlowAuthenticationProvider.SLOW_USER, getClientUser(slowClient));
+    } finally {
+      SlowAuthenticationProvider.RELEASE.countDown();
+      slowClient.close();
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Sends a request to the server.
+   *
+   * @param client the client transport
+   * @return the user the server processed the request as
+   */
+  private String getClientUser(TTransport client) throws TException {
+    TProtocol protocol = new TBinaryProtocol(client, true, true);
+    protocol.writeString("getClientUser");
+    client.flush();
+    return protocol.readString();
+  }
+
+  private void startServerThread() throws Exception {
+    mTransportProvider = new PlainSaslTransportProvider();
+    TProcessor processor = new TProcessor() {
+      @Override
+      public boolean process(TProtocol in, TProtocol out) throws TException {
+        in.readString();
+        try {
+          out.writeString(AuthenticatedClientUser.getClientUser());
+        } catch (Exception e) {
+          out.writeString(e.getMessage());
+        }
+        return true;
+      }
+    };
+    mServer = ThriftServerUtils.createThreadedSelectorServer(
+        new TNonblockingServerSocket(mServerAddress), processor, 1, 2, 0, "test-rpc-%d");
+
+    // start the server in a new thread
+    Thread serverThread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        mServer.serve();
+      }
+    });
+    serverThread.start();
+
+    // ensure server is running, and break if it does not start serving in 2 seconds.
+    int count = 40;
+    while (!mServer.isServing() && serverThread.isAlive()) {
+      if (count <= 0) {
+        throw new RuntimeException("TThreadedSelectorServer does not start serving");
+      }
+      Thread.sleep(50);
+      count--;
+    }
+  }
+
+  /**
+   * An authentication provider which holds up the authentication of one user until released.
+   */
+  public static final class SlowAuthenticationProvider implements AuthenticationProvider {
+    static final String SLOW_USER = "slow";
+    static final CountDownLatch STARTED = new CountDownLatch(1);
+    static final CountDownLatch RELEASE = new CountDownLatch(1);
+
+    @Override
+    public void authenticate(String user, String password) throws AuthenticationException {
+      if (!SLOW_USER.equals(user)) {
+        return;
+      }
+      STARTED.countDown();
+      try {
+        RELEASE.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new AuthenticationException("Interrupted while authenticating");
+      }
+    }
+  }
+}
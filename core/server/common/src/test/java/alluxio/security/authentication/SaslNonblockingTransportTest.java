@@ -0,0 +1,186 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.security.authentication;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.apache.thrift.transport.TNonblockingServerTransport;
+import org.apache.thrift.transport.TNonblockingTransport;
+import org.apache.thrift.transport.TTransportException;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Pipe;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Unit tests for {@link SaslNonblockingTransport}.
+ *
+ * The tests drive the transport as the selector thread of a server does, over a connection whose
+ * client sent the whole negotiation and a request at once.
+ */
+public final class SaslNonblockingTransportTest {
+  private static final byte STATUS_START = 0x01;
+  private static final byte STATUS_COMPLETE = 0x05;
+
+  /**
+   * Tests that a negotiation message which does not fit in the socket send buffer is written once
+   * the connection is writable again, and that the requests are passed on with the user in front.
+   */
+  @Test(timeout = 10000)
+  public void partialWrite() throws Exception {
+    byte[] mechanism = PlainSaslServerProvider.MECHANISM.getBytes(StandardCharsets.UTF_8);
+    byte[] response = "\0user1\0whatever".getBytes(StandardCharsets.UTF_8);
+    byte[] request = "abc".getBytes(StandardCharsets.UTF_8);
+    ByteBuffer input = ByteBuffer.allocate(64);
+    input.put(STATUS_START).putInt(mechanism.length).put(mechanism);
+    input.put(STATUS_COMPLETE).putInt(response.length).put(response);
+    input.putInt(request.length).put(request);
+    OneByteTransport connection =
+        new OneByteTransport(Arrays.copyOf(input.array(), input.position()));
+    SaslNonblockingServerTransport serverTransport = new SaslNonblockingServerTransport(
+        Mockito.mock(TNonblockingServerTransport.class), AuthType.SIMPLE,
+        MoreExecutors.sameThreadExecutor());
+    SaslNonblockingTransport transport = new SaslNonblockingTransport(connection, serverTransport);
+
+    try (Selector selector = Selector.open()) {
+      transport.registerSelector(selector, SelectionKey.OP_READ);
+      ByteBuffer frameLength = ByteBuffer.allocate(4);
+      // The steps answering the negotiation messages run on this thread.
+      while (transport.getClientUser() == null) {
+        assertEquals(0, transport.read(frameLength));
+      }
+      assertEquals("user1", transport.getClientUser());
+      // The end of the negotiation has been written one byte at a time.
+      assertArrayEquals(new byte[] {STATUS_COMPLETE, 0, 0, 0, 0}, connection.getOutput());
+      assertEquals(5, connection.getWrites());
+
+      byte[] user = "user1".getBytes(StandardCharsets.UTF_8);
+      assertEquals(4, transport.read(frameLength));
+      frameLength.flip();
+      int length = frameLength.getInt();
+      assertEquals(4 + user.length + request.length, length);
+      ByteBuffer frame = ByteBuffer.allocate(length);
+      assertEquals(length, transport.read(frame));
+      frame.flip();
+      assertEquals(user.length, frame.getInt());
+      byte[] frameUser = new byte[user.length];
+      frame.get(frameUser);
+      assertArrayEquals(user, frameUser);
+      byte[] frameRequest = new byte[request.length];
+      frame.get(frameRequest);
+      assertArrayEquals(request, frameRequest);
+    } finally {
+      transport.close();
+    }
+  }
+
+  /**
+   * A connection which reads the given bytes, and whose socket send buffer takes one byte at a
+   * time. The channels of a pipe stand in for the socket when registering with a selector.
+   */
+  private static final class OneByteTransport extends TNonblockingTransport {
+    private final ByteBuffer mInput;
+    private final ByteArrayOutputStream mOutput = new ByteArrayOutputStream();
+    private final Pipe mPipe;
+    private int mWrites;
+
+    OneByteTransport(byte[] input) throws IOException {
+      mInput = ByteBuffer.wrap(input);
+      mPipe = Pipe.open();
+      mPipe.source().configureBlocking(false);
+      mPipe.sink().configureBlocking(false);
+    }
+
+    byte[] getOutput() {
+      return mOutput.toByteArray();
+    }
+
+    int getWrites() {
+      return mWrites;
+    }
+
+    @Override
+    public SelectionKey registerSelector(Selector selector, int interests) throws IOException {
+      if ((interests & SelectionKey.OP_WRITE) != 0) {
+        return mPipe.sink().register(selector, interests);
+      }
+      return mPipe.source().register(selector, interests);
+    }
+
+    @Override
+    public int read(ByteBuffer buffer) {
+      int length = Math.min(mInput.remaining(), buffer.remaining());
+      ByteBuffer bytes = mInput.duplicate();
+      bytes.limit(bytes.position() + length);
+      buffer.put(bytes);
+      mInput.position(mInput.position() + length);
+      return length;
+    }
+
+    @Override
+    public int write(ByteBuffer buffer) {
+      if (!buffer.hasRemaining()) {
+        return 0;
+      }
+      mWrites++;
+      mOutput.write(buffer.get());
+      return 1;
+    }
+
+    @Override
+    public boolean startConnect() {
+      return true;
+    }
+
+    @Override
+    public boolean finishConnect() {
+      return true;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return mPipe.source().isOpen();
+    }
+
+    @Override
+    public void open() {}
+
+    @Override
+    public void close() {
+      try {
+        mPipe.source().close();
+        mPipe.sink().close();
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    @Override
+    public int read(byte[] buf, int off, int len) throws TTransportException {
+      throw new TTransportException("Not supported");
+    }
+
+    @Override
+    public void write(byte[] buf, int off, int len) throws TTransportException {
+      throw new TTransportException("Not supported");
+    }
+  }
+}
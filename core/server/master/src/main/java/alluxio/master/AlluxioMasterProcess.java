@@ -14,7 +14,9 @@ package alluxio.master;
 import alluxio.Configuration;
 import alluxio.Constants;
 import alluxio.PropertyKey;
+import alluxio.RpcServerType;
 import alluxio.RuntimeConstants;
+import alluxio.ThriftServerUtils;
 import alluxio.master.journal.JournalSystem;
 import alluxio.master.journal.JournalSystem.Mode;
 import alluxio.metrics.MetricsSystem;
@@ -38,6 +40,7 @@ import org.apache.thrift.protocol.TBinaryProtocol;
 import org.apache.thrift.server.TServer;
 import org.apache.thrift.server.TThreadPoolServer;
 import org.apache.thrift.server.TThreadPoolServer.Args;
+import org.apache.thrift.transport.TNonblockingServerSocket;
 import org.apache.thrift.transport.TServerSocket;
 import org.apache.thrift.transport.TTransportException;
 import org.apache.thrift.transport.TTransportFactory;
@@ -70,6 +73,9 @@ public class AlluxioMasterProcess implements MasterProcess {
   /** The socket for thrift rpc server. */
   private TServerSocket mTServerSocket;
 
+  /** The socket for the non-blocking thrift rpc server, if it is used. */
+  private TNonblockingServerSocket mTNonblockingServerSocket;
+
   /** The transport provider to create thrift server transport. */
   private final TransportProvider mTransportProvider;
 
@@ -333,22 +339,38 @@ public class AlluxioMasterProcess implements MasterProcess {
       throw new RuntimeException(e);
     }
 
+    RpcServerType serverType = ThriftServerUtils.getServerType(PropertyKey.MASTER_RPC_SERVER_TYPE);
+    int connectionTimeoutMs = (int) Configuration.getMs(PropertyKey.MASTER_CONNECTION_TIMEOUT_MS);
     try {
       if (mTServerSocket != null) {
         mTServerSocket.close();
+        mTServerSocket = null;
+      }
+      if (serverType == RpcServerType.THREADED_SELECTOR) {
+        mTNonblockingServerSocket =
+            new TNonblockingServerSocket(mRpcBindAddress, connectionTimeoutMs);
+      } else {
+        mTServerSocket = new TServerSocket(mRpcBindAddress, connectionTimeoutMs);
       }
-      mTServerSocket = new TServerSocket(mRpcBindAddress,
-          (int) Configuration.getMs(PropertyKey.MASTER_CONNECTION_TIMEOUT_MS));
     } catch (TTransportException e) {
       throw new RuntimeException(e);
     }
-    // create master thrift service with the multiplexed processor.
-    Args args = new TThreadPoolServer.Args(mTServerSocket).maxWorkerThreads(mMaxWorkerThreads)
-        .minWorkerThreads(mMinWorkerThreads).processor(processor).transportFactory(transportFactory)
-        .protocolFactory(new TBinaryProtocol.Factory(true, true));
-
-    args.stopTimeoutVal = (int) Configuration.getMs(PropertyKey.MASTER_THRIFT_SHUTDOWN_TIMEOUT);
-    mThriftServer = new TThreadPoolServer(args);
+    if (serverType == RpcServerType.THREADED_SELECTOR) {
+      // create a non-blocking master thrift service, so client connections do not pin threads.
+      mThriftServer = ThriftServerUtils.createThreadedSelectorServer(mTNonblockingServerSocket,
+          processor, Configuration.getInt(PropertyKey.MASTER_RPC_SELECTOR_THREADS),
+          mMaxWorkerThreads,
+          (int) Configuration.getMs(PropertyKey.MASTER_THRIFT_SHUTDOWN_TIMEOUT), "master-rpc-%d");
+    } else {
+      // create master thrift service with the multiplexed processor.
+      Args args = new TThreadPoolServer.Args(mTServerSocket).maxWorkerThreads(mMaxWorkerThreads)
+          .minWorkerThreads(mMinWorkerThreads).processor(processor)
+          .transportFactory(transportFactory)
+          .protocolFactory(new TBinaryProtocol.Factory(true, true));
+
+      args.stopTimeoutVal = (int) Configuration.getMs(PropertyKey.MASTER_THRIFT_SHUTDOWN_TIMEOUT);
+      mThriftServer = new TThreadPoolServer(args);
+    }
 
     // start thrift rpc server
     mIsServing = true;
@@ -370,6 +392,10 @@ public class AlluxioMasterProcess implements MasterProcess {
       mTServerSocket.close();
       mTServerSocket = null;
     }
+    if (mTNonblockingServerSocket != null) {
+      mTNonblockingServerSocket.close();
+      mTNonblockingServerSocket = null;
+    }
     if (mJvmPauseMonitor != null) {
       mJvmPauseMonitor.stop();
     }
@@ -139,6 +139,27 @@ public interface BlockMaster extends Master, ContainerIdGenerable {
       Map<String, Long> totalBytesOnTiers, Map<String, Long> usedBytesOnTiers,
       Map<String, List<Long>> currentBlocksOnTiers) throws NoWorkerException;
 
+  /**
+   * Updates metadata with one chunk of a block report sent when a worker registers with the
+   * master. The first chunk starts the registration, and the last chunk completes it by removing
+   * the blocks which the worker had before but are not in any chunk of the report.
+   *
+   * @param workerId the worker id of the worker registering
+   * @param storageTiers a list of storage tier aliases in order of their position in the worker's
+   *        hierarchy
+   * @param totalBytesOnTiers a mapping from storage tier alias to total bytes
+   * @param usedBytesOnTiers a mapping from storage tier alias to the used byes
+   * @param blockReportId the id of the block report, the same for all of its chunks
+   * @param chunkIndex the index of the chunk in the block report, starting from 0
+   * @param lastChunk whether this is the last chunk of the block report
+   * @param blocksOnTiers a mapping from storage tier alias to a list of blocks in the chunk
+   * @throws NoWorkerException if workerId cannot be found
+   */
+  void workerRegisterChunk(long workerId, List<String> storageTiers,
+      Map<String, Long> totalBytesOnTiers, Map<String, Long> usedBytesOnTiers, long blockReportId,
+      int chunkIndex, boolean lastChunk, Map<String, List<Long>> blocksOnTiers)
+      throws NoWorkerException;
+
   /**
    * Updates metadata when a worker periodically heartbeats with the master.
    *
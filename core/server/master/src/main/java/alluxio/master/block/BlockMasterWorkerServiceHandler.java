@@ -132,8 +132,20 @@ public final class BlockMasterWorkerServiceHandler implements BlockMasterWorkerS
     return RpcUtils.call(LOG, new RpcUtils.RpcCallable<RegisterWorkerTResponse>() {
       @Override
       public RegisterWorkerTResponse call() throws AlluxioException {
-        mBlockMaster.workerRegister(workerId, storageTiers, totalBytesOnTiers, usedBytesOnTiers,
-            currentBlocksOnTiers);
+        if (options.isSetBlockReportChunk()) {
+          // A chunk without its position cannot be applied, so reject it rather than take it as
+          // a report without blocks, which is what masters without chunked reports do.
+          Preconditions.checkArgument(options.isSetBlockReportId() && options.isSetChunkIndex(),
+              "Block report chunk of workerId %s has no report id or chunk index", workerId);
+          mBlockMaster.workerRegisterChunk(workerId, storageTiers, totalBytesOnTiers,
+              usedBytesOnTiers, options.getBlockReportId(), options.getChunkIndex(),
+              options.isLastChunk(),
+              BlockReportCodec.decode(options.bufferForBlockReportChunk()));
+          // Tells the worker that the chunk was applied. Older masters leave this unset.
+          return new RegisterWorkerTResponse().setChunkAccepted(true);
+        }
+        mBlockMaster.workerRegister(workerId, storageTiers, totalBytesOnTiers,
+            usedBytesOnTiers, currentBlocksOnTiers);
         return new RegisterWorkerTResponse();
       }
 
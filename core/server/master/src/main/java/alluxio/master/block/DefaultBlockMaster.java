@@ -17,7 +17,8 @@ import alluxio.MasterStorageTierAssoc;
 import alluxio.PropertyKey;
 import alluxio.StorageTierAssoc;
 import alluxio.clock.SystemClock;
-import alluxio.collections.ConcurrentHashSet;
+import alluxio.collections.ConcurrentLongHashMap;
+import alluxio.collections.ConcurrentLongHashSet;
 import alluxio.collections.IndexDefinition;
 import alluxio.collections.IndexedSet;
 import alluxio.exception.BlockInfoException;
@@ -72,7 +73,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 
 import javax.annotation.concurrent.GuardedBy;
@@ -130,10 +130,10 @@ public final class DefaultBlockMaster extends AbstractMaster implements BlockMas
 
   // Block metadata management.
   /** Blocks on all workers, including active and lost blocks. This state must be journaled. */
-  private final ConcurrentHashMap<Long, MasterBlockInfo> mBlocks =
-      new ConcurrentHashMap<>(8192, 0.90f, 64);
+  private final ConcurrentLongHashMap<MasterBlockInfo> mBlocks =
+      new ConcurrentLongHashMap<>(8192, 0.75f, 64);
   /** Keeps track of blocks which are no longer in Alluxio storage. */
-  private final ConcurrentHashSet<Long> mLostBlocks = new ConcurrentHashSet<>(64, 0.90f, 64);
+  private final ConcurrentLongHashSet mLostBlocks = new ConcurrentLongHashSet(64, 0.75f, 64);
 
   /** This state must be journaled. */
   @GuardedBy("itself")
@@ -236,7 +236,7 @@ public final class DefaultBlockMaster extends AbstractMaster implements BlockMas
 
   @Override
   public Iterator<JournalEntry> getJournalEntryIterator() {
-    final Iterator<MasterBlockInfo> it = mBlocks.values().iterator();
+    final Iterator<MasterBlockInfo> it = mBlocks.valueIterator();
     Iterator<JournalEntry> blockIterator = new Iterator<JournalEntry>() {
       @Override
       public boolean hasNext() {
@@ -629,6 +629,42 @@ public final class DefaultBlockMaster extends AbstractMaster implements BlockMas
     LOG.info("registerWorker(): {}", worker);
   }
 
+  @Override
+  public void workerRegisterChunk(long workerId, List<String> storageTiers,
+      Map<String, Long> totalBytesOnTiers, Map<String, Long> usedBytesOnTiers, long blockReportId,
+      int chunkIndex, boolean lastChunk, Map<String, List<Long>> blocksOnTiers)
+      throws NoWorkerException {
+    MasterWorkerInfo worker = mWorkers.getFirstByField(ID_INDEX, workerId);
+    if (worker == null) {
+      throw new NoWorkerException(ExceptionMessage.NO_WORKER_FOUND.getMessage(workerId));
+    }
+
+    List<Long> blocks = new ArrayList<>();
+    for (List<Long> blockIds : blocksOnTiers.values()) {
+      blocks.addAll(blockIds);
+    }
+
+    // Each chunk holds the worker lock only while it is applied, so a large report does not block
+    // heartbeats and block commits of the worker for the whole registration.
+    synchronized (worker) {
+      worker.updateLastUpdatedTimeMs();
+      if (chunkIndex == 0) {
+        worker.startChunkedRegister(mGlobalStorageTierAssoc, storageTiers, totalBytesOnTiers,
+            usedBytesOnTiers, blockReportId);
+      }
+      worker.addReportedBlocks(blockReportId, chunkIndex, blocks);
+      processWorkerAddedBlocks(worker, blocksOnTiers);
+      if (!lastChunk) {
+        return;
+      }
+      // Detect any lost blocks on this worker.
+      processWorkerRemovedBlocks(worker, worker.finishChunkedRegister());
+    }
+
+    LOG.info("registerWorker(): workerId: {}, {} chunks of block report {}", workerId,
+        chunkIndex + 1, blockReportId);
+  }
+
   @Override
   public Command workerHeartbeat(long workerId, Map<String, Long> usedBytesOnTiers,
       List<Long> removedBlockIds, Map<String, List<Long>> addedBlocksOnTiers) {
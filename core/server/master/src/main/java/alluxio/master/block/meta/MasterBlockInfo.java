@@ -18,10 +18,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import javax.annotation.concurrent.NotThreadSafe;
@@ -33,6 +33,8 @@ import javax.annotation.concurrent.NotThreadSafe;
 @NotThreadSafe
 public final class MasterBlockInfo {
   private static final Logger LOG = LoggerFactory.getLogger(MasterBlockInfo.class);
+  private static final long[] NO_WORKER_IDS = new long[0];
+  private static final String[] NO_TIER_ALIASES = new String[0];
 
   /** The id of the block. */
   private final long mBlockId;
@@ -42,8 +44,13 @@ public final class MasterBlockInfo {
    */
   private long mLength;
 
-  /** Maps from the worker id to the tier alias the block is on. */
-  private final Map<Long, String> mWorkerIdToAlias;
+  /**
+   * The ids of the workers the block is on. A block has few locations, so they are kept in small
+   * arrays instead of a map with boxed keys.
+   */
+  private long[] mWorkerIds;
+  /** The aliases of the tiers the block is on, at the same index as their worker ids. */
+  private String[] mTierAliases;
 
   /**
    * Creates a new instance of {@link MasterBlockInfo}.
@@ -56,7 +63,8 @@ public final class MasterBlockInfo {
     mBlockId = blockId;
     mLength = length;
 
-    mWorkerIdToAlias = new HashMap<>();
+    mWorkerIds = NO_WORKER_IDS;
+    mTierAliases = NO_TIER_ALIASES;
   }
 
   /**
@@ -94,7 +102,16 @@ public final class MasterBlockInfo {
    * @param tierAlias the alias of the storage tier that this block is on
    */
   public void addWorker(long workerId, String tierAlias) {
-    mWorkerIdToAlias.put(workerId, tierAlias);
+    int index = indexOf(workerId);
+    if (index >= 0) {
+      mTierAliases[index] = tierAlias;
+      return;
+    }
+    int numLocations = mWorkerIds.length;
+    mWorkerIds = Arrays.copyOf(mWorkerIds, numLocations + 1);
+    mTierAliases = Arrays.copyOf(mTierAliases, numLocations + 1);
+    mWorkerIds[numLocations] = workerId;
+    mTierAliases[numLocations] = tierAlias;
   }
 
   /**
@@ -103,21 +120,42 @@ public final class MasterBlockInfo {
    * @param workerId the worker id to remove
    */
   public void removeWorker(long workerId) {
-    mWorkerIdToAlias.remove(workerId);
+    int index = indexOf(workerId);
+    if (index < 0) {
+      return;
+    }
+    int numLocations = mWorkerIds.length - 1;
+    if (numLocations == 0) {
+      mWorkerIds = NO_WORKER_IDS;
+      mTierAliases = NO_TIER_ALIASES;
+      return;
+    }
+    long[] workerIds = new long[numLocations];
+    String[] tierAliases = new String[numLocations];
+    System.arraycopy(mWorkerIds, 0, workerIds, 0, index);
+    System.arraycopy(mTierAliases, 0, tierAliases, 0, index);
+    System.arraycopy(mWorkerIds, index + 1, workerIds, index, numLocations - index);
+    System.arraycopy(mTierAliases, index + 1, tierAliases, index, numLocations - index);
+    mWorkerIds = workerIds;
+    mTierAliases = tierAliases;
   }
 
   /**
    * @return all the worker ids that this block is on
    */
   public Set<Long> getWorkers() {
-    return Collections.unmodifiableSet(mWorkerIdToAlias.keySet());
+    Set<Long> workers = new HashSet<>();
+    for (long workerId : mWorkerIds) {
+      workers.add(workerId);
+    }
+    return Collections.unmodifiableSet(workers);
   }
 
   /**
    * @return the number of workers this block is on
    */
   public int getNumLocations() {
-    return mWorkerIdToAlias.size();
+    return mWorkerIds.length;
   }
 
   /**
@@ -126,9 +164,9 @@ public final class MasterBlockInfo {
    * @return the net addresses of the workers
    */
   public List<MasterBlockLocation> getBlockLocations() {
-    List<MasterBlockLocation> ret = new ArrayList<>(mWorkerIdToAlias.size());
-    for (Map.Entry<Long, String> entry : mWorkerIdToAlias.entrySet()) {
-      ret.add(new MasterBlockLocation(entry.getKey(), entry.getValue()));
+    List<MasterBlockLocation> ret = new ArrayList<>(mWorkerIds.length);
+    for (int i = 0; i < mWorkerIds.length; i++) {
+      ret.add(new MasterBlockLocation(mWorkerIds[i], mTierAliases[i]));
     }
     return ret;
   }
@@ -138,7 +176,7 @@ public final class MasterBlockInfo {
    * @return true if the block is in the given tier
    */
   public boolean isInTier(String targetTierAlias) {
-    for (String tierAlias : mWorkerIdToAlias.values()) {
+    for (String tierAlias : mTierAliases) {
       if (tierAlias.equals(targetTierAlias)) {
         return true;
       }
@@ -146,6 +184,19 @@ public final class MasterBlockInfo {
     return false;
   }
 
+  /**
+   * @param workerId the worker id
+   * @return the index of the worker in {@link #mWorkerIds}, or -1 if the block is not on it
+   */
+  private int indexOf(long workerId) {
+    for (int i = 0; i < mWorkerIds.length; i++) {
+      if (mWorkerIds[i] == workerId) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
   @Override
   public String toString() {
     return Objects.toStringHelper(this).add("blockId", mBlockId).add("length", mLength).toString();
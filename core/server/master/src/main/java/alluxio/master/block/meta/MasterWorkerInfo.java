@@ -14,6 +14,7 @@ package alluxio.master.block.meta;
 import alluxio.Constants;
 import alluxio.StorageTierAssoc;
 import alluxio.WorkerStorageTierAssoc;
+import alluxio.collections.ConcurrentLongHashSet;
 import alluxio.util.CommonUtils;
 import alluxio.wire.WorkerInfo;
 import alluxio.wire.WorkerNetAddress;
@@ -25,6 +26,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -62,10 +64,19 @@ public final class MasterWorkerInfo {
   /** Mapping from storage tier alias to used bytes. */
   private Map<String, Long> mUsedBytesOnTiers;
 
-  /** ids of blocks the worker contains. */
-  private Set<Long> mBlocks;
+  /** ids of blocks the worker contains, kept unboxed since there may be millions of them. */
+  private ConcurrentLongHashSet mBlocks;
   /** ids of blocks the worker should remove. */
-  private Set<Long> mToRemoveBlocks;
+  private ConcurrentLongHashSet mToRemoveBlocks;
+  /**
+   * ids of blocks the worker had before a chunked block report started and which are not yet
+   * reported, or null if there is no chunked block report in progress.
+   */
+  private ConcurrentLongHashSet mUnreportedBlocks;
+  /** The id of the chunked block report in progress. */
+  private long mBlockReportId;
+  /** The index of the next chunk expected in the chunked block report in progress. */
+  private int mNextChunkIndex;
 
   /**
    * Creates a new instance of {@link MasterWorkerInfo}.
@@ -82,8 +93,8 @@ public final class MasterWorkerInfo {
     mStorageTierAssoc = null;
     mTotalBytesOnTiers = new HashMap<>();
     mUsedBytesOnTiers = new HashMap<>();
-    mBlocks = new HashSet<>();
-    mToRemoveBlocks = new HashSet<>();
+    mBlocks = new ConcurrentLongHashSet();
+    mToRemoveBlocks = new ConcurrentLongHashSet();
   }
 
   /**
@@ -100,6 +111,114 @@ public final class MasterWorkerInfo {
   public Set<Long> register(final StorageTierAssoc globalStorageTierAssoc,
       final List<String> storageTierAliases, final Map<String, Long> totalBytesOnTiers,
       final Map<String, Long> usedBytesOnTiers, final Set<Long> blocks) {
+    updateStorage(globalStorageTierAssoc, storageTierAliases, totalBytesOnTiers, usedBytesOnTiers);
+
+    Set<Long> removedBlocks;
+    if (mIsRegistered) {
+      // This is a re-register of an existing worker. Assume the new block ownership data is more
+      // up-to-date and update the existing block information.
+      LOG.info("re-registering an existing workerId: {}", mId);
+
+      // Compute the difference between the existing block data, and the new data.
+      removedBlocks = Sets.difference(mBlocks, blocks);
+    } else {
+      removedBlocks = Collections.emptySet();
+    }
+
+    // Set the new block information.
+    mBlocks = newBlockSet(blocks);
+    mUnreportedBlocks = null;
+
+    mIsRegistered = true;
+    return removedBlocks;
+  }
+
+  /**
+   * Starts a registration whose block report is sent in chunks, updating all metadata of the
+   * worker except its blocks. The blocks are reported with {@link #addReportedBlocks}, and the
+   * registration completes with {@link #finishChunkedRegister()}. Starting a new registration
+   * abandons any chunked block report in progress.
+   *
+   * @param globalStorageTierAssoc global mapping between storage aliases and ordinal position
+   * @param storageTierAliases list of storage tier aliases in order of their position in the
+   *        hierarchy
+   * @param totalBytesOnTiers mapping from storage tier alias to total bytes
+   * @param usedBytesOnTiers mapping from storage tier alias to used byes
+   * @param blockReportId the id of the block report
+   */
+  public void startChunkedRegister(StorageTierAssoc globalStorageTierAssoc,
+      List<String> storageTierAliases, Map<String, Long> totalBytesOnTiers,
+      Map<String, Long> usedBytesOnTiers, long blockReportId) {
+    updateStorage(globalStorageTierAssoc, storageTierAliases, totalBytesOnTiers, usedBytesOnTiers);
+    if (mUnreportedBlocks != null) {
+      // Blocks reported so far by the abandoned report have to be reported again.
+      mUnreportedBlocks.addAll(mBlocks);
+    } else if (mIsRegistered) {
+      LOG.info("re-registering an existing workerId: {}", mId);
+      mUnreportedBlocks = mBlocks;
+    } else {
+      mUnreportedBlocks = new ConcurrentLongHashSet();
+    }
+    mBlocks = new ConcurrentLongHashSet();
+    mBlockReportId = blockReportId;
+    mNextChunkIndex = 0;
+  }
+
+  /**
+   * Adds the blocks in a chunk of the block report in progress. The previous chunk may be sent
+   * again when its RPC is retried, which is harmless.
+   *
+   * @param blockReportId the id of the block report
+   * @param chunkIndex the index of the chunk in the block report
+   * @param blocks the block ids in the chunk
+   */
+  public void addReportedBlocks(long blockReportId, int chunkIndex, Collection<Long> blocks) {
+    if (mUnreportedBlocks == null || blockReportId != mBlockReportId
+        || chunkIndex > mNextChunkIndex || chunkIndex < mNextChunkIndex - 1) {
+      throw new IllegalStateException(String.format(
+          "Unexpected chunk %d of block report %d from workerId %d", chunkIndex, blockReportId,
+          mId));
+    }
+    for (long blockId : blocks) {
+      mBlocks.add(blockId);
+      mUnreportedBlocks.remove(blockId);
+    }
+    mNextChunkIndex = chunkIndex + 1;
+  }
+
+  /**
+   * Completes the chunked block report in progress and marks the worker as registered.
+   *
+   * @return A Set of blocks removed (or lost) from this worker
+   */
+  public Set<Long> finishChunkedRegister() {
+    Preconditions.checkState(mUnreportedBlocks != null,
+        "No block report in progress for workerId %s", mId);
+    Set<Long> removedBlocks = mUnreportedBlocks;
+    mUnreportedBlocks = null;
+    mIsRegistered = true;
+    return removedBlocks;
+  }
+
+  /**
+   * @param blocks the block ids
+   * @return a new set of the given block ids
+   */
+  private static ConcurrentLongHashSet newBlockSet(Collection<Long> blocks) {
+    // The worker info is locked externally, so the set needs a single segment only
+    ConcurrentLongHashSet set = new ConcurrentLongHashSet(blocks.size(), 0.75f, 1);
+    for (long blockId : blocks) {
+      set.add(blockId);
+    }
+    return set;
+  }
+
+  /**
+   * Updates the storage tiers of the worker and their total and used bytes.
+   */
+  private void updateStorage(StorageTierAssoc globalStorageTierAssoc,
+      List<String> storageTierAliases, Map<String, Long> totalBytesOnTiers,
+      Map<String, Long> usedBytesOnTiers) {
     // If the storage aliases do not have strictly increasing ordinal value based on the total
     // ordering, throw an error
     for (int i = 0; i < storageTierAliases.size() - 1; i++) {
@@ -132,24 +251,6 @@ public final class MasterWorkerInfo {
     for (long bytes : mUsedBytesOnTiers.values()) {
       mUsedBytes += bytes;
     }
-
-    Set<Long> removedBlocks;
-    if (mIsRegistered) {
-      // This is a re-register of an existing worker. Assume the new block ownership data is more
-      // up-to-date and update the existing block information.
-      LOG.info("re-registering an existing workerId: {}", mId);
-
-      // Compute the difference between the existing block data, and the new data.
-      removedBlocks = Sets.difference(mBlocks, blocks);
-    } else {
-      removedBlocks = Collections.emptySet();
-    }
-
-    // Set the new block information.
-    mBlocks = new HashSet<>(blocks);
-
-    mIsRegistered = true;
-    return removedBlocks;
   }
 
   /**
@@ -169,6 +270,9 @@ public final class MasterWorkerInfo {
   public void removeBlock(long blockId) {
     mBlocks.remove(blockId);
     mToRemoveBlocks.remove(blockId);
+    if (mUnreportedBlocks != null) {
+      mUnreportedBlocks.remove(blockId);
+    }
   }
 
   /**
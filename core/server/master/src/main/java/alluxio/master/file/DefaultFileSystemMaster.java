@@ -63,6 +63,7 @@ import alluxio.master.file.meta.TempInodePathForDescendant;
 import alluxio.master.file.meta.TtlBucketList;
 import alluxio.master.file.meta.UfsAbsentPathCache;
 import alluxio.master.file.meta.UfsBlockLocationCache;
+import alluxio.master.file.meta.UfsListingPrefetcher;
 import alluxio.master.file.meta.UfsSyncPathCache;
 import alluxio.master.file.meta.UfsSyncUtils;
 import alluxio.master.file.meta.options.MountInfo;
@@ -120,6 +121,7 @@ import alluxio.underfs.UnderFileSystemConfiguration;
 import alluxio.util.CommonUtils;
 import alluxio.util.IdUtils;
 import alluxio.util.SecurityUtils;
+import alluxio.util.ThreadFactoryUtils;
 import alluxio.util.executor.ExecutorServiceFactories;
 import alluxio.util.executor.ExecutorServiceFactory;
 import alluxio.util.io.PathUtils;
@@ -148,7 +150,9 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -163,6 +167,8 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
@@ -319,6 +325,12 @@ public final class DefaultFileSystemMaster extends AbstractMaster implements Fil
   /** This caches paths which have been synced with UFS. */
   private final UfsSyncPathCache mUfsSyncPathCache;
 
+  /**
+   * The pool listing UFS directories ahead of metadata syncs. It is created when the master
+   * starts as primary, and is null otherwise or if prefetching is disabled.
+   */
+  private ExecutorService mUfsListingPool;
+
   /**
    * The service that checks for inode files with ttl set. We store it here so that it can be
    * accessed from tests.
@@ -376,7 +388,6 @@ public final class DefaultFileSystemMaster extends AbstractMaster implements Fil
     mUfsAbsentPathCache = UfsAbsentPathCache.Factory.create(mMountTable);
     mUfsBlockLocationCache = UfsBlockLocationCache.Factory.create(mMountTable);
     mUfsSyncPathCache = new UfsSyncPathCache();
-
     resetState();
     Metrics.registerGauges(this, mUfsManager);
   }
@@ -576,6 +587,15 @@ public final class DefaultFileSystemMaster extends AbstractMaster implements Fil
         mAsyncAuditLogWriter = new AsyncUserAccessAuditLogWriter();
         mAsyncAuditLogWriter.start();
       }
+      int ufsListingThreads =
+          Configuration.getInt(PropertyKey.MASTER_METADATA_SYNC_UFS_PREFETCH_THREADS);
+      if (ufsListingThreads > 0) {
+        ThreadPoolExecutor ufsListingPool = new ThreadPoolExecutor(ufsListingThreads,
+            ufsListingThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+            ThreadFactoryUtils.build("UFS-Sync-Prefetch-%d", true));
+        ufsListingPool.allowCoreThreadTimeOut(true);
+        mUfsListingPool = ufsListingPool;
+      }
     }
   }
 
@@ -585,6 +605,10 @@ public final class DefaultFileSystemMaster extends AbstractMaster implements Fil
       mAsyncAuditLogWriter.stop();
       mAsyncAuditLogWriter = null;
     }
+    if (mUfsListingPool != null) {
+      mUfsListingPool.shutdownNow();
+      mUfsListingPool = null;
+    }
     super.stop();
   }
 
@@ -881,7 +905,16 @@ public final class DefaultFileSystemMaster extends AbstractMaster implements Fil
           auditContext.setAllowed(false);
           throw e;
         }
-        for (Inode<?> child : ((InodeDirectory) inode).getChildren()) {
+        String startAfter = listStatusOptions.getStartAfter();
+        int batchSize = listStatusOptions.getBatchSize();
+        // Only batched listings need the children in name order.
+        Iterable<Inode<?>> children = startAfter.isEmpty() && batchSize <= 0
+            ? ((InodeDirectory) inode).getChildren()
+            : ((InodeDirectory) inode).getChildrenAfter(startAfter);
+        for (Inode<?> child : children) {
+          if (batchSize > 0 && ret.size() >= batchSize) {
+            break;
+          }
           child.lockReadAndCheckParent(inode);
           try {
             // the path to child for getPath should already be locked.
@@ -891,7 +924,8 @@ public final class DefaultFileSystemMaster extends AbstractMaster implements Fil
             child.unlockRead();
           }
         }
-      } else {
+      } else if (inode.getName().compareTo(listStatusOptions.getStartAfter()) > 0) {
+        // A file is listed as its only entry, so a continuation past its name is empty.
         ret.add(getFileInfoInternal(inodePath));
       }
       auditContext.setSucceeded(true);
@@ -2466,6 +2500,24 @@ public final class DefaultFileSystemMaster extends AbstractMaster implements Fil
       JournalContext journalContext)
       throws InvalidPathException, FileDoesNotExistException, BlockInfoException,
       FileAlreadyCompletedException, InvalidFileSizeException, AccessControlException, IOException {
+    try (UfsListingPrefetcher prefetcher = createUfsListingPrefetcher(inodePath.getUri())) {
+      loadMetadataAndJournal(inodePath, options, journalContext, prefetcher);
+    }
+  }
+
+  /**
+   * Loads metadata for the object identified by the given path from UFS into Alluxio, listing UFS
+   * directories with the given prefetcher.
+   *
+   * @param inodePath the path for which metadata should be loaded
+   * @param options the load metadata options
+   * @param journalContext the journal context
+   * @param prefetcher the prefetcher to list UFS directories with
+   */
+  private void loadMetadataAndJournal(LockedInodePath inodePath, LoadMetadataOptions options,
+      JournalContext journalContext, UfsListingPrefetcher prefetcher)
+      throws InvalidPathException, FileDoesNotExistException, BlockInfoException,
+      FileAlreadyCompletedException, InvalidFileSizeException, AccessControlException, IOException {
     AlluxioURI path = inodePath.getUri();
     MountTable.Resolution resolution = mMountTable.resolve(path);
     AlluxioURI ufsUri = resolution.getUri();
@@ -2490,7 +2542,16 @@ public final class DefaultFileSystemMaster extends AbstractMaster implements Fil
         InodeDirectory inode = (InodeDirectory) inodePath.getInode();
 
         if (options.getLoadDescendantType() != DescendantType.NONE) {
-          UfsStatus[] children = ufs.listStatus(ufsUri.toString());
+          UfsStatus[] children = prefetcher.listStatus(ufs, ufsUri.toString());
+          if (options.getLoadDescendantType() == DescendantType.ALL) {
+            // Lists the child directories ahead, the last one first as the prefetcher is LIFO
+            for (int i = children.length - 1; i >= 0; i--) {
+              if (children[i].isDirectory()
+                  && !PathUtils.isTemporaryFileName(children[i].getName())) {
+                prefetcher.prefetch(ufs, ufsUri.join(children[i].getName()).toString());
+              }
+            }
+          }
           for (UfsStatus childStatus : children) {
             if (PathUtils.isTemporaryFileName(childStatus.getName())) {
               continue;
@@ -2509,7 +2570,7 @@ public final class DefaultFileSystemMaster extends AbstractMaster implements Fil
             LoadMetadataOptions loadMetadataOptions =
                 LoadMetadataOptions.defaults().setLoadDescendantType(loadDescendantType)
                     .setCreateAncestors(false).setUfsStatus(childStatus);
-            loadMetadataAndJournal(tempInodePath, loadMetadataOptions, journalContext);
+            loadMetadataAndJournal(tempInodePath, loadMetadataOptions, journalContext, prefetcher);
           }
           inode.setDirectChildrenLoaded(true);
         }
@@ -3132,7 +3193,25 @@ public final class DefaultFileSystemMaster extends AbstractMaster implements Fil
     if (!lockingScheme.shouldSync()) {
       return false;
     }
+    try (UfsListingPrefetcher prefetcher = createUfsListingPrefetcher(inodePath.getUri())) {
+      return syncMetadataInternal(journalContext, inodePath, lockingScheme, syncDescendantType,
+          prefetcher);
+    }
+  }
 
+  /**
+   * Syncs the Alluxio metadata with UFS, listing UFS directories with the given prefetcher.
+   *
+   * @param journalContext the journal context
+   * @param inodePath the Alluxio inode path to sync with UFS
+   * @param lockingScheme the locking scheme used to lock the inode path
+   * @param syncDescendantType how to sync descendants
+   * @param prefetcher the prefetcher to list UFS directories with
+   * @return true if the sync was performed successfully, false otherwise (including errors)
+   */
+  private boolean syncMetadataInternal(JournalContext journalContext, LockedInodePath inodePath,
+      LockingScheme lockingScheme, DescendantType syncDescendantType,
+      UfsListingPrefetcher prefetcher) {
     // The high-level process for the syncing is:
     // 1. Find all Alluxio paths which are not consistent with the corresponding UFS path.
     //    This means the UFS path does not exist, or is different from the Alluxio metadata.
@@ -3187,7 +3266,8 @@ public final class DefaultFileSystemMaster extends AbstractMaster implements Fil
           }
 
           if (syncPlan.toSyncChildren()) {
-            loadMetadata = syncDirMetadata(journalContext, inodePath, syncDescendantType);
+            loadMetadata =
+                syncDirMetadata(journalContext, inodePath, syncDescendantType, prefetcher);
           }
         }
       }
@@ -3208,7 +3288,7 @@ public final class DefaultFileSystemMaster extends AbstractMaster implements Fil
     if (loadMetadata) {
       try {
         loadMetadataAndJournal(inodePath, LoadMetadataOptions.defaults().setCreateAncestors(true)
-            .setLoadDescendantType(syncDescendantType), journalContext);
+            .setLoadDescendantType(syncDescendantType), journalContext, prefetcher);
       } catch (Exception e) {
         LOG.error("Failed to load metadata for path: {} error: {}", inodePath.getUri(),
             e.toString());
@@ -3220,8 +3300,22 @@ public final class DefaultFileSystemMaster extends AbstractMaster implements Fil
     return true;
   }
 
+  /**
+   * Syncs the children of a directory with UFS, and their descendants if syncDescendantType is
+   * {@link DescendantType#ALL}.
+   * <p>
+   * The UFS children and the inode children are both walked in name order, so that no per-child
+   * map is built for large directories. The child directories to descend into are listed ahead
+   * by the prefetcher.
+   *
+   * @param journalContext the journal context
+   * @param inodePath the Alluxio inode path of the directory
+   * @param syncDescendantType how to sync descendants
+   * @param prefetcher the prefetcher to list UFS directories with
+   * @return true if UFS metadata must be loaded for the directory
+   */
   private boolean syncDirMetadata(JournalContext journalContext, LockedInodePath inodePath,
-      DescendantType syncDescendantType)
+      DescendantType syncDescendantType, UfsListingPrefetcher prefetcher)
       throws FileDoesNotExistException, InvalidPathException, IOException,
       DirectoryNotEmptyException {
     if (syncDescendantType == DescendantType.NONE) {
@@ -3237,72 +3331,88 @@ public final class DefaultFileSystemMaster extends AbstractMaster implements Fil
 
     try (CloseableResource<UnderFileSystem> ufsResource = resolution.acquireUfsResource()) {
       UnderFileSystem ufs = ufsResource.get();
-      UfsStatus[] listStatus = ufs.listStatus(ufsUri.toString());
+      UfsStatus[] listStatus = prefetcher.listStatus(ufs, ufsUri.toString());
 
       if (listStatus != null) {
-        // maps children name to up-to-date ufs fingerprint
-        Map<String, String> ufsChildFingerprints = new HashMap<>();
-        // maps children name to inode
-        Map<String, Inode<?>> inodeChildren = new HashMap<>();
-
-        for (UfsStatus ufsChildStatus : listStatus) {
-          ufsChildFingerprints.put(ufsChildStatus.getName(),
-              Fingerprint.create(ufs.getUnderFSType(), ufsChildStatus).serialize());
-        }
+        // Sorts the ufs children in the name order of the inode children
+        Arrays.sort(listStatus, Comparator.comparing(UfsStatus::getName));
         InodeDirectory inodeDir = (InodeDirectory) inode;
-        for (Inode<?> child : inodeDir.getChildren()) {
-          inodeChildren.put(child.getName(), child);
-        }
-
-        // Iterate over ufs children and process children which do not exist in Alluxio.
-        for (Map.Entry<String, String> ufsEntry : ufsChildFingerprints.entrySet()) {
-          if (!inodeChildren.containsKey(ufsEntry.getKey()) && !PathUtils
-              .isTemporaryFileName(ufsEntry.getKey())) {
-            // Ufs child exists, but Alluxio child does not. Must load metadata.
-            loadMetadata = true;
-            break;
+        // Persisted child directories which are synced, to sync recursively
+        List<Inode<?>> childDirsToSync = new ArrayList<>();
+        int ufsIndex = 0;
+
+        // Walks the sorted view of the children, which tolerates deleting them while iterating
+        for (Inode<?> child : inodeDir.getChildrenAfter("")) {
+          String childName = child.getName();
+          // Ufs children before this inode child exist in ufs, but not in Alluxio.
+          for (; ufsIndex < listStatus.length
+              && listStatus[ufsIndex].getName().compareTo(childName) < 0; ufsIndex++) {
+            if (!PathUtils.isTemporaryFileName(listStatus[ufsIndex].getName())) {
+              // Must load metadata.
+              loadMetadata = true;
+            }
+          }
+          String ufsFingerprint = null;
+          if (ufsIndex < listStatus.length && listStatus[ufsIndex].getName().equals(childName)) {
+            if (child.isPersisted()) {
+              ufsFingerprint =
+                  Fingerprint.create(ufs.getUnderFSType(), listStatus[ufsIndex]).serialize();
+            }
+            ufsIndex++;
           }
-        }
 
-        // Iterate over Alluxio children and process persisted children.
-        for (Map.Entry<String, Inode<?>> inodeEntry : inodeChildren.entrySet()) {
-          if (!inodeEntry.getValue().isPersisted()) {
+          if (!child.isPersisted()) {
             // Ignore non-persisted inodes.
             continue;
           }
 
-          String ufsFingerprint = ufsChildFingerprints.get(inodeEntry.getKey());
-          boolean deleteChild =
-              !UfsSyncUtils.inodeUfsIsSynced(inodeEntry.getValue(), ufsFingerprint);
+          boolean deleteChild = !UfsSyncUtils.inodeUfsIsSynced(child, ufsFingerprint);
 
           if (deleteChild) {
             TempInodePathForDescendant tempInodePath =
                 new TempInodePathForDescendant(inodePath);
-            tempInodePath.setDescendant(inodeEntry.getValue(),
-                inodePath.getUri().join(inodeEntry.getKey()));
+            tempInodePath.setDescendant(child, inodePath.getUri().join(childName));
 
             deleteInternal(tempInodePath, false, System.currentTimeMillis(), syncDeleteOptions,
                 journalContext);
             // Must load metadata afterwards.
             loadMetadata = true;
-          } else if (inodeEntry.getValue().isDirectory()) {
-            // Recursively sync for this directory.
-            TempInodePathForDescendant tempInodePath =
-                new TempInodePathForDescendant(inodePath);
-            tempInodePath.setDescendant(inodeEntry.getValue(),
-                inodePath.getUri().join(inodeEntry.getKey()));
-
-            if (syncDescendantType == DescendantType.ALL) {
-              // Recursively sync children
-              loadMetadata |= syncDirMetadata(journalContext, tempInodePath, DescendantType.ALL);
-            }
+          } else if (child.isDirectory() && syncDescendantType == DescendantType.ALL) {
+            childDirsToSync.add(child);
+          }
+        }
+        for (; ufsIndex < listStatus.length; ufsIndex++) {
+          if (!PathUtils.isTemporaryFileName(listStatus[ufsIndex].getName())) {
+            loadMetadata = true;
           }
         }
+
+        // Lists the child directories ahead, the last one first as the prefetcher is LIFO
+        for (int i = childDirsToSync.size() - 1; i >= 0; i--) {
+          prefetcher.prefetch(ufs, ufsUri.join(childDirsToSync.get(i).getName()).toString());
+        }
+        for (Inode<?> childDir : childDirsToSync) {
+          // Recursively sync children
+          TempInodePathForDescendant tempInodePath = new TempInodePathForDescendant(inodePath);
+          tempInodePath.setDescendant(childDir, inodePath.getUri().join(childDir.getName()));
+          loadMetadata |=
+              syncDirMetadata(journalContext, tempInodePath, DescendantType.ALL, prefetcher);
+        }
       }
     }
     return loadMetadata;
   }
 
+  /**
+   * @param path the Alluxio path being synced or loaded
+   * @return a new prefetcher to list the UFS directories under the path
+   */
+  private UfsListingPrefetcher createUfsListingPrefetcher(AlluxioURI path) {
+    return new UfsListingPrefetcher(mUfsListingPool,
+        Configuration.getInt(PropertyKey.MASTER_METADATA_SYNC_UFS_PREFETCH_LISTINGS_MAX),
+        path.getPath());
+  }
+
   @Override
   public FileSystemCommand workerHeartbeat(long workerId, List<Long> persistedFiles,
       WorkerHeartbeatOptions options)
@@ -26,6 +26,8 @@ import com.google.common.collect.ImmutableSet;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
@@ -45,6 +47,13 @@ public final class InodeDirectory extends Inode<InodeDirectory> {
   /** Use UniqueFieldIndex directly for name index rather than using IndexedSet. */
   private final FieldIndex<Inode<?>> mChildren = new UniqueFieldIndex<>(NAME_INDEX);
 
+  /**
+   * The children sorted by name, for listings which resume after a given name. It is updated along
+   * with the name index, so listings never sort the children.
+   */
+  private final ConcurrentNavigableMap<String, Inode<?>> mSortedChildren =
+      new ConcurrentSkipListMap<>();
+
   private boolean mMountPoint;
 
   private boolean mDirectChildrenLoaded;
@@ -72,7 +81,11 @@ public final class InodeDirectory extends Inode<InodeDirectory> {
    * @return true if inode was added successfully, false otherwise
    */
   public boolean addChild(Inode<?> child) {
-    return mChildren.add(child);
+    if (mChildren.add(child)) {
+      mSortedChildren.put(child.getName(), child);
+      return true;
+    }
+    return false;
   }
 
   /**
@@ -136,6 +149,18 @@ public final class InodeDirectory extends Inode<InodeDirectory> {
     return ImmutableSet.copyOf(mChildren.iterator());
   }
 
+  /**
+   * Returns the children whose names sort strictly after the given name, in name order. This is a
+   * view of the children rather than a copy, so children removed while iterating are skipped and
+   * children added while iterating may be seen.
+   *
+   * @param startAfter the name to start after, or the empty string to start from the first child
+   * @return the children after the given name
+   */
+  public Iterable<Inode<?>> getChildrenAfter(String startAfter) {
+    return mSortedChildren.tailMap(startAfter, false).values();
+  }
+
   /**
    * @return the ids of the children
    */
@@ -175,7 +200,11 @@ public final class InodeDirectory extends Inode<InodeDirectory> {
    * @return true if the inode was removed, false otherwise
    */
   public boolean removeChild(Inode<?> child) {
-    return mChildren.remove(child);
+    if (mChildren.remove(child)) {
+      mSortedChildren.remove(child.getName(), child);
+      return true;
+    }
+    return false;
   }
 
   /**
@@ -186,7 +215,7 @@ public final class InodeDirectory extends Inode<InodeDirectory> {
    */
   public boolean removeChild(String name) {
     Inode<?> child = mChildren.getFirst(name);
-    return mChildren.remove(child);
+    return child != null && removeChild(child);
   }
 
   /**
@@ -0,0 +1,189 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.file.meta;
+
+import alluxio.AlluxioURI;
+import alluxio.exception.InvalidPathException;
+import alluxio.master.file.meta.options.MountInfo;
+import alluxio.util.io.PathUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * An index of mount points, which finds the mount point of a path by walking a trie of the mount
+ * point path components. Looking up a path costs one map lookup per path component, independent
+ * of the number of mount points, and adding or removing a mount point only touches the nodes of
+ * its own path.
+ *
+ * Updates must be serialized by the caller. Lookups do not take any lock and may run concurrently
+ * with an update, in which case they see the mount point either before or after it.
+ */
+@ThreadSafe
+final class MountPointTrie {
+  /** Maps from Alluxio path string, to {@link MountInfo}. */
+  private final Map<String, MountInfo> mMountPoints = new ConcurrentHashMap<>();
+  /** Maps from mount id, to {@link MountInfo}. */
+  private final Map<Long, MountInfo> mMountIds = new ConcurrentHashMap<>();
+  /** The trie node of the root path, whose descendants are the components of the mount points. */
+  private final Node mRoot = new Node();
+
+  /**
+   * Creates an empty index.
+   */
+  MountPointTrie() {}
+
+  /**
+   * Adds a mount point, replacing any mount point at the same path.
+   *
+   * @param path the Alluxio path of the mount point
+   * @param info the mount information
+   */
+  void add(String path, MountInfo info) {
+    Node node = mRoot;
+    for (String component : components(path)) {
+      Node child = node.mChildren.get(component);
+      if (child == null) {
+        child = new Node();
+        node.mChildren.put(component, child);
+      }
+      node = child;
+    }
+    MountInfo previous = mMountPoints.put(path, info);
+    if (previous != null) {
+      mMountIds.remove(previous.getMountId());
+    }
+    mMountIds.put(info.getMountId(), info);
+    // Publish the mount point on its node last, once the maps know about it.
+    node.mMountInfo = info;
+  }
+
+  /**
+   * Removes a mount point, along with the trie nodes which no longer lead to any mount point.
+   *
+   * @param path the Alluxio path of the mount point
+   * @return the removed mount information, or null if there was no mount point at the path
+   */
+  @Nullable
+  MountInfo remove(String path) {
+    List<Node> nodes = new ArrayList<>();
+    nodes.add(mRoot);
+    List<String> components = components(path);
+    for (String component : components) {
+      Node child = nodes.get(nodes.size() - 1).mChildren.get(component);
+      if (child == null) {
+        return null;
+      }
+      nodes.add(child);
+    }
+    Node node = nodes.get(nodes.size() - 1);
+    MountInfo info = node.mMountInfo;
+    if (info == null) {
+      return null;
+    }
+    node.mMountInfo = null;
+    mMountPoints.remove(path);
+    mMountIds.remove(info.getMountId());
+    for (int i = components.size(); i > 0; i--) {
+      node = nodes.get(i);
+      if (node.mMountInfo != null || !node.mChildren.isEmpty()) {
+        break;
+      }
+      nodes.get(i - 1).mChildren.remove(components.get(i - 1));
+    }
+    return info;
+  }
+
+  /**
+   * Returns the mount information of the closest ancestor mount point the given path is nested
+   * under.
+   *
+   * @param path an Alluxio path
+   * @return mount information of the mount point the path is nested under, or null if there is
+   *         none
+   * @throws InvalidPathException if an invalid path is encountered
+   */
+  @Nullable
+  MountInfo getMountPoint(String path) throws InvalidPathException {
+    MountInfo mountInfo = mRoot.mMountInfo;
+    if (!mRoot.mChildren.isEmpty()) {
+      String[] components = PathUtils.getPathComponents(path);
+      Node node = mRoot;
+      // Skip the first component, which is the empty string before the root separator.
+      for (int i = 1; i < components.length; i++) {
+        node = node.mChildren.get(components[i]);
+        if (node == null) {
+          break;
+        }
+        MountInfo info = node.mMountInfo;
+        if (info != null) {
+          mountInfo = info;
+        }
+      }
+    }
+    return mountInfo;
+  }
+
+  /**
+   * @param path an Alluxio path
+   * @return the mount information of the mount point at the given path, or null if there is none
+   */
+  @Nullable
+  MountInfo getMountInfo(String path) {
+    return mMountPoints.get(path);
+  }
+
+  /**
+   * @param mountId a mount id
+   * @return the mount information with this id, or null if this mount id is not found
+   */
+  @Nullable
+  MountInfo getMountInfo(long mountId) {
+    return mMountIds.get(mountId);
+  }
+
+  /**
+   * @return an unmodifiable view of the map from Alluxio path string to {@link MountInfo}
+   */
+  Map<String, MountInfo> getMountPoints() {
+    return Collections.unmodifiableMap(mMountPoints);
+  }
+
+  /**
+   * @param path an Alluxio path
+   * @return the path components below the root
+   */
+  private static List<String> components(String path) {
+    List<String> components = new ArrayList<>();
+    for (String component : path.split(AlluxioURI.SEPARATOR)) {
+      if (!component.isEmpty()) {
+        components.add(component);
+      }
+    }
+    return components;
+  }
+
+  /**
+   * A trie node, one per path component of the mount points.
+   */
+  private static final class Node {
+    private final Map<String, Node> mChildren = new ConcurrentHashMap<>(4);
+    /** The mount point at this node, or null if this node is only an ancestor of mount points. */
+    private volatile MountInfo mMountInfo;
+  }
+}
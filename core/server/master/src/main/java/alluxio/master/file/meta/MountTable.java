@@ -41,14 +41,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.annotation.Nullable;
-import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
- * This class is used for keeping track of Alluxio mount points.
+ * This class is used for keeping track of Alluxio mount points. The mount points are kept in a
+ * {@link MountPointTrie}, which resolves paths without taking any lock. Updates are serialized by a
+ * lock.
  */
 @ThreadSafe
 public final class MountTable implements JournalEntryIterable {
@@ -56,12 +57,11 @@ public final class MountTable implements JournalEntryIterable {
 
   public static final String ROOT = "/";
 
-  private final Lock mReadLock;
+  /** Serializes the updates of the mount points. */
   private final Lock mWriteLock;
 
-  /** Maps from Alluxio path string, to {@link MountInfo}. */
-  @GuardedBy("mLock")
-  private final Map<String, MountInfo> mMountTable;
+  /** The mount points, updated while holding the write lock. */
+  private final MountPointTrie mMountPointTrie = new MountPointTrie();
 
   /** The manager of all ufs. */
   private final UfsManager mUfsManager;
@@ -72,17 +72,14 @@ public final class MountTable implements JournalEntryIterable {
    * @param ufsManager the UFS manager
    */
   public MountTable(UfsManager ufsManager) {
-    final int initialCapacity = 10;
-    mMountTable = new HashMap<>(initialCapacity);
-    ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-    mReadLock = lock.readLock();
-    mWriteLock = lock.writeLock();
+    mWriteLock = new ReentrantLock();
     mUfsManager = ufsManager;
   }
 
   @Override
   public Iterator<Journal.JournalEntry> getJournalEntryIterator() {
-    final Iterator<Map.Entry<String, MountInfo>> it = mMountTable.entrySet().iterator();
+    final Iterator<Map.Entry<String, MountInfo>> it =
+        mMountPointTrie.getMountPoints().entrySet().iterator();
     return new Iterator<Journal.JournalEntry>() {
       /** mEntry is always set to the next non-root mount point if exists. */
       private Map.Entry<String, MountInfo> mEntry = null;
@@ -154,14 +151,14 @@ public final class MountTable implements JournalEntryIterable {
     LOG.info("Mounting {} at {}", ufsUri, alluxioPath);
 
     try (LockResource r = new LockResource(mWriteLock)) {
-      if (mMountTable.containsKey(alluxioPath)) {
+      if (mMountPointTrie.getMountInfo(alluxioPath) != null) {
         throw new FileAlreadyExistsException(
             ExceptionMessage.MOUNT_POINT_ALREADY_EXISTS.getMessage(alluxioPath));
       }
       // Check all non-root mount points, to check if they're a prefix of the alluxioPath we're
       // trying to mount. Also make sure that the ufs path we're trying to mount is not a prefix
       // or suffix of any existing mount path.
-      for (Map.Entry<String, MountInfo> entry : mMountTable.entrySet()) {
+      for (Map.Entry<String, MountInfo> entry : mMountPointTrie.getMountPoints().entrySet()) {
         String mountedAlluxioPath = entry.getKey();
         AlluxioURI mountedUfsUri = entry.getValue().getUfsUri();
         if (!mountedAlluxioPath.equals(ROOT)
@@ -184,8 +181,8 @@ public final class MountTable implements JournalEntryIterable {
           }
         }
       }
-      mMountTable
-          .put(alluxioPath, new MountInfo(new AlluxioURI(alluxioPath), ufsUri, mountId, options));
+      MountInfo mountInfo = new MountInfo(new AlluxioURI(alluxioPath), ufsUri, mountId, options);
+      mMountPointTrie.add(alluxioPath, mountInfo);
     }
   }
 
@@ -195,10 +192,10 @@ public final class MountTable implements JournalEntryIterable {
   public void clear() {
     LOG.info("Clearing mount table (except the root).");
     try (LockResource r = new LockResource(mWriteLock)) {
-      MountInfo mountInfo = mMountTable.get(ROOT);
-      mMountTable.clear();
-      if (mountInfo != null) {
-        mMountTable.put(ROOT, mountInfo);
+      for (String path : new ArrayList<>(mMountPointTrie.getMountPoints().keySet())) {
+        if (!path.equals(ROOT)) {
+          mMountPointTrie.remove(path);
+        }
       }
     }
   }
@@ -218,9 +215,11 @@ public final class MountTable implements JournalEntryIterable {
     }
 
     try (LockResource r = new LockResource(mWriteLock)) {
-      if (mMountTable.containsKey(path)) {
-        mUfsManager.removeMount(mMountTable.get(path).getMountId());
-        mMountTable.remove(path);
+      // Remove the mount point from the trie first, so that paths are no longer resolved to it
+      // once its under storage is removed.
+      MountInfo mountInfo = mMountPointTrie.remove(path);
+      if (mountInfo != null) {
+        mUfsManager.removeMount(mountInfo.getMountId());
         return true;
       }
       LOG.warn("Mount point {} does not exist.", path);
@@ -236,17 +235,8 @@ public final class MountTable implements JournalEntryIterable {
    * @throws InvalidPathException if an invalid path is encountered
    */
   public String getMountPoint(AlluxioURI uri) throws InvalidPathException {
-    String path = uri.getPath();
-
-    try (LockResource r = new LockResource(mReadLock)) {
-      for (Map.Entry<String, MountInfo> entry : mMountTable.entrySet()) {
-        String alluxioPath = entry.getKey();
-        if (!alluxioPath.equals(ROOT) && PathUtils.hasPrefix(path, alluxioPath)) {
-          return alluxioPath;
-        }
-      }
-      return mMountTable.containsKey(ROOT) ? ROOT : null;
-    }
+    MountInfo info = mMountPointTrie.getMountPoint(uri.getPath());
+    return info == null ? null : info.getAlluxioUri().getPath();
   }
 
   /**
@@ -256,9 +246,7 @@ public final class MountTable implements JournalEntryIterable {
    * @return a copy of the current mount table
    */
   public Map<String, MountInfo> getMountTable() {
-    try (LockResource r = new LockResource(mReadLock)) {
-      return new HashMap<>(mMountTable);
-    }
+    return new HashMap<>(mMountPointTrie.getMountPoints());
   }
 
   /**
@@ -266,9 +254,7 @@ public final class MountTable implements JournalEntryIterable {
    * @return whether the given uri is a mount point
    */
   public boolean isMountPoint(AlluxioURI uri) {
-    try (LockResource r = new LockResource(mReadLock)) {
-      return mMountTable.containsKey(uri.getPath());
-    }
+    return mMountPointTrie.getMountInfo(uri.getPath()) != null;
   }
 
   /**
@@ -281,32 +267,41 @@ public final class MountTable implements JournalEntryIterable {
    * @throws InvalidPathException if an invalid path is encountered
    */
   public Resolution resolve(AlluxioURI uri) throws InvalidPathException {
-    try (LockResource r = new LockResource(mReadLock)) {
-      String path = uri.getPath();
-      LOG.debug("Resolving {}", path);
-      // This will re-acquire the read lock, but that is allowed.
-      String mountPoint = getMountPoint(uri);
-      if (mountPoint != null) {
-        MountInfo info = mMountTable.get(mountPoint);
-        AlluxioURI ufsUri = info.getUfsUri();
-        UfsManager.UfsClient ufsClient;
-        AlluxioURI resolvedUri;
-        try {
-          ufsClient = mUfsManager.get(info.getMountId());
-          try (CloseableResource<UnderFileSystem> ufsResource = ufsClient.acquireUfsResource()) {
-            UnderFileSystem ufs = ufsResource.get();
-            resolvedUri = ufs.resolveUri(ufsUri, path.substring(mountPoint.length()));
-          }
-        } catch (NotFoundException | UnavailableException e) {
-          throw new RuntimeException(
-              String.format("No UFS information for %s for mount Id %d, we should never reach here",
-                  uri, info.getMountId()), e);
+    String path = uri.getPath();
+    LOG.debug("Resolving {}", path);
+    for (;;) {
+      // Use the mount information found, in case the mount table changes concurrently.
+      MountInfo info = mMountPointTrie.getMountPoint(path);
+      if (info == null) {
+        // TODO(binfan): throw exception as we should never reach here
+        return new Resolution(uri, null, false, IdUtils.INVALID_MOUNT_ID);
+      }
+      String mountPoint = info.getAlluxioUri().getPath();
+      AlluxioURI ufsUri = info.getUfsUri();
+      UfsManager.UfsClient ufsClient;
+      AlluxioURI resolvedUri;
+      try {
+        ufsClient = mUfsManager.get(info.getMountId());
+        try (CloseableResource<UnderFileSystem> ufsResource = ufsClient.acquireUfsResource()) {
+          UnderFileSystem ufs = ufsResource.get();
+          resolvedUri = ufs.resolveUri(ufsUri, path.substring(mountPoint.length()));
+        }
+      } catch (NotFoundException e) {
+        if (mMountPointTrie.getMountInfo(info.getMountId()) != info) {
+          // The mount point was unmounted concurrently, resolve the path again without it.
+          LOG.debug("Mount point {} was unmounted while resolving {}", mountPoint, path);
+          continue;
         }
-        return new Resolution(resolvedUri, ufsClient, info.getOptions().isShared(),
-            info.getMountId());
+        throw new RuntimeException(
+            String.format("No UFS information for %s for mount Id %d, we should never reach here",
+                uri, info.getMountId()), e);
+      } catch (UnavailableException e) {
+        throw new RuntimeException(
+            String.format("No UFS information for %s for mount Id %d, we should never reach here",
+                uri, info.getMountId()), e);
       }
-      // TODO(binfan): throw exception as we should never reach here
-      return new Resolution(uri, null, false, IdUtils.INVALID_MOUNT_ID);
+      return new Resolution(resolvedUri, ufsClient, info.getOptions().isShared(),
+          info.getMountId());
     }
   }
 
@@ -320,13 +315,10 @@ public final class MountTable implements JournalEntryIterable {
    */
   public void checkUnderWritableMountPoint(AlluxioURI alluxioUri)
       throws InvalidPathException, AccessControlException {
-    try (LockResource r = new LockResource(mReadLock)) {
-      // This will re-acquire the read lock, but that is allowed.
-      String mountPoint = getMountPoint(alluxioUri);
-      MountInfo mountInfo = mMountTable.get(mountPoint);
-      if (mountInfo.getOptions().isReadOnly()) {
-        throw new AccessControlException(ExceptionMessage.MOUNT_READONLY, alluxioUri, mountPoint);
-      }
+    MountInfo mountInfo = mMountPointTrie.getMountPoint(alluxioUri.getPath());
+    if (mountInfo.getOptions().isReadOnly()) {
+      throw new AccessControlException(ExceptionMessage.MOUNT_READONLY, alluxioUri,
+          mountInfo.getAlluxioUri().getPath());
     }
   }
 
@@ -336,14 +328,7 @@ public final class MountTable implements JournalEntryIterable {
    */
   @Nullable
   public MountInfo getMountInfo(long mountId) {
-    try (LockResource r = new LockResource(mReadLock)) {
-      for (Map.Entry<String, MountInfo> entry : mMountTable.entrySet()) {
-        if (entry.getValue().getMountId() == mountId) {
-          return entry.getValue();
-        }
-      }
-    }
-    return null;
+    return mMountPointTrie.getMountInfo(mountId);
   }
 
   /**
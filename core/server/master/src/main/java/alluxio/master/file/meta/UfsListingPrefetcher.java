@@ -0,0 +1,276 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.file.meta;
+
+import alluxio.Constants;
+import alluxio.metrics.MetricsSystem;
+import alluxio.underfs.UfsStatus;
+import alluxio.underfs.UnderFileSystem;
+import alluxio.util.CommonUtils;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
+import com.google.common.base.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Lists UFS directories ahead of a metadata sync walking them, so that the listings of a recursive
+ * sync are fetched in parallel instead of one at a time by the syncing thread.
+ * <p>
+ * The sync calls {@link #prefetch} for the directories it is about to visit, and
+ * {@link #listStatus} when it visits them. Directories are fetched latest requested first, which
+ * matches the depth-first order of the walk, and at most a bounded number of listings are fetched
+ * ahead, to bound the memory held by a sync. A directory which is not fetched yet when the sync
+ * visits it is listed by the syncing thread.
+ */
+@ThreadSafe
+public final class UfsListingPrefetcher implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(UfsListingPrefetcher.class);
+  private static final long PROGRESS_LOG_INTERVAL_MS = Constants.MINUTE_MS;
+
+  /** The pool fetching the listings, or null to list directories in the syncing thread. */
+  @Nullable
+  private final ExecutorService mExecutor;
+  /** The maximum number of listings being fetched or fetched but not consumed. */
+  private final int mMaxListings;
+  /** The Alluxio path being synced, for logging. */
+  private final String mSyncPath;
+
+  /** The listings requested, the latest requested first, including the ones already claimed. */
+  @GuardedBy("this")
+  private final Deque<Listing> mQueue = new ArrayDeque<>();
+  /** The listings requested and not consumed yet, by UFS path. */
+  @GuardedBy("this")
+  private final Map<String, Listing> mListings = new HashMap<>();
+  /** The number of listings in {@link #mQueue} which are not claimed yet. */
+  @GuardedBy("this")
+  private int mNumQueued;
+  /** The number of fetch tasks submitted which have not claimed a listing yet. */
+  @GuardedBy("this")
+  private int mNumScheduled;
+  /** The number of listings being fetched or fetched but not consumed, plus mNumScheduled. */
+  @GuardedBy("this")
+  private int mNumFetching;
+  @GuardedBy("this")
+  private boolean mClosed;
+
+  private final long mStartMs;
+  @GuardedBy("this")
+  private long mLastProgressLogMs;
+  @GuardedBy("this")
+  private long mDirectoriesListed;
+  @GuardedBy("this")
+  private long mEntriesListed;
+
+  /**
+   * Creates a new instance of {@link UfsListingPrefetcher}.
+   *
+   * @param executor the pool to fetch the listings, or null to disable prefetching
+   * @param maxListings the maximum number of listings to fetch ahead
+   * @param syncPath the Alluxio path being synced
+   */
+  public UfsListingPrefetcher(@Nullable ExecutorService executor, int maxListings,
+      String syncPath) {
+    Preconditions.checkArgument(maxListings > 0, "maxListings must be positive");
+    mExecutor = executor;
+    mMaxListings = maxListings;
+    mSyncPath = syncPath;
+    mStartMs = CommonUtils.getCurrentMs();
+    mLastProgressLogMs = mStartMs;
+  }
+
+  /**
+   * Requests a directory to be listed ahead of its {@link #listStatus} call.
+   *
+   * @param ufs the UFS of the directory
+   * @param path the UFS path of the directory
+   */
+  public synchronized void prefetch(UnderFileSystem ufs, String path) {
+    if (mExecutor == null || mClosed || mListings.containsKey(path)) {
+      return;
+    }
+    Listing listing = new Listing(ufs, path);
+    mListings.put(path, listing);
+    mQueue.push(listing);
+    mNumQueued++;
+    scheduleFetches();
+  }
+
+  /**
+   * Lists a directory, using its prefetched listing if there is one.
+   *
+   * @param ufs the UFS of the directory
+   * @param path the UFS path of the directory
+   * @return the statuses of the children of the directory, or null if the path is not a directory
+   *         or does not exist
+   */
+  @Nullable
+  public UfsStatus[] listStatus(UnderFileSystem ufs, String path) throws IOException {
+    Listing listing;
+    synchronized (this) {
+      listing = mListings.remove(path);
+      if (listing != null && !listing.mClaimed) {
+        // Not fetched yet, so it is faster to list it here than to wait for it
+        listing.mClaimed = true;
+        mNumQueued--;
+        listing = null;
+      }
+    }
+    if (listing == null) {
+      return list(ufs, path);
+    }
+    try {
+      UfsStatus[] statuses = listing.mResult.get();
+      Metrics.UFS_SYNC_LISTINGS_PREFETCHED.inc();
+      return statuses;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    } finally {
+      synchronized (this) {
+        mNumFetching--;
+        scheduleFetches();
+      }
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    mClosed = true;
+    mQueue.clear();
+    mListings.clear();
+    long elapsedMs = CommonUtils.getCurrentMs() - mStartMs;
+    if (elapsedMs >= PROGRESS_LOG_INTERVAL_MS) {
+      LOG.info("Metadata sync of {} listed {} UFS directories with {} entries in {} ms", mSyncPath,
+          mDirectoriesListed, mEntriesListed, elapsedMs);
+    }
+  }
+
+  /**
+   * Submits fetch tasks for the unclaimed listings, within the limit of listings fetched ahead.
+   */
+  @GuardedBy("this")
+  private void scheduleFetches() {
+    while (!mClosed && mNumFetching < mMaxListings && mNumScheduled < mNumQueued) {
+      try {
+        mExecutor.execute(this::fetchNext);
+      } catch (RejectedExecutionException e) {
+        // The pool is shut down when the master stops, the syncing thread lists the directories
+        LOG.debug("Failed to schedule fetching UFS listings for {}", mSyncPath, e);
+        return;
+      }
+      mNumFetching++;
+      mNumScheduled++;
+    }
+  }
+
+  /**
+   * Fetches the latest requested listing not claimed yet.
+   */
+  private void fetchNext() {
+    Listing listing;
+    synchronized (this) {
+      mNumScheduled--;
+      listing = mQueue.poll();
+      while (listing != null && listing.mClaimed) {
+        listing = mQueue.poll();
+      }
+      if (listing == null || mClosed) {
+        mNumFetching--;
+        return;
+      }
+      listing.mClaimed = true;
+      mNumQueued--;
+    }
+    try {
+      listing.mResult.complete(list(listing.mUfs, listing.mPath));
+    } catch (IOException | RuntimeException e) {
+      listing.mResult.completeExceptionally(e);
+    }
+  }
+
+  @Nullable
+  private UfsStatus[] list(UnderFileSystem ufs, String path) throws IOException {
+    UfsStatus[] statuses;
+    try (Timer.Context ctx = Metrics.UFS_SYNC_LIST_TIMER.time()) {
+      statuses = ufs.listStatus(path);
+    }
+    int numEntries = statuses == null ? 0 : statuses.length;
+    Metrics.UFS_SYNC_DIRECTORIES_LISTED.inc();
+    Metrics.UFS_SYNC_ENTRIES_LISTED.inc(numEntries);
+    synchronized (this) {
+      mDirectoriesListed++;
+      mEntriesListed += numEntries;
+      long nowMs = CommonUtils.getCurrentMs();
+      if (nowMs - mLastProgressLogMs >= PROGRESS_LOG_INTERVAL_MS) {
+        long elapsedMs = nowMs - mStartMs;
+        LOG.info("Metadata sync of {} has listed {} UFS directories with {} entries in {} ms "
+            + "({} entries/s)", mSyncPath, mDirectoriesListed, mEntriesListed, elapsedMs,
+            mEntriesListed * Constants.SECOND_MS / elapsedMs);
+        mLastProgressLogMs = nowMs;
+      }
+    }
+    return statuses;
+  }
+
+  /**
+   * A directory listing requested ahead.
+   */
+  private static final class Listing {
+    private final UnderFileSystem mUfs;
+    private final String mPath;
+    private final CompletableFuture<UfsStatus[]> mResult = new CompletableFuture<>();
+    /** Whether a fetch task or the syncing thread took the listing, guarded by the prefetcher. */
+    private boolean mClaimed;
+
+    private Listing(UnderFileSystem ufs, String path) {
+      mUfs = ufs;
+      mPath = path;
+    }
+  }
+
+  /**
+   * Class that contains metrics about UFS listings of metadata syncs.
+   */
+  private static final class Metrics {
+    private static final Counter UFS_SYNC_DIRECTORIES_LISTED =
+        MetricsSystem.masterCounter("UfsSyncDirectoriesListed");
+    private static final Counter UFS_SYNC_ENTRIES_LISTED =
+        MetricsSystem.masterCounter("UfsSyncEntriesListed");
+    private static final Counter UFS_SYNC_LISTINGS_PREFETCHED =
+        MetricsSystem.masterCounter("UfsSyncListingsPrefetched");
+    private static final Timer UFS_SYNC_LIST_TIMER = MetricsSystem.masterTimer("UfsSyncListTimer");
+
+    private Metrics() {} // prevent instantiation
+  }
+}
@@ -26,6 +26,8 @@ import javax.annotation.concurrent.NotThreadSafe;
 public final class ListStatusOptions {
   private CommonOptions mCommonOptions;
   private LoadMetadataType mLoadMetadataType;
+  private String mStartAfter;
+  private int mBatchSize;
 
   /**
    * @return the default {@link ListStatusOptions}
@@ -38,6 +40,8 @@ public final class ListStatusOptions {
     super();
     mCommonOptions = CommonOptions.defaults();
     mLoadMetadataType = LoadMetadataType.Once;
+    mStartAfter = "";
+    mBatchSize = 0;
   }
 
   /**
@@ -56,6 +60,12 @@ public final class ListStatusOptions {
       } else if (!options.isLoadDirectChildren()) {
         mLoadMetadataType = LoadMetadataType.Never;
       }
+      if (options.isSetStartAfter()) {
+        mStartAfter = options.getStartAfter();
+      }
+      if (options.isSetBatchSize()) {
+        mBatchSize = options.getBatchSize();
+      }
     }
   }
 
@@ -74,6 +84,20 @@ public final class ListStatusOptions {
     return mLoadMetadataType;
   }
 
+  /**
+   * @return the name after which to start listing children; empty to list from the first child
+   */
+  public String getStartAfter() {
+    return mStartAfter;
+  }
+
+  /**
+   * @return the maximum number of children to list, or 0 for no limit
+   */
+  public int getBatchSize() {
+    return mBatchSize;
+  }
+
   /**
    * @param options the common options
    * @return the updated options object
@@ -94,6 +118,24 @@ public final class ListStatusOptions {
     return this;
   }
 
+  /**
+   * @param startAfter the name after which to start listing children
+   * @return the updated options
+   */
+  public ListStatusOptions setStartAfter(String startAfter) {
+    mStartAfter = startAfter;
+    return this;
+  }
+
+  /**
+   * @param batchSize the maximum number of children to list, or 0 for no limit
+   * @return the updated options
+   */
+  public ListStatusOptions setBatchSize(int batchSize) {
+    mBatchSize = batchSize;
+    return this;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -104,12 +146,14 @@ public final class ListStatusOptions {
     }
     ListStatusOptions that = (ListStatusOptions) o;
     return Objects.equal(mLoadMetadataType, that.mLoadMetadataType)
-        && Objects.equal(mCommonOptions, that.mCommonOptions);
+        && Objects.equal(mCommonOptions, that.mCommonOptions)
+        && Objects.equal(mStartAfter, that.mStartAfter)
+        && mBatchSize == that.mBatchSize;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(mLoadMetadataType, mCommonOptions);
+    return Objects.hashCode(mLoadMetadataType, mCommonOptions, mStartAfter, mBatchSize);
   }
 
   @Override
@@ -117,6 +161,8 @@ public final class ListStatusOptions {
     return Objects.toStringHelper(this)
         .add("commonOptions", mCommonOptions)
         .add("loadMetadataType", mLoadMetadataType.toString())
+        .add("startAfter", mStartAfter)
+        .add("batchSize", mBatchSize)
         .toString();
   }
 }
@@ -253,6 +253,27 @@ public class BlockMasterTest {
     assertEquals(2, mBlockMaster.getBlockInfo(blockId).getLocations().size());
   }
 
+  @Test
+  public void workerRegisterChunksRemovesUnreportedBlocks() throws Exception {
+    // Create a worker with two blocks.
+    long worker = mBlockMaster.getWorkerId(NET_ADDRESS_1);
+    mBlockMaster.workerRegister(worker, Arrays.asList("MEM"), ImmutableMap.of("MEM", 100L),
+        ImmutableMap.of("MEM", 0L), NO_BLOCKS_ON_TIERS);
+    mBlockMaster.commitBlock(worker, 20L, "MEM", 1L, 10L);
+    mBlockMaster.commitBlock(worker, 40L, "MEM", 2L, 10L);
+
+    // Re-register with a block report in two chunks, which no longer has block 1.
+    mBlockMaster.workerRegisterChunk(worker, Arrays.asList("MEM"), ImmutableMap.of("MEM", 100L),
+        ImmutableMap.of("MEM", 20L), 5L, 0, false, NO_BLOCKS_ON_TIERS);
+    mBlockMaster.workerRegisterChunk(worker, Arrays.asList("MEM"), ImmutableMap.of("MEM", 100L),
+        ImmutableMap.of("MEM", 20L), 5L, 1, true,
+        ImmutableMap.<String, List<Long>>of("MEM", ImmutableList.of(2L)));
+
+    assertTrue(mBlockMaster.getBlockInfo(1L).getLocations().isEmpty());
+    assertEquals(1, mBlockMaster.getBlockInfo(2L).getLocations().size());
+    assertEquals(20L, Iterables.getOnlyElement(mBlockMaster.getWorkerInfoList()).getUsedBytes());
+  }
+
   @Test
   public void unknownWorkerHeartbeatTriggersRegisterRequest() {
     Command heartBeat = mBlockMaster.workerHeartbeat(0, null, null, null);
@@ -96,6 +96,32 @@ public final class MasterWorkerInfoTest {
     assertEquals(newBlocks, mInfo.getBlocks());
   }
 
+  /**
+   * Tests that re-registering with a block report sent in chunks works.
+   */
+  @Test
+  public void chunkedRegisterAgain() {
+    mInfo.startChunkedRegister(GLOBAL_STORAGE_TIER_ASSOC, STORAGE_TIER_ALIASES,
+        TOTAL_BYTES_ON_TIERS, USED_BYTES_ON_TIERS, 7L);
+    mInfo.addReportedBlocks(7L, 0, Lists.newArrayList(2L, 3L));
+    // a retried chunk is accepted again
+    mInfo.addReportedBlocks(7L, 0, Lists.newArrayList(2L, 3L));
+    mInfo.addReportedBlocks(7L, 1, Lists.newArrayList(4L));
+    assertEquals(Sets.newHashSet(1L), mInfo.finishChunkedRegister());
+    assertEquals(Sets.newHashSet(2L, 3L, 4L), mInfo.getBlocks());
+  }
+
+  /**
+   * Tests that a chunk which does not belong to the block report in progress is rejected.
+   */
+  @Test
+  public void chunkedRegisterUnexpectedChunk() {
+    mInfo.startChunkedRegister(GLOBAL_STORAGE_TIER_ASSOC, STORAGE_TIER_ALIASES,
+        TOTAL_BYTES_ON_TIERS, USED_BYTES_ON_TIERS, 7L);
+    mThrown.expect(IllegalStateException.class);
+    mInfo.addReportedBlocks(7L, 2, Lists.newArrayList(2L));
+  }
+
   /**
    * Tests that an exception is thrown when trying to use the
    * {@link MasterWorkerInfo#register(StorageTierAssoc, List, Map, Map, Set)} method with a
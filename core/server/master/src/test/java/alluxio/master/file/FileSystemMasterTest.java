@@ -43,6 +43,7 @@ import alluxio.master.block.BlockMaster;
 import alluxio.master.block.BlockMasterFactory;
 import alluxio.master.file.meta.PersistenceState;
 import alluxio.master.file.meta.TtlIntervalRule;
+import alluxio.master.file.options.CheckConsistencyOptions;
 import alluxio.master.file.options.CompleteFileOptions;
 import alluxio.master.file.options.CreateDirectoryOptions;
 import alluxio.master.file.options.CreateFileOptions;
@@ -68,6 +69,8 @@ import alluxio.util.IdUtils;
 import alluxio.util.ThreadFactoryUtils;
 import alluxio.util.executor.ExecutorServiceFactories;
 import alluxio.util.io.FileUtils;
+import alluxio.util.io.PathUtils;
+import alluxio.wire.CommonOptions;
 import alluxio.wire.FileBlockInfo;
 import alluxio.wire.FileInfo;
 import alluxio.wire.LoadMetadataType;
@@ -468,6 +471,33 @@ public final class FileSystemMasterTest {
     }
   }
 
+  /**
+   * Tests a recursive metadata sync loads the paths added to the UFS, and removes the paths deleted
+   * from the UFS, at the deepest level of a directory tree.
+   */
+  @Test
+  public void syncRecursive() throws Exception {
+    AlluxioURI ufsMount = createPersistedDirectories(3);
+    mountPersistedDirectories(ufsMount);
+    loadPersistedDirectories(3);
+    String deepDir = PathUtils.concatPath(DIR_TOP_LEVEL, DIR_PREFIX + 1, DIR_PREFIX + 0);
+    AlluxioURI ufsDeepDir = ufsMount.join(deepDir);
+    Files.delete(Paths.get(ufsDeepDir.join(FILE_PREFIX + 0).getPath()));
+    Files.createFile(Paths.get(ufsDeepDir.join("new").getPath()));
+
+    mFileSystemMaster.checkConsistency(new AlluxioURI(MOUNT_URI), CheckConsistencyOptions
+        .defaults().setCommonOptions(CommonOptions.defaults().setSyncIntervalMs(0)));
+
+    Set<String> names = new HashSet<>();
+    for (FileInfo info : mFileSystemMaster.listStatus(new AlluxioURI(MOUNT_URI).join(deepDir),
+        ListStatusOptions.defaults().setLoadMetadataType(LoadMetadataType.Never))) {
+      names.add(info.getName());
+    }
+    assertEquals(
+        new HashSet<>(Arrays.asList("new", FILE_PREFIX + 1, DIR_PREFIX + 0, DIR_PREFIX + 1)),
+        names);
+  }
+
   // Helper method to construct a directory tree in the UFS.
   private AlluxioURI createPersistedDirectories(int levels) throws Exception {
     AlluxioURI ufsMount = new AlluxioURI(mTestFolder.newFolder().getAbsolutePath());
@@ -893,6 +923,44 @@ public final class FileSystemMasterTest {
     }
   }
 
+  @Test
+  public void listStatusInBatches() throws Exception {
+    final int files = 10;
+    for (int i = files - 1; i >= 0; i--) {
+      createFileWithSingleBlock(NESTED_URI.join("file" + String.format("%05d", i)));
+    }
+
+    List<String> names = new ArrayList<>();
+    String startAfter = "";
+    while (true) {
+      List<FileInfo> infos = mFileSystemMaster.listStatus(NESTED_URI,
+          ListStatusOptions.defaults().setLoadMetadataType(LoadMetadataType.Never)
+              .setStartAfter(startAfter).setBatchSize(3));
+      assertTrue(infos.size() <= 3);
+      for (FileInfo info : infos) {
+        names.add(info.getName());
+      }
+      if (infos.size() < 3) {
+        break;
+      }
+      startAfter = infos.get(infos.size() - 1).getName();
+    }
+    // Children are listed once each, in name order.
+    assertEquals(files, names.size());
+    for (int i = 0; i < files; i++) {
+      assertEquals("file" + String.format("%05d", i), names.get(i));
+    }
+
+    // A file is only listed if its name is after the start-after name.
+    AlluxioURI file = NESTED_URI.join("file00000");
+    assertEquals(1, mFileSystemMaster.listStatus(file,
+        ListStatusOptions.defaults().setLoadMetadataType(LoadMetadataType.Never)
+            .setBatchSize(1)).size());
+    assertTrue(mFileSystemMaster.listStatus(file,
+        ListStatusOptions.defaults().setLoadMetadataType(LoadMetadataType.Never)
+            .setStartAfter("file00000").setBatchSize(1)).isEmpty());
+  }
+
   @Test
   public void getFileBlockInfoList() throws Exception {
     createFileWithSingleBlock(ROOT_FILE_URI);
@@ -16,6 +16,7 @@ import alluxio.master.file.options.CreateDirectoryOptions;
 import alluxio.security.authorization.Mode;
 import alluxio.wire.FileInfo;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import org.junit.Assert;
 import org.junit.Test;
@@ -61,6 +62,53 @@ public final class InodeDirectoryTest extends AbstractInodeTest {
     Assert.assertFalse(inodeDirectory.getChildrenIds().contains(createInodeFileId(1)));
   }
 
+  /**
+   * Tests the {@link InodeDirectory#getChildrenAfter(String)} method.
+   */
+  @Test
+  public void getChildrenAfter() {
+    InodeDirectory inodeDirectory = createInodeDirectory();
+    InodeFile inodeFile1 = createInodeFile(1);
+    InodeFile inodeFile2 = createInodeFile(2);
+    InodeFile inodeFile3 = createInodeFile(3);
+    inodeDirectory.addChild(inodeFile3);
+    inodeDirectory.addChild(inodeFile1);
+    inodeDirectory.addChild(inodeFile2);
+    Assert.assertEquals(Lists.<Inode<?>>newArrayList(inodeFile1, inodeFile2, inodeFile3),
+        Lists.newArrayList(inodeDirectory.getChildrenAfter("")));
+    Assert.assertEquals(Lists.<Inode<?>>newArrayList(inodeFile2, inodeFile3),
+        Lists.newArrayList(inodeDirectory.getChildrenAfter("testFile1")));
+    Assert.assertEquals(Lists.<Inode<?>>newArrayList(inodeFile3),
+        Lists.newArrayList(inodeDirectory.getChildrenAfter("testFile2a")));
+    Assert.assertFalse(inodeDirectory.getChildrenAfter("testFile3").iterator().hasNext());
+  }
+
+  /**
+   * Tests that {@link InodeDirectory#getChildrenAfter(String)} sees children which were added or
+   * removed since the previous call.
+   */
+  @Test
+  public void getChildrenAfterChange() {
+    InodeDirectory inodeDirectory = createInodeDirectory();
+    InodeFile inodeFile1 = createInodeFile(1);
+    InodeFile inodeFile2 = createInodeFile(2);
+    InodeFile inodeFile3 = createInodeFile(3);
+    inodeDirectory.addChild(inodeFile1);
+    inodeDirectory.addChild(inodeFile3);
+    Assert.assertEquals(Lists.<Inode<?>>newArrayList(inodeFile1, inodeFile3),
+        Lists.newArrayList(inodeDirectory.getChildrenAfter("")));
+    inodeDirectory.addChild(inodeFile2);
+    Assert.assertEquals(Lists.<Inode<?>>newArrayList(inodeFile2, inodeFile3),
+        Lists.newArrayList(inodeDirectory.getChildrenAfter("testFile1")));
+    Iterable<Inode<?>> children = inodeDirectory.getChildrenAfter("");
+    inodeDirectory.removeChild(inodeFile3);
+    // Children removed while iterating are skipped.
+    Assert.assertEquals(Lists.<Inode<?>>newArrayList(inodeFile1, inodeFile2),
+        Lists.newArrayList(children));
+    Assert.assertEquals(Lists.<Inode<?>>newArrayList(inodeFile2),
+        Lists.newArrayList(inodeDirectory.getChildrenAfter("testFile1")));
+  }
+
   /**
    * Tests the {@link InodeDirectory#equals(Object)} method.
    */
@@ -0,0 +1,110 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.file.meta;
+
+import alluxio.AlluxioURI;
+import alluxio.master.file.meta.options.MountInfo;
+import alluxio.master.file.options.MountOptions;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link MountPointTrie}.
+ */
+public final class MountPointTrieTest {
+  private MountPointTrie mTrie;
+
+  @Before
+  public void before() {
+    mTrie = new MountPointTrie();
+  }
+
+  /**
+   * Tests that paths resolve to their closest mount point as mount points are added.
+   */
+  @Test
+  public void add() throws Exception {
+    Assert.assertNull(mTrie.getMountPoint("/a"));
+    MountInfo root = mount("/", 1L);
+    MountInfo a = mount("/a", 2L);
+    MountInfo abc = mount("/a/b/c", 3L);
+
+    Assert.assertSame(root, mTrie.getMountPoint("/"));
+    Assert.assertSame(root, mTrie.getMountPoint("/ab"));
+    Assert.assertSame(a, mTrie.getMountPoint("/a"));
+    Assert.assertSame(a, mTrie.getMountPoint("/a/b"));
+    Assert.assertSame(abc, mTrie.getMountPoint("/a/b/c/d"));
+    Assert.assertSame(abc, mTrie.getMountInfo("/a/b/c"));
+    Assert.assertNull(mTrie.getMountInfo("/a/b"));
+    Assert.assertSame(a, mTrie.getMountInfo(2L));
+    Assert.assertEquals(3, mTrie.getMountPoints().size());
+  }
+
+  /**
+   * Tests that removing a mount point only affects the paths under it.
+   */
+  @Test
+  public void remove() throws Exception {
+    MountInfo root = mount("/", 1L);
+    MountInfo a = mount("/a", 2L);
+    MountInfo abc = mount("/a/b/c", 3L);
+    MountInfo abd = mount("/a/b/d", 4L);
+
+    Assert.assertSame(abc, mTrie.remove("/a/b/c"));
+    Assert.assertSame(a, mTrie.getMountPoint("/a/b/c/d"));
+    Assert.assertSame(abd, mTrie.getMountPoint("/a/b/d/e"));
+    Assert.assertNull(mTrie.getMountInfo(3L));
+
+    Assert.assertSame(a, mTrie.remove("/a"));
+    Assert.assertSame(abd, mTrie.getMountPoint("/a/b/d"));
+    Assert.assertSame(root, mTrie.getMountPoint("/a/b"));
+
+    Assert.assertSame(abd, mTrie.remove("/a/b/d"));
+    Assert.assertSame(root, mTrie.getMountPoint("/a/b/d"));
+    Assert.assertEquals(1, mTrie.getMountPoints().size());
+  }
+
+  /**
+   * Tests that removing a path which is not a mount point changes nothing.
+   */
+  @Test
+  public void removeNonMountPoint() throws Exception {
+    MountInfo abc = mount("/a/b/c", 3L);
+
+    Assert.assertNull(mTrie.remove("/a/b"));
+    Assert.assertNull(mTrie.remove("/x"));
+    Assert.assertSame(abc, mTrie.getMountPoint("/a/b/c"));
+  }
+
+  /**
+   * Tests that a mount point can be added again at a path whose nodes were removed.
+   */
+  @Test
+  public void addAfterRemove() throws Exception {
+    mount("/a/b", 2L);
+    mTrie.remove("/a/b");
+    MountInfo ab = mount("/a/b", 3L);
+
+    Assert.assertSame(ab, mTrie.getMountPoint("/a/b/c"));
+    Assert.assertNull(mTrie.getMountInfo(2L));
+    Assert.assertSame(ab, mTrie.getMountInfo(3L));
+  }
+
+  private MountInfo mount(String path, long mountId) {
+    MountInfo info = new MountInfo(new AlluxioURI(path), new AlluxioURI("/ufs" + mountId),
+        mountId, MountOptions.defaults());
+    mTrie.add(path, info);
+    return info;
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.file.meta;
+
+import alluxio.AlluxioURI;
+import alluxio.BenchmarkUtils;
+import alluxio.Constants;
+import alluxio.master.file.options.MountOptions;
+import alluxio.underfs.MasterUfsManager;
+import alluxio.underfs.UfsManager;
+import alluxio.underfs.UnderFileSystemConfiguration;
+import alluxio.util.io.PathUtils;
+
+/**
+ * Measures the {@link MountTable#resolve(AlluxioURI)} throughput for an increasing number of
+ * mount points, doubling from one up to the given maximum. Every available processor resolves
+ * paths nested under mount points picked from the whole table, mimicking a federated namespace
+ * with one mount point per bucket.
+ *
+ * Usage: {@code MountTableBenchmark [durationSeconds] [maxMountPoints]}
+ */
+public final class MountTableBenchmark {
+  private MountTableBenchmark() {} // prevent instantiation
+
+  /**
+   * @param args the duration of each run in seconds and the maximum number of mount points
+   */
+  public static void main(String[] args) throws Exception {
+    long durationMs = (args.length > 0 ? Long.parseLong(args[0]) : 5) * Constants.SECOND_MS;
+    int maxMountPoints = args.length > 1 ? Integer.parseInt(args[1]) : 4096;
+    int numThreads = Runtime.getRuntime().availableProcessors();
+    System.out.printf("%15s %20s%n", "mount points", "resolve/sec");
+    for (int mountPoints = 1; mountPoints <= maxMountPoints; mountPoints *= 2) {
+      System.out.printf("%15d %20d%n", mountPoints, run(numThreads, mountPoints, durationMs));
+    }
+  }
+
+  /**
+   * @param numThreads the number of threads resolving paths
+   * @param numMountPoints the number of mount points besides the root
+   * @param durationMs how long to run for
+   * @return the number of resolved paths per second
+   */
+  private static long run(int numThreads, int numMountPoints, long durationMs) throws Exception {
+    UfsManager ufsManager = new MasterUfsManager();
+    final MountTable mountTable = new MountTable(ufsManager);
+    mountTable.add(new AlluxioURI(MountTable.ROOT), new AlluxioURI("/benchmark/root"), 1L,
+        MountOptions.defaults());
+    ufsManager.addMount(1L, new AlluxioURI("/benchmark/root"),
+        UnderFileSystemConfiguration.defaults());
+    final AlluxioURI[] paths = new AlluxioURI[numMountPoints];
+    for (int i = 0; i < numMountPoints; i++) {
+      long mountId = i + 2;
+      AlluxioURI ufsUri = new AlluxioURI(PathUtils.concatPath("/benchmark/buckets", i));
+      mountTable.add(new AlluxioURI(PathUtils.concatPath("/tenants", i)), ufsUri, mountId,
+          MountOptions.defaults());
+      ufsManager.addMount(mountId, ufsUri, UnderFileSystemConfiguration.defaults());
+      paths[i] = new AlluxioURI(PathUtils.concatPath("/tenants", i, "year=2018/month=01/part-0"));
+    }
+
+    try {
+      return BenchmarkUtils.measureThroughput(numThreads, durationMs, (thread, iteration) ->
+          BenchmarkUtils.consume(
+              mountTable.resolve(paths[(int) ((thread + 7 * (iteration + 1)) % paths.length)])));
+    } finally {
+      ufsManager.close();
+    }
+  }
+}
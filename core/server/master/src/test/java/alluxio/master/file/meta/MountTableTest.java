@@ -16,6 +16,7 @@ import alluxio.exception.AccessControlException;
 import alluxio.exception.ExceptionMessage;
 import alluxio.exception.FileAlreadyExistsException;
 import alluxio.exception.InvalidPathException;
+import alluxio.exception.status.NotFoundException;
 import alluxio.master.file.meta.options.MountInfo;
 import alluxio.master.file.options.MountOptions;
 import alluxio.underfs.UfsManager;
@@ -30,6 +31,8 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -302,6 +305,35 @@ public final class MountTableTest {
     Assert.assertEquals(mountTable, mMountTable.getMountTable());
   }
 
+  /**
+   * Tests that mount points are matched by path components rather than string prefixes.
+   */
+  @Test
+  public void getMountPointByComponents() throws Exception {
+    mMountTable.add(new AlluxioURI("/"), new AlluxioURI("/root"), 1L, mDefaultOptions);
+    mMountTable.add(new AlluxioURI("/mnt/foo"), new AlluxioURI("/foo"), 2L, mDefaultOptions);
+    mMountTable.add(new AlluxioURI("/mnt/foobar"), new AlluxioURI("/foobar"), 3L,
+        mDefaultOptions);
+    mMountTable.add(new AlluxioURI("/a/b/c"), new AlluxioURI("/c"), 4L, mDefaultOptions);
+
+    Assert.assertEquals("/mnt/foo", mMountTable.getMountPoint(new AlluxioURI("/mnt/foo/x")));
+    Assert.assertEquals("/mnt/foobar",
+        mMountTable.getMountPoint(new AlluxioURI("/mnt/foobar/x")));
+    Assert.assertEquals("/", mMountTable.getMountPoint(new AlluxioURI("/mnt/fo")));
+    Assert.assertEquals("/", mMountTable.getMountPoint(new AlluxioURI("/a/b")));
+    Assert.assertEquals("/", mMountTable.getMountPoint(new AlluxioURI("/a/b/cd")));
+    Assert.assertEquals("/a/b/c", mMountTable.getMountPoint(new AlluxioURI("/a/b/c/d/e")));
+    Assert.assertEquals(new AlluxioURI("/c/d/e"),
+        mMountTable.resolve(new AlluxioURI("/a/b/c/d/e")).getUri());
+
+    Assert.assertTrue(mMountTable.delete(new AlluxioURI("/mnt/foo")));
+    Assert.assertEquals("/", mMountTable.getMountPoint(new AlluxioURI("/mnt/foo/x")));
+    Assert.assertNull(mMountTable.getMountInfo(2L));
+    mMountTable.clear();
+    Assert.assertEquals("/", mMountTable.getMountPoint(new AlluxioURI("/a/b/c/d")));
+    Assert.assertEquals(1L, mMountTable.getMountInfo(1L).getMountId());
+  }
+
   /**
    * Tests the method for getting mount info given mount id.
    */
@@ -321,4 +353,31 @@ public final class MountTableTest {
     Assert.assertEquals(info2, mMountTable.getMountInfo(info2.getMountId()));
     Assert.assertEquals(null, mMountTable.getMountInfo(3L));
   }
+
+  /**
+   * Tests that a path is resolved without its mount point when the mount point is unmounted while
+   * the path is resolved.
+   */
+  @Test
+  public void resolveConcurrentUnmount() throws Exception {
+    UfsManager ufsManager = Mockito.mock(UfsManager.class);
+    final MountTable mountTable = new MountTable(ufsManager);
+    Mockito.when(ufsManager.get(1L)).thenReturn(
+        new UfsManager.UfsClient(Suppliers.ofInstance(mTestUfs), AlluxioURI.EMPTY_URI));
+    Mockito.when(ufsManager.get(2L)).thenAnswer(new Answer<UfsClient>() {
+      @Override
+      public UfsClient answer(InvocationOnMock invocation) throws Throwable {
+        // Unmounted after the mount point was found, but before its under storage is used
+        mountTable.delete(new AlluxioURI("/mnt/foo"));
+        throw new NotFoundException("Mount id 2 not found");
+      }
+    });
+    mountTable.add(new AlluxioURI("/"), new AlluxioURI("/ufs"), 1L, mDefaultOptions);
+    mountTable.add(new AlluxioURI("/mnt/foo"), new AlluxioURI("/foo"), 2L, mDefaultOptions);
+
+    MountTable.Resolution res = mountTable.resolve(new AlluxioURI("/mnt/foo/x"));
+    Assert.assertEquals(new AlluxioURI("/ufs/mnt/foo/x"), res.getUri());
+    Assert.assertEquals(1L, res.getMountId());
+    Mockito.verify(ufsManager).removeMount(2L);
+  }
 }
@@ -0,0 +1,151 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.file.meta;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import alluxio.underfs.UfsDirectoryStatus;
+import alluxio.underfs.UfsStatus;
+import alluxio.underfs.UnderFileSystem;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for {@link UfsListingPrefetcher}.
+ */
+public final class UfsListingPrefetcherTest {
+  private static final UfsStatus[] LISTING =
+      new UfsStatus[] {new UfsDirectoryStatus("child", "owner", "group", (short) 0755)};
+
+  private ExecutorService mExecutor;
+  private UnderFileSystem mUfs;
+
+  @Before
+  public void before() throws Exception {
+    mExecutor = Executors.newFixedThreadPool(4);
+    mUfs = mock(UnderFileSystem.class);
+    when(mUfs.listStatus(anyString())).thenReturn(LISTING);
+  }
+
+  @After
+  public void after() {
+    mExecutor.shutdownNow();
+  }
+
+  /**
+   * Tests a prefetched directory is listed once.
+   */
+  @Test
+  public void prefetch() throws Exception {
+    try (UfsListingPrefetcher prefetcher = new UfsListingPrefetcher(mExecutor, 2, "/")) {
+      prefetcher.prefetch(mUfs, "/a");
+      prefetcher.prefetch(mUfs, "/b");
+      prefetcher.prefetch(mUfs, "/c");
+      Assert.assertArrayEquals(LISTING, prefetcher.listStatus(mUfs, "/a"));
+      Assert.assertArrayEquals(LISTING, prefetcher.listStatus(mUfs, "/b"));
+      Assert.assertArrayEquals(LISTING, prefetcher.listStatus(mUfs, "/c"));
+    }
+    verify(mUfs, times(1)).listStatus("/a");
+    verify(mUfs, times(1)).listStatus("/b");
+    verify(mUfs, times(1)).listStatus("/c");
+  }
+
+  /**
+   * Tests directories are listed by the calling thread when prefetching is disabled.
+   */
+  @Test
+  public void noExecutor() throws Exception {
+    try (UfsListingPrefetcher prefetcher = new UfsListingPrefetcher(null, 2, "/")) {
+      prefetcher.prefetch(mUfs, "/a");
+      verify(mUfs, times(0)).listStatus("/a");
+      Assert.assertArrayEquals(LISTING, prefetcher.listStatus(mUfs, "/a"));
+    }
+    verify(mUfs, times(1)).listStatus("/a");
+  }
+
+  /**
+   * Tests directories are listed by the calling thread once the pool is shut down.
+   */
+  @Test
+  public void executorShutdown() throws Exception {
+    mExecutor.shutdownNow();
+    try (UfsListingPrefetcher prefetcher = new UfsListingPrefetcher(mExecutor, 2, "/")) {
+      prefetcher.prefetch(mUfs, "/a");
+      Assert.assertArrayEquals(LISTING, prefetcher.listStatus(mUfs, "/a"));
+    }
+    verify(mUfs, times(1)).listStatus("/a");
+  }
+
+  /**
+   * Tests no more than the maximum number of listings are fetched ahead.
+   */
+  @Test
+  public void boundedListings() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    final AtomicInteger started = new AtomicInteger();
+    UnderFileSystem ufs = mock(UnderFileSystem.class);
+    when(ufs.listStatus(anyString())).thenAnswer(invocation -> {
+      started.incrementAndGet();
+      release.await();
+      return LISTING;
+    });
+    try (UfsListingPrefetcher prefetcher = new UfsListingPrefetcher(mExecutor, 2, "/")) {
+      for (int i = 0; i < 10; i++) {
+        prefetcher.prefetch(ufs, "/" + i);
+      }
+      // The latest requested directories are fetched first
+      while (started.get() < 2) {
+        Thread.sleep(10);
+      }
+      Thread.sleep(100);
+      Assert.assertEquals(2, started.get());
+      release.countDown();
+      for (int i = 9; i >= 0; i--) {
+        Assert.assertArrayEquals(LISTING, prefetcher.listStatus(ufs, "/" + i));
+      }
+    }
+    Assert.assertEquals(10, started.get());
+    verify(ufs, times(1)).listStatus("/9");
+    verify(ufs, times(1)).listStatus("/8");
+  }
+
+  /**
+   * Tests a failed listing is reported to the caller.
+   */
+  @Test
+  public void listingFailure() throws Exception {
+    when(mUfs.listStatus("/a")).thenThrow(new IOException("listing failed"));
+    try (UfsListingPrefetcher prefetcher = new UfsListingPrefetcher(mExecutor, 2, "/")) {
+      prefetcher.prefetch(mUfs, "/a");
+      mExecutor.shutdown();
+      mExecutor.awaitTermination(10, TimeUnit.SECONDS);
+      prefetcher.listStatus(mUfs, "/a");
+      Assert.fail("Expected the listing failure to be reported");
+    } catch (IOException e) {
+      Assert.assertEquals("listing failed", e.getMessage());
+    }
+  }
+}
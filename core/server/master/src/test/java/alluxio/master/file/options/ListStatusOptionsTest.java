@@ -27,6 +27,8 @@ public class ListStatusOptionsTest {
   public void defaults() {
     ListStatusOptions options = ListStatusOptions.defaults();
     Assert.assertEquals(LoadMetadataType.Once, options.getLoadMetadataType());
+    Assert.assertEquals("", options.getStartAfter());
+    Assert.assertEquals(0, options.getBatchSize());
   }
 
   @Test
@@ -35,14 +37,21 @@ public class ListStatusOptionsTest {
     Assert.assertEquals(LoadMetadataType.Once, options.getLoadMetadataType());
     options.setLoadMetadataType(LoadMetadataType.Always);
     Assert.assertEquals(LoadMetadataType.Always, options.getLoadMetadataType());
+    options.setStartAfter("foo").setBatchSize(10);
+    Assert.assertEquals("foo", options.getStartAfter());
+    Assert.assertEquals(10, options.getBatchSize());
   }
 
   @Test
   public void fromThrift() {
     ListStatusTOptions listStatusTOptions = new ListStatusTOptions();
     listStatusTOptions.setLoadMetadataType(LoadMetadataTType.Always);
+    listStatusTOptions.setStartAfter("foo");
+    listStatusTOptions.setBatchSize(10);
     ListStatusOptions options = new ListStatusOptions(listStatusTOptions);
     Assert.assertEquals(LoadMetadataType.Always, options.getLoadMetadataType());
+    Assert.assertEquals("foo", options.getStartAfter());
+    Assert.assertEquals(10, options.getBatchSize());
   }
 
   @Test
@@ -14,8 +14,10 @@ package alluxio.worker;
 import alluxio.Configuration;
 import alluxio.Constants;
 import alluxio.PropertyKey;
+import alluxio.RpcServerType;
 import alluxio.RuntimeConstants;
 import alluxio.ServiceUtils;
+import alluxio.ThriftServerUtils;
 import alluxio.metrics.MetricsSystem;
 import alluxio.metrics.sink.MetricsServlet;
 import alluxio.network.ChannelType;
@@ -40,7 +42,9 @@ import io.netty.channel.unix.DomainSocketAddress;
 import org.apache.thrift.TMultiplexedProcessor;
 import org.apache.thrift.TProcessor;
 import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.server.TServer;
 import org.apache.thrift.server.TThreadPoolServer;
+import org.apache.thrift.transport.TNonblockingServerSocket;
 import org.apache.thrift.transport.TServerSocket;
 import org.apache.thrift.transport.TTransportException;
 import org.apache.thrift.transport.TTransportFactory;
@@ -87,11 +91,14 @@ public final class AlluxioWorkerProcess implements WorkerProcess {
   private TransportProvider mTransportProvider;
 
   /** Thread pool for thrift. */
-  private TThreadPoolServer mThriftServer;
+  private TServer mThriftServer;
 
   /** Server socket for thrift. */
   private TServerSocket mThriftServerSocket;
 
+  /** Server socket of the non-blocking thrift server, if it is used. */
+  private TNonblockingServerSocket mNonblockingThriftServerSocket;
+
   /** The address for the rpc server. */
   private InetSocketAddress mRpcAddress;
 
@@ -284,6 +291,10 @@ public final class AlluxioWorkerProcess implements WorkerProcess {
     }
     mThriftServer.stop();
     mThriftServerSocket.close();
+    if (mNonblockingThriftServerSocket != null) {
+      mNonblockingThriftServerSocket.close();
+      mNonblockingThriftServerSocket = null;
+    }
     mUfsManager.close();
     try {
       mWebServer.stop();
@@ -300,12 +311,12 @@ public final class AlluxioWorkerProcess implements WorkerProcess {
   }
 
   /**
-   * Helper method to create a {@link org.apache.thrift.server.TThreadPoolServer} for handling
-   * incoming RPC requests.
+   * Helper method to create a thrift server for handling incoming RPC requests. This is a
+   * {@link org.apache.thrift.server.TThreadPoolServer} unless a non-blocking server is configured.
    *
    * @return a thrift server
    */
-  private TThreadPoolServer createThriftServer() {
+  private TServer createThriftServer() {
     int minWorkerThreads = Configuration.getInt(PropertyKey.WORKER_BLOCK_THREADS_MIN);
     int maxWorkerThreads = Configuration.getInt(PropertyKey.WORKER_BLOCK_THREADS_MAX);
     TMultiplexedProcessor processor = new TMultiplexedProcessor();
@@ -314,6 +325,24 @@ public final class AlluxioWorkerProcess implements WorkerProcess {
       registerServices(processor, worker.getServices());
     }
 
+    int stopTimeoutSeconds = Configuration.getBoolean(PropertyKey.TEST_MODE) ? 0
+        : Constants.THRIFT_STOP_TIMEOUT_SECONDS;
+    if (ThriftServerUtils.getServerType(PropertyKey.WORKER_RPC_SERVER_TYPE)
+        == RpcServerType.THREADED_SELECTOR) {
+      // Serve on the address the blocking socket was bound to, so the port does not change.
+      InetSocketAddress bindAddress = (InetSocketAddress) NetworkAddressUtils
+          .getThriftSocket(mThriftServerSocket).getLocalSocketAddress();
+      try {
+        mThriftServerSocket.close();
+        mNonblockingThriftServerSocket = new TNonblockingServerSocket(bindAddress);
+      } catch (TTransportException e) {
+        throw Throwables.propagate(e);
+      }
+      return ThriftServerUtils.createThreadedSelectorServer(mNonblockingThriftServerSocket,
+          processor, Configuration.getInt(PropertyKey.WORKER_RPC_SELECTOR_THREADS),
+          maxWorkerThreads, (int) TimeUnit.SECONDS.toMillis(stopTimeoutSeconds), "worker-rpc-%d");
+    }
+
     // Return a TTransportFactory based on the authentication type
     TTransportFactory tTransportFactory;
     try {
@@ -326,11 +355,7 @@ public final class AlluxioWorkerProcess implements WorkerProcess {
         .minWorkerThreads(minWorkerThreads).maxWorkerThreads(maxWorkerThreads).processor(processor)
         .transportFactory(tTransportFactory)
         .protocolFactory(new TBinaryProtocol.Factory(true, true));
-    if (Configuration.getBoolean(PropertyKey.TEST_MODE)) {
-      args.stopTimeoutVal = 0;
-    } else {
-      args.stopTimeoutVal = Constants.THRIFT_STOP_TIMEOUT_SECONDS;
-    }
+    args.stopTimeoutVal = stopTimeoutSeconds;
     return new TThreadPoolServer(args);
   }
 
@@ -25,6 +25,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -63,27 +64,30 @@ public final class BlockLockManager {
     }
   };
 
-  /** A map from block id to the read write lock used to guard that block. */
-  @GuardedBy("mSharedMapsLock")
-  private final Map<Long, ClientRWLock> mLocks = new HashMap<>();
+  /**
+   * The number of stripes of the block lock and session tables. Operations on different blocks or
+   * sessions mostly fall into different stripes and do not contend with each other.
+   */
+  private static final int NUM_STRIPES = 256;
 
-  /** A map from a session id to all the locks hold by this session. */
-  @GuardedBy("mSharedMapsLock")
-  private final Map<Long, Set<Long>> mSessionIdToLockIdsMap = new HashMap<>();
+  /** The block lock table, striped by block id. */
+  private final BlockLockStripe[] mBlockLockStripes = new BlockLockStripe[NUM_STRIPES];
 
-  /** A map from a lock id to the lock record of it. */
-  @GuardedBy("mSharedMapsLock")
-  private final Map<Long, LockRecord> mLockIdToRecordMap = new HashMap<>();
+  /** The table of lock ids held by each session, striped by session id. */
+  private final SessionStripe[] mSessionStripes = new SessionStripe[NUM_STRIPES];
 
-  /**
-   * To guard access to the maps maintained by this class.
-   */
-  private final Object mSharedMapsLock = new Object();
+  /** A map from a lock id to the lock record of it. */
+  private final ConcurrentMap<Long, LockRecord> mLockIdToRecordMap = new ConcurrentHashMap<>();
 
   /**
    * Constructs a new {@link BlockLockManager}.
    */
-  public BlockLockManager() {}
+  public BlockLockManager() {
+    for (int i = 0; i < NUM_STRIPES; i++) {
+      mBlockLockStripes[i] = new BlockLockStripe();
+      mSessionStripes[i] = new SessionStripe();
+    }
+  }
 
   /**
    * Locks a block. Note that even if this block does not exist, a lock id is still returned.
@@ -114,11 +118,14 @@ public final class BlockLockManager {
     lock.lock();
     try {
       long lockId = LOCK_ID_GEN.getAndIncrement();
-      synchronized (mSharedMapsLock) {
+      SessionStripe stripe = sessionStripe(sessionId);
+      // Both inserts happen under the session stripe, so a concurrent cleanupSession either sees
+      // the lock id in the session or runs before the record exists.
+      synchronized (stripe) {
         mLockIdToRecordMap.put(lockId, new LockRecord(sessionId, blockId, lock));
-        Set<Long> sessionLockIds = mSessionIdToLockIdsMap.get(sessionId);
+        Set<Long> sessionLockIds = stripe.mSessionIdToLockIdsMap.get(sessionId);
         if (sessionLockIds == null) {
-          mSessionIdToLockIdsMap.put(sessionId, Sets.newHashSet(lockId));
+          stripe.mSessionIdToLockIdsMap.put(sessionId, Sets.newHashSet(lockId));
         } else {
           sessionLockIds.add(lockId);
         }
@@ -137,14 +144,15 @@ public final class BlockLockManager {
    * @return whether the specified session holds a lock on the specified block
    */
   private boolean sessionHoldsLock(long sessionId, long blockId) {
-    synchronized (mSharedMapsLock) {
-      Set<Long> sessionLocks = mSessionIdToLockIdsMap.get(sessionId);
+    SessionStripe stripe = sessionStripe(sessionId);
+    synchronized (stripe) {
+      Set<Long> sessionLocks = stripe.mSessionIdToLockIdsMap.get(sessionId);
       if (sessionLocks == null) {
         return false;
       }
       for (Long lockId : sessionLocks) {
         LockRecord lockRecord = mLockIdToRecordMap.get(lockId);
-        if (lockRecord.getBlockId() == blockId) {
+        if (lockRecord != null && lockRecord.getBlockId() == blockId) {
           return true;
         }
       }
@@ -161,13 +169,14 @@ public final class BlockLockManager {
    * @return the block lock
    */
   private ClientRWLock getBlockLock(long blockId) {
-    // Loop until we either find the block lock in the mLocks map, or successfully acquire a new
+    BlockLockStripe stripe = blockLockStripe(blockId);
+    // Loop until we either find the block lock in the stripe, or successfully acquire a new
     // block lock from the lock pool.
     while (true) {
       ClientRWLock blockLock;
       // Check whether a lock has already been allocated for the block id.
-      synchronized (mSharedMapsLock) {
-        blockLock = mLocks.get(blockId);
+      synchronized (stripe) {
+        blockLock = stripe.mLocks.get(blockId);
         if (blockLock != null) {
           blockLock.addReference();
           return blockLock;
@@ -179,13 +188,13 @@ public final class BlockLockManager {
       // allocated to another thread, in which case we could just use that lock.
       blockLock = mLockPool.acquire(1, TimeUnit.SECONDS);
       if (blockLock != null) {
-        synchronized (mSharedMapsLock) {
+        synchronized (stripe) {
           // Check if someone else acquired a block lock for blockId while we were acquiring one.
-          if (mLocks.containsKey(blockId)) {
+          if (stripe.mLocks.containsKey(blockId)) {
             mLockPool.release(blockLock);
-            blockLock = mLocks.get(blockId);
+            blockLock = stripe.mLocks.get(blockId);
           } else {
-            mLocks.put(blockId, blockLock);
+            stripe.mLocks.put(blockId, blockLock);
           }
           blockLock.addReference();
           return blockLock;
@@ -201,23 +210,13 @@ public final class BlockLockManager {
    * @return whether the lock corresponding the lock ID has been successfully unlocked
    */
   public boolean unlockBlockNoException(long lockId) {
-    Lock lock;
-    LockRecord record;
-    synchronized (mSharedMapsLock) {
-      record = mLockIdToRecordMap.get(lockId);
-      if (record == null) {
-        return false;
-      }
-      long sessionId = record.getSessionId();
-      lock = record.getLock();
-      mLockIdToRecordMap.remove(lockId);
-      Set<Long> sessionLockIds = mSessionIdToLockIdsMap.get(sessionId);
-      sessionLockIds.remove(lockId);
-      if (sessionLockIds.isEmpty()) {
-        mSessionIdToLockIdsMap.remove(sessionId);
-      }
+    // Removing the record first makes sure only one caller releases the lock.
+    LockRecord record = mLockIdToRecordMap.remove(lockId);
+    if (record == null) {
+      return false;
     }
-    unlock(lock, record.getBlockId());
+    removeSessionLockId(record.getSessionId(), lockId);
+    unlock(record.getLock(), record.getBlockId());
     return true;
   }
 
@@ -243,30 +242,33 @@ public final class BlockLockManager {
    */
   // TODO(bin): Temporary, remove me later.
   public boolean unlockBlock(long sessionId, long blockId) {
-    synchronized (mSharedMapsLock) {
-      Set<Long> sessionLockIds = mSessionIdToLockIdsMap.get(sessionId);
+    LockRecord record = null;
+    SessionStripe stripe = sessionStripe(sessionId);
+    synchronized (stripe) {
+      Set<Long> sessionLockIds = stripe.mSessionIdToLockIdsMap.get(sessionId);
       if (sessionLockIds == null) {
         return false;
       }
-      for (long lockId : sessionLockIds) {
-        LockRecord record = mLockIdToRecordMap.get(lockId);
-        if (record == null) {
-          // TODO(peis): Should this be a check failure?
-          return false;
-        }
-        if (blockId == record.getBlockId()) {
-          mLockIdToRecordMap.remove(lockId);
-          sessionLockIds.remove(lockId);
-          if (sessionLockIds.isEmpty()) {
-            mSessionIdToLockIdsMap.remove(sessionId);
-          }
-          Lock lock = record.getLock();
-          unlock(lock, blockId);
-          return true;
+      Iterator<Long> iterator = sessionLockIds.iterator();
+      while (iterator.hasNext()) {
+        long lockId = iterator.next();
+        LockRecord candidate = mLockIdToRecordMap.get(lockId);
+        if (candidate != null && blockId == candidate.getBlockId()
+            && mLockIdToRecordMap.remove(lockId, candidate)) {
+          iterator.remove();
+          record = candidate;
+          break;
         }
       }
+      if (sessionLockIds.isEmpty()) {
+        stripe.mSessionIdToLockIdsMap.remove(sessionId);
+      }
+    }
+    if (record == null) {
       return false;
     }
+    unlock(record.getLock(), blockId);
+    return true;
   }
 
   /**
@@ -281,20 +283,18 @@ public final class BlockLockManager {
    */
   public void validateLock(long sessionId, long blockId, long lockId)
       throws BlockDoesNotExistException, InvalidWorkerStateException {
-    synchronized (mSharedMapsLock) {
-      LockRecord record = mLockIdToRecordMap.get(lockId);
-      if (record == null) {
-        throw new BlockDoesNotExistException(ExceptionMessage.LOCK_RECORD_NOT_FOUND_FOR_LOCK_ID,
-            lockId);
-      }
-      if (sessionId != record.getSessionId()) {
-        throw new InvalidWorkerStateException(ExceptionMessage.LOCK_ID_FOR_DIFFERENT_SESSION,
-            lockId, record.getSessionId(), sessionId);
-      }
-      if (blockId != record.getBlockId()) {
-        throw new InvalidWorkerStateException(ExceptionMessage.LOCK_ID_FOR_DIFFERENT_BLOCK, lockId,
-            record.getBlockId(), blockId);
-      }
+    LockRecord record = mLockIdToRecordMap.get(lockId);
+    if (record == null) {
+      throw new BlockDoesNotExistException(ExceptionMessage.LOCK_RECORD_NOT_FOUND_FOR_LOCK_ID,
+          lockId);
+    }
+    if (sessionId != record.getSessionId()) {
+      throw new InvalidWorkerStateException(ExceptionMessage.LOCK_ID_FOR_DIFFERENT_SESSION,
+          lockId, record.getSessionId(), sessionId);
+    }
+    if (blockId != record.getBlockId()) {
+      throw new InvalidWorkerStateException(ExceptionMessage.LOCK_ID_FOR_DIFFERENT_BLOCK, lockId,
+          record.getBlockId(), blockId);
     }
   }
 
@@ -304,22 +304,20 @@ public final class BlockLockManager {
    * @param sessionId the id of the session to cleanup
    */
   public void cleanupSession(long sessionId) {
-    synchronized (mSharedMapsLock) {
-      Set<Long> sessionLockIds = mSessionIdToLockIdsMap.get(sessionId);
-      if (sessionLockIds == null) {
-        return;
-      }
-      for (long lockId : sessionLockIds) {
-        LockRecord record = mLockIdToRecordMap.get(lockId);
-        if (record == null) {
-          LOG.error(ExceptionMessage.LOCK_RECORD_NOT_FOUND_FOR_LOCK_ID.getMessage(lockId));
-          continue;
-        }
-        Lock lock = record.getLock();
-        unlock(lock, record.getBlockId());
-        mLockIdToRecordMap.remove(lockId);
+    Set<Long> sessionLockIds;
+    SessionStripe stripe = sessionStripe(sessionId);
+    synchronized (stripe) {
+      sessionLockIds = stripe.mSessionIdToLockIdsMap.remove(sessionId);
+    }
+    if (sessionLockIds == null) {
+      return;
+    }
+    for (long lockId : sessionLockIds) {
+      // The record is gone if the lock was released concurrently.
+      LockRecord record = mLockIdToRecordMap.remove(lockId);
+      if (record != null) {
+        unlock(record.getLock(), record.getBlockId());
       }
-      mSessionIdToLockIdsMap.remove(sessionId);
     }
   }
 
@@ -329,12 +327,30 @@ public final class BlockLockManager {
    * @return a set of locked blocks
    */
   public Set<Long> getLockedBlocks() {
-    synchronized (mSharedMapsLock) {
-      Set<Long> set = new HashSet<>();
-      for (LockRecord lockRecord : mLockIdToRecordMap.values()) {
-        set.add(lockRecord.getBlockId());
+    Set<Long> set = new HashSet<>();
+    for (LockRecord lockRecord : mLockIdToRecordMap.values()) {
+      set.add(lockRecord.getBlockId());
+    }
+    return set;
+  }
+
+  /**
+   * Removes a lock id from the lock ids held by a session.
+   *
+   * @param sessionId the session id
+   * @param lockId the lock id to remove
+   */
+  private void removeSessionLockId(long sessionId, long lockId) {
+    SessionStripe stripe = sessionStripe(sessionId);
+    synchronized (stripe) {
+      Set<Long> sessionLockIds = stripe.mSessionIdToLockIdsMap.get(sessionId);
+      // The lock ids are gone if the session is being cleaned up concurrently.
+      if (sessionLockIds != null) {
+        sessionLockIds.remove(lockId);
+        if (sessionLockIds.isEmpty()) {
+          stripe.mSessionIdToLockIdsMap.remove(sessionId);
+        }
       }
-      return set;
     }
   }
 
@@ -357,62 +373,97 @@ public final class BlockLockManager {
    * @param blockId the block id for which to potentially release the block lock
    */
   private void releaseBlockLockIfUnused(long blockId) {
-    synchronized (mSharedMapsLock) {
-      ClientRWLock lock = mLocks.get(blockId);
+    BlockLockStripe stripe = blockLockStripe(blockId);
+    synchronized (stripe) {
+      ClientRWLock lock = stripe.mLocks.get(blockId);
       if (lock == null) {
         // Someone else probably released the block lock already.
         return;
       }
       // If we were the last worker with a reference to the lock, clean it up.
       if (lock.dropReference() == 0) {
-        mLocks.remove(blockId);
+        stripe.mLocks.remove(blockId);
         mLockPool.release(lock);
       }
     }
   }
 
+  private BlockLockStripe blockLockStripe(long blockId) {
+    return mBlockLockStripes[Long.hashCode(blockId) & (NUM_STRIPES - 1)];
+  }
+
+  private SessionStripe sessionStripe(long sessionId) {
+    return mSessionStripes[Long.hashCode(sessionId) & (NUM_STRIPES - 1)];
+  }
+
   /**
    * Checks the internal state of the manager to make sure invariants hold.
    *
-   * This method is intended for testing purposes. A runtime exception will be thrown if invalid
-   * state is encountered.
+   * This method is intended for testing purposes, and must only be called while no other thread
+   * is using the manager. A runtime exception will be thrown if invalid state is encountered.
    */
   public void validate() {
-    synchronized (mSharedMapsLock) {
-      // Compute block lock reference counts based off of lock records
-      ConcurrentMap<Long, AtomicInteger> blockLockReferenceCounts = new ConcurrentHashMap<>();
-      for (LockRecord record : mLockIdToRecordMap.values()) {
-        blockLockReferenceCounts.putIfAbsent(record.getBlockId(), new AtomicInteger(0));
-        blockLockReferenceCounts.get(record.getBlockId()).incrementAndGet();
-      }
+    // Compute block lock reference counts based off of lock records
+    ConcurrentMap<Long, AtomicInteger> blockLockReferenceCounts = new ConcurrentHashMap<>();
+    for (LockRecord record : mLockIdToRecordMap.values()) {
+      blockLockReferenceCounts.putIfAbsent(record.getBlockId(), new AtomicInteger(0));
+      blockLockReferenceCounts.get(record.getBlockId()).incrementAndGet();
+    }
 
-      // Check that the reference count for each block lock matches the lock record counts.
-      for (Entry<Long, ClientRWLock> entry : mLocks.entrySet()) {
-        long blockId = entry.getKey();
-        ClientRWLock lock = entry.getValue();
-        Integer recordCount = blockLockReferenceCounts.get(blockId).get();
-        Integer referenceCount = lock.getReferenceCount();
-        if (!Objects.equal(recordCount, referenceCount)) {
-          throw new IllegalStateException("There are " + recordCount + " lock records for block"
-              + " id " + blockId + ", but the reference count is " + referenceCount);
+    // Check that the reference count for each block lock matches the lock record counts.
+    for (BlockLockStripe stripe : mBlockLockStripes) {
+      synchronized (stripe) {
+        for (Entry<Long, ClientRWLock> entry : stripe.mLocks.entrySet()) {
+          long blockId = entry.getKey();
+          ClientRWLock lock = entry.getValue();
+          Integer recordCount = blockLockReferenceCounts.get(blockId).get();
+          Integer referenceCount = lock.getReferenceCount();
+          if (!Objects.equal(recordCount, referenceCount)) {
+            throw new IllegalStateException("There are " + recordCount + " lock records for block"
+                + " id " + blockId + ", but the reference count is " + referenceCount);
+          }
         }
       }
+    }
 
-      // Check that if a lock id is mapped to by a session id, the lock record for that lock id
-      // contains that session id.
-      for (Entry<Long, Set<Long>> entry : mSessionIdToLockIdsMap.entrySet()) {
-        for (Long lockId : entry.getValue()) {
-          LockRecord record = mLockIdToRecordMap.get(lockId);
-          if (record.getSessionId() != entry.getKey()) {
-            throw new IllegalStateException("The session id map contains lock id " + lockId
-                + "under session id " + entry.getKey() + ", but the record for that lock id ("
-                + record + ")" + " doesn't contain that session id");
+    // Check that if a lock id is mapped to by a session id, the lock record for that lock id
+    // contains that session id.
+    for (SessionStripe stripe : mSessionStripes) {
+      synchronized (stripe) {
+        for (Entry<Long, Set<Long>> entry : stripe.mSessionIdToLockIdsMap.entrySet()) {
+          for (Long lockId : entry.getValue()) {
+            LockRecord record = mLockIdToRecordMap.get(lockId);
+            if (record.getSessionId() != entry.getKey()) {
+              throw new IllegalStateException("The session id map contains lock id " + lockId
+                  + "under session id " + entry.getKey() + ", but the record for that lock id ("
+                  + record + ")" + " doesn't contain that session id");
+            }
           }
         }
       }
     }
   }
 
+  /**
+   * A stripe of the block lock table.
+   */
+  @ThreadSafe
+  private static final class BlockLockStripe {
+    /** A map from block id to the read write lock used to guard that block. */
+    @GuardedBy("this")
+    private final Map<Long, ClientRWLock> mLocks = new HashMap<>();
+  }
+
+  /**
+   * A stripe of the session table.
+   */
+  @ThreadSafe
+  private static final class SessionStripe {
+    /** A map from a session id to all the locks hold by this session. */
+    @GuardedBy("this")
+    private final Map<Long, Set<Long>> mSessionIdToLockIdsMap = new HashMap<>();
+  }
+
   /**
    * Inner class to keep record of a lock.
    */
@@ -12,8 +12,11 @@
 package alluxio.worker.block;
 
 import alluxio.AbstractMasterClient;
+import alluxio.Configuration;
 import alluxio.Constants;
+import alluxio.PropertyKey;
 import alluxio.master.MasterClientConfig;
+import alluxio.master.block.BlockReportCodec;
 import alluxio.thrift.AlluxioService;
 import alluxio.thrift.BlockHeartbeatTOptions;
 import alluxio.thrift.BlockMasterWorkerService;
@@ -21,12 +24,17 @@ import alluxio.thrift.Command;
 import alluxio.thrift.CommitBlockTOptions;
 import alluxio.thrift.GetWorkerIdTOptions;
 import alluxio.thrift.RegisterWorkerTOptions;
+import alluxio.util.IdUtils;
 import alluxio.wire.ThriftUtils;
 import alluxio.wire.WorkerNetAddress;
 
+import com.google.common.primitives.Longs;
 import org.apache.thrift.TException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -40,6 +48,8 @@ import javax.annotation.concurrent.ThreadSafe;
  */
 @ThreadSafe
 public final class BlockMasterClient extends AbstractMasterClient {
+  private static final Logger LOG = LoggerFactory.getLogger(BlockMasterClient.class);
+
   private BlockMasterWorkerService.Client mClient = null;
 
   /**
@@ -136,19 +146,66 @@ public final class BlockMasterClient extends AbstractMasterClient {
    * @param storageTierAliases a list of storage tier aliases in ordinal order
    * @param totalBytesOnTiers mapping from storage tier alias to total bytes
    * @param usedBytesOnTiers mapping from storage tier alias to used bytes
-   * @param currentBlocksOnTiers mapping from storage tier alias to the list of list of blocks
+   * @param currentBlocksOnTiers mapping from storage tier alias to the ids of the blocks
    */
   // TODO(yupeng): rename to workerBlockReport or workerInitialize?
   public synchronized void register(final long workerId, final List<String> storageTierAliases,
       final Map<String, Long> totalBytesOnTiers, final Map<String, Long> usedBytesOnTiers,
-      final Map<String, List<Long>> currentBlocksOnTiers) throws IOException {
+      final Map<String, long[]> currentBlocksOnTiers) throws IOException {
+    int chunkSize = Configuration.getInt(PropertyKey.WORKER_BLOCK_REPORT_CHUNK_SIZE);
+    if (chunkSize > 0 && registerInChunks(workerId, storageTierAliases, totalBytesOnTiers,
+        usedBytesOnTiers, currentBlocksOnTiers, chunkSize)) {
+      return;
+    }
+    final Map<String, List<Long>> blockLists = new HashMap<>();
+    for (Map.Entry<String, long[]> entry : currentBlocksOnTiers.entrySet()) {
+      blockLists.put(entry.getKey(), Longs.asList(entry.getValue()));
+    }
     retryRPC(new RpcCallable<Void>() {
       @Override
       public Void call() throws TException {
-        mClient.registerWorker(workerId, storageTierAliases, totalBytesOnTiers, usedBytesOnTiers,
-            currentBlocksOnTiers, new RegisterWorkerTOptions());
+        mClient.registerWorker(workerId, storageTierAliases, totalBytesOnTiers,
+            usedBytesOnTiers, blockLists, new RegisterWorkerTOptions());
         return null;
       }
     });
   }
+
+  /**
+   * Sends the blocks as a compact block report in chunks, so neither side has to hold the whole
+   * report as a thrift list of boxed ids.
+   *
+   * Masters without chunked block reports ignore the chunk, and register the worker without any
+   * blocks. They do not accept the chunk in their response, in which case the caller has to
+   * register the worker again with the blocks as thrift lists.
+   *
+   * @return whether the master accepted every chunk of the block report
+   */
+  private boolean registerInChunks(final long workerId, final List<String> storageTierAliases,
+      final Map<String, Long> totalBytesOnTiers, final Map<String, Long> usedBytesOnTiers,
+      Map<String, long[]> currentBlocksOnTiers, int chunkSize) throws IOException {
+    final Map<String, List<Long>> noBlocks = new HashMap<>();
+    long blockReportId = IdUtils.getRandomNonNegativeLong();
+    List<byte[]> chunks = BlockReportCodec.encode(currentBlocksOnTiers, chunkSize);
+    for (int i = 0; i < chunks.size(); i++) {
+      final RegisterWorkerTOptions options = new RegisterWorkerTOptions()
+          .setBlockReportId(blockReportId).setBlockReportChunk(chunks.get(i)).setChunkIndex(i)
+          .setLastChunk(i == chunks.size() - 1);
+      chunks.set(i, null);
+      boolean accepted = retryRPC(new RpcCallable<Boolean>() {
+        @Override
+        public Boolean call() throws TException {
+          return mClient.registerWorker(workerId, storageTierAliases, totalBytesOnTiers,
+              usedBytesOnTiers, noBlocks, options).isChunkAccepted();
+        }
+      });
+      if (!accepted) {
+        // Also covers a failover to an older master in the middle of the report.
+        LOG.warn("Block master does not accept chunked block reports, registering workerId {} "
+            + "with a single block report", workerId);
+        return false;
+      }
+    }
+    return true;
+  }
 }
@@ -459,4 +459,18 @@ public final class BlockMetadataManager {
     StorageDir dir = tempBlockMeta.getParentDir();
     dir.resizeTempBlockMeta(tempBlockMeta, newSize);
   }
+
+  /**
+   * Grows a temp block only if its parent dir has enough available space.
+   *
+   * @param tempBlockMeta the temp block to modify
+   * @param newSize new size in bytes
+   * @return true if the temp block was resized, false if there was not enough space
+   * @throws InvalidWorkerStateException when newSize is smaller than current size
+   */
+  public boolean tryResizeTempBlockMeta(TempBlockMeta tempBlockMeta, long newSize)
+      throws InvalidWorkerStateException {
+    StorageDir dir = tempBlockMeta.getParentDir();
+    return dir.tryResizeTempBlockMeta(tempBlockMeta, newSize);
+  }
 }
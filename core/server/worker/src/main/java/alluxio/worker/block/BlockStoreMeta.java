@@ -58,6 +58,14 @@ public interface BlockStoreMeta {
    */
   Map<String, List<Long>> getBlockList();
 
+  /**
+   * Note: This is only available in {@link BlockStoreMeta.Factory#createFull}. Unlike
+   * {@link #getBlockList()}, the ids are kept as primitives, which matters for large stores.
+   *
+   * @return a mapping from storage tier alias to the ids of the blocks on the tier
+   */
+  Map<String, long[]> getBlockIdsOnTiers();
+
   /**
    * @return the capacity in bytes
    */
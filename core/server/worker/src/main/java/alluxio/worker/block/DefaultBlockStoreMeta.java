@@ -16,6 +16,7 @@ import alluxio.worker.block.meta.StorageDir;
 import alluxio.worker.block.meta.StorageTier;
 
 import com.google.common.base.Preconditions;
+import com.google.common.primitives.Longs;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -42,8 +43,8 @@ public final class DefaultBlockStoreMeta implements BlockStoreMeta {
   /** Mapping from storage tier alias to used bytes. */
   private final Map<String, Long> mUsedBytesOnTiers = new HashMap<>();
 
-  /** Mapping from storage tier alias to capacity bytes. */
-  private final Map<String, List<Long>> mBlockIdsOnTiers;
+  /** Mapping from storage tier alias to the ids of the blocks on the tier. */
+  private final Map<String, long[]> mBlockIdsOnTiers;
 
   /** Mapping from storage dir tier and path to total capacity. */
   private final Map<Pair<String, String>, Long> mCapacityBytesOnDirs = new HashMap<>();
@@ -55,6 +56,17 @@ public final class DefaultBlockStoreMeta implements BlockStoreMeta {
   public Map<String, List<Long>> getBlockList() {
     Preconditions.checkNotNull(mBlockIdsOnTiers, "mBlockIdsOnTiers");
 
+    Map<String, List<Long>> blockList = new HashMap<>();
+    for (Map.Entry<String, long[]> entry : mBlockIdsOnTiers.entrySet()) {
+      blockList.put(entry.getKey(), Longs.asList(entry.getValue()));
+    }
+    return blockList;
+  }
+
+  @Override
+  public Map<String, long[]> getBlockIdsOnTiers() {
+    Preconditions.checkNotNull(mBlockIdsOnTiers, "mBlockIdsOnTiers");
+
     return mBlockIdsOnTiers;
   }
 
@@ -95,8 +107,8 @@ public final class DefaultBlockStoreMeta implements BlockStoreMeta {
     Preconditions.checkNotNull(mBlockIdsOnTiers, "mBlockIdsOnTiers");
 
     int numberOfBlocks = 0;
-    for (List<Long> blockIds : mBlockIdsOnTiers.values()) {
-      numberOfBlocks += blockIds.size();
+    for (long[] blockIds : mBlockIdsOnTiers.values()) {
+      numberOfBlocks += blockIds.length;
     }
     return numberOfBlocks;
   }
@@ -146,16 +158,13 @@ public final class DefaultBlockStoreMeta implements BlockStoreMeta {
     if (shouldIncludeBlockIds) {
       mBlockIdsOnTiers = new HashMap<>();
       for (StorageTier tier : manager.getTiers()) {
+        List<Long> blockIds = new ArrayList<>();
         for (StorageDir dir : tier.getStorageDirs()) {
-          List<Long> blockIds;
-          if (mBlockIdsOnTiers.containsKey(tier.getTierAlias())) {
-            blockIds = mBlockIdsOnTiers.get(tier.getTierAlias());
-          } else {
-            blockIds = new ArrayList<>();
-            mBlockIdsOnTiers.put(tier.getTierAlias(), blockIds);
-          }
           blockIds.addAll(dir.getBlockIds());
         }
+        long[] previous = mBlockIdsOnTiers.get(tier.getTierAlias());
+        mBlockIdsOnTiers.put(tier.getTierAlias(), previous == null ? Longs.toArray(blockIds)
+            : Longs.concat(previous, Longs.toArray(blockIds)));
       }
     } else {
       mBlockIdsOnTiers = null;
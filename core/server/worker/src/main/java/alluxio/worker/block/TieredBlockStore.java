@@ -36,7 +36,9 @@ import alluxio.worker.block.io.BlockWriter;
 import alluxio.worker.block.io.LocalFileBlockReader;
 import alluxio.worker.block.io.LocalFileBlockWriter;
 import alluxio.worker.block.meta.BlockMeta;
+import alluxio.worker.block.meta.StorageDir;
 import alluxio.worker.block.meta.StorageDirView;
+import alluxio.worker.block.meta.StorageTier;
 import alluxio.worker.block.meta.TempBlockMeta;
 
 import com.google.common.base.Preconditions;
@@ -55,6 +57,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import javax.annotation.concurrent.NotThreadSafe;
@@ -76,13 +79,22 @@ import javax.annotation.concurrent.NotThreadSafe;
  * and guarded by {@link TieredBlockStore#mMetadataLock}. This is also a read/write lock and
  * coordinates different threads (clients) when accessing the shared data structure for metadata.
  * </li>
+ * <li>Operations updating the metadata of storage dirs (e.g., create, commit, abort, move or
+ * remove a block) only hold the metadata read lock, plus the locks in
+ * {@link TieredBlockStore#mDirLocks} of the dirs they update. Operations on different dirs thus
+ * proceed in parallel. A move locks its source and destination dirs from the top tier down. New
+ * blocks are allocated one at a time while holding the monitor of the allocator.</li>
  * <li>Method {@link #createBlock} does not acquire the block lock, because it only creates a
  * temp block which is only visible to its writer before committed (thus no concurrent access).</li>
  * <li>Method {@link #abortBlock(long, long)} does not acquire the block lock, because only
  * temporary blocks can be aborted, and they are only visible to their writers (thus no concurrent
  * access).
- * <li>Eviction is done in {@link #freeSpaceInternal} and it is on the basis of best effort. For
- * operations that may trigger this eviction (e.g., move, create, requestSpace), retry is used</li>
+ * <li>Method {@link #requestSpace} reserves space in the parent dir of the temp block with the
+ * lock of that dir, so writers to different dirs request space in parallel.</li>
+ * <li>Eviction is done in {@link #freeSpaceInternal} and it is on the basis of best effort. The
+ * eviction plan is made with the metadata write lock, so that it sees a consistent view of all
+ * dirs. For operations that may trigger this eviction (e.g., move, create, requestSpace), retry is
+ * used</li>
  * </ul>
  */
 @NotThreadSafe // TODO(jiri): make thread-safe (c.f. ALLUXIO-1624)
@@ -117,6 +129,9 @@ public class TieredBlockStore implements BlockStore {
   /** WriteLock provided by {@link #mMetadataLock} to guard metadata write operations. */
   private final Lock mMetadataWriteLock = mMetadataLock.writeLock();
 
+  /** Locks to guard the metadata updates of each storage dir, with the metadata read lock. */
+  private final Map<StorageDir, Lock> mDirLocks = new HashMap<>();
+
   /** Association between storage tier aliases and ordinals. */
   private final StorageTierAssoc mStorageTierAssoc;
 
@@ -126,6 +141,11 @@ public class TieredBlockStore implements BlockStore {
   public TieredBlockStore() {
     mMetaManager = BlockMetadataManager.createBlockMetadataManager();
     mLockManager = new BlockLockManager();
+    for (StorageTier tier : mMetaManager.getTiers()) {
+      for (StorageDir dir : tier.getStorageDirs()) {
+        mDirLocks.put(dir, new ReentrantLock());
+      }
+    }
 
     BlockMetadataManagerView initManagerView = new BlockMetadataManagerView(mMetaManager,
         Collections.<Long>emptySet(), Collections.<Long>emptySet());
@@ -474,6 +494,32 @@ public class TieredBlockStore implements BlockStore {
     }
   }
 
+  /**
+   * @param dir the storage dir
+   * @return the lock guarding the metadata updates of the dir
+   */
+  private Lock getDirLock(StorageDir dir) {
+    return mDirLocks.get(dir);
+  }
+
+  /**
+   * Gets the locks of two different storage dirs in the order they must be acquired, which is from
+   * the top tier down, and by dir index within a tier.
+   *
+   * @param dir1 a storage dir
+   * @param dir2 another storage dir
+   * @return the lock to acquire first and the lock to acquire second
+   */
+  private Pair<Lock, Lock> getDirLocks(StorageDir dir1, StorageDir dir2) {
+    int tierOrdinal1 = dir1.getParentTier().getTierOrdinal();
+    int tierOrdinal2 = dir2.getParentTier().getTierOrdinal();
+    if (tierOrdinal1 < tierOrdinal2
+        || (tierOrdinal1 == tierOrdinal2 && dir1.getDirIndex() < dir2.getDirIndex())) {
+      return new Pair<>(getDirLock(dir1), getDirLock(dir2));
+    }
+    return new Pair<>(getDirLock(dir2), getDirLock(dir1));
+  }
+
   /**
    * Checks if a block id is available for a new temp block. This method must be enclosed by
    * {@link #mMetadataLock}.
@@ -537,7 +583,8 @@ public class TieredBlockStore implements BlockStore {
     // we do not lock it.
     Files.delete(Paths.get(path));
 
-    try (LockResource r = new LockResource(mMetadataWriteLock)) {
+    try (LockResource r = new LockResource(mMetadataReadLock);
+        LockResource dirLock = new LockResource(getDirLock(tempBlockMeta.getParentDir()))) {
       mMetaManager.abortTempBlockMeta(tempBlockMeta);
     } catch (BlockDoesNotExistException e) {
       throw Throwables.propagate(e); // We shall never reach here
@@ -577,7 +624,8 @@ public class TieredBlockStore implements BlockStore {
       // Heavy IO is guarded by block lock but not metadata lock. This may throw IOException.
       FileUtils.move(srcPath, dstPath);
 
-      try (LockResource r = new LockResource(mMetadataWriteLock)) {
+      try (LockResource r = new LockResource(mMetadataReadLock);
+          LockResource dirLock = new LockResource(getDirLock(tempBlockMeta.getParentDir()))) {
         mMetaManager.commitTempBlockMeta(tempBlockMeta);
       } catch (BlockAlreadyExistsException | BlockDoesNotExistException
           | WorkerOutOfSpaceException e) {
@@ -607,30 +655,37 @@ public class TieredBlockStore implements BlockStore {
           throws BlockAlreadyExistsException {
     // NOTE: a temp block is supposed to be visible for its own writer, unnecessary to acquire
     // block lock here since no sharing
-    try (LockResource r = new LockResource(mMetadataWriteLock)) {
-      if (newBlock) {
-        checkTempBlockIdAvailable(blockId);
-      }
-      StorageDirView dirView =
-          mAllocator.allocateBlockWithView(sessionId, initialBlockSize, location, getUpdatedView());
-      if (dirView == null) {
-        // Allocator fails to find a proper place for this new block.
-        return null;
-      }
-      // TODO(carson): Add tempBlock to corresponding storageDir and remove the use of
-      // StorageDirView.createTempBlockMeta.
-      TempBlockMeta tempBlock = dirView.createTempBlockMeta(sessionId, blockId, initialBlockSize);
-      try {
-        // Add allocated temp block to metadata manager. This should never fail if allocator
-        // correctly assigns a StorageDir.
-        mMetaManager.addTempBlockMeta(tempBlock);
-      } catch (WorkerOutOfSpaceException | BlockAlreadyExistsException e) {
-        // If we reach here, allocator is not working properly
-        LOG.error("Unexpected failure: {} bytes allocated at {} by allocator, "
-            + "but addTempBlockMeta failed", initialBlockSize, location);
-        throw Throwables.propagate(e);
+    // Blocks are allocated one at a time, so that the allocator state is not shared and a new
+    // block id is checked and added atomically.
+    try (LockResource r = new LockResource(mMetadataReadLock)) {
+      synchronized (mAllocator) {
+        if (newBlock) {
+          checkTempBlockIdAvailable(blockId);
+        }
+        StorageDirView dirView = mAllocator.allocateBlockWithView(sessionId, initialBlockSize,
+            location, getUpdatedView());
+        if (dirView == null) {
+          // Allocator fails to find a proper place for this new block.
+          return null;
+        }
+        // TODO(carson): Add tempBlock to corresponding storageDir and remove the use of
+        // StorageDirView.createTempBlockMeta.
+        TempBlockMeta tempBlock = dirView.createTempBlockMeta(sessionId, blockId, initialBlockSize);
+        try (LockResource dirLock = new LockResource(getDirLock(tempBlock.getParentDir()))) {
+          mMetaManager.addTempBlockMeta(tempBlock);
+        } catch (WorkerOutOfSpaceException e) {
+          // Other writers requested space in the assigned dir since the allocation.
+          LOG.debug("Failed to add {} bytes allocated at {} for block {}", initialBlockSize,
+              tempBlock.getBlockLocation(), blockId);
+          return null;
+        } catch (BlockAlreadyExistsException e) {
+          // If we reach here, allocator is not working properly
+          LOG.error("Unexpected failure: {} bytes allocated at {} by allocator, "
+              + "but addTempBlockMeta failed", initialBlockSize, location);
+          throw Throwables.propagate(e);
+        }
+        return tempBlock;
       }
-      return tempBlock;
     }
   }
 
@@ -648,18 +703,19 @@ public class TieredBlockStore implements BlockStore {
       throws BlockDoesNotExistException {
     // NOTE: a temp block is supposed to be visible for its own writer, unnecessary to acquire
     // block lock here since no sharing
-    try (LockResource r = new LockResource(mMetadataWriteLock)) {
+    try (LockResource r = new LockResource(mMetadataReadLock)) {
       TempBlockMeta tempBlockMeta = mMetaManager.getTempBlockMeta(blockId);
-      if (tempBlockMeta.getParentDir().getAvailableBytes() < additionalBytes) {
-        return new Pair<>(false, tempBlockMeta.getBlockLocation());
-      }
       // Increase the size of this temp block
-      try {
-        mMetaManager.resizeTempBlockMeta(tempBlockMeta,
+      boolean resized;
+      try (LockResource dirLock = new LockResource(getDirLock(tempBlockMeta.getParentDir()))) {
+        resized = mMetaManager.tryResizeTempBlockMeta(tempBlockMeta,
             tempBlockMeta.getBlockSize() + additionalBytes);
       } catch (InvalidWorkerStateException e) {
         throw Throwables.propagate(e); // we shall never reach here
       }
+      if (!resized) {
+        return new Pair<>(false, tempBlockMeta.getBlockLocation());
+      }
       return new Pair<>(true, null);
     }
   }
@@ -676,7 +732,8 @@ public class TieredBlockStore implements BlockStore {
   private void freeSpaceInternal(long sessionId, long availableBytes, BlockStoreLocation location)
       throws WorkerOutOfSpaceException, IOException {
     EvictionPlan plan;
-    try (LockResource r = new LockResource(mMetadataReadLock)) {
+    // The write lock keeps the dirs from being updated while the plan is made
+    try (LockResource r = new LockResource(mMetadataWriteLock)) {
       plan = mEvictor.freeSpaceWithView(availableBytes, location, getUpdatedView());
       // Absent plan means failed to evict enough space.
       if (plan == null) {
@@ -818,7 +875,10 @@ public class TieredBlockStore implements BlockStore {
       // When the dstLocation belongs to srcLocation, simply abort the tempBlockMeta just created
       // internally from the newLocation and return success with specific block location.
       if (dstLocation.belongsTo(srcLocation)) {
-        mMetaManager.abortTempBlockMeta(dstTempBlock);
+        try (LockResource r = new LockResource(mMetadataReadLock);
+            LockResource dirLock = new LockResource(getDirLock(dstTempBlock.getParentDir()))) {
+          mMetaManager.abortTempBlockMeta(dstTempBlock);
+        }
         return new MoveBlockResult(true, blockSize, srcLocation, dstLocation);
       }
       dstFilePath = dstTempBlock.getCommitPath();
@@ -826,7 +886,11 @@ public class TieredBlockStore implements BlockStore {
       // Heavy IO is guarded by block lock but not metadata lock. This may throw IOException.
       FileUtils.move(srcFilePath, dstFilePath);
 
-      try (LockResource r = new LockResource(mMetadataWriteLock)) {
+      Pair<Lock, Lock> dirLocks =
+          getDirLocks(srcBlockMeta.getParentDir(), dstTempBlock.getParentDir());
+      try (LockResource r = new LockResource(mMetadataReadLock);
+          LockResource firstDirLock = new LockResource(dirLocks.getFirst());
+          LockResource secondDirLock = new LockResource(dirLocks.getSecond())) {
         // If this metadata update fails, we panic for now.
         // TODO(bin): Implement rollback scheme to recover from IO failures.
         mMetaManager.moveBlockMeta(srcBlockMeta, dstTempBlock);
@@ -873,7 +937,8 @@ public class TieredBlockStore implements BlockStore {
       // Heavy IO is guarded by block lock but not metadata lock. This may throw IOException.
       Files.delete(Paths.get(filePath));
 
-      try (LockResource r = new LockResource(mMetadataWriteLock)) {
+      try (LockResource r = new LockResource(mMetadataReadLock);
+          LockResource dirLock = new LockResource(getDirLock(blockMeta.getParentDir()))) {
         mMetaManager.removeBlockMeta(blockMeta);
       } catch (BlockDoesNotExistException e) {
         throw Throwables.propagate(e); // we shall never reach here
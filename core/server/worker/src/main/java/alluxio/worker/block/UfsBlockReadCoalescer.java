@@ -0,0 +1,491 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.block;
+
+import alluxio.Constants;
+import alluxio.metrics.MetricsSystem;
+import alluxio.underfs.UnderFileSystem;
+import alluxio.underfs.options.OpenOptions;
+import alluxio.util.IdUtils;
+import alluxio.worker.block.meta.UnderFileSystemBlockMeta;
+
+import com.codahale.metrics.Counter;
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Coalesces concurrent reads of the same UFS block into a single UFS input stream. A popular file
+ * which is not cached in Alluxio is often read by many clients at the same time; without
+ * coalescing, each of them opens its own UFS input stream and fetches the same bytes from the
+ * under storage.
+ *
+ * The first reader of a block starts a shared fetch, which reads the block sequentially from an
+ * input stream acquired from the {@link UfsInputStreamManager}. The fetch keeps the bytes between
+ * its slowest and its fastest reader in memory, up to a window size. Readers which start within
+ * the kept bytes join the fetch and are served from memory, while the reader that needs bytes past
+ * the fetched data reads the next chunk from the UFS on behalf of all of them. Readers which start
+ * outside of the kept bytes, or fall more than the window behind the fastest reader, continue with
+ * their own input stream. The shared fetch is closed once its last reader releases it.
+ */
+@ThreadSafe
+public final class UfsBlockReadCoalescer {
+  /** The number of bytes fetched from the UFS at a time by a shared fetch. */
+  private static final int CHUNK_SIZE = 64 * Constants.KB;
+  /** Returned by a shared fetch when it cannot serve a read, see {@link SharedFetch#read}. */
+  private static final int UNAVAILABLE = -2;
+
+  /** The manager for all ufs instreams. */
+  private final UfsInputStreamManager mUfsInstreamManager;
+  /** The maximum number of bytes each shared fetch keeps in memory, 0 to disable coalescing. */
+  private final long mWindowBytes;
+  /** Maps from the block ID to the shared fetch of the block. */
+  @GuardedBy("mFetches")
+  private final Map<Long, SharedFetch> mFetches = new HashMap<>();
+
+  /**
+   * Creates a new {@link UfsBlockReadCoalescer}.
+   *
+   * @param ufsInstreamManager the manager of ufs instreams
+   * @param windowBytes the maximum number of bytes each shared fetch keeps in memory, 0 to disable
+   *        coalescing
+   */
+  public UfsBlockReadCoalescer(UfsInputStreamManager ufsInstreamManager, long windowBytes) {
+    Preconditions.checkArgument(windowBytes >= 0, "windowBytes must be non-negative");
+    mUfsInstreamManager = ufsInstreamManager;
+    mWindowBytes = windowBytes;
+  }
+
+  /**
+   * Acquires an input stream to read a UFS block from the given offset. The stream is backed by
+   * the shared fetch of the block if there is one which can serve the offset.
+   *
+   * @param ufs the under file system
+   * @param blockMeta the meta of the UFS block to read
+   * @param offset the position within the block to start reading from
+   * @return the acquired input stream, to be released by {@link #release(InputStream)}
+   * @throws IOException if the input stream fails to open
+   */
+  public InputStream acquire(UnderFileSystem ufs, UnderFileSystemBlockMeta blockMeta, long offset)
+      throws IOException {
+    if (mWindowBytes == 0) {
+      return acquireUfsInputStream(ufs, blockMeta, offset);
+    }
+    CoalescedInputStream inputStream = new CoalescedInputStream(ufs, blockMeta, offset);
+    synchronized (mFetches) {
+      SharedFetch fetch = mFetches.get(blockMeta.getBlockId());
+      boolean created = fetch == null;
+      if (created) {
+        fetch = new SharedFetch(ufs, blockMeta, offset);
+        mFetches.put(blockMeta.getBlockId(), fetch);
+      }
+      if (fetch.attach(inputStream, offset)) {
+        if (!created) {
+          Metrics.UFS_BLOCK_READS_COALESCED.inc();
+        }
+        inputStream.mFetch = fetch;
+        return inputStream;
+      }
+    }
+    return acquireUfsInputStream(ufs, blockMeta, offset);
+  }
+
+  /**
+   * Releases an input stream acquired by {@link #acquire}.
+   *
+   * @param inputStream the input stream to release
+   * @throws IOException when the input stream fails to close
+   */
+  public void release(InputStream inputStream) throws IOException {
+    if (inputStream instanceof CoalescedInputStream) {
+      inputStream.close();
+    } else {
+      mUfsInstreamManager.release(inputStream);
+    }
+  }
+
+  /**
+   * @param blockId the block ID
+   * @return whether the block has a shared fetch
+   */
+  boolean hasSharedFetch(long blockId) {
+    synchronized (mFetches) {
+      return mFetches.containsKey(blockId);
+    }
+  }
+
+  /**
+   * Acquires an input stream from the {@link UfsInputStreamManager}.
+   *
+   * @param ufs the under file system
+   * @param blockMeta the meta of the UFS block to read
+   * @param offset the position within the block to start reading from
+   * @return the acquired input stream
+   */
+  private InputStream acquireUfsInputStream(UnderFileSystem ufs,
+      UnderFileSystemBlockMeta blockMeta, long offset) throws IOException {
+    return mUfsInstreamManager.acquire(ufs, blockMeta.getUnderFileSystemPath(),
+        IdUtils.fileIdFromBlockId(blockMeta.getBlockId()),
+        OpenOptions.defaults().setOffset(blockMeta.getOffset() + offset));
+  }
+
+  /**
+   * Detaches a reader from a shared fetch, closing the fetch if this was its last reader.
+   *
+   * @param fetch the shared fetch
+   * @param reader the reader to detach
+   */
+  private void detach(SharedFetch fetch, CoalescedInputStream reader) throws IOException {
+    synchronized (mFetches) {
+      if (!fetch.detach(reader)) {
+        return;
+      }
+      mFetches.remove(fetch.mBlockMeta.getBlockId(), fetch);
+    }
+    fetch.close();
+  }
+
+  /**
+   * A sequential read of a UFS block shared by concurrent readers. The fetched bytes are kept in
+   * chunks of {@link #CHUNK_SIZE} bytes, except for the last chunk at the end of the block.
+   */
+  @ThreadSafe
+  private final class SharedFetch {
+    private final UnderFileSystem mUfs;
+    private final UnderFileSystemBlockMeta mBlockMeta;
+    /** Serializes reads from the UFS input stream, held without the monitor of this fetch. */
+    private final ReentrantLock mFetchLock = new ReentrantLock();
+
+    /** The input stream to read from UFS, opened on the first fetch. */
+    @GuardedBy("mFetchLock")
+    private InputStream mInputStream;
+
+    /** The positions within the block of the readers attached to this fetch. */
+    @GuardedBy("this")
+    private final Map<CoalescedInputStream, Long> mReaderPositions = new HashMap<>();
+    /** The fetched chunks kept in memory, the first of which starts at mWindowStart. */
+    @GuardedBy("this")
+    private final List<byte[]> mChunks = new ArrayList<>();
+    /** The position within the block of the first byte kept in memory. */
+    @GuardedBy("this")
+    private long mWindowStart;
+    /** The position within the block of the end of the fetched bytes. */
+    @GuardedBy("this")
+    private long mFetchedEnd;
+    /** The position within the block up to which bytes have been served to any reader. */
+    @GuardedBy("this")
+    private long mServedEnd;
+    /** Whether the UFS input stream reached the end of the block. */
+    @GuardedBy("this")
+    private boolean mEof;
+    /** Whether reading from the UFS failed, in which case readers use their own streams. */
+    @GuardedBy("this")
+    private boolean mFailed;
+
+    /**
+     * @param ufs the under file system
+     * @param blockMeta the meta of the UFS block to read
+     * @param offset the position within the block to start fetching from
+     */
+    SharedFetch(UnderFileSystem ufs, UnderFileSystemBlockMeta blockMeta, long offset) {
+      mUfs = ufs;
+      mBlockMeta = blockMeta;
+      mWindowStart = offset;
+      mFetchedEnd = offset;
+      mServedEnd = offset;
+    }
+
+    /**
+     * Attaches a reader to this fetch if the fetch can serve its position.
+     *
+     * @param reader the reader
+     * @param pos the position within the block the reader starts at
+     * @return whether the reader was attached
+     */
+    synchronized boolean attach(CoalescedInputStream reader, long pos) {
+      if (mFailed || pos < mWindowStart || pos > mFetchedEnd) {
+        return false;
+      }
+      mReaderPositions.put(reader, pos);
+      return true;
+    }
+
+    /**
+     * Detaches a reader from this fetch.
+     *
+     * @param reader the reader
+     * @return whether no reader is attached to this fetch anymore
+     */
+    synchronized boolean detach(CoalescedInputStream reader) {
+      mReaderPositions.remove(reader);
+      trim();
+      return mReaderPositions.isEmpty();
+    }
+
+    /**
+     * Reads bytes at the given position, fetching the next chunk from the UFS if the position is
+     * at the end of the fetched bytes.
+     *
+     * @param reader the reader
+     * @param pos the position within the block to read from
+     * @param b the buffer to read into
+     * @param off the offset in the buffer
+     * @param len the maximum number of bytes to read
+     * @return the number of bytes read, -1 at the end of the stream, or {@link #UNAVAILABLE} if
+     *         the position is no longer kept in memory or fetching from the UFS failed
+     */
+    int read(CoalescedInputStream reader, long pos, byte[] b, int off, int len)
+        throws IOException {
+      while (true) {
+        synchronized (this) {
+          if (pos < mWindowStart || pos > mFetchedEnd) {
+            return UNAVAILABLE;
+          }
+          if (pos < mFetchedEnd) {
+            return copy(reader, pos, b, off, len);
+          }
+          if (mEof) {
+            return -1;
+          }
+          if (mFailed) {
+            return UNAVAILABLE;
+          }
+        }
+        mFetchLock.lock();
+        try {
+          // Another reader may have fetched the next chunk while this one waited for the lock.
+          if (getFetchedEnd() == pos) {
+            fetchChunk(pos);
+          }
+        } finally {
+          mFetchLock.unlock();
+        }
+      }
+    }
+
+    /**
+     * Closes the fetch, releasing its UFS input stream.
+     */
+    void close() throws IOException {
+      mFetchLock.lock();
+      try {
+        if (mInputStream != null) {
+          mUfsInstreamManager.release(mInputStream);
+          mInputStream = null;
+        }
+      } finally {
+        mFetchLock.unlock();
+      }
+      synchronized (this) {
+        mChunks.clear();
+      }
+    }
+
+    private synchronized long getFetchedEnd() {
+      return mFetchedEnd;
+    }
+
+    /**
+     * Copies fetched bytes at the given position, which must be kept in memory.
+     *
+     * @return the number of bytes copied
+     */
+    @GuardedBy("this")
+    private int copy(CoalescedInputStream reader, long pos, byte[] b, int off, int len) {
+      int index = (int) ((pos - mWindowStart) / CHUNK_SIZE);
+      int chunkOffset = (int) ((pos - mWindowStart) % CHUNK_SIZE);
+      int copied = 0;
+      while (copied < len && index < mChunks.size()) {
+        byte[] chunk = mChunks.get(index);
+        int bytesToCopy = Math.min(len - copied, chunk.length - chunkOffset);
+        System.arraycopy(chunk, chunkOffset, b, off + copied, bytesToCopy);
+        copied += bytesToCopy;
+        chunkOffset = 0;
+        index++;
+      }
+      // Bytes before mServedEnd were fetched for another reader, this one does not read them again
+      // from the UFS.
+      long coalescedBytes = Math.min(pos + copied, mServedEnd) - pos;
+      if (coalescedBytes > 0) {
+        Metrics.UFS_BLOCK_BYTES_READ_COALESCED.inc(coalescedBytes);
+      }
+      mServedEnd = Math.max(mServedEnd, pos + copied);
+      mReaderPositions.put(reader, pos + copied);
+      trim();
+      return copied;
+    }
+
+    /**
+     * Drops the chunks which all the attached readers have read past, and the chunks which are
+     * more than the window behind the fetched bytes. The last chunk is always kept if not read by
+     * all readers, so that a window smaller than a chunk does not drop bytes before they are read.
+     */
+    @GuardedBy("this")
+    private void trim() {
+      long minReaderPos = mFetchedEnd;
+      for (long readerPos : mReaderPositions.values()) {
+        minReaderPos = Math.min(minReaderPos, readerPos);
+      }
+      while (!mChunks.isEmpty()) {
+        int chunkLength = mChunks.get(0).length;
+        boolean read = mWindowStart + chunkLength <= minReaderPos;
+        boolean outsideWindow = mChunks.size() > 1 && mFetchedEnd - mWindowStart > mWindowBytes;
+        if (!read && !outsideWindow) {
+          break;
+        }
+        mChunks.remove(0);
+        mWindowStart += chunkLength;
+      }
+    }
+
+    /**
+     * Reads the next chunk from the UFS. Must be called with {@link #mFetchLock} held.
+     *
+     * @param pos the position within the block of the end of the fetched bytes
+     */
+    private void fetchChunk(long pos) throws IOException {
+      int chunkSize = (int) Math.max(0, Math.min(CHUNK_SIZE, mBlockMeta.getBlockSize() - pos));
+      byte[] chunk = new byte[chunkSize];
+      int bytesRead = 0;
+      try {
+        if (mInputStream == null && chunkSize > 0) {
+          mInputStream = acquireUfsInputStream(mUfs, mBlockMeta, pos);
+        }
+        while (bytesRead < chunkSize) {
+          int read = mInputStream.read(chunk, bytesRead, chunkSize - bytesRead);
+          if (read == -1) {
+            break;
+          }
+          bytesRead += read;
+        }
+      } catch (IOException | RuntimeException e) {
+        synchronized (this) {
+          mFailed = true;
+        }
+        throw e;
+      }
+      synchronized (this) {
+        // Only the last chunk of the block is shorter than CHUNK_SIZE.
+        mEof = bytesRead < CHUNK_SIZE;
+        if (bytesRead > 0) {
+          mChunks.add(bytesRead < chunk.length ? Arrays.copyOf(chunk, bytesRead) : chunk);
+          mFetchedEnd += bytesRead;
+        }
+        trim();
+      }
+    }
+  }
+
+  /**
+   * An input stream of a reader attached to a shared fetch. When the shared fetch can no longer
+   * serve the reader, the stream switches to an input stream of its own at the same position.
+   */
+  @NotThreadSafe
+  private final class CoalescedInputStream extends InputStream {
+    private final UnderFileSystem mUfs;
+    private final UnderFileSystemBlockMeta mBlockMeta;
+    /** The shared fetch, or null if not attached to one. */
+    private SharedFetch mFetch;
+    /** The own input stream, or null while reading from the shared fetch. */
+    private InputStream mUfsInputStream;
+    /** The position within the block. */
+    private long mPos;
+    private boolean mClosed;
+
+    /**
+     * @param ufs the under file system
+     * @param blockMeta the meta of the UFS block to read
+     * @param offset the position within the block to start reading from
+     */
+    CoalescedInputStream(UnderFileSystem ufs, UnderFileSystemBlockMeta blockMeta, long offset) {
+      mUfs = ufs;
+      mBlockMeta = blockMeta;
+      mPos = offset;
+    }
+
+    @Override
+    public int read() throws IOException {
+      byte[] b = new byte[1];
+      int bytesRead = read(b, 0, 1);
+      return bytesRead == -1 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      Preconditions.checkState(!mClosed, "Stream is closed");
+      if (len == 0) {
+        return 0;
+      }
+      int bytesRead;
+      if (mFetch != null) {
+        bytesRead = mFetch.read(this, mPos, b, off, len);
+        if (bytesRead != UNAVAILABLE) {
+          if (bytesRead > 0) {
+            mPos += bytesRead;
+          }
+          return bytesRead;
+        }
+        SharedFetch fetch = mFetch;
+        mFetch = null;
+        detach(fetch, this);
+        mUfsInputStream = acquireUfsInputStream(mUfs, mBlockMeta, mPos);
+      }
+      bytesRead = mUfsInputStream.read(b, off, len);
+      if (bytesRead > 0) {
+        mPos += bytesRead;
+      }
+      return bytesRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (mClosed) {
+        return;
+      }
+      mClosed = true;
+      if (mFetch != null) {
+        detach(mFetch, this);
+        mFetch = null;
+      }
+      if (mUfsInputStream != null) {
+        mUfsInstreamManager.release(mUfsInputStream);
+        mUfsInputStream = null;
+      }
+    }
+  }
+
+  /**
+   * Class that contains metrics about coalesced UFS block reads.
+   */
+  @ThreadSafe
+  private static final class Metrics {
+    /** Readers which joined the shared fetch of another reader. */
+    private static final Counter UFS_BLOCK_READS_COALESCED =
+        MetricsSystem.workerCounter("UfsBlockReadsCoalesced");
+    /** Bytes served from a shared fetch which were already fetched for another reader. */
+    private static final Counter UFS_BLOCK_BYTES_READ_COALESCED =
+        MetricsSystem.workerCounter("UfsBlockBytesReadCoalesced");
+
+    private Metrics() {} // prevent instantiation
+  }
+}
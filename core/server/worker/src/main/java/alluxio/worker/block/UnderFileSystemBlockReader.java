@@ -25,8 +25,6 @@ import alluxio.exception.status.AlluxioStatusException;
 import alluxio.resource.CloseableResource;
 import alluxio.underfs.UfsManager;
 import alluxio.underfs.UnderFileSystem;
-import alluxio.underfs.options.OpenOptions;
-import alluxio.util.IdUtils;
 import alluxio.util.network.NetworkAddressUtils;
 import alluxio.worker.block.io.BlockReader;
 import alluxio.worker.block.io.BlockWriter;
@@ -72,8 +70,8 @@ public final class UnderFileSystemBlockReader implements BlockReader {
   private boolean mClosed;
   /** The manager for different ufs. */
   private final UfsManager mUfsManager;
-  /** The manager for all ufs instream. */
-  private final UfsInputStreamManager mUfsInstreamManager;
+  /** The coalescer of concurrent reads of the same UFS block. */
+  private final UfsBlockReadCoalescer mUfsBlockReadCoalescer;
   /** The ufs client resource. */
   private CloseableResource<UnderFileSystem> mUfsResource;
 
@@ -93,14 +91,14 @@ public final class UnderFileSystemBlockReader implements BlockReader {
    * @param offset the position within the block to start the read
    * @param localBlockStore the Local block store
    * @param ufsManager the manager of ufs
-   * @param ufsInstreamManager the manager of ufs instreams
+   * @param ufsBlockReadCoalescer the coalescer of concurrent reads of the same UFS block
    * @return the block reader
    */
   public static UnderFileSystemBlockReader create(UnderFileSystemBlockMeta blockMeta, long offset,
-      BlockStore localBlockStore, UfsManager ufsManager, UfsInputStreamManager ufsInstreamManager)
-      throws IOException {
-    UnderFileSystemBlockReader ufsBlockReader =
-        new UnderFileSystemBlockReader(blockMeta, localBlockStore, ufsManager, ufsInstreamManager);
+      BlockStore localBlockStore, UfsManager ufsManager,
+      UfsBlockReadCoalescer ufsBlockReadCoalescer) throws IOException {
+    UnderFileSystemBlockReader ufsBlockReader = new UnderFileSystemBlockReader(blockMeta,
+        localBlockStore, ufsManager, ufsBlockReadCoalescer);
     ufsBlockReader.init(offset);
     return ufsBlockReader;
   }
@@ -111,16 +109,16 @@ public final class UnderFileSystemBlockReader implements BlockReader {
    * @param blockMeta the block meta
    * @param localBlockStore the Local block store
    * @param ufsManager the manager of ufs
-   * @param ufsInstreamManager the manager of ufs instreams
+   * @param ufsBlockReadCoalescer the coalescer of concurrent reads of the same UFS block
    */
   private UnderFileSystemBlockReader(UnderFileSystemBlockMeta blockMeta, BlockStore localBlockStore,
-      UfsManager ufsManager, UfsInputStreamManager ufsInstreamManager) throws IOException {
+      UfsManager ufsManager, UfsBlockReadCoalescer ufsBlockReadCoalescer) throws IOException {
     mInitialBlockSize = Configuration.getBytes(PropertyKey.WORKER_FILE_BUFFER_SIZE);
     mBlockMeta = blockMeta;
     mLocalBlockStore = localBlockStore;
     mInStreamPos = -1;
     mUfsManager = ufsManager;
-    mUfsInstreamManager = ufsInstreamManager;
+    mUfsBlockReadCoalescer = ufsBlockReadCoalescer;
     UfsManager.UfsClient ufsClient = mUfsManager.get(mBlockMeta.getMountId());
     mUfsResource = ufsClient.acquireUfsResource();
     mUfsMountPointUri = ufsClient.getUfsMountPointUri();
@@ -260,7 +258,7 @@ public final class UnderFileSystemBlockReader implements BlockReader {
       updateBlockWriter(mBlockMeta.getBlockSize());
 
       if (mUnderFileSystemInputStream != null) {
-        mUfsInstreamManager.release(mUnderFileSystemInputStream);
+        mUfsBlockReadCoalescer.release(mUnderFileSystemInputStream);
         mUnderFileSystemInputStream = null;
       }
 
@@ -293,16 +291,14 @@ public final class UnderFileSystemBlockReader implements BlockReader {
    */
   private void updateUnderFileSystemInputStream(long offset) throws IOException {
     if ((mUnderFileSystemInputStream != null) && offset != mInStreamPos) {
-      mUfsInstreamManager.release(mUnderFileSystemInputStream);
+      mUfsBlockReadCoalescer.release(mUnderFileSystemInputStream);
       mUnderFileSystemInputStream = null;
       mInStreamPos = -1;
     }
 
     if (mUnderFileSystemInputStream == null && offset < mBlockMeta.getBlockSize()) {
       UnderFileSystem ufs = mUfsResource.get();
-      mUnderFileSystemInputStream = mUfsInstreamManager.acquire(ufs,
-          mBlockMeta.getUnderFileSystemPath(), IdUtils.fileIdFromBlockId(mBlockMeta.getBlockId()),
-          OpenOptions.defaults().setOffset(mBlockMeta.getOffset() + offset));
+      mUnderFileSystemInputStream = mUfsBlockReadCoalescer.acquire(ufs, mBlockMeta, offset);
       mInStreamPos = offset;
     }
   }
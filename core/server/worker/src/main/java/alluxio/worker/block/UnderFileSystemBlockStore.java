@@ -11,6 +11,8 @@
 
 package alluxio.worker.block;
 
+import alluxio.Configuration;
+import alluxio.PropertyKey;
 import alluxio.exception.BlockAlreadyExistsException;
 import alluxio.exception.BlockDoesNotExistException;
 import alluxio.exception.ExceptionMessage;
@@ -74,8 +76,8 @@ public final class UnderFileSystemBlockStore implements SessionCleanable {
   /** The manager for all ufs. */
   private final UfsManager mUfsManager;
 
-  /** The manager for all ufs instream. */
-  private final UfsInputStreamManager mUfsInstreamManager;
+  /** The coalescer of concurrent reads of the same UFS block. */
+  private final UfsBlockReadCoalescer mUfsBlockReadCoalescer;
 
   /**
    * Creates an instance of {@link UnderFileSystemBlockStore}.
@@ -86,7 +88,8 @@ public final class UnderFileSystemBlockStore implements SessionCleanable {
   public UnderFileSystemBlockStore(BlockStore localBlockStore, UfsManager ufsManager) {
     mLocalBlockStore = localBlockStore;
     mUfsManager = ufsManager;
-    mUfsInstreamManager = new UfsInputStreamManager();
+    mUfsBlockReadCoalescer = new UfsBlockReadCoalescer(new UfsInputStreamManager(),
+        Configuration.getBytes(PropertyKey.WORKER_UFS_BLOCK_READ_COALESCE_WINDOW_BYTES));
   }
 
   /**
@@ -239,7 +242,7 @@ public final class UnderFileSystemBlockStore implements SessionCleanable {
     }
     BlockReader reader =
         UnderFileSystemBlockReader.create(blockInfo.getMeta(), offset, mLocalBlockStore,
-            mUfsManager, mUfsInstreamManager);
+            mUfsManager, mUfsBlockReadCoalescer);
     blockInfo.setBlockReader(reader);
     return reader;
   }
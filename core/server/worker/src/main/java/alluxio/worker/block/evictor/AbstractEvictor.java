@@ -101,7 +101,6 @@ public abstract class AbstractEvictor extends AbstractBlockStoreEventListener im
         }
       } catch (BlockDoesNotExistException e) {
         LOG.warn("Remove block {} from evictor cache because {}", blockId, e);
-        it.remove();
         onRemoveBlockFromIterator(blockId);
       }
     }
@@ -185,15 +184,20 @@ public abstract class AbstractEvictor extends AbstractBlockStoreEventListener im
   /**
    * Returns an iterator for evictor cache blocks. The evictor is responsible for specifying the
    * iteration order using its own strategy. For example, {@link LRUEvictor} returns an iterator
-   * that iterates through the block ids in LRU order.
+   * that iterates through the block ids in LRU order. The iterator does not need to support
+   * removal, blocks which no longer exist are reported through
+   * {@link #onRemoveBlockFromIterator(long)} instead.
    *
    * @return an iterator over the ids of the blocks in the evictor cache
    */
   protected abstract Iterator<Long> getBlockIterator();
 
   /**
-   * Performs additional cleanup when a block is removed from the iterator returned by
-   * {@link #getBlockIterator()}.
+   * Performs cleanup when a block returned by the iterator from {@link #getBlockIterator()} no
+   * longer exists. This is called while the iterator is still in use, so implementations which
+   * cannot be modified during iteration should defer the removal.
+   *
+   * @param blockId the id of the block which no longer exists
    */
   protected void onRemoveBlockFromIterator(long blockId) {}
 
@@ -0,0 +1,313 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.block.evictor;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A binary min-heap of block ids ordered by a priority, which can update or remove any block in
+ * logarithmic time. The heap and its index are stored in primitive arrays: each block takes about
+ * 24 bytes, and no object is allocated per block.
+ *
+ * The index is an open addressing hash table from block id to heap position. Each table slot
+ * stores the heap position plus one (zero marks an empty slot), and the block id is read from the
+ * heap, so the table itself takes four bytes per slot.
+ */
+@NotThreadSafe
+final class IndexedBlockHeap {
+  private static final int INITIAL_CAPACITY = 16;
+
+  /** The block ids, in heap order. */
+  private long[] mBlockIds;
+  /** The priorities of the blocks, in heap order. */
+  private double[] mPriorities;
+  /** The index table slots of the blocks, in heap order. */
+  private int[] mSlots;
+  /** The index from block id to heap position plus one, 0 for an empty slot. */
+  private int[] mTable;
+  private int mSize;
+  /** The number of modifications, to detect modifications while iterating. */
+  private int mModCount;
+
+  /**
+   * Creates an empty heap.
+   */
+  IndexedBlockHeap() {
+    mBlockIds = new long[INITIAL_CAPACITY];
+    mPriorities = new double[INITIAL_CAPACITY];
+    mSlots = new int[INITIAL_CAPACITY];
+    mTable = new int[INITIAL_CAPACITY * 2];
+  }
+
+  /**
+   * @return the number of blocks in the heap
+   */
+  int size() {
+    return mSize;
+  }
+
+  /**
+   * @param blockId the block id
+   * @return whether the block is in the heap
+   */
+  boolean contains(long blockId) {
+    return find(blockId) >= 0;
+  }
+
+  /**
+   * @param blockId the block id
+   * @return the priority of the block, or {@link Double#NaN} if the block is not in the heap
+   */
+  double getPriority(long blockId) {
+    int slot = find(blockId);
+    return slot >= 0 ? mPriorities[mTable[slot] - 1] : Double.NaN;
+  }
+
+  /**
+   * Adds a block with the given priority, or updates the priority of the block if it is already
+   * in the heap.
+   *
+   * @param blockId the block id
+   * @param priority the priority, lower priorities are iterated first
+   */
+  void put(long blockId, double priority) {
+    Preconditions.checkArgument(!Double.isNaN(priority), "priority must be a number");
+    mModCount++;
+    int slot = find(blockId);
+    if (slot >= 0) {
+      int pos = mTable[slot] - 1;
+      double oldPriority = mPriorities[pos];
+      mPriorities[pos] = priority;
+      if (priority < oldPriority) {
+        siftUp(pos);
+      } else {
+        siftDown(pos);
+      }
+      return;
+    }
+    if (mSize == mBlockIds.length) {
+      int capacity = mSize * 2;
+      mBlockIds = Arrays.copyOf(mBlockIds, capacity);
+      mPriorities = Arrays.copyOf(mPriorities, capacity);
+      mSlots = Arrays.copyOf(mSlots, capacity);
+    }
+    int pos = mSize++;
+    mBlockIds[pos] = blockId;
+    mPriorities[pos] = priority;
+    if (mSize * 2 > mTable.length) {
+      // Keep the load factor of the table at most 0.5.
+      rehash(mTable.length * 2);
+    } else {
+      slot = -slot - 1;
+      mTable[slot] = pos + 1;
+      mSlots[pos] = slot;
+    }
+    siftUp(pos);
+  }
+
+  /**
+   * Removes a block from the heap.
+   *
+   * @param blockId the block id
+   * @return whether the block was in the heap
+   */
+  boolean remove(long blockId) {
+    int slot = find(blockId);
+    if (slot < 0) {
+      return false;
+    }
+    mModCount++;
+    int pos = mTable[slot] - 1;
+    deleteSlot(slot);
+    int last = --mSize;
+    if (pos != last) {
+      move(last, pos);
+      siftDown(pos);
+      siftUp(pos);
+    }
+    return true;
+  }
+
+  /**
+   * Returns an iterator over the block ids in ascending order of priority. Getting the first k
+   * blocks takes O(k log k) time, independent of the size of the heap. The heap must not be
+   * modified while iterating, and the iterator does not support removal.
+   *
+   * @return the iterator
+   */
+  Iterator<Long> iterator() {
+    return new Iterator<Long>() {
+      private final int mExpectedModCount = mModCount;
+      /** The heap positions whose parents have been iterated, but they have not. */
+      private final PriorityQueue<Integer> mFrontier =
+          new PriorityQueue<>(INITIAL_CAPACITY, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+              return Double.compare(mPriorities[a], mPriorities[b]);
+            }
+          });
+
+      {
+        if (mSize > 0) {
+          mFrontier.add(0);
+        }
+      }
+
+      @Override
+      public boolean hasNext() {
+        return !mFrontier.isEmpty();
+      }
+
+      @Override
+      public Long next() {
+        if (mModCount != mExpectedModCount) {
+          throw new ConcurrentModificationException();
+        }
+        Integer pos = mFrontier.poll();
+        if (pos == null) {
+          throw new NoSuchElementException();
+        }
+        for (int child = 2 * pos + 1; child <= 2 * pos + 2 && child < mSize; child++) {
+          mFrontier.add(child);
+        }
+        return mBlockIds[pos];
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException("IndexedBlockHeap#Iterator#remove");
+      }
+    };
+  }
+
+  /**
+   * @param blockId the block id
+   * @return the table slot of the block if it is in the heap, otherwise -(slot + 1) for the empty
+   *         slot where the block can be inserted
+   */
+  private int find(long blockId) {
+    int mask = mTable.length - 1;
+    for (int slot = hash(blockId) & mask;; slot = (slot + 1) & mask) {
+      int entry = mTable[slot];
+      if (entry == 0) {
+        return -slot - 1;
+      }
+      if (mBlockIds[entry - 1] == blockId) {
+        return slot;
+      }
+    }
+  }
+
+  /**
+   * Empties a table slot, shifting back the following entries of the probe sequence so that all
+   * entries stay reachable from their hash slot.
+   *
+   * @param slot the slot
+   */
+  private void deleteSlot(int slot) {
+    int mask = mTable.length - 1;
+    int empty = slot;
+    mTable[empty] = 0;
+    for (int next = (empty + 1) & mask; mTable[next] != 0; next = (next + 1) & mask) {
+      int pos = mTable[next] - 1;
+      int home = hash(mBlockIds[pos]) & mask;
+      // The entry stays if its home slot is cyclically in (empty, next].
+      boolean stays = empty <= next ? (empty < home && home <= next)
+          : (empty < home || home <= next);
+      if (!stays) {
+        mTable[empty] = mTable[next];
+        mSlots[pos] = empty;
+        mTable[next] = 0;
+        empty = next;
+      }
+    }
+  }
+
+  /**
+   * Rebuilds the table with the given length.
+   *
+   * @param length the table length, a power of two
+   */
+  private void rehash(int length) {
+    mTable = new int[length];
+    int mask = length - 1;
+    for (int pos = 0; pos < mSize; pos++) {
+      int slot = hash(mBlockIds[pos]) & mask;
+      while (mTable[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      mTable[slot] = pos + 1;
+      mSlots[pos] = slot;
+    }
+  }
+
+  private void siftUp(int pos) {
+    while (pos > 0) {
+      int parent = (pos - 1) >>> 1;
+      if (mPriorities[parent] <= mPriorities[pos]) {
+        return;
+      }
+      swap(pos, parent);
+      pos = parent;
+    }
+  }
+
+  private void siftDown(int pos) {
+    for (;;) {
+      int smallest = pos;
+      int left = 2 * pos + 1;
+      if (left < mSize && mPriorities[left] < mPriorities[smallest]) {
+        smallest = left;
+      }
+      if (left + 1 < mSize && mPriorities[left + 1] < mPriorities[smallest]) {
+        smallest = left + 1;
+      }
+      if (smallest == pos) {
+        return;
+      }
+      swap(pos, smallest);
+      pos = smallest;
+    }
+  }
+
+  private void swap(int a, int b) {
+    long blockId = mBlockIds[a];
+    double priority = mPriorities[a];
+    int slot = mSlots[a];
+    move(b, a);
+    mBlockIds[b] = blockId;
+    mPriorities[b] = priority;
+    mSlots[b] = slot;
+    mTable[slot] = b + 1;
+  }
+
+  private void move(int from, int to) {
+    mBlockIds[to] = mBlockIds[from];
+    mPriorities[to] = mPriorities[from];
+    mSlots[to] = mSlots[from];
+    mTable[mSlots[to]] = to + 1;
+  }
+
+  private static int hash(long blockId) {
+    long h = blockId * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+}
@@ -13,7 +13,6 @@ package alluxio.worker.block.evictor;
 
 import alluxio.Configuration;
 import alluxio.PropertyKey;
-import alluxio.collections.Pair;
 import alluxio.worker.block.BlockMetadataManagerView;
 import alluxio.worker.block.BlockStoreLocation;
 import alluxio.worker.block.allocator.Allocator;
@@ -21,22 +20,15 @@ import alluxio.worker.block.meta.BlockMeta;
 import alluxio.worker.block.meta.StorageDirView;
 import alluxio.worker.block.meta.StorageTierView;
 
-import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Iterators;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
 
-import javax.annotation.concurrent.NotThreadSafe;
 import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.NotThreadSafe;
 
 /**
  * This class is used to evict blocks by LRFU. LRFU evict blocks with minimum CRF, where CRF of a
@@ -48,20 +40,30 @@ import javax.annotation.Nullable;
  * combines LRU and LFU, it evicts blocks with small frequency or large recency. When
  * {@link #mStepFactor} is close to 0, LRFU is close to LFU. Conversely, LRFU is close to LRU
  * when {@link #mStepFactor} is close to 1.
+ *
+ * All CRF values decay by the same factor as time passes, so their order never changes between
+ * accesses. Instead of decaying every CRF, the evictor keeps each block in a heap keyed by
+ * ln(CRF(t)) + c * t with c = {@link #mStepFactor} * ln({@link #mAttenuationFactor}), which does
+ * not depend on the current time t. Only the key of the accessed block changes on an access.
  */
 @NotThreadSafe
 public final class LRFUEvictor extends AbstractEvictor {
-  /** Map from block id to the last updated logic time count. */
-  private final Map<Long, Long> mBlockIdToLastUpdateTime = new ConcurrentHashMap<>();
-  // Map from block id to the CRF value of the block
-  private final Map<Long, Double> mBlockIdToCRFValue = new ConcurrentHashMap<>();
+  /** Heap of block ids ordered by their time independent CRF key. */
+  @GuardedBy("mCRFHeap")
+  private final IndexedBlockHeap mCRFHeap = new IndexedBlockHeap();
+  /** Blocks found missing while iterating, removed from the heap once the iteration is done. */
+  @GuardedBy("mCRFHeap")
+  private final List<Long> mRemovedBlocks = new ArrayList<>();
   /** In the range of [0, 1]. Closer to 0, LRFU closer to LFU. Closer to 1, LRFU closer to LRU. */
   private final double mStepFactor;
   /** The attenuation factor is in the range of [2, INF]. */
   private final double mAttenuationFactor;
+  /** The decay rate of ln(CRF) per logic time unit. */
+  private final double mLogDecayRate;
 
   /** Logic time count. */
-  private AtomicLong mLogicTimeCount = new AtomicLong(0L);
+  @GuardedBy("mCRFHeap")
+  private long mLogicTimeCount = 0L;
 
   /**
    * Creates a new instance of {@link LRFUEvictor}.
@@ -78,76 +80,40 @@ public final class LRFUEvictor extends AbstractEvictor {
         "Step factor should be in the range of [0.0, 1.0]");
     Preconditions.checkArgument(mAttenuationFactor >= 2.0,
         "Attenuation factor should be no less than 2.0");
-
-    // Preloading blocks
-    for (StorageTierView tier : mManagerView.getTierViews()) {
-      for (StorageDirView dir : tier.getDirViews()) {
-        for (BlockMeta block : dir.getEvictableBlocks()) {
-          mBlockIdToLastUpdateTime.put(block.getBlockId(), 0L);
-          mBlockIdToCRFValue.put(block.getBlockId(), 0.0);
+    mLogDecayRate = mStepFactor * Math.log(mAttenuationFactor);
+
+    // Preloading blocks, which have a CRF of 0
+    synchronized (mCRFHeap) {
+      for (StorageTierView tier : mManagerView.getTierViews()) {
+        for (StorageDirView dir : tier.getDirViews()) {
+          for (BlockMeta block : dir.getEvictableBlocks()) {
+            mCRFHeap.put(block.getBlockId(), Double.NEGATIVE_INFINITY);
+          }
         }
       }
     }
   }
 
-  /**
-   * Calculates weight of an access, which is the function value of
-   * F(t) = pow (1.0 / {@link #mAttenuationFactor}, t * {@link #mStepFactor}).
-   *
-   * @param logicTimeInterval time interval since that access to current
-   * @return Function value of F(t)
-   */
-  private double calculateAccessWeight(long logicTimeInterval) {
-    return Math.pow(1.0 / mAttenuationFactor, logicTimeInterval * mStepFactor);
-  }
-
   @Nullable
   @Override
   public EvictionPlan freeSpaceWithView(long bytesToBeAvailable, BlockStoreLocation location,
       BlockMetadataManagerView view) {
-    synchronized (mBlockIdToLastUpdateTime) {
-      updateCRFValue();
-      mManagerView = view;
-
-      List<BlockTransferInfo> toMove = new ArrayList<>();
-      List<Pair<Long, BlockStoreLocation>> toEvict = new ArrayList<>();
-      EvictionPlan plan = new EvictionPlan(toMove, toEvict);
-      StorageDirView candidateDir = cascadingEvict(bytesToBeAvailable, location, plan);
-
-      mManagerView.clearBlockMarks();
-      if (candidateDir == null) {
-        return null;
+    synchronized (mCRFHeap) {
+      try {
+        return super.freeSpaceWithView(bytesToBeAvailable, location, view);
+      } finally {
+        for (long blockId : mRemovedBlocks) {
+          mCRFHeap.remove(blockId);
+        }
+        mRemovedBlocks.clear();
       }
-
-      return plan;
     }
   }
 
   @Override
   protected Iterator<Long> getBlockIterator() {
-    return Iterators.transform(getSortedCRF().iterator(),
-        new Function<Map.Entry<Long, Double>, Long>() {
-          @Override
-          public Long apply(Entry<Long, Double> input) {
-            return input.getKey();
-          }
-        });
-  }
-
-  /**
-   * Sorts all blocks in ascending order of CRF.
-   *
-   * @return the sorted CRF of all blocks
-   */
-  private List<Map.Entry<Long, Double>> getSortedCRF() {
-    List<Map.Entry<Long, Double>> sortedCRF = new ArrayList<>(mBlockIdToCRFValue.entrySet());
-    Collections.sort(sortedCRF, new Comparator<Map.Entry<Long, Double>>() {
-      @Override
-      public int compare(Entry<Long, Double> o1, Entry<Long, Double> o2) {
-        return Double.compare(o1.getValue(), o2.getValue());
-      }
-    });
-    return sortedCRF;
+    // Only called from freeSpaceWithView, which holds the lock while the iterator is in use.
+    return mCRFHeap.iterator();
   }
 
   @Override
@@ -172,67 +138,42 @@ public final class LRFUEvictor extends AbstractEvictor {
 
   @Override
   protected void onRemoveBlockFromIterator(long blockId) {
-    mBlockIdToLastUpdateTime.remove(blockId);
-    mBlockIdToCRFValue.remove(blockId);
-  }
-
-  /**
-   * This function is used to update CRF of all the blocks according to current logic time. When
-   * some block is accessed in some time, only CRF of that block itself will be updated to current
-   * time, other blocks who are not accessed recently will only be updated until
-   * {@link #freeSpaceWithView(long, BlockStoreLocation, BlockMetadataManagerView)} is called
-   * because blocks need to be sorted in the increasing order of CRF. When this function is called,
-   * {@link #mBlockIdToLastUpdateTime} and {@link #mBlockIdToCRFValue} need to be locked in case
-   * of the changing of values.
-   */
-  private void updateCRFValue() {
-    long currentLogicTime = mLogicTimeCount.get();
-    for (Entry<Long, Double> entry : mBlockIdToCRFValue.entrySet()) {
-      long blockId = entry.getKey();
-      double crfValue = entry.getValue();
-      mBlockIdToCRFValue.put(blockId, crfValue
-          * calculateAccessWeight(currentLogicTime - mBlockIdToLastUpdateTime.get(blockId)));
-      mBlockIdToLastUpdateTime.put(blockId, currentLogicTime);
+    synchronized (mCRFHeap) {
+      mRemovedBlocks.add(blockId);
     }
   }
 
   /**
-   * Updates {@link #mBlockIdToLastUpdateTime} and {@link #mBlockIdToCRFValue} when block is
-   * accessed or committed. Only CRF of the accessed or committed block will be updated, CRF
-   * of other blocks will be lazily updated (only when {@link #updateCRFValue()} is called).
-   * If the block is updated at the first time, CRF of the block will be set to 1.0, otherwise
-   * the CRF of the block will be set to {1.0 + old CRF * F(current time - last update time)}.
+   * Updates the CRF key of a block when it is accessed or committed. The CRF of the block becomes
+   * {1.0 + old CRF * F(current time - last update time)}, so its key becomes
+   * ln(exp(old key) + exp(c * current time)), computed without overflow as
+   * max + log1p(exp(min - max)) of the two exponents.
    *
    * @param blockId id of the block to be accessed or committed
    */
   private void updateOnAccessAndCommit(long blockId) {
-    synchronized (mBlockIdToLastUpdateTime) {
-      long currentLogicTime = mLogicTimeCount.incrementAndGet();
-      // update CRF value
-      // CRF(currentLogicTime)=CRF(lastUpdateTime)*F(currentLogicTime-lastUpdateTime)+F(0)
-      if (mBlockIdToCRFValue.containsKey(blockId)) {
-        mBlockIdToCRFValue.put(blockId, mBlockIdToCRFValue.get(blockId)
-            * calculateAccessWeight(currentLogicTime - mBlockIdToLastUpdateTime.get(blockId))
-            + 1.0);
+    synchronized (mCRFHeap) {
+      double accessKey = mLogDecayRate * ++mLogicTimeCount;
+      double oldKey = mCRFHeap.getPriority(blockId);
+      if (Double.isNaN(oldKey) || oldKey == Double.NEGATIVE_INFINITY) {
+        mCRFHeap.put(blockId, accessKey);
       } else {
-        mBlockIdToCRFValue.put(blockId, 1.0);
+        double max = Math.max(oldKey, accessKey);
+        double min = Math.min(oldKey, accessKey);
+        mCRFHeap.put(blockId, max + Math.log1p(Math.exp(min - max)));
       }
-      // update currentLogicTime to lastUpdateTime
-      mBlockIdToLastUpdateTime.put(blockId, currentLogicTime);
     }
   }
 
   /**
-   * Updates {@link #mBlockIdToLastUpdateTime} and {@link #mBlockIdToCRFValue} when block is
-   * removed.
+   * Removes a block from the heap when the block is removed.
    *
    * @param blockId id of the block to be removed
    */
   private void updateOnRemoveBlock(long blockId) {
-    synchronized (mBlockIdToLastUpdateTime) {
-      mLogicTimeCount.incrementAndGet();
-      mBlockIdToCRFValue.remove(blockId);
-      mBlockIdToLastUpdateTime.remove(blockId);
+    synchronized (mCRFHeap) {
+      mLogicTimeCount++;
+      mCRFHeap.remove(blockId);
     }
   }
 }
@@ -19,12 +19,11 @@ import alluxio.worker.block.meta.StorageDirView;
 import alluxio.worker.block.meta.StorageTierView;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.NotThreadSafe;
 
 /**
@@ -33,19 +32,20 @@ import javax.annotation.concurrent.NotThreadSafe;
  */
 @NotThreadSafe
 public class LRUEvictor extends AbstractEvictor {
-  private static final int LINKED_HASH_MAP_INIT_CAPACITY = 200;
-  private static final float LINKED_HASH_MAP_INIT_LOAD_FACTOR = 0.75f;
-  private static final boolean LINKED_HASH_MAP_ACCESS_ORDERED = true;
-  private static final boolean UNUSED_MAP_VALUE = true;
-
   /**
-   * Access-ordered {@link java.util.LinkedHashMap} from blockId to {@link #UNUSED_MAP_VALUE}(just a
-   * placeholder to occupy the value), acts as a LRU double linked list where most recently accessed
-   * element is put at the tail while least recently accessed element is put at the head.
+   * Heap of block ids ordered by the logic time of their last access, so the least recently
+   * accessed block is iterated first. Block events may arrive while an eviction plan is being
+   * computed, so the heap is guarded by its own monitor.
    */
-  protected Map<Long, Boolean> mLRUCache =
-      Collections.synchronizedMap(new LinkedHashMap<Long, Boolean>(LINKED_HASH_MAP_INIT_CAPACITY,
-          LINKED_HASH_MAP_INIT_LOAD_FACTOR, LINKED_HASH_MAP_ACCESS_ORDERED));
+  @GuardedBy("mLRUHeap")
+  private final IndexedBlockHeap mLRUHeap = new IndexedBlockHeap();
+  /** Blocks found missing while iterating, removed from the heap once the iteration is done. */
+  @GuardedBy("mLRUHeap")
+  private final List<Long> mRemovedBlocks = new ArrayList<>();
+
+  /** Logic time count, incremented on each access. */
+  @GuardedBy("mLRUHeap")
+  private long mLogicTimeCount = 0L;
 
   /**
    * Creates a new instance of {@link LRUEvictor}.
@@ -57,44 +57,84 @@ public class LRUEvictor extends AbstractEvictor {
     super(view, allocator);
 
     // preload existing blocks loaded by StorageDir to Evictor
-    for (StorageTierView tierView : mManagerView.getTierViews()) {
-      for (StorageDirView dirView : tierView.getDirViews()) {
-        for (BlockMeta blockMeta : dirView.getEvictableBlocks()) { // all blocks with initial view
-          mLRUCache.put(blockMeta.getBlockId(), UNUSED_MAP_VALUE);
+    synchronized (mLRUHeap) {
+      for (StorageTierView tierView : mManagerView.getTierViews()) {
+        for (StorageDirView dirView : tierView.getDirViews()) {
+          for (BlockMeta blockMeta : dirView.getEvictableBlocks()) { // all blocks with initial view
+            mLRUHeap.put(blockMeta.getBlockId(), ++mLogicTimeCount);
+          }
+        }
+      }
+    }
+  }
+
+  @Nullable
+  @Override
+  public EvictionPlan freeSpaceWithView(long bytesToBeAvailable, BlockStoreLocation location,
+      BlockMetadataManagerView view) {
+    synchronized (mLRUHeap) {
+      try {
+        return super.freeSpaceWithView(bytesToBeAvailable, location, view);
+      } finally {
+        for (long blockId : mRemovedBlocks) {
+          mLRUHeap.remove(blockId);
         }
+        mRemovedBlocks.clear();
       }
     }
   }
 
   @Override
   protected Iterator<Long> getBlockIterator() {
-    List<Long> blocks = new ArrayList<>(mLRUCache.keySet());
-    return blocks.iterator();
+    // Only called from freeSpaceWithView, which holds the lock while the iterator is in use.
+    return mLRUHeap.iterator();
   }
 
   @Override
   public void onAccessBlock(long sessionId, long blockId) {
-    mLRUCache.put(blockId, UNUSED_MAP_VALUE);
+    updateOnAccess(blockId);
   }
 
   @Override
   public void onCommitBlock(long sessionId, long blockId, BlockStoreLocation location) {
     // Since the temp block has been committed, update Evictor about the new added blocks
-    mLRUCache.put(blockId, UNUSED_MAP_VALUE);
+    updateOnAccess(blockId);
   }
 
   @Override
   public void onRemoveBlockByClient(long sessionId, long blockId) {
-    mLRUCache.remove(blockId);
+    updateOnRemoveBlock(blockId);
   }
 
   @Override
   public void onRemoveBlockByWorker(long sessionId, long blockId) {
-    mLRUCache.remove(blockId);
+    updateOnRemoveBlock(blockId);
   }
 
   @Override
   protected void onRemoveBlockFromIterator(long blockId) {
-    mLRUCache.remove(blockId);
+    synchronized (mLRUHeap) {
+      mRemovedBlocks.add(blockId);
+    }
+  }
+
+  /**
+   * Moves a block to the most recently used end.
+   *
+   * @param blockId id of the block accessed or committed
+   */
+  private void updateOnAccess(long blockId) {
+    synchronized (mLRUHeap) {
+      mLRUHeap.put(blockId, ++mLogicTimeCount);
+    }
+  }
+
+  /**
+   * @param blockId id of the block removed
+   */
+  private void updateOnRemoveBlock(long blockId) {
+    synchronized (mLRUHeap) {
+      mLRUHeap.remove(blockId);
+    }
   }
 }
@@ -28,10 +28,10 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.concurrent.NotThreadSafe;
@@ -39,6 +39,9 @@ import javax.annotation.concurrent.NotThreadSafe;
 /**
  * Represents a directory in a storage tier. It has a fixed capacity allocated to it on
  * instantiation. It contains the set of blocks currently in the storage directory.
+ * <p>
+ * The metadata of a dir can be read while it is updated, but updates must be serialized by the
+ * caller, e.g. by the per-dir locks of {@link alluxio.worker.block.TieredBlockStore}.
  */
 @NotThreadSafe
 public final class StorageDir {
@@ -64,9 +67,9 @@ public final class StorageDir {
     mAvailableBytes = new AtomicLong(capacityBytes);
     mCommittedBytes = new AtomicLong(0);
     mDirPath = dirPath;
-    mBlockIdToBlockMap = new HashMap<>(200);
-    mBlockIdToTempBlockMap = new HashMap<>(200);
-    mSessionIdToTempBlockIdsMap = new HashMap<>(200);
+    mBlockIdToBlockMap = new ConcurrentHashMap<>(200);
+    mBlockIdToTempBlockMap = new ConcurrentHashMap<>(200);
+    mSessionIdToTempBlockIdsMap = new ConcurrentHashMap<>(200);
   }
 
   /**
@@ -311,7 +314,9 @@ public final class StorageDir {
     mBlockIdToTempBlockMap.put(blockId, tempBlockMeta);
     Set<Long> sessionTempBlocks = mSessionIdToTempBlockIdsMap.get(sessionId);
     if (sessionTempBlocks == null) {
-      mSessionIdToTempBlockIdsMap.put(sessionId, Sets.newHashSet(blockId));
+      sessionTempBlocks = Sets.newConcurrentHashSet();
+      sessionTempBlocks.add(blockId);
+      mSessionIdToTempBlockIdsMap.put(sessionId, sessionTempBlocks);
     } else {
       sessionTempBlocks.add(blockId);
     }
@@ -378,6 +383,29 @@ public final class StorageDir {
     }
   }
 
+  /**
+   * Grows a temp block only if this storage dir has enough available space for the new size. The
+   * space check and the reservation happen in a single atomic step, so concurrent callers growing
+   * different temp blocks in this dir never reserve more than the available bytes.
+   *
+   * @param tempBlockMeta the metadata of the temp block to resize
+   * @param newSize the new size after change in bytes
+   * @return true if the temp block was resized, false if there was not enough space
+   * @throws InvalidWorkerStateException when newSize is smaller than oldSize
+   */
+  public boolean tryResizeTempBlockMeta(TempBlockMeta tempBlockMeta, long newSize)
+      throws InvalidWorkerStateException {
+    long oldSize = tempBlockMeta.getBlockSize();
+    if (newSize < oldSize) {
+      throw new InvalidWorkerStateException("Shrinking block, not supported!");
+    }
+    if (!tryReserveSpace(newSize - oldSize)) {
+      return false;
+    }
+    tempBlockMeta.setBlockSize(newSize);
+    return true;
+  }
+
   /**
    * Cleans up the temp block metadata for each block id passed in.
    *
@@ -429,7 +457,11 @@ public final class StorageDir {
     }
     List<TempBlockMeta> sessionTempBlocks = new ArrayList<>();
     for (long blockId : sessionTempBlockIds) {
-      sessionTempBlocks.add(mBlockIdToTempBlockMap.get(blockId));
+      TempBlockMeta tempBlockMeta = mBlockIdToTempBlockMap.get(blockId);
+      // The temp block may be committed or aborted concurrently
+      if (tempBlockMeta != null) {
+        sessionTempBlocks.add(tempBlockMeta);
+      }
     }
     return sessionTempBlocks;
   }
@@ -458,4 +490,22 @@ public final class StorageDir {
       mCommittedBytes.addAndGet(size);
     }
   }
+
+  /**
+   * Reserves uncommitted space if available, atomically with respect to other reservations.
+   *
+   * @param size the number of bytes to reserve
+   * @return true if the space was reserved, false if there was not enough available space
+   */
+  private boolean tryReserveSpace(long size) {
+    while (true) {
+      long availableBytes = mAvailableBytes.get();
+      if (availableBytes < size) {
+        return false;
+      }
+      if (mAvailableBytes.compareAndSet(availableBytes, availableBytes - size)) {
+        return true;
+      }
+    }
+  }
 }
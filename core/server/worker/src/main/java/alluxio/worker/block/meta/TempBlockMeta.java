@@ -19,7 +19,7 @@ import javax.annotation.concurrent.NotThreadSafe;
 @NotThreadSafe
 public final class TempBlockMeta extends AbstractBlockMeta {
   private final long mSessionId;
-  private long mTempBlockSize;
+  private volatile long mTempBlockSize;
 
   /**
    * Creates a new instance of {@link TempBlockMeta}.
@@ -131,6 +131,7 @@ public final class DefaultFileSystemWorker extends AbstractWorker implements Fil
         }
       }
     });
+    mFileDataManager.close();
     mFileSystemMasterWorkerClient.close();
   }
 }
@@ -13,6 +13,7 @@ package alluxio.worker.file;
 
 import alluxio.AlluxioURI;
 import alluxio.Configuration;
+import alluxio.Constants;
 import alluxio.PropertyKey;
 import alluxio.Sessions;
 import alluxio.client.file.FileSystem;
@@ -20,17 +21,22 @@ import alluxio.client.file.URIStatus;
 import alluxio.exception.AlluxioException;
 import alluxio.exception.BlockDoesNotExistException;
 import alluxio.exception.InvalidWorkerStateException;
+import alluxio.metrics.MetricsSystem;
 import alluxio.resource.CloseableResource;
 import alluxio.security.authorization.Mode;
 import alluxio.underfs.UfsManager;
 import alluxio.underfs.UnderFileSystem;
 import alluxio.underfs.options.CreateOptions;
+import alluxio.util.CommonUtils;
+import alluxio.util.ThreadFactoryUtils;
 import alluxio.util.io.BufferUtils;
 import alluxio.wire.FileInfo;
 import alluxio.worker.block.BlockWorker;
 import alluxio.worker.block.io.BlockReader;
 import alluxio.worker.block.meta.BlockMeta;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.RateLimiter;
 import org.slf4j.Logger;
@@ -38,20 +44,31 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
 
 /**
  * Responsible for storing files into under file system.
+ *
+ * The blocks of a file are read one after another by the thread persisting the file, while the
+ * data already read is written to the under storage by another thread. Blocks are not read
+ * concurrently, since a single under storage stream is written in order. Uploading parts in
+ * parallel is left to the under storage streams which support it, such as S3A, whose stream
+ * uploads the file with parallel multipart uploads when it is closed.
  */
 @NotThreadSafe // TODO(jiri): make thread-safe (c.f. ALLUXIO-1624)
 public final class FileDataManager {
@@ -65,6 +82,17 @@ public final class FileDataManager {
   @GuardedBy("mLock")
   private final Map<Long, Map<Long, Long>> mPersistingInProgressFiles;
 
+  /** The mount permits held by the files being persisted, keyed by fileId. */
+  @GuardedBy("mLock")
+  private final Map<Long, MountPermits> mPersistingPermits;
+
+  /**
+   * The file infos fetched to acquire the mount permits, keyed by fileId, so that persisting the
+   * file does not fetch them again.
+   */
+  @GuardedBy("mLock")
+  private final Map<Long, FileInfo> mPersistingFileInfos;
+
   /** A map from file id to its ufs fingerprint. */
   @GuardedBy("mLock")
   private final Map<Long, String> mPersistedUfsFingerprints;
@@ -75,6 +103,17 @@ public final class FileDataManager {
   private final RateLimiter mPersistenceRateLimiter;
   /** The manager for all ufs. */
   private final UfsManager mUfsManager;
+  /**
+   * The threads writing the blocks of the files being persisted to the under storage. There is one
+   * per thread persisting files, so writing a file never waits for another file to be written.
+   */
+  private final ExecutorService mUfsWriterExecutor;
+  /** The size of the buffer between reading the blocks and writing the under storage. */
+  private final long mPersistBufferSize;
+  /** The maximum number of files persisted concurrently per mount point, 0 for no limit. */
+  private final int mMountConcurrency;
+  /** The permits to persist files, keyed by mount id. */
+  private final ConcurrentHashMap<Long, MountPermits> mMountPermits;
 
   /**
    * Creates a new instance of {@link FileDataManager}.
@@ -87,9 +126,17 @@ public final class FileDataManager {
       UfsManager ufsManager) {
     mBlockWorker = Preconditions.checkNotNull(blockWorker, "blockWorker");
     mPersistingInProgressFiles = new HashMap<>();
+    mPersistingPermits = new HashMap<>();
+    mPersistingFileInfos = new HashMap<>();
     mPersistedUfsFingerprints = new HashMap<>();
     mPersistenceRateLimiter = persistenceRateLimiter;
     mUfsManager = ufsManager;
+    mUfsWriterExecutor = Executors.newFixedThreadPool(
+        Configuration.getInt(PropertyKey.WORKER_FILE_PERSIST_POOL_SIZE),
+        ThreadFactoryUtils.build("persist-file-writer-%d", true));
+    mPersistBufferSize = Configuration.getBytes(PropertyKey.WORKER_FILE_PERSIST_BUFFER_SIZE);
+    mMountConcurrency = Configuration.getInt(PropertyKey.WORKER_FILE_PERSIST_MOUNT_CONCURRENCY);
+    mMountPermits = new ConcurrentHashMap<>();
   }
 
   /**
@@ -171,19 +218,57 @@ public final class FileDataManager {
   }
 
   /**
-   * Locks all the blocks of a given file Id.
+   * Locks all the blocks of a given file Id. If the number of files persisted concurrently to the
+   * under storage of the file's mount point is limited and no permit is available, the blocks are
+   * not locked. The given task is then run once a file persisted to the same mount point finishes,
+   * so that no thread waits for a permit, and the blocks are not kept from eviction meanwhile.
    *
    * @param fileId the id of the file
    * @param blockIds the ids of the file's blocks
+   * @param onPermitReleased the task to run once a permit may be available, if none is now
+   * @return whether the blocks are locked, false if the file should be retried by the task
    */
-  public void lockBlocks(long fileId, List<Long> blockIds) throws IOException {
-    Map<Long, Long> blockIdToLockId = new HashMap<>();
-    List<Throwable> errors = new ArrayList<>();
+  public boolean lockBlocks(long fileId, List<Long> blockIds, Runnable onPermitReleased)
+      throws IOException {
     synchronized (mLock) {
       if (mPersistingInProgressFiles.containsKey(fileId)) {
         throw new IOException("the file " + fileId + " is already being persisted");
       }
     }
+    if (mMountConcurrency <= 0) {
+      lockAllBlocks(fileId, blockIds);
+      return true;
+    }
+    FileInfo fileInfo = mBlockWorker.getFileInfo(fileId);
+    MountPermits permits = getMountPermits(fileInfo.getMountId());
+    if (!permits.tryAcquire(onPermitReleased)) {
+      return false;
+    }
+    boolean locked = false;
+    try {
+      lockAllBlocks(fileId, blockIds);
+      synchronized (mLock) {
+        mPersistingPermits.put(fileId, permits);
+        mPersistingFileInfos.put(fileId, fileInfo);
+      }
+      locked = true;
+    } finally {
+      if (!locked) {
+        permits.release();
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Locks all the blocks of a given file Id, and marks the file as being persisted.
+   *
+   * @param fileId the id of the file
+   * @param blockIds the ids of the file's blocks
+   */
+  private void lockAllBlocks(long fileId, List<Long> blockIds) throws IOException {
+    Map<Long, Long> blockIdToLockId = new HashMap<>();
+    List<Throwable> errors = new ArrayList<>();
     try {
       // lock all the blocks to prevent any eviction
       for (long blockId : blockIds) {
@@ -223,68 +308,70 @@ public final class FileDataManager {
    */
   public void persistFile(long fileId, List<Long> blockIds) throws AlluxioException, IOException {
     Map<Long, Long> blockIdToLockId;
+    MountPermits permits;
+    FileInfo fileInfo;
     synchronized (mLock) {
       blockIdToLockId = mPersistingInProgressFiles.get(fileId);
       if (blockIdToLockId == null || !blockIdToLockId.keySet().equals(new HashSet<>(blockIds))) {
         throw new IOException("Not all the blocks of file " + fileId + " are locked");
       }
+      permits = mPersistingPermits.remove(fileId);
+      fileInfo = mPersistingFileInfos.remove(fileId);
     }
 
-    FileInfo fileInfo = mBlockWorker.getFileInfo(fileId);
+    try {
+      if (fileInfo == null) {
+        fileInfo = mBlockWorker.getFileInfo(fileId);
+      }
+      persistLockedFile(fileId, fileInfo, blockIds, blockIdToLockId);
+    } finally {
+      if (permits != null) {
+        permits.release();
+      }
+    }
+  }
+
+  /**
+   * Persists the blocks of a file, which are locked by {@link #lockBlocks(long, List)}.
+   *
+   * @param fileId the id of the file
+   * @param fileInfo the file info
+   * @param blockIds the list of block ids
+   * @param blockIdToLockId the lock ids of the blocks, keyed by block id
+   */
+  private void persistLockedFile(long fileId, FileInfo fileInfo, List<Long> blockIds,
+      Map<Long, Long> blockIdToLockId) throws AlluxioException, IOException {
     try (CloseableResource<UnderFileSystem> ufsResource =
         mUfsManager.get(fileInfo.getMountId()).acquireUfsResource()) {
       UnderFileSystem ufs = ufsResource.get();
       String dstPath = prepareUfsFilePath(fileInfo, ufs);
+      long startMs = CommonUtils.getCurrentMs();
       OutputStream outputStream = ufs.create(dstPath, CreateOptions.defaults()
           .setOwner(fileInfo.getOwner()).setGroup(fileInfo.getGroup())
           .setMode(new Mode((short) fileInfo.getMode())));
-      final WritableByteChannel outputChannel = Channels.newChannel(outputStream);
-      List<Throwable> errors = new ArrayList<>();
+      // The blocks are read by this thread, while the data already read is written to the under
+      // storage by another thread, which only overlaps reading the blocks with writing the under
+      // storage stream. The blocks are still read one after another, and the stream is written by
+      // a single thread, so this does not upload parts of the file in parallel.
+      final PipedOutputChannel outputChannel = new PipedOutputChannel(outputStream,
+          mUfsWriterExecutor, mPersistBufferSize, (int) Math.min(Constants.MB, mPersistBufferSize));
+      boolean persisted = false;
       try {
-        for (long blockId : blockIds) {
-          long lockId = blockIdToLockId.get(blockId);
-
-          if (Configuration.getBoolean(PropertyKey.WORKER_FILE_PERSIST_RATE_LIMIT_ENABLED)) {
-            BlockMeta blockMeta =
-                mBlockWorker.getBlockMeta(Sessions.CHECKPOINT_SESSION_ID, blockId, lockId);
-            mPersistenceRateLimiter.acquire((int) blockMeta.getBlockSize());
-          }
-
-          // obtain block reader
-          BlockReader reader =
-              mBlockWorker.readBlockRemote(Sessions.CHECKPOINT_SESSION_ID, blockId, lockId);
-
-          // write content out
-          ReadableByteChannel inputChannel = reader.getChannel();
-          BufferUtils.fastCopy(inputChannel, outputChannel);
-          reader.close();
-        }
-      } catch (BlockDoesNotExistException | InvalidWorkerStateException e) {
-        errors.add(e);
+        copyBlocks(fileId, blockIds, blockIdToLockId, outputChannel);
+        outputChannel.close();
+        outputStream.flush();
+        outputStream.close();
+        persisted = true;
       } finally {
-        // make sure all the locks are released
-        for (long lockId : blockIdToLockId.values()) {
-          try {
-            mBlockWorker.unlockBlock(lockId);
-          } catch (BlockDoesNotExistException e) {
-            errors.add(e);
-          }
-        }
-
-        // Process any errors
-        if (!errors.isEmpty()) {
-          StringBuilder errorStr = new StringBuilder();
-          errorStr.append("the blocks of file").append(fileId).append(" are failed to persist\n");
-          for (Throwable e : errors) {
-            errorStr.append(e).append('\n');
-          }
-          throw new IOException(errorStr.toString());
+        if (!persisted) {
+          // Stops the writing thread, and removes the incomplete file which closing the stream may
+          // have committed to the under storage.
+          outputChannel.cancel();
+          deleteIncompleteFile(ufs, dstPath);
         }
       }
-
-      outputStream.flush();
-      outputChannel.close();
-      outputStream.close();
+      recordPersistedFile(outputChannel.getBytesWritten(),
+          CommonUtils.getCurrentMs() - startMs);
       String ufsFingerprint = ufs.getFingerprint(dstPath);
       synchronized (mLock) {
         mPersistingInProgressFiles.remove(fileId);
@@ -293,6 +380,107 @@ public final class FileDataManager {
     }
   }
 
+  /**
+   * Copies the locked blocks of a file to the given channel, and unlocks the blocks.
+   *
+   * @param fileId the id of the file
+   * @param blockIds the list of block ids
+   * @param blockIdToLockId the lock ids of the blocks, keyed by block id
+   * @param outputChannel the channel to copy the blocks to
+   */
+  private void copyBlocks(long fileId, List<Long> blockIds, Map<Long, Long> blockIdToLockId,
+      WritableByteChannel outputChannel) throws AlluxioException, IOException {
+    List<Throwable> errors = new ArrayList<>();
+    try {
+      for (long blockId : blockIds) {
+        long lockId = blockIdToLockId.get(blockId);
+
+        if (Configuration.getBoolean(PropertyKey.WORKER_FILE_PERSIST_RATE_LIMIT_ENABLED)) {
+          BlockMeta blockMeta =
+              mBlockWorker.getBlockMeta(Sessions.CHECKPOINT_SESSION_ID, blockId, lockId);
+          mPersistenceRateLimiter.acquire((int) blockMeta.getBlockSize());
+        }
+
+        // obtain block reader
+        BlockReader reader =
+            mBlockWorker.readBlockRemote(Sessions.CHECKPOINT_SESSION_ID, blockId, lockId);
+
+        // write content out
+        ReadableByteChannel inputChannel = reader.getChannel();
+        BufferUtils.fastCopy(inputChannel, outputChannel);
+        reader.close();
+      }
+    } catch (BlockDoesNotExistException | InvalidWorkerStateException e) {
+      errors.add(e);
+    } finally {
+      // make sure all the locks are released
+      for (long lockId : blockIdToLockId.values()) {
+        try {
+          mBlockWorker.unlockBlock(lockId);
+        } catch (BlockDoesNotExistException e) {
+          errors.add(e);
+        }
+      }
+
+      // Process any errors
+      if (!errors.isEmpty()) {
+        StringBuilder errorStr = new StringBuilder();
+        errorStr.append("the blocks of file").append(fileId).append(" are failed to persist\n");
+        for (Throwable e : errors) {
+          errorStr.append(e).append('\n');
+        }
+        throw new IOException(errorStr.toString());
+      }
+    }
+  }
+
+  /**
+   * Deletes the incomplete file left in the under storage by a failed persist, logging any failure
+   * since the persist fails anyway.
+   *
+   * @param ufs the under storage
+   * @param path the path of the file
+   */
+  private void deleteIncompleteFile(UnderFileSystem ufs, String path) {
+    try {
+      if (ufs.isFile(path) && !ufs.deleteFile(path)) {
+        LOG.warn("Failed to delete the incomplete file {} of a failed persist", path);
+      }
+    } catch (IOException e) {
+      LOG.warn("Failed to delete the incomplete file {} of a failed persist: {}", path,
+          e.getMessage());
+    }
+  }
+
+  /**
+   * @param mountId the id of the mount point
+   * @return the permits to persist files to the under storage of the mount point
+   */
+  private MountPermits getMountPermits(long mountId) {
+    MountPermits permits = mMountPermits.get(mountId);
+    if (permits == null) {
+      MountPermits newPermits = new MountPermits(mMountConcurrency);
+      permits = mMountPermits.putIfAbsent(mountId, newPermits);
+      if (permits == null) {
+        permits = newPermits;
+      }
+    }
+    return permits;
+  }
+
+  /**
+   * Records the metrics of a persisted file.
+   *
+   * @param bytes the number of bytes persisted
+   * @param durationMs the time taken to persist the file
+   */
+  private void recordPersistedFile(long bytes, long durationMs) {
+    long bytesPerSec = bytes * Constants.SECOND_MS / Math.max(1, durationMs);
+    Metrics.FILES_PERSISTED.inc();
+    Metrics.BYTES_PERSISTED.inc(bytes);
+    Metrics.FILE_PERSIST_THROUGHPUT.update(bytesPerSec);
+  }
+
   /**
    * Prepares the destination file path of the given file id. Also creates the parent folder if it
    * does not exist.
@@ -333,6 +521,13 @@ public final class FileDataManager {
     }
   }
 
+  /**
+   * Stops the threads writing the files being persisted to the under storage.
+   */
+  public void close() {
+    mUfsWriterExecutor.shutdownNow();
+  }
+
   /**
    * Information about persisted files.
    */
@@ -372,4 +567,69 @@ public final class FileDataManager {
       return mUfsFingerprintList;
     }
   }
+
+  /**
+   * The permits to persist files to the under storage of a mount point. A file which finds no
+   * permit leaves a task to retry it, instead of holding a thread while waiting.
+   */
+  @ThreadSafe
+  private static final class MountPermits {
+    @GuardedBy("this")
+    private int mAvailable;
+    /** The tasks retrying the files which found no permit, in arrival order. */
+    @GuardedBy("this")
+    private final Queue<Runnable> mWaiting = new ArrayDeque<>();
+
+    /**
+     * @param permits the number of permits
+     */
+    private MountPermits(int permits) {
+      mAvailable = permits;
+    }
+
+    /**
+     * Takes a permit if one is available, or queues the given task to be run once a permit is
+     * released otherwise.
+     *
+     * @param onRelease the task to run once a permit is released, if none is available now
+     * @return whether a permit was taken
+     */
+    private synchronized boolean tryAcquire(Runnable onRelease) {
+      if (mAvailable > 0) {
+        mAvailable--;
+        return true;
+      }
+      mWaiting.add(onRelease);
+      return false;
+    }
+
+    /**
+     * Releases a permit, and runs the task of the first file waiting for one, if any. The task
+     * competes for the permit again, and waits again if another file took it meanwhile.
+     */
+    private void release() {
+      Runnable waiting;
+      synchronized (this) {
+        mAvailable++;
+        waiting = mWaiting.poll();
+      }
+      if (waiting != null) {
+        waiting.run();
+      }
+    }
+  }
+
+  /**
+   * Class that contains metrics about the file persistence.
+   */
+  @ThreadSafe
+  private static final class Metrics {
+    private static final Counter FILES_PERSISTED = MetricsSystem.workerCounter("FilesPersisted");
+    private static final Counter BYTES_PERSISTED = MetricsSystem.workerCounter("BytesPersisted");
+    /** The throughput of persisting each file, in bytes per second. */
+    private static final Histogram FILE_PERSIST_THROUGHPUT =
+        MetricsSystem.workerHistogram("FilePersistThroughput");
+
+    private Metrics() {} // prevent instantiation
+  }
 }
@@ -29,6 +29,7 @@ import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.annotation.concurrent.NotThreadSafe;
@@ -143,7 +144,17 @@ final class FileWorkerMasterSyncExecutor implements HeartbeatExecutor {
       if (mFileDataManager.needPersistence(mFileId)) {
         // lock all the blocks of the file to prevent eviction
         try {
-          mFileDataManager.lockBlocks(mFileId, mBlockIds);
+          if (!mFileDataManager.lockBlocks(mFileId, mBlockIds, new Runnable() {
+            @Override
+            public void run() {
+              requeue();
+            }
+          })) {
+            // The mount point of the file is persisting as many files as allowed. The file is
+            // requeued once one of them finishes, rather than holding a thread of the pool.
+            LOG.debug("Persisting file {} waits for the other files of its mount point", mFileId);
+            return;
+          }
         } catch (IOException e) {
           LOG.error("Failed to lock the blocks for file {}", mFileId, e);
         }
@@ -155,5 +166,16 @@ final class FileWorkerMasterSyncExecutor implements HeartbeatExecutor {
         }
       }
     }
+
+    /**
+     * Queues this persister again in the thread pool.
+     */
+    private void requeue() {
+      try {
+        mPersistFileService.execute(this);
+      } catch (RejectedExecutionException e) {
+        LOG.warn("Failed to requeue persisting file {}, the worker is stopping", mFileId);
+      }
+    }
   }
 }
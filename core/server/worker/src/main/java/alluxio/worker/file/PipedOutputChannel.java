@@ -0,0 +1,310 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.file;
+
+import com.google.common.base.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A channel which writes to an output stream on another thread, so that the data written to the
+ * channel can be produced while previous data is being written to the stream. The data is copied
+ * into a fixed number of buffers; writing to the channel only waits when all the buffers are
+ * waiting to be written to the stream.
+ *
+ * The channel is meant to be written by a single thread. The output stream is not closed when the
+ * channel is closed, and may be used again afterwards. If writing the stream fails or the channel
+ * is cancelled, the output stream is closed, since the data in it is incomplete. Callers should
+ * cancel the channel on every path which does not finish the output stream, so that the writing
+ * thread does not wait forever for more data. Closing the stream may still commit the incomplete
+ * data to its destination, so callers are responsible for removing it once cancelling returns.
+ */
+@NotThreadSafe
+final class PipedOutputChannel implements WritableByteChannel {
+  private static final Logger LOG = LoggerFactory.getLogger(PipedOutputChannel.class);
+  /** Marks the end of the data. */
+  private static final ByteBuffer EOF = ByteBuffer.allocate(0);
+  /** Time to wait for a free buffer before checking whether the writing thread failed. */
+  private static final long POLL_TIMEOUT_MS = 100;
+
+  /** The writing task has not started yet. */
+  private static final int WRITER_PENDING = 0;
+  /** The writing task is writing the filled buffers to the output stream. */
+  private static final int WRITER_RUNNING = 1;
+  /** The writing task wrote all the data, and the output stream is left open. */
+  private static final int WRITER_DRAINED = 2;
+  /** The writing task failed or the channel was cancelled, and the output stream is closed. */
+  private static final int WRITER_ABANDONED = 3;
+
+  private final OutputStream mOutputStream;
+  /** Buffers which can be filled by {@link #write(ByteBuffer)}. */
+  private final BlockingQueue<ByteBuffer> mFreeBuffers;
+  /** Buffers which are filled and wait to be written to the output stream. */
+  private final BlockingQueue<ByteBuffer> mFilledBuffers;
+  /** The task writing the filled buffers to the output stream. */
+  private final Future<Void> mWriter;
+  /**
+   * The state of the writing task, which decides whether {@link #cancel()} or the task itself
+   * closes the output stream.
+   */
+  private final AtomicInteger mWriterState = new AtomicInteger(WRITER_PENDING);
+  /** Released once the output stream of an abandoned write is closed. */
+  private final CountDownLatch mStreamClosed = new CountDownLatch(1);
+
+  /** The buffer being filled, or null if there is none. */
+  private ByteBuffer mBuffer;
+  private long mBytesWritten;
+  private boolean mClosed;
+
+  /**
+   * @param outputStream the output stream to write to
+   * @param executor the executor to run the writing thread in
+   * @param bufferSize the total size of the buffers
+   * @param chunkSize the size of each buffer
+   */
+  PipedOutputChannel(OutputStream outputStream, ExecutorService executor, long bufferSize,
+      int chunkSize) {
+    Preconditions.checkArgument(chunkSize > 0, "chunkSize must be positive");
+    mOutputStream = Preconditions.checkNotNull(outputStream, "outputStream");
+    int numBuffers = (int) Math.max(2, (bufferSize + chunkSize - 1) / chunkSize);
+    mFreeBuffers = new ArrayBlockingQueue<>(numBuffers);
+    // One more slot for the end of the data.
+    mFilledBuffers = new ArrayBlockingQueue<>(numBuffers + 1);
+    for (int i = 0; i < numBuffers; i++) {
+      mFreeBuffers.add(ByteBuffer.allocate(chunkSize));
+    }
+    mWriter = executor.submit(new Callable<Void>() {
+      @Override
+      public Void call() throws Exception {
+        if (!mWriterState.compareAndSet(WRITER_PENDING, WRITER_RUNNING)) {
+          // Cancelled before starting, the stream is closed by cancel().
+          return null;
+        }
+        boolean drained = false;
+        try {
+          drain();
+          drained = true;
+        } finally {
+          // Close the stream if writing failed, or if the channel was cancelled meanwhile.
+          if (!mWriterState.compareAndSet(WRITER_RUNNING,
+              drained ? WRITER_DRAINED : WRITER_ABANDONED) || !drained) {
+            closeOutputStream();
+          }
+        }
+        return null;
+      }
+    });
+  }
+
+  @Override
+  public int write(ByteBuffer src) throws IOException {
+    if (mClosed) {
+      throw new ClosedChannelException();
+    }
+    int length = src.remaining();
+    while (src.hasRemaining()) {
+      if (mBuffer == null) {
+        mBuffer = takeFreeBuffer();
+      }
+      int n = Math.min(src.remaining(), mBuffer.remaining());
+      ByteBuffer slice = src.duplicate();
+      slice.limit(slice.position() + n);
+      mBuffer.put(slice);
+      src.position(src.position() + n);
+      if (!mBuffer.hasRemaining()) {
+        mBuffer.flip();
+        mFilledBuffers.add(mBuffer);
+        mBuffer = null;
+      }
+    }
+    mBytesWritten += length;
+    return length;
+  }
+
+  @Override
+  public boolean isOpen() {
+    return !mClosed;
+  }
+
+  /**
+   * Closes the channel, and waits until all the data written to the channel is written to the
+   * output stream.
+   *
+   * @throws IOException if the data could not be written to the output stream
+   */
+  @Override
+  public void close() throws IOException {
+    if (mClosed) {
+      return;
+    }
+    mClosed = true;
+    if (mBuffer != null) {
+      mBuffer.flip();
+      mFilledBuffers.add(mBuffer);
+      mBuffer = null;
+    }
+    mFilledBuffers.add(EOF);
+    try {
+      mWriter.get();
+    } catch (InterruptedException e) {
+      mWriter.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for the data to be written");
+    } catch (ExecutionException e) {
+      throw toIOException(e);
+    }
+  }
+
+  /**
+   * Closes the channel and the output stream without waiting for the data to be written to the
+   * output stream. This may be called at any time, including after {@link #close()}, in which
+   * case the output stream is closed if the writing thread left it open.
+   *
+   * This returns once the output stream is closed, waiting for the writing thread to stop if it
+   * is writing the stream, so that the caller may then remove what the stream wrote.
+   */
+  void cancel() {
+    mClosed = true;
+    for (;;) {
+      int state = mWriterState.get();
+      switch (state) {
+        case WRITER_PENDING:
+        case WRITER_DRAINED:
+          if (mWriterState.compareAndSet(state, WRITER_ABANDONED)) {
+            mWriter.cancel(false);
+            closeOutputStream();
+            return;
+          }
+          break;
+        case WRITER_RUNNING:
+          if (mWriterState.compareAndSet(state, WRITER_ABANDONED)) {
+            // The writing thread closes the stream once it stops.
+            mWriter.cancel(true);
+            awaitStreamClosed();
+            return;
+          }
+          break;
+        default:
+          // The stream is closed or being closed by the writing thread, or by another cancel.
+          awaitStreamClosed();
+          return;
+      }
+    }
+  }
+
+  /**
+   * @return the number of bytes written to this channel
+   */
+  long getBytesWritten() {
+    return mBytesWritten;
+  }
+
+  /**
+   * Waits for a free buffer, failing if the writing thread failed.
+   *
+   * @return the free buffer
+   */
+  private ByteBuffer takeFreeBuffer() throws IOException {
+    try {
+      for (;;) {
+        ByteBuffer buffer = mFreeBuffers.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        if (buffer != null) {
+          return buffer;
+        }
+        if (mWriter.isDone()) {
+          // The writing thread stopped before the end of the data, so it failed.
+          mWriter.get();
+          throw new IOException("The output stream is no longer written");
+        }
+      }
+    } catch (InterruptedException e) {
+      cancel();
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for the data to be written");
+    } catch (ExecutionException e) {
+      throw toIOException(e);
+    }
+  }
+
+  /**
+   * Writes the filled buffers to the output stream until the end of the data.
+   */
+  private void drain() throws IOException, InterruptedException {
+    for (;;) {
+      ByteBuffer buffer = mFilledBuffers.take();
+      if (buffer == EOF) {
+        return;
+      }
+      mOutputStream.write(buffer.array(), buffer.arrayOffset() + buffer.position(),
+          buffer.remaining());
+      buffer.clear();
+      mFreeBuffers.add(buffer);
+    }
+  }
+
+  /**
+   * Closes the output stream, logging any failure since the data written is abandoned anyway.
+   */
+  private void closeOutputStream() {
+    try {
+      mOutputStream.close();
+    } catch (IOException e) {
+      LOG.warn("Failed to close the output stream of an abandoned write: {}", e.getMessage());
+    } finally {
+      mStreamClosed.countDown();
+    }
+  }
+
+  /**
+   * Waits for the output stream of an abandoned write to be closed. The wait is not interrupted,
+   * since the caller relies on the stream no longer being written when this returns.
+   */
+  private void awaitStreamClosed() {
+    boolean interrupted = false;
+    for (;;) {
+      try {
+        mStreamClosed.await();
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static IOException toIOException(ExecutionException e) {
+    if (e.getCause() instanceof IOException) {
+      return (IOException) e.getCause();
+    }
+    return new IOException(e.getCause());
+  }
+}
@@ -58,11 +58,12 @@ public final class BlockReadHandler extends AbstractReadHandler<BlockReadRequest
   private static final Logger LOG = LoggerFactory.getLogger(BlockReadHandler.class);
   private static final long UFS_BLOCK_OPEN_TIMEOUT_MS =
       Configuration.getMs(PropertyKey.WORKER_UFS_BLOCK_OPEN_TIMEOUT_MS);
-
   /** The Block Worker. */
   private final BlockWorker mWorker;
   /** The transfer type used by the data server. */
   private final FileTransferType mTransferType;
+  /** The cache of block file mappings shared by the handlers of the data server. */
+  private final MappedBlockCache mMappedBlockCache;
 
   /**
    * The packet reader to read from a local block worker.
@@ -104,21 +105,31 @@ public final class BlockReadHandler extends AbstractReadHandler<BlockReadRequest
       openBlock(context, channel);
       BlockReader blockReader = context.getBlockReader();
       Preconditions.checkState(blockReader != null);
-      if (mTransferType == FileTransferType.TRANSFER
-          && (blockReader instanceof LocalFileBlockReader)) {
-        return new DataFileChannel(new File(((LocalFileBlockReader) blockReader).getFilePath()),
-            offset, len);
-      } else {
-        ByteBuf buf = channel.alloc().buffer(len, len);
-        try {
-          while (buf.writableBytes() > 0 && blockReader.transferTo(buf) != -1) {
+      if (blockReader instanceof LocalFileBlockReader) {
+        LocalFileBlockReader localReader = (LocalFileBlockReader) blockReader;
+        // Only blocks in memory are mapped, so that the cached mappings do not keep blocks of the
+        // other tiers in the page cache. Those are sent with sendfile even with the MAPPED type.
+        if (mTransferType == FileTransferType.TRANSFER || !context.isInMemoryTier()) {
+          return new DataFileChannel(new File(localReader.getFilePath()), offset, len);
+        }
+        long length = localReader.getLength();
+        if (offset < length) {
+          ByteBuf slice = mMappedBlockCache.getSlice(context.getRequest().getId(),
+              localReader.getFilePath(), length, offset, (int) Math.min(len, length - offset));
+          if (slice != null) {
+            return new DataNettyBufferV2(slice);
           }
-          return new DataNettyBufferV2(buf);
-        } catch (Throwable e) {
-          buf.release();
-          throw e;
         }
       }
+      ByteBuf buf = channel.alloc().buffer(len, len);
+      try {
+        while (buf.writableBytes() > 0 && blockReader.transferTo(buf) != -1) {
+        }
+        return new DataNettyBufferV2(buf);
+      } catch (Throwable e) {
+        buf.release();
+        throw e;
+      }
     }
 
     /**
@@ -159,6 +170,10 @@ public final class BlockReadHandler extends AbstractReadHandler<BlockReadRequest
             BlockReader reader =
                 mWorker.readBlockRemote(request.getSessionId(), request.getId(), lockId);
             String metricName = "BytesReadAlluxio";
+            // Blocks on the top tier, which is memory, are served from memory mappings
+            context.setInMemoryTier(mStorageTierAssoc.getAlias(0).equals(mWorker
+                .getBlockMeta(request.getSessionId(), request.getId(), lockId).getBlockLocation()
+                .tierAlias()));
             context.setBlockReader(reader);
             context.setCounter(MetricsSystem.workerCounter(metricName));
             mWorker.accessBlock(request.getSessionId(), request.getId());
@@ -210,12 +225,14 @@ public final class BlockReadHandler extends AbstractReadHandler<BlockReadRequest
    * @param executorService the executor service to run {@link PacketReader}s
    * @param blockWorker the block worker
    * @param fileTransferType the file transfer type
+   * @param mappedBlockCache the cache of block file mappings
    */
   public BlockReadHandler(ExecutorService executorService, BlockWorker blockWorker,
-      FileTransferType fileTransferType) {
+      FileTransferType fileTransferType, MappedBlockCache mappedBlockCache) {
     super(executorService);
     mWorker = blockWorker;
     mTransferType = fileTransferType;
+    mMappedBlockCache = mappedBlockCache;
   }
 
   @Override
@@ -23,6 +23,8 @@ import javax.annotation.concurrent.NotThreadSafe;
 @NotThreadSafe
 public final class BlockReadRequestContext extends ReadRequestContext<BlockReadRequest> {
   private BlockReader mBlockReader;
+  /** Whether the block being read is in the memory tier of the worker. */
+  private boolean mInMemoryTier;
 
   /**
    * @param request read request in proto
@@ -45,4 +47,18 @@ public final class BlockReadRequestContext extends ReadRequestContext<BlockReadR
   public void setBlockReader(BlockReader blockReader) {
     mBlockReader = blockReader;
   }
+
+  /**
+   * @return whether the block being read is in the memory tier of the worker
+   */
+  public boolean isInMemoryTier() {
+    return mInMemoryTier;
+  }
+
+  /**
+   * @param inMemoryTier whether the block being read is in the memory tier of the worker
+   */
+  public void setInMemoryTier(boolean inMemoryTier) {
+    mInMemoryTier = inMemoryTier;
+  }
 }
@@ -0,0 +1,271 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.netty;
+
+import alluxio.metrics.MetricsSystem;
+import alluxio.util.io.BufferUtils;
+import alluxio.worker.block.AbstractBlockStoreEventListener;
+import alluxio.worker.block.BlockStoreLocation;
+
+import com.codahale.metrics.Counter;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A cache of read-only memory mappings of committed block files, shared by all the block read
+ * handlers of a data server. Serving a packet from a cached mapping hands a slice of the mapping
+ * to netty directly, so no bytes are copied in user space.
+ *
+ * The total number of mapped bytes retained by the cache is bounded by its capacity. Mappings are
+ * reference counted: the cache holds one reference and every slice handed out holds another one
+ * until netty releases it, which happens once the packet has been written to the network. A
+ * mapping is unmapped once it has been dropped from the cache and all its slices are released.
+ * Mappings of blocks which are moved or removed are dropped on the corresponding block store
+ * events so that the cache does not pin the space of deleted block files.
+ */
+@ThreadSafe
+final class MappedBlockCache extends AbstractBlockStoreEventListener {
+  private final Cache<Long, MappedBlock> mCache;
+  private final long mCapacityBytes;
+
+  /**
+   * @param capacityBytes the maximum number of mapped bytes to retain, 0 to disable the cache
+   */
+  MappedBlockCache(long capacityBytes) {
+    Preconditions.checkArgument(capacityBytes >= 0, "capacityBytes must be non-negative");
+    mCapacityBytes = capacityBytes;
+    // The maximum weight is divided among the segments of the cache, so use a single segment to
+    // allow caching blocks as large as the capacity. Reads of the cache do not lock the segment.
+    mCache = CacheBuilder.newBuilder()
+        .concurrencyLevel(1)
+        .maximumWeight(capacityBytes)
+        .weigher(new Weigher<Long, MappedBlock>() {
+          @Override
+          public int weigh(Long blockId, MappedBlock block) {
+            return block.mBuffer.capacity();
+          }
+        })
+        .removalListener(new RemovalListener<Long, MappedBlock>() {
+          @Override
+          public void onRemoval(RemovalNotification<Long, MappedBlock> notification) {
+            notification.getValue().release();
+          }
+        })
+        .build();
+  }
+
+  /**
+   * @return true if the cache may retain mappings
+   */
+  boolean isEnabled() {
+    return mCapacityBytes > 0;
+  }
+
+  /**
+   * Gets a slice of the mapping of a block file. The block file is mapped if it is not cached
+   * yet, or if the cached mapping does not match the given path and length.
+   *
+   * @param blockId the block id
+   * @param path the path of the block file
+   * @param length the length of the block file
+   * @param offset the offset of the slice in the block
+   * @param len the length of the slice
+   * @return the slice, which must be released after use, or null if the block file cannot be
+   *         cached
+   */
+  @Nullable
+  ByteBuf getSlice(long blockId, String path, long length, long offset, int len)
+      throws IOException {
+    Preconditions.checkArgument(offset >= 0 && len >= 0 && offset + len <= length,
+        "offset=%s, len=%s, exceeding length=%s", offset, len, length);
+    if (!isEnabled() || length > Integer.MAX_VALUE || length > mCapacityBytes) {
+      return null;
+    }
+    MappedBlock block = mCache.getIfPresent(blockId);
+    if (block != null && block.matches(path, length) && block.retain()) {
+      Metrics.MAPPED_BLOCK_CACHE_HITS.inc();
+    } else {
+      Metrics.MAPPED_BLOCK_CACHE_MISSES.inc();
+      block = new MappedBlock(path, map(path, length));
+      // Take the reference of the cache before publishing the mapping, the reference of the
+      // creator is handed to the slice.
+      block.retain();
+      mCache.put(blockId, block);
+    }
+    return block.slice((int) offset, len);
+  }
+
+  /**
+   * Drops the mapping of a block, if any.
+   *
+   * @param blockId the block id
+   */
+  void invalidate(long blockId) {
+    mCache.invalidate(blockId);
+  }
+
+  /**
+   * Drops all the mappings.
+   */
+  void invalidateAll() {
+    mCache.invalidateAll();
+  }
+
+  /**
+   * @return the number of mapped bytes retained by the cache
+   */
+  long getMappedBytes() {
+    long bytes = 0;
+    for (MappedBlock block : mCache.asMap().values()) {
+      bytes += block.mBuffer.capacity();
+    }
+    return bytes;
+  }
+
+  @Override
+  public void onMoveBlockByClient(long sessionId, long blockId, BlockStoreLocation oldLocation,
+      BlockStoreLocation newLocation) {
+    invalidate(blockId);
+  }
+
+  @Override
+  public void onMoveBlockByWorker(long sessionId, long blockId, BlockStoreLocation oldLocation,
+      BlockStoreLocation newLocation) {
+    invalidate(blockId);
+  }
+
+  @Override
+  public void onRemoveBlockByClient(long sessionId, long blockId) {
+    invalidate(blockId);
+  }
+
+  @Override
+  public void onRemoveBlockByWorker(long sessionId, long blockId) {
+    invalidate(blockId);
+  }
+
+  private static MappedByteBuffer map(String path, long length) throws IOException {
+    try (RandomAccessFile file = new RandomAccessFile(path, "r");
+        FileChannel channel = file.getChannel()) {
+      // The mapping stays valid after the channel is closed.
+      return channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+    }
+  }
+
+  /**
+   * A reference counted memory mapping of a block file.
+   */
+  @ThreadSafe
+  private static final class MappedBlock {
+    private final String mPath;
+    private final MappedByteBuffer mBuffer;
+    /** The number of references, starting with the one of the creator. */
+    private final AtomicInteger mRefCount = new AtomicInteger(1);
+
+    MappedBlock(String path, MappedByteBuffer buffer) {
+      mPath = path;
+      mBuffer = buffer;
+    }
+
+    boolean matches(String path, long length) {
+      return mPath.equals(path) && mBuffer.capacity() == length;
+    }
+
+    /**
+     * @return true if a reference was taken, false if the block file has been unmapped already
+     */
+    boolean retain() {
+      while (true) {
+        int count = mRefCount.get();
+        if (count == 0) {
+          return false;
+        }
+        if (mRefCount.compareAndSet(count, count + 1)) {
+          return true;
+        }
+      }
+    }
+
+    /**
+     * Releases a reference, unmapping the block file when the last one is released.
+     */
+    void release() {
+      if (mRefCount.decrementAndGet() == 0) {
+        BufferUtils.cleanDirectBuffer(mBuffer);
+      }
+    }
+
+    /**
+     * Wraps a slice of the mapping, handing over a reference the caller has taken.
+     *
+     * @param offset the offset of the slice
+     * @param len the length of the slice
+     * @return the slice, releasing the reference when it is released
+     */
+    ByteBuf slice(int offset, int len) {
+      ByteBuffer slice = mBuffer.duplicate();
+      slice.position(offset);
+      slice.limit(offset + len);
+      return new MappedSlice(this, Unpooled.wrappedBuffer(slice.slice()));
+    }
+  }
+
+  /**
+   * A slice of a mapping, which releases its reference to the mapping when it is deallocated.
+   */
+  private static final class MappedSlice extends CompositeByteBuf {
+    private final MappedBlock mBlock;
+
+    MappedSlice(MappedBlock block, ByteBuf slice) {
+      // A single component, but netty requires room for at least two.
+      super(UnpooledByteBufAllocator.DEFAULT, true, 2, slice);
+      mBlock = block;
+    }
+
+    @Override
+    protected void deallocate() {
+      super.deallocate();
+      mBlock.release();
+    }
+  }
+
+  /**
+   * Class that contains metrics about the mapped block cache.
+   */
+  @ThreadSafe
+  private static final class Metrics {
+    private static final Counter MAPPED_BLOCK_CACHE_HITS =
+        MetricsSystem.workerCounter("MappedBlockCacheHits");
+    private static final Counter MAPPED_BLOCK_CACHE_MISSES =
+        MetricsSystem.workerCounter("MappedBlockCacheMisses");
+
+    private Metrics() {} // prevent instantiation
+  }
+}
@@ -35,6 +35,7 @@ import javax.annotation.concurrent.ThreadSafe;
 final class PipelineHandler extends ChannelInitializer<Channel> {
   private final WorkerProcess mWorkerProcess;
   private final FileTransferType mFileTransferType;
+  private final MappedBlockCache mMappedBlockCache;
 
   /**
    * @param workerProcess the Alluxio worker process
@@ -43,6 +44,12 @@ final class PipelineHandler extends ChannelInitializer<Channel> {
     mWorkerProcess = workerProcess;
     mFileTransferType = Configuration
         .getEnum(PropertyKey.WORKER_NETWORK_NETTY_FILE_TRANSFER_TYPE, FileTransferType.class);
+    mMappedBlockCache = new MappedBlockCache(
+        Configuration.getBytes(PropertyKey.WORKER_NETWORK_NETTY_MMAP_CACHE_SIZE));
+    if (mMappedBlockCache.isEnabled()) {
+      mWorkerProcess.getWorker(BlockWorker.class).getBlockStore()
+          .registerBlockStoreEventListener(mMappedBlockCache);
+    }
   }
 
   @Override
@@ -65,7 +72,7 @@ final class PipelineHandler extends ChannelInitializer<Channel> {
     // Block Handlers
     pipeline.addLast("blockReadHandler",
         new BlockReadHandler(NettyExecutors.BLOCK_READER_EXECUTOR,
-            mWorkerProcess.getWorker(BlockWorker.class), mFileTransferType));
+            mWorkerProcess.getWorker(BlockWorker.class), mFileTransferType, mMappedBlockCache));
     pipeline.addLast("blockWriteHandler", new BlockWriteHandler(
         NettyExecutors.BLOCK_WRITER_EXECUTOR, mWorkerProcess.getWorker(BlockWorker.class),
         mWorkerProcess.getUfsManager()));
@@ -0,0 +1,57 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.block;
+
+import alluxio.BenchmarkUtils;
+import alluxio.Constants;
+
+/**
+ * Measures the lock/unlock throughput of {@link BlockLockManager} for an increasing number of
+ * threads, doubling from one up to twice the number of available processors. Each thread uses its
+ * own session and read locks blocks picked from a shared set, mimicking concurrent short-circuit
+ * and remote reads.
+ *
+ * Usage: {@code BlockLockManagerBenchmark [durationSeconds] [numBlocks]}
+ */
+public final class BlockLockManagerBenchmark {
+  private BlockLockManagerBenchmark() {} // prevent instantiation
+
+  /**
+   * @param args the duration of each run in seconds and the number of distinct blocks
+   */
+  public static void main(String[] args) throws Exception {
+    long durationMs = (args.length > 0 ? Long.parseLong(args[0]) : 5) * Constants.SECOND_MS;
+    int numBlocks = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+    int maxThreads = 2 * Runtime.getRuntime().availableProcessors();
+    System.out.printf("%10s %20s%n", "threads", "lock+unlock/sec");
+    for (int threads = 1; threads <= maxThreads; threads *= 2) {
+      System.out.printf("%10d %20d%n", threads, run(threads, numBlocks, durationMs));
+    }
+  }
+
+  /**
+   * @param numThreads the number of threads locking and unlocking blocks
+   * @param numBlocks the number of distinct blocks to lock
+   * @param durationMs how long to run for
+   * @return the number of lock and unlock pairs per second
+   */
+  private static long run(int numThreads, final int numBlocks, long durationMs)
+      throws Exception {
+    final BlockLockManager manager = new BlockLockManager();
+    return BenchmarkUtils.measureThroughput(numThreads, durationMs, (thread, iteration) -> {
+      // Each thread is its own session and visits the blocks in a different order.
+      long blockId = (thread + 7 * (iteration + 1)) % numBlocks;
+      long lockId = manager.lockBlock(thread, blockId, BlockLockType.READ);
+      manager.unlockBlockNoException(lockId);
+    });
+  }
+}
@@ -40,6 +40,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Unit tests for {@link BlockLockManager}.
@@ -328,6 +329,101 @@ public final class BlockLockManagerTest {
     manager.validate();
   }
 
+  /**
+   * Tests that cleaning up sessions concurrently with unlocking their locks releases every lock
+   * exactly once.
+   */
+  @Test(timeout = 10000)
+  public void concurrentCleanupAndUnlock() throws Throwable {
+    final int numSessions = 50;
+    final int locksPerSession = 20;
+    final BlockLockManager manager = new BlockLockManager();
+    final List<Thread> threads = new ArrayList<>();
+    final CyclicBarrier barrier = new CyclicBarrier(numSessions * 2);
+    final ConcurrentHashSet<Throwable> failedThreadThrowables = new ConcurrentHashSet<>();
+    for (int session = 0; session < numSessions; session++) {
+      final long sessionId = session;
+      final List<Long> lockIds = new ArrayList<>();
+      for (int i = 0; i < locksPerSession; i++) {
+        lockIds.add(manager.lockBlock(sessionId, i, BlockLockType.READ));
+      }
+      threads.add(new Thread(() -> {
+        try {
+          barrier.await();
+          for (long lockId : lockIds) {
+            manager.unlockBlockNoException(lockId);
+          }
+        } catch (Throwable t) {
+          failedThreadThrowables.add(t);
+        }
+      }));
+      threads.add(new Thread(() -> {
+        try {
+          barrier.await();
+          manager.cleanupSession(sessionId);
+        } catch (Throwable t) {
+          failedThreadThrowables.add(t);
+        }
+      }));
+    }
+    for (Thread t : threads) {
+      t.start();
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+    assertTrue(failedThreadThrowables.isEmpty());
+    assertTrue(manager.getLockedBlocks().isEmpty());
+    manager.validate();
+    // Every block can be write locked again, so no read lock was leaked.
+    for (int i = 0; i < locksPerSession; i++) {
+      manager.unlockBlock(manager.lockBlock(TEST_SESSION_ID, i, BlockLockType.WRITE));
+    }
+  }
+
+  /**
+   * Tests that cleaning up a session while it is taking locks leaves no lock record behind which
+   * the session no longer tracks.
+   */
+  @Test(timeout = 10000)
+  public void concurrentCleanupAndLock() throws Throwable {
+    final int numLocks = 10000;
+    final BlockLockManager manager = new BlockLockManager();
+    final CyclicBarrier barrier = new CyclicBarrier(2);
+    final AtomicBoolean done = new AtomicBoolean(false);
+    final ConcurrentHashSet<Throwable> failedThreadThrowables = new ConcurrentHashSet<>();
+    Thread locker = new Thread(() -> {
+      try {
+        barrier.await();
+        for (int i = 0; i < numLocks; i++) {
+          manager.lockBlock(TEST_SESSION_ID, i % 64, BlockLockType.READ);
+        }
+      } catch (Throwable t) {
+        failedThreadThrowables.add(t);
+      } finally {
+        done.set(true);
+      }
+    });
+    Thread cleaner = new Thread(() -> {
+      try {
+        barrier.await();
+        while (!done.get()) {
+          manager.cleanupSession(TEST_SESSION_ID);
+        }
+      } catch (Throwable t) {
+        failedThreadThrowables.add(t);
+      }
+    });
+    locker.start();
+    cleaner.start();
+    locker.join();
+    cleaner.join();
+    assertTrue(failedThreadThrowables.isEmpty());
+    manager.cleanupSession(TEST_SESSION_ID);
+    assertTrue(manager.getLockedBlocks().isEmpty());
+    manager.validate();
+  }
+
   private void setMaxLocks(int maxLocks) {
     Configuration.set(PropertyKey.WORKER_TIERED_STORE_BLOCK_LOCKS, Integer.toString(maxLocks));
   }
@@ -16,6 +16,7 @@ import alluxio.worker.block.meta.StorageDir;
 import alluxio.worker.block.meta.StorageTier;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.Longs;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
@@ -81,6 +82,18 @@ public final class BlockStoreMetaTest {
     Assert.assertEquals(tierAliasToBlockIds, actual);
   }
 
+  /**
+   * Tests the {@link BlockStoreMeta#getBlockIdsOnTiers()} method.
+   */
+  @Test
+  public void getBlockIdsOnTiers() {
+    Map<String, long[]> actual = mBlockStoreMetaFull.getBlockIdsOnTiers();
+    Assert.assertEquals(TieredBlockStoreTestUtils.TIER_ALIAS.length, actual.size());
+    for (Map.Entry<String, List<Long>> entry : mBlockStoreMetaFull.getBlockList().entrySet()) {
+      Assert.assertArrayEquals(Longs.toArray(entry.getValue()), actual.get(entry.getKey()));
+    }
+  }
+
   /**
    * Tests the {@link BlockStoreMeta#getCapacityBytes()} method.
    */
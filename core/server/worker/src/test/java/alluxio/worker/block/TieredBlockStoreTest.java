@@ -16,6 +16,7 @@ import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertFalse;
 
+import alluxio.collections.ConcurrentHashSet;
 import alluxio.exception.BlockAlreadyExistsException;
 import alluxio.exception.BlockDoesNotExistException;
 import alluxio.exception.ExceptionMessage;
@@ -36,6 +37,9 @@ import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
 
 /**
  * Unit tests for {@link TieredBlockStore}.
@@ -313,6 +317,87 @@ public final class TieredBlockStoreTest {
     assertEquals(mTestDir1.getCapacityBytes() - BLOCK_SIZE, mTestDir1.getAvailableBytes());
   }
 
+  /**
+   * Tests that concurrent {@link TieredBlockStore#requestSpace(long, long, long)} calls on temp
+   * blocks in the same dir account for every requested byte exactly once.
+   */
+  @Test(timeout = 10000)
+  public void concurrentRequestSpace() throws Throwable {
+    final int numBlocks = 8;
+    final int requestsPerBlock = 100;
+    final List<Thread> threads = new ArrayList<>();
+    final CyclicBarrier barrier = new CyclicBarrier(numBlocks);
+    final ConcurrentHashSet<Throwable> failedThreadThrowables = new ConcurrentHashSet<>();
+    for (int i = 0; i < numBlocks; i++) {
+      final long blockId = TEMP_BLOCK_ID + i;
+      TieredBlockStoreTestUtils.createTempBlock(SESSION_ID1, blockId, 1, mTestDir1);
+      threads.add(new Thread(() -> {
+        try {
+          barrier.await();
+          for (int j = 0; j < requestsPerBlock; j++) {
+            mBlockStore.requestSpace(SESSION_ID1, blockId, 1);
+          }
+        } catch (Throwable t) {
+          failedThreadThrowables.add(t);
+        }
+      }));
+    }
+    for (Thread t : threads) {
+      t.start();
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+    assertTrue(failedThreadThrowables.isEmpty());
+    for (int i = 0; i < numBlocks; i++) {
+      assertEquals(requestsPerBlock + 1,
+          mTestDir1.getTempBlockMeta(TEMP_BLOCK_ID + i).getBlockSize());
+    }
+    assertEquals(mTestDir1.getCapacityBytes() - numBlocks * (requestsPerBlock + 1),
+        mTestDir1.getAvailableBytes());
+  }
+
+  /**
+   * Tests that blocks cached concurrently in different dirs are all committed, and that the space
+   * of each dir accounts for its blocks exactly once.
+   */
+  @Test(timeout = 10000)
+  public void concurrentCacheInDifferentDirs() throws Throwable {
+    final int numThreadsPerDir = 2;
+    final int blocksPerThread = 5;
+    final StorageDir[] dirs = {mTestDir1, mTestDir2};
+    final List<Thread> threads = new ArrayList<>();
+    final CyclicBarrier barrier = new CyclicBarrier(dirs.length * numThreadsPerDir);
+    final ConcurrentHashSet<Throwable> failedThreadThrowables = new ConcurrentHashSet<>();
+    for (int i = 0; i < dirs.length * numThreadsPerDir; i++) {
+      final long firstBlockId = BLOCK_ID1 + i * blocksPerThread;
+      final BlockStoreLocation location = dirs[i % dirs.length].toBlockStoreLocation();
+      threads.add(new Thread(() -> {
+        try {
+          barrier.await();
+          for (int j = 0; j < blocksPerThread; j++) {
+            TieredBlockStoreTestUtils.cache(SESSION_ID1, firstBlockId + j, BLOCK_SIZE / 8,
+                mBlockStore, location);
+          }
+        } catch (Throwable t) {
+          failedThreadThrowables.add(t);
+        }
+      }));
+    }
+    for (Thread t : threads) {
+      t.start();
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+    assertTrue(failedThreadThrowables.isEmpty());
+    for (StorageDir dir : dirs) {
+      assertEquals(numThreadsPerDir * blocksPerThread, dir.getBlockIds().size());
+      assertEquals(dir.getCapacityBytes() - numThreadsPerDir * blocksPerThread * BLOCK_SIZE / 8,
+          dir.getAvailableBytes());
+    }
+  }
+
   /**
    * Tests the {@link TieredBlockStore#createBlock(long, long, BlockStoreLocation, long)} method
    * to work without eviction.
@@ -0,0 +1,165 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.block;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.Constants;
+import alluxio.proto.dataserver.Protocol;
+import alluxio.underfs.UnderFileSystem;
+import alluxio.underfs.options.OpenOptions;
+import alluxio.util.io.BufferUtils;
+import alluxio.worker.block.meta.UnderFileSystemBlockMeta;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Unit tests for {@link UfsBlockReadCoalescer}.
+ */
+public final class UfsBlockReadCoalescerTest {
+  private static final String FILE_NAME = "/test";
+  private static final long BLOCK_ID = 2;
+  private static final int CHUNK_SIZE = 64 * Constants.KB;
+  private static final int BLOCK_SIZE = 4 * CHUNK_SIZE;
+  private static final int OFFSET_IN_FILE = 10;
+  private static final byte[] FILE_DATA =
+      BufferUtils.getIncreasingByteArray(OFFSET_IN_FILE + BLOCK_SIZE);
+
+  private UnderFileSystem mUfs;
+  private UnderFileSystemBlockMeta mBlockMeta;
+
+  @Before
+  public void before() throws Exception {
+    mUfs = Mockito.mock(UnderFileSystem.class);
+    Mockito.when(mUfs.open(Mockito.eq(FILE_NAME), Mockito.any(OpenOptions.class)))
+        .thenAnswer(invocation -> {
+          OpenOptions options = (OpenOptions) invocation.getArguments()[1];
+          InputStream inputStream = new ByteArrayInputStream(FILE_DATA);
+          inputStream.skip(options.getOffset());
+          return inputStream;
+        });
+    mBlockMeta = new UnderFileSystemBlockMeta(1, BLOCK_ID,
+        Protocol.OpenUfsBlockOptions.newBuilder().setMaxUfsReadConcurrency(10)
+            .setBlockSize(BLOCK_SIZE).setOffsetInFile(OFFSET_IN_FILE).setUfsPath(FILE_NAME)
+            .build());
+  }
+
+  /**
+   * Tests that concurrent readers of a block share a single UFS input stream.
+   */
+  @Test
+  public void concurrentReadersShareFetch() throws Exception {
+    UfsBlockReadCoalescer coalescer =
+        new UfsBlockReadCoalescer(new UfsInputStreamManager(), BLOCK_SIZE);
+    InputStream in1 = coalescer.acquire(mUfs, mBlockMeta, 0);
+    InputStream in2 = coalescer.acquire(mUfs, mBlockMeta, 0);
+    byte[] data1 = new byte[BLOCK_SIZE];
+    byte[] data2 = new byte[BLOCK_SIZE];
+    int packetSize = 10 * Constants.KB;
+    for (int pos = 0; pos < BLOCK_SIZE; pos += packetSize) {
+      int length = Math.min(packetSize, BLOCK_SIZE - pos);
+      readFully(in1, data1, pos, length);
+      readFully(in2, data2, pos, length);
+    }
+    assertEquals(-1, in1.read());
+    assertEquals(-1, in2.read());
+    byte[] expected = Arrays.copyOfRange(FILE_DATA, OFFSET_IN_FILE, OFFSET_IN_FILE + BLOCK_SIZE);
+    assertArrayEquals(expected, data1);
+    assertArrayEquals(expected, data2);
+    Mockito.verify(mUfs, Mockito.times(1)).open(Mockito.eq(FILE_NAME),
+        Mockito.any(OpenOptions.class));
+
+    coalescer.release(in1);
+    assertTrue(coalescer.hasSharedFetch(BLOCK_ID));
+    coalescer.release(in2);
+    assertFalse(coalescer.hasSharedFetch(BLOCK_ID));
+  }
+
+  /**
+   * Tests that a reader falling further than the window behind another reader continues with its
+   * own UFS input stream.
+   */
+  @Test
+  public void readerBehindWindow() throws Exception {
+    UfsBlockReadCoalescer coalescer =
+        new UfsBlockReadCoalescer(new UfsInputStreamManager(), CHUNK_SIZE);
+    InputStream in1 = coalescer.acquire(mUfs, mBlockMeta, 0);
+    InputStream in2 = coalescer.acquire(mUfs, mBlockMeta, 0);
+    byte[] data1 = new byte[BLOCK_SIZE];
+    byte[] data2 = new byte[BLOCK_SIZE];
+    readFully(in2, data2, 0, 1);
+    readFully(in1, data1, 0, BLOCK_SIZE);
+    readFully(in2, data2, 1, BLOCK_SIZE - 1);
+    byte[] expected = Arrays.copyOfRange(FILE_DATA, OFFSET_IN_FILE, OFFSET_IN_FILE + BLOCK_SIZE);
+    assertArrayEquals(expected, data1);
+    assertArrayEquals(expected, data2);
+    Mockito.verify(mUfs, Mockito.times(2)).open(Mockito.eq(FILE_NAME),
+        Mockito.any(OpenOptions.class));
+    coalescer.release(in1);
+    coalescer.release(in2);
+    assertFalse(coalescer.hasSharedFetch(BLOCK_ID));
+  }
+
+  /**
+   * Tests that a reader starting before the bytes kept by the shared fetch opens its own UFS
+   * input stream.
+   */
+  @Test
+  public void lateReader() throws Exception {
+    UfsBlockReadCoalescer coalescer =
+        new UfsBlockReadCoalescer(new UfsInputStreamManager(), BLOCK_SIZE);
+    InputStream in1 = coalescer.acquire(mUfs, mBlockMeta, 0);
+    byte[] data = new byte[BLOCK_SIZE];
+    readFully(in1, data, 0, 2 * CHUNK_SIZE);
+    InputStream in2 = coalescer.acquire(mUfs, mBlockMeta, 0);
+    readFully(in2, data, 0, BLOCK_SIZE);
+    assertArrayEquals(
+        Arrays.copyOfRange(FILE_DATA, OFFSET_IN_FILE, OFFSET_IN_FILE + BLOCK_SIZE), data);
+    Mockito.verify(mUfs, Mockito.times(2)).open(Mockito.eq(FILE_NAME),
+        Mockito.any(OpenOptions.class));
+    coalescer.release(in1);
+    coalescer.release(in2);
+  }
+
+  /**
+   * Tests that readers use their own UFS input streams when coalescing is disabled.
+   */
+  @Test
+  public void disabled() throws Exception {
+    UfsBlockReadCoalescer coalescer = new UfsBlockReadCoalescer(new UfsInputStreamManager(), 0);
+    InputStream in1 = coalescer.acquire(mUfs, mBlockMeta, 0);
+    InputStream in2 = coalescer.acquire(mUfs, mBlockMeta, 0);
+    assertFalse(coalescer.hasSharedFetch(BLOCK_ID));
+    Mockito.verify(mUfs, Mockito.times(2)).open(Mockito.eq(FILE_NAME),
+        Mockito.any(OpenOptions.class));
+    coalescer.release(in1);
+    coalescer.release(in2);
+  }
+
+  private static void readFully(InputStream in, byte[] b, int off, int len) throws Exception {
+    while (len > 0) {
+      int bytesRead = in.read(b, off, len);
+      assertTrue(bytesRead > 0);
+      off += bytesRead;
+      len -= bytesRead;
+    }
+  }
+}
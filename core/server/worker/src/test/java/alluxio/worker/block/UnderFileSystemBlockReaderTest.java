@@ -21,6 +21,7 @@ import alluxio.proto.dataserver.Protocol;
 import alluxio.underfs.UfsManager;
 import alluxio.underfs.UfsManager.UfsClient;
 import alluxio.underfs.UnderFileSystem;
+import alluxio.underfs.options.OpenOptions;
 import alluxio.util.io.BufferUtils;
 import alluxio.worker.block.io.BlockReader;
 import alluxio.worker.block.meta.UnderFileSystemBlockMeta;
@@ -48,7 +49,8 @@ public final class UnderFileSystemBlockReaderTest {
   private BlockStore mAlluxioBlockStore;
   private UnderFileSystemBlockMeta mUnderFileSystemBlockMeta;
   private UfsManager mUfsManager;
-  private UfsInputStreamManager mUfsInstreamManager;
+  private UnderFileSystem mUfs;
+  private UfsBlockReadCoalescer mUfsBlockReadCoalescer;
   private Protocol.OpenUfsBlockOptions mOpenUfsBlockOptions;
 
   /** Rule to create a new temporary folder during each test. */
@@ -79,10 +81,10 @@ public final class UnderFileSystemBlockReaderTest {
 
     mAlluxioBlockStore = new TieredBlockStore();
     mUfsManager = Mockito.mock(UfsManager.class);
-    mUfsInstreamManager = new UfsInputStreamManager();
-    UfsClient ufsClient = new UfsClient(
-        Suppliers.ofInstance(UnderFileSystem.Factory.create(testFilePath)),
-        new AlluxioURI(testFilePath));
+    mUfsBlockReadCoalescer =
+        new UfsBlockReadCoalescer(new UfsInputStreamManager(), TEST_BLOCK_SIZE);
+    mUfs = Mockito.spy(UnderFileSystem.Factory.create(testFilePath));
+    UfsClient ufsClient = new UfsClient(Suppliers.ofInstance(mUfs), new AlluxioURI(testFilePath));
     Mockito.when(mUfsManager.get(Mockito.anyLong())).thenReturn(ufsClient);
 
     mOpenUfsBlockOptions = Protocol.OpenUfsBlockOptions.newBuilder().setMaxUfsReadConcurrency(10)
@@ -93,10 +95,14 @@ public final class UnderFileSystemBlockReaderTest {
   }
 
   private void checkTempBlock(long start, long length) throws Exception {
-    Assert.assertNotNull(mAlluxioBlockStore.getTempBlockMeta(SESSION_ID, BLOCK_ID));
-    mAlluxioBlockStore.commitBlock(SESSION_ID, BLOCK_ID);
-    long lockId = mAlluxioBlockStore.lockBlock(SESSION_ID, BLOCK_ID);
-    BlockReader reader = mAlluxioBlockStore.getBlockReader(SESSION_ID, BLOCK_ID, lockId);
+    checkTempBlock(SESSION_ID, start, length);
+  }
+
+  private void checkTempBlock(long sessionId, long start, long length) throws Exception {
+    Assert.assertNotNull(mAlluxioBlockStore.getTempBlockMeta(sessionId, BLOCK_ID));
+    mAlluxioBlockStore.commitBlock(sessionId, BLOCK_ID);
+    long lockId = mAlluxioBlockStore.lockBlock(sessionId, BLOCK_ID);
+    BlockReader reader = mAlluxioBlockStore.getBlockReader(sessionId, BLOCK_ID, lockId);
     Assert.assertEquals(length, reader.getLength());
     ByteBuffer buffer = reader.read(0, length);
     Assert.assertTrue(BufferUtils.equalIncreasingByteBuffer((int) start, (int) length, buffer));
@@ -106,7 +112,7 @@ public final class UnderFileSystemBlockReaderTest {
   @Test
   public void readFullBlock() throws Exception {
     mReader = UnderFileSystemBlockReader.create(mUnderFileSystemBlockMeta, 0, mAlluxioBlockStore,
-        mUfsManager, mUfsInstreamManager);
+        mUfsManager, mUfsBlockReadCoalescer);
     ByteBuffer buffer = mReader.read(0, TEST_BLOCK_SIZE);
     Assert.assertTrue(BufferUtils.equalIncreasingByteBuffer(0, (int) TEST_BLOCK_SIZE, buffer));
     mReader.close();
@@ -116,7 +122,7 @@ public final class UnderFileSystemBlockReaderTest {
   @Test
   public void readPartialBlock() throws Exception {
     mReader = UnderFileSystemBlockReader.create(mUnderFileSystemBlockMeta, 0, mAlluxioBlockStore,
-        mUfsManager, mUfsInstreamManager);
+        mUfsManager, mUfsBlockReadCoalescer);
     ByteBuffer buffer = mReader.read(0, TEST_BLOCK_SIZE - 1);
     Assert.assertTrue(BufferUtils.equalIncreasingByteBuffer(0, (int) TEST_BLOCK_SIZE - 1, buffer));
     mReader.close();
@@ -127,7 +133,7 @@ public final class UnderFileSystemBlockReaderTest {
   @Test
   public void offset() throws Exception {
     mReader = UnderFileSystemBlockReader.create(mUnderFileSystemBlockMeta, 0, mAlluxioBlockStore,
-        mUfsManager, mUfsInstreamManager);
+        mUfsManager, mUfsBlockReadCoalescer);
     ByteBuffer buffer = mReader.read(2, TEST_BLOCK_SIZE - 2);
     Assert.assertTrue(BufferUtils
         .equalIncreasingByteBuffer(2, (int) TEST_BLOCK_SIZE - 2, buffer));
@@ -139,7 +145,7 @@ public final class UnderFileSystemBlockReaderTest {
   @Test
   public void readOverlap() throws Exception {
     mReader = UnderFileSystemBlockReader.create(mUnderFileSystemBlockMeta, 2, mAlluxioBlockStore,
-        mUfsManager, mUfsInstreamManager);
+        mUfsManager, mUfsBlockReadCoalescer);
     ByteBuffer buffer = mReader.read(2, TEST_BLOCK_SIZE - 2);
     Assert.assertTrue(BufferUtils.equalIncreasingByteBuffer(2, (int) TEST_BLOCK_SIZE - 2, buffer));
     buffer = mReader.read(0, TEST_BLOCK_SIZE - 2);
@@ -151,12 +157,37 @@ public final class UnderFileSystemBlockReaderTest {
     checkTempBlock(0, TEST_BLOCK_SIZE);
   }
 
+  @Test
+  public void concurrentReadersShareUfsStream() throws Exception {
+    long otherSessionId = SESSION_ID + 2;
+    UnderFileSystemBlockReader otherReader = UnderFileSystemBlockReader.create(
+        new UnderFileSystemBlockMeta(otherSessionId, BLOCK_ID, mOpenUfsBlockOptions), 0,
+        mAlluxioBlockStore, mUfsManager, mUfsBlockReadCoalescer);
+    mReader = UnderFileSystemBlockReader.create(mUnderFileSystemBlockMeta, 0, mAlluxioBlockStore,
+        mUfsManager, mUfsBlockReadCoalescer);
+    int half = (int) TEST_BLOCK_SIZE / 2;
+    ByteBuffer buffer = otherReader.read(0, half);
+    Assert.assertTrue(BufferUtils.equalIncreasingByteBuffer(0, half, buffer));
+    buffer = mReader.read(0, half);
+    Assert.assertTrue(BufferUtils.equalIncreasingByteBuffer(0, half, buffer));
+    buffer = otherReader.read(half, half);
+    Assert.assertTrue(BufferUtils.equalIncreasingByteBuffer(half, half, buffer));
+    buffer = mReader.read(half, half);
+    Assert.assertTrue(BufferUtils.equalIncreasingByteBuffer(half, half, buffer));
+    otherReader.close();
+    mReader.close();
+    // both readers are served by a single UFS stream, the first one caches the block
+    Mockito.verify(mUfs, Mockito.times(1)).open(Mockito.anyString(),
+        Mockito.any(OpenOptions.class));
+    checkTempBlock(otherSessionId, 0, TEST_BLOCK_SIZE);
+  }
+
   @Test
   public void readFullBlockNoCache() throws Exception {
     mUnderFileSystemBlockMeta = new UnderFileSystemBlockMeta(SESSION_ID, BLOCK_ID,
         mOpenUfsBlockOptions.toBuilder().setNoCache(true).build());
     mReader = UnderFileSystemBlockReader.create(mUnderFileSystemBlockMeta, 0, mAlluxioBlockStore,
-        mUfsManager, mUfsInstreamManager);
+        mUfsManager, mUfsBlockReadCoalescer);
     ByteBuffer buffer = mReader.read(0, TEST_BLOCK_SIZE);
     // read should succeed even if error is thrown when caching
     Assert.assertTrue(BufferUtils.equalIncreasingByteBuffer(0, (int) TEST_BLOCK_SIZE, buffer));
@@ -171,7 +202,7 @@ public final class UnderFileSystemBlockReaderTest {
         .when(errorThrowingBlockStore)
         .requestSpace(Mockito.anyLong(), Mockito.anyLong(), Mockito.anyLong());
     mReader = UnderFileSystemBlockReader.create(mUnderFileSystemBlockMeta, 0,
-        errorThrowingBlockStore, mUfsManager, mUfsInstreamManager);
+        errorThrowingBlockStore, mUfsManager, mUfsBlockReadCoalescer);
     ByteBuffer buffer = mReader.read(0, TEST_BLOCK_SIZE);
     Assert.assertTrue(BufferUtils.equalIncreasingByteBuffer(0, (int) TEST_BLOCK_SIZE, buffer));
     mReader.close();
@@ -185,7 +216,7 @@ public final class UnderFileSystemBlockReaderTest {
         .createBlock(Mockito.anyLong(), Mockito.anyLong(), Mockito.any(BlockStoreLocation.class),
             Mockito.anyLong());
     mReader = UnderFileSystemBlockReader.create(mUnderFileSystemBlockMeta, 0,
-        errorThrowingBlockStore, mUfsManager, mUfsInstreamManager);
+        errorThrowingBlockStore, mUfsManager, mUfsBlockReadCoalescer);
     ByteBuffer buffer = mReader.read(0, TEST_BLOCK_SIZE);
     Assert.assertTrue(BufferUtils.equalIncreasingByteBuffer(0, (int) TEST_BLOCK_SIZE, buffer));
     mReader.close();
@@ -195,7 +226,7 @@ public final class UnderFileSystemBlockReaderTest {
   @Test
   public void transferFullBlock() throws Exception {
     mReader = UnderFileSystemBlockReader.create(mUnderFileSystemBlockMeta, 0, mAlluxioBlockStore,
-        mUfsManager, mUfsInstreamManager);
+        mUfsManager, mUfsBlockReadCoalescer);
     ByteBuf buf =
         PooledByteBufAllocator.DEFAULT.buffer((int) TEST_BLOCK_SIZE * 2, (int) TEST_BLOCK_SIZE * 2);
     try {
@@ -213,7 +244,7 @@ public final class UnderFileSystemBlockReaderTest {
   @Test
   public void transferPartialBlock() throws Exception {
     mReader = UnderFileSystemBlockReader.create(mUnderFileSystemBlockMeta, 0, mAlluxioBlockStore,
-        mUfsManager, mUfsInstreamManager);
+        mUfsManager, mUfsBlockReadCoalescer);
     ByteBuf buf =
         PooledByteBufAllocator.DEFAULT.buffer((int) TEST_BLOCK_SIZE / 2, (int) TEST_BLOCK_SIZE / 2);
     try {
@@ -0,0 +1,89 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.block.evictor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Unit tests for {@link IndexedBlockHeap}.
+ */
+public final class IndexedBlockHeapTest {
+
+  /**
+   * Tests that blocks are iterated in ascending order of priority.
+   */
+  @Test
+  public void iterateInOrder() {
+    IndexedBlockHeap heap = new IndexedBlockHeap();
+    heap.put(1L, 3.0);
+    heap.put(2L, 1.0);
+    heap.put(3L, 2.0);
+    heap.put(2L, 4.0);
+    Assert.assertEquals(3, heap.size());
+    Assert.assertEquals(4.0, heap.getPriority(2L), 0.0);
+    Assert.assertTrue(Double.isNaN(heap.getPriority(4L)));
+
+    List<Long> blocks = new ArrayList<>();
+    Iterator<Long> it = heap.iterator();
+    while (it.hasNext()) {
+      blocks.add(it.next());
+    }
+    Assert.assertEquals(Arrays.asList(3L, 1L, 2L), blocks);
+
+    Assert.assertTrue(heap.remove(3L));
+    Assert.assertFalse(heap.remove(3L));
+    Assert.assertFalse(heap.contains(3L));
+    Assert.assertEquals(Long.valueOf(1L), heap.iterator().next());
+  }
+
+  /**
+   * Tests random puts and removes against a sorted map.
+   */
+  @Test
+  public void randomOperations() {
+    Random random = new Random(42);
+    IndexedBlockHeap heap = new IndexedBlockHeap();
+    Map<Long, Double> priorities = new HashMap<>();
+    for (int i = 0; i < 20000; i++) {
+      long blockId = random.nextInt(2000);
+      if (random.nextInt(3) == 0) {
+        Assert.assertEquals(priorities.remove(blockId) != null, heap.remove(blockId));
+      } else {
+        double priority = random.nextDouble();
+        priorities.put(blockId, priority);
+        heap.put(blockId, priority);
+      }
+    }
+    Assert.assertEquals(priorities.size(), heap.size());
+
+    TreeMap<Double, Long> expected = new TreeMap<>();
+    for (Map.Entry<Long, Double> entry : priorities.entrySet()) {
+      Assert.assertEquals(entry.getValue(), heap.getPriority(entry.getKey()), 0.0);
+      expected.put(entry.getValue(), entry.getKey());
+    }
+    Iterator<Long> it = heap.iterator();
+    for (Long blockId : expected.values()) {
+      Assert.assertEquals(blockId, it.next());
+    }
+    Assert.assertFalse(it.hasNext());
+  }
+}
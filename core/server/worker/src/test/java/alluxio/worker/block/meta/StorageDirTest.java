@@ -511,6 +511,32 @@ public final class StorageDirTest {
     mDir.resizeTempBlockMeta(mTempBlockMeta, TEST_DIR_CAPACITY + 1);
   }
 
+  /**
+   * Tests the {@link StorageDir#tryResizeTempBlockMeta(TempBlockMeta, long)} method.
+   */
+  @Test
+  public void tryResizeTempBlockMeta() throws Exception {
+    mDir.addTempBlockMeta(mTempBlockMeta);
+    final long newSize = TEST_TEMP_BLOCK_SIZE + 10;
+    assertTrue(mDir.tryResizeTempBlockMeta(mTempBlockMeta, newSize));
+    assertEquals(newSize, mTempBlockMeta.getBlockSize());
+    assertEquals(TEST_DIR_CAPACITY - newSize, mDir.getAvailableBytes());
+  }
+
+  /**
+   * Tests that the {@link StorageDir#tryResizeTempBlockMeta(TempBlockMeta, long)} method leaves
+   * the temp block and the available bytes unchanged when there is not enough space.
+   */
+  @Test
+  public void tryResizeTempBlockMetaNoAvailableBytes() throws Exception {
+    mDir.addTempBlockMeta(mTempBlockMeta);
+    assertTrue(mDir.tryResizeTempBlockMeta(mTempBlockMeta, TEST_DIR_CAPACITY));
+    assertEquals(0, mDir.getAvailableBytes());
+    assertFalse(mDir.tryResizeTempBlockMeta(mTempBlockMeta, TEST_DIR_CAPACITY + 1));
+    assertEquals(TEST_DIR_CAPACITY, mTempBlockMeta.getBlockSize());
+    assertEquals(0, mDir.getAvailableBytes());
+  }
+
   /**
    * Tests the {@link StorageDir#cleanupSessionTempBlocks(long, List)} method.
    */
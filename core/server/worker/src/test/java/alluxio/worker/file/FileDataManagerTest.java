@@ -13,6 +13,7 @@ package alluxio.worker.file;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import alluxio.AlluxioURI;
@@ -48,13 +49,17 @@ import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Tests {@link FileDataManager}.
@@ -62,6 +67,14 @@ import java.util.List;
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({BlockWorker.class, BufferUtils.class, BlockMeta.class, FileSystem.class})
 public final class FileDataManagerTest {
+  /** The task to retry a file which found no mount permit, for the tests which expect none. */
+  private static final Runnable NO_RETRY = new Runnable() {
+    @Override
+    public void run() {
+      throw new IllegalStateException("no file should wait for a mount permit");
+    }
+  };
+
   private UnderFileSystem mUfs;
   private UfsManager mUfsManager;
   private BlockWorker mBlockWorker;
@@ -115,6 +128,47 @@ public final class FileDataManagerTest {
     assertFalse(mManager.needPersistence(fileId));
   }
 
+  /**
+   * Tests that the content of the blocks is written to the under storage in order, through a
+   * buffer smaller than the blocks.
+   */
+  @Test
+  public void persistFileContent() throws Exception {
+    Configuration.set(PropertyKey.WORKER_FILE_PERSIST_BUFFER_SIZE, "10B");
+    mManager =
+        new FileDataManager(mBlockWorker, mMockRateLimiter.getGuavaRateLimiter(), mUfsManager);
+    long fileId = 1;
+    List<Long> blockIds = Lists.newArrayList(1L, 2L, 3L);
+    int blockSize = 100;
+
+    FileInfo fileInfo = new FileInfo();
+    fileInfo.setPath("test");
+    Mockito.when(mBlockWorker.getFileInfo(fileId)).thenReturn(fileInfo);
+    for (long blockId : blockIds) {
+      Mockito.when(mBlockWorker.lockBlock(Sessions.CHECKPOINT_SESSION_ID, blockId))
+          .thenReturn(blockId);
+      BlockReader reader = Mockito.mock(BlockReader.class);
+      Mockito.when(reader.getChannel()).thenReturn(Channels.newChannel(new ByteArrayInputStream(
+          BufferUtils.getIncreasingByteArray((int) (blockId - 1) * blockSize, blockSize))));
+      Mockito.when(mBlockWorker.readBlockRemote(Sessions.CHECKPOINT_SESSION_ID, blockId, blockId))
+          .thenReturn(reader);
+    }
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    Mockito.when(mUfs.create(Mockito.anyString(), Mockito.any(CreateOptions.class)))
+        .thenReturn(outputStream);
+    fileInfo.setUfsPath(
+        PathUtils.concatPath(Configuration.get(PropertyKey.MASTER_MOUNT_TABLE_ROOT_UFS), "test"));
+    Mockito.when(mMockFileSystem.getStatus(Mockito.any(AlluxioURI.class))).thenReturn(
+        new URIStatus(fileInfo));
+
+    mManager.lockBlocks(fileId, blockIds, NO_RETRY);
+    mManager.persistFile(fileId, blockIds);
+
+    assertTrue(BufferUtils.equalIncreasingByteArray(blockIds.size() * blockSize,
+        outputStream.toByteArray()));
+    assertEquals(Arrays.asList(fileId), mManager.getPersistedFileInfos().idList());
+  }
+
   /**
    * Tests that persisted file are cleared in the manager.
    */
@@ -172,7 +226,7 @@ public final class FileDataManagerTest {
     Mockito.when(mMockFileSystem.getStatus(Mockito.any(AlluxioURI.class))).thenReturn(
         new URIStatus(fileInfo));
 
-    mManager.lockBlocks(fileId, blockIds);
+    mManager.lockBlocks(fileId, blockIds, NO_RETRY);
     mManager.persistFile(fileId, blockIds);
 
     List<String> expectedEvents = Lists.newArrayList("R0.00", "R1.00", "R1.00");
@@ -181,7 +235,7 @@ public final class FileDataManagerTest {
     // Simulate waiting for 1 second.
     mMockRateLimiter.sleepMillis(1000);
 
-    mManager.lockBlocks(fileId, blockIds);
+    mManager.lockBlocks(fileId, blockIds, NO_RETRY);
     mManager.persistFile(fileId, blockIds);
 
     // The first write will go through immediately without throttling.
@@ -189,7 +243,7 @@ public final class FileDataManagerTest {
     assertEquals(expectedEvents, mMockRateLimiter.readEventsAndClear());
 
     // Repeat persistence without sleeping.
-    mManager.lockBlocks(fileId, blockIds);
+    mManager.lockBlocks(fileId, blockIds, NO_RETRY);
     mManager.persistFile(fileId, blockIds);
 
     expectedEvents = Lists.newArrayList("R1.00", "R1.00", "R1.00");
@@ -198,7 +252,7 @@ public final class FileDataManagerTest {
 
   /**
    * Tests the blocks are unlocked correctly when exception is encountered in
-   * {@link FileDataManager#lockBlocks(long, List)}.
+   * {@link FileDataManager#lockBlocks(long, List, Runnable)}.
    */
   @Test
   public void lockBlocksErrorHandling() throws Exception {
@@ -210,7 +264,7 @@ public final class FileDataManagerTest {
     Mockito.when(mBlockWorker.lockBlock(Sessions.CHECKPOINT_SESSION_ID, 3L))
         .thenThrow(new BlockDoesNotExistException("block 3 does not exist"));
     try {
-      mManager.lockBlocks(fileId, blockIds);
+      mManager.lockBlocks(fileId, blockIds, NO_RETRY);
       fail("the lock should fail");
     } catch (IOException e) {
       assertEquals(
@@ -224,7 +278,8 @@ public final class FileDataManagerTest {
   }
 
   /**
-   * Tests that the correct error message is provided when persisting a file fails.
+   * Tests that the correct error message is provided when persisting a file fails, and that the
+   * incomplete file is deleted from the under storage.
    */
   @Test
   public void errorHandling() throws Exception {
@@ -255,7 +310,10 @@ public final class FileDataManagerTest {
     Mockito.when(mMockFileSystem.getStatus(Mockito.any(AlluxioURI.class))).thenReturn(
         new URIStatus(fileInfo));
 
-    mManager.lockBlocks(fileId, blockIds);
+    Mockito.when(mUfs.isFile(dstPath)).thenReturn(true);
+    Mockito.when(mUfs.deleteFile(dstPath)).thenReturn(true);
+
+    mManager.lockBlocks(fileId, blockIds, NO_RETRY);
     try {
       mManager.persistFile(fileId, blockIds);
       fail("the persist should fail");
@@ -265,10 +323,75 @@ public final class FileDataManagerTest {
       // verify the locks are all unlocked
       Mockito.verify(mBlockWorker).unlockBlock(1L);
       Mockito.verify(mBlockWorker).unlockBlock(2L);
+      // verify the incomplete file is closed and deleted
+      Mockito.verify(outputStream).close();
+      Mockito.verify(mUfs).deleteFile(dstPath);
     }
   }
 
+  /**
+   * Tests that the permit to persist to a mount point is released when locking the blocks fails
+   * and when a file is persisted.
+   */
+  @Test(timeout = 10000)
+  public void mountPermitReleased() throws Exception {
+    Configuration.set(PropertyKey.WORKER_FILE_PERSIST_MOUNT_CONCURRENCY, 1);
+    mManager =
+        new FileDataManager(mBlockWorker, mMockRateLimiter.getGuavaRateLimiter(), mUfsManager);
+    long fileId = 1;
+    List<Long> blockIds = Lists.newArrayList(1L, 2L);
+    Mockito.when(mBlockWorker.getFileInfo(fileId)).thenReturn(new FileInfo());
+    Mockito.when(mBlockWorker.lockBlock(Sessions.CHECKPOINT_SESSION_ID, 3L)).thenReturn(3L);
+    Mockito.when(mBlockWorker.lockBlock(Sessions.CHECKPOINT_SESSION_ID, 4L))
+        .thenThrow(new BlockDoesNotExistException("block 4 does not exist"));
+    try {
+      mManager.lockBlocks(fileId, Lists.newArrayList(3L, 4L), NO_RETRY);
+      fail("the lock should fail");
+    } catch (IOException e) {
+      // expected
+    }
+
+    // Each of these would find no permit if the permit of the previous attempt was not released.
+    writeFileWithBlocks(fileId, blockIds);
+    writeFileWithBlocks(2L, blockIds);
+  }
+
+  /**
+   * Tests that a file which finds no permit to persist to its mount point does not wait for one,
+   * and is retried once the file holding the permit is persisted.
+   */
+  @Test(timeout = 10000)
+  public void mountPermitUnavailable() throws Exception {
+    Configuration.set(PropertyKey.WORKER_FILE_PERSIST_MOUNT_CONCURRENCY, 1);
+    mManager =
+        new FileDataManager(mBlockWorker, mMockRateLimiter.getGuavaRateLimiter(), mUfsManager);
+    List<Long> blockIds = Lists.newArrayList(1L, 2L);
+    prepareFileWithBlocks(1L, blockIds);
+    Mockito.when(mBlockWorker.getFileInfo(2L)).thenReturn(new FileInfo());
+    final AtomicInteger retries = new AtomicInteger();
+    Runnable retry = new Runnable() {
+      @Override
+      public void run() {
+        retries.incrementAndGet();
+      }
+    };
+
+    assertTrue(mManager.lockBlocks(1L, blockIds, NO_RETRY));
+    assertFalse(mManager.lockBlocks(2L, Lists.newArrayList(3L), retry));
+    Mockito.verify(mBlockWorker, Mockito.never()).lockBlock(Sessions.CHECKPOINT_SESSION_ID, 3L);
+    assertEquals(0, retries.get());
+
+    mManager.persistFile(1L, blockIds);
+    assertEquals(1, retries.get());
+  }
+
   private void writeFileWithBlocks(long fileId, List<Long> blockIds) throws Exception {
+    prepareFileWithBlocks(fileId, blockIds);
+    mManager.lockBlocks(fileId, blockIds, NO_RETRY);
+    mManager.persistFile(fileId, blockIds);
+  }
+
+  private void prepareFileWithBlocks(long fileId, List<Long> blockIds) throws Exception {
     FileInfo fileInfo = new FileInfo();
     fileInfo.setPath("test");
     Mockito.when(mBlockWorker.getFileInfo(fileId)).thenReturn(fileInfo);
@@ -294,8 +417,5 @@ public final class FileDataManagerTest {
         .thenReturn(outputStream);
     Mockito.when(mMockFileSystem.getStatus(Mockito.any(AlluxioURI.class))).thenReturn(
         new URIStatus(fileInfo));
-
-    mManager.lockBlocks(fileId, blockIds);
-    mManager.persistFile(fileId, blockIds);
   }
 }
@@ -0,0 +1,166 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.file;
+
+import alluxio.util.io.BufferUtils;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Unit tests for {@link PipedOutputChannel}.
+ */
+public final class PipedOutputChannelTest {
+  private ExecutorService mExecutor;
+
+  @Before
+  public void before() {
+    mExecutor = Executors.newCachedThreadPool();
+  }
+
+  @After
+  public void after() {
+    mExecutor.shutdownNow();
+  }
+
+  /**
+   * Tests that the data written to the channel is written to the stream in order.
+   */
+  @Test(timeout = 10000)
+  public void write() throws Exception {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    PipedOutputChannel channel = new PipedOutputChannel(outputStream, mExecutor, 16, 4);
+    int length = 1000;
+    for (int offset = 0; offset < length; offset += 7) {
+      int len = Math.min(7, length - offset);
+      Assert.assertEquals(len,
+          channel.write(ByteBuffer.wrap(BufferUtils.getIncreasingByteArray(offset, len))));
+    }
+    channel.close();
+    Assert.assertFalse(channel.isOpen());
+    Assert.assertEquals(length, channel.getBytesWritten());
+    Assert.assertTrue(BufferUtils.equalIncreasingByteArray(length, outputStream.toByteArray()));
+  }
+
+  /**
+   * Tests that a failure to write the stream fails the writes to the channel.
+   */
+  @Test(timeout = 10000)
+  public void failedStream() throws Exception {
+    OutputStream outputStream = new OutputStream() {
+      @Override
+      public void write(int b) throws IOException {
+        throw new IOException("write failed");
+      }
+    };
+    PipedOutputChannel channel = new PipedOutputChannel(outputStream, mExecutor, 8, 4);
+    try {
+      for (int i = 0; i < 100; i++) {
+        channel.write(ByteBuffer.wrap(BufferUtils.getIncreasingByteArray(4)));
+      }
+      channel.close();
+      Assert.fail("Writing the channel should fail if writing the stream fails.");
+    } catch (IOException e) {
+      Assert.assertEquals("write failed", e.getMessage());
+    }
+  }
+
+  /**
+   * Tests that a closed channel cannot be written.
+   */
+  @Test(timeout = 10000, expected = ClosedChannelException.class)
+  public void writeAfterClose() throws Exception {
+    PipedOutputChannel channel =
+        new PipedOutputChannel(new ByteArrayOutputStream(), mExecutor, 8, 4);
+    channel.close();
+    channel.write(ByteBuffer.allocate(1));
+  }
+
+  /**
+   * Tests that cancelling the channel closes the stream being written before returning.
+   */
+  @Test(timeout = 10000)
+  public void cancelClosesStream() throws Exception {
+    final CountDownLatch writing = new CountDownLatch(1);
+    final CountDownLatch closed = new CountDownLatch(1);
+    OutputStream outputStream = new OutputStream() {
+      @Override
+      public void write(int b) throws IOException {
+        writing.countDown();
+        try {
+          Thread.sleep(Long.MAX_VALUE);
+        } catch (InterruptedException e) {
+          throw new IOException(e);
+        }
+      }
+
+      @Override
+      public void close() {
+        closed.countDown();
+      }
+    };
+    PipedOutputChannel channel = new PipedOutputChannel(outputStream, mExecutor, 8, 4);
+    channel.write(ByteBuffer.wrap(BufferUtils.getIncreasingByteArray(4)));
+    writing.await();
+    channel.cancel();
+    Assert.assertFalse(channel.isOpen());
+    Assert.assertEquals(0, closed.getCount());
+  }
+
+  /**
+   * Tests that cancelling the channel before anything is written still closes the stream.
+   */
+  @Test(timeout = 10000)
+  public void cancelBeforeWrite() throws Exception {
+    final CountDownLatch closed = new CountDownLatch(1);
+    OutputStream outputStream = new ByteArrayOutputStream() {
+      @Override
+      public void close() {
+        closed.countDown();
+      }
+    };
+    PipedOutputChannel channel = new PipedOutputChannel(outputStream, mExecutor, 8, 4);
+    channel.cancel();
+    closed.await();
+  }
+
+  /**
+   * Tests that cancelling the channel after it is closed closes the stream left open by closing.
+   */
+  @Test(timeout = 10000)
+  public void cancelAfterClose() throws Exception {
+    final CountDownLatch closed = new CountDownLatch(1);
+    OutputStream outputStream = new ByteArrayOutputStream() {
+      @Override
+      public void close() {
+        closed.countDown();
+      }
+    };
+    PipedOutputChannel channel = new PipedOutputChannel(outputStream, mExecutor, 8, 4);
+    channel.write(ByteBuffer.wrap(BufferUtils.getIncreasingByteArray(6)));
+    channel.close();
+    Assert.assertEquals(1, closed.getCount());
+    channel.cancel();
+    closed.await();
+  }
+}
@@ -11,17 +11,22 @@
 
 package alluxio.worker.netty;
 
+import alluxio.Constants;
 import alluxio.EmbeddedNoExceptionChannel;
 import alluxio.network.protocol.RPCProtoMessage;
 import alluxio.proto.dataserver.Protocol;
 import alluxio.proto.status.Status.PStatus;
 import alluxio.util.proto.ProtoMessage;
+import alluxio.worker.block.BlockStoreLocation;
 import alluxio.worker.block.BlockWorker;
 import alluxio.worker.block.io.BlockReader;
 import alluxio.worker.block.io.LocalFileBlockReader;
+import alluxio.worker.block.meta.BlockMeta;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.embedded.EmbeddedChannel;
 import io.netty.util.ResourceLeakDetector;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -30,22 +35,30 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
 @RunWith(PowerMockRunner.class)
-@PrepareForTest({LocalFileBlockReader.class})
+@PrepareForTest({LocalFileBlockReader.class, BlockMeta.class})
 public final class BlockReadHandlerTest extends ReadHandlerTest {
   private BlockWorker mBlockWorker;
   private BlockReader mBlockReader;
+  private MappedBlockCache mMappedBlockCache;
+  private BlockMeta mBlockMeta;
 
   @Before
   public void before() throws Exception {
     ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.ADVANCED);
     mBlockWorker = Mockito.mock(BlockWorker.class);
     Mockito.doNothing().when(mBlockWorker).accessBlock(Mockito.anyLong(), Mockito.anyLong());
+    mBlockMeta = Mockito.mock(BlockMeta.class);
+    Mockito.when(mBlockMeta.getBlockLocation()).thenReturn(new BlockStoreLocation("MEM", 0));
+    Mockito
+        .when(mBlockWorker.getBlockMeta(Mockito.anyLong(), Mockito.anyLong(), Mockito.anyLong()))
+        .thenReturn(mBlockMeta);
+    mMappedBlockCache = new MappedBlockCache(Constants.MB);
     mChannel = new EmbeddedChannel(
         new BlockReadHandler(NettyExecutors.BLOCK_READER_EXECUTOR, mBlockWorker,
-            FileTransferType.MAPPED));
+            FileTransferType.MAPPED, mMappedBlockCache));
     mChannelNoException = new EmbeddedNoExceptionChannel(
         new BlockReadHandler(NettyExecutors.BLOCK_READER_EXECUTOR, mBlockWorker,
-            FileTransferType.MAPPED));
+            FileTransferType.MAPPED, mMappedBlockCache));
   }
 
   /**
@@ -55,8 +68,51 @@ public final class BlockReadHandlerTest extends ReadHandlerTest {
   public void transferType() throws Exception {
     mChannel = new EmbeddedChannel(
         new BlockReadHandler(NettyExecutors.BLOCK_READER_EXECUTOR, mBlockWorker,
-            FileTransferType.TRANSFER));
+            FileTransferType.TRANSFER, mMappedBlockCache));
+
+    long fileSize = PACKET_SIZE * 2;
+    long checksumExpected = populateInputFile(fileSize, 0, fileSize - 1);
+
+    BlockReader blockReader = Mockito.spy(mBlockReader);
+    // Do not call close here so that we can check result. It will be closed explicitly.
+    Mockito.doNothing().when(blockReader).close();
+    Mockito
+        .when(mBlockWorker.readBlockRemote(Mockito.anyLong(), Mockito.anyLong(), Mockito.anyLong()))
+        .thenReturn(blockReader);
+    mChannel.writeInbound(buildReadRequest(0, fileSize));
+    checkAllReadResponses(mChannel, checksumExpected);
+    mBlockReader.close();
+  }
 
+  /**
+   * Tests that reads with the {@link FileTransferType#MAPPED} type are served from the mapped
+   * block cache.
+   */
+  @Test
+  public void mappedType() throws Exception {
+    long fileSize = PACKET_SIZE * 2;
+    long checksumExpected = populateInputFile(fileSize, 0, fileSize - 1);
+
+    BlockReader blockReader = Mockito.spy(mBlockReader);
+    // Do not call close here so that we can check result. It will be closed explicitly.
+    Mockito.doNothing().when(blockReader).close();
+    Mockito
+        .when(mBlockWorker.readBlockRemote(Mockito.anyLong(), Mockito.anyLong(), Mockito.anyLong()))
+        .thenReturn(blockReader);
+    mChannel.writeInbound(buildReadRequest(0, fileSize));
+    checkAllReadResponses(mChannel, checksumExpected);
+    mBlockReader.close();
+    Assert.assertEquals(fileSize, mMappedBlockCache.getMappedBytes());
+    Mockito.verify(blockReader, Mockito.never()).transferTo(Mockito.any(ByteBuf.class));
+  }
+
+  /**
+   * Tests that reads of blocks outside the memory tier are sent from the block files rather than
+   * served from the mapped block cache, even with the {@link FileTransferType#MAPPED} type.
+   */
+  @Test
+  public void mappedTypeLowerTier() throws Exception {
+    Mockito.when(mBlockMeta.getBlockLocation()).thenReturn(new BlockStoreLocation("HDD", 0));
     long fileSize = PACKET_SIZE * 2;
     long checksumExpected = populateInputFile(fileSize, 0, fileSize - 1);
 
@@ -69,6 +125,8 @@ public final class BlockReadHandlerTest extends ReadHandlerTest {
     mChannel.writeInbound(buildReadRequest(0, fileSize));
     checkAllReadResponses(mChannel, checksumExpected);
     mBlockReader.close();
+    Assert.assertEquals(0, mMappedBlockCache.getMappedBytes());
+    Mockito.verify(blockReader, Mockito.never()).transferTo(Mockito.any(ByteBuf.class));
   }
 
   /**
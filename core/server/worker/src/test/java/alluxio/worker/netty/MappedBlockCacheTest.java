@@ -0,0 +1,137 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.netty;
+
+import alluxio.util.io.BufferUtils;
+
+import io.netty.buffer.ByteBuf;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+/**
+ * Unit tests for {@link MappedBlockCache}.
+ */
+public final class MappedBlockCacheTest {
+  private static final int BLOCK_SIZE = 1024;
+
+  @Rule
+  public TemporaryFolder mFolder = new TemporaryFolder();
+
+  private String mPath;
+
+  @Before
+  public void before() throws Exception {
+    mPath = createBlockFile("1", BLOCK_SIZE);
+  }
+
+  /**
+   * Tests that slices are read from a single mapping of the block file.
+   */
+  @Test
+  public void getSlice() throws Exception {
+    MappedBlockCache cache = new MappedBlockCache(BLOCK_SIZE);
+    ByteBuf slice = cache.getSlice(1L, mPath, BLOCK_SIZE, 100, 200);
+    Assert.assertTrue(BufferUtils.equalIncreasingByteBuffer(100, 200, slice.nioBuffer()));
+    slice.release();
+    slice = cache.getSlice(1L, mPath, BLOCK_SIZE, 0, BLOCK_SIZE);
+    Assert.assertTrue(BufferUtils.equalIncreasingByteBuffer(0, BLOCK_SIZE, slice.nioBuffer()));
+    slice.release();
+    Assert.assertEquals(BLOCK_SIZE, cache.getMappedBytes());
+  }
+
+  /**
+   * Tests that the mapped bytes are bounded by the capacity.
+   */
+  @Test
+  public void capacity() throws Exception {
+    MappedBlockCache cache = new MappedBlockCache(BLOCK_SIZE);
+    String path = createBlockFile("2", BLOCK_SIZE);
+    cache.getSlice(1L, mPath, BLOCK_SIZE, 0, 1).release();
+    cache.getSlice(2L, path, BLOCK_SIZE, 0, 1).release();
+    Assert.assertEquals(BLOCK_SIZE, cache.getMappedBytes());
+    String largePath = createBlockFile("3", BLOCK_SIZE * 2);
+    Assert.assertNull(cache.getSlice(3L, largePath, BLOCK_SIZE * 2, 0, 1));
+  }
+
+  /**
+   * Tests that a disabled cache does not map any block file.
+   */
+  @Test
+  public void disabled() throws Exception {
+    MappedBlockCache cache = new MappedBlockCache(0);
+    Assert.assertFalse(cache.isEnabled());
+    Assert.assertNull(cache.getSlice(1L, mPath, BLOCK_SIZE, 0, 1));
+    Assert.assertEquals(0, cache.getMappedBytes());
+  }
+
+  /**
+   * Tests that removing or moving a block drops its mapping.
+   */
+  @Test
+  public void invalidateOnBlockEvents() throws Exception {
+    MappedBlockCache cache = new MappedBlockCache(BLOCK_SIZE);
+    cache.getSlice(1L, mPath, BLOCK_SIZE, 0, 1).release();
+    cache.onRemoveBlockByWorker(1L, 1L);
+    Assert.assertEquals(0, cache.getMappedBytes());
+    cache.getSlice(1L, mPath, BLOCK_SIZE, 0, 1).release();
+    cache.onMoveBlockByClient(1L, 1L, null, null);
+    Assert.assertEquals(0, cache.getMappedBytes());
+  }
+
+  /**
+   * Tests that a mapping is replaced when the block file changes.
+   */
+  @Test
+  public void remapOnPathChange() throws Exception {
+    MappedBlockCache cache = new MappedBlockCache(BLOCK_SIZE * 2);
+    cache.getSlice(1L, mPath, BLOCK_SIZE, 0, 1).release();
+    String path = createBlockFile("moved", BLOCK_SIZE * 2);
+    ByteBuf slice = cache.getSlice(1L, path, BLOCK_SIZE * 2, BLOCK_SIZE, BLOCK_SIZE);
+    Assert.assertTrue(
+        BufferUtils.equalIncreasingByteBuffer(BLOCK_SIZE, BLOCK_SIZE, slice.nioBuffer()));
+    slice.release();
+    Assert.assertEquals(BLOCK_SIZE * 2, cache.getMappedBytes());
+  }
+
+  /**
+   * Tests that a slice stays readable after its mapping is dropped from the cache, and that a
+   * dropped mapping is mapped again on the next read.
+   */
+  @Test
+  public void evictWhileReferenced() throws Exception {
+    MappedBlockCache cache = new MappedBlockCache(BLOCK_SIZE);
+    ByteBuf slice = cache.getSlice(1L, mPath, BLOCK_SIZE, 0, BLOCK_SIZE);
+    ByteBuf other = cache.getSlice(1L, mPath, BLOCK_SIZE, 0, 100);
+    String path = createBlockFile("2", BLOCK_SIZE);
+    cache.getSlice(2L, path, BLOCK_SIZE, 0, 1).release();
+    Assert.assertEquals(BLOCK_SIZE, cache.getMappedBytes());
+    // The mapping of block 1 was evicted, but the slices still hold it.
+    other.release();
+    Assert.assertTrue(BufferUtils.equalIncreasingByteBuffer(0, BLOCK_SIZE, slice.nioBuffer()));
+    Assert.assertTrue(slice.release());
+
+    slice = cache.getSlice(1L, mPath, BLOCK_SIZE, 10, 10);
+    Assert.assertTrue(BufferUtils.equalIncreasingByteBuffer(10, 10, slice.nioBuffer()));
+    slice.release();
+  }
+
+  private String createBlockFile(String name, int length) throws Exception {
+    File file = mFolder.newFile(name);
+    BufferUtils.writeBufferToFile(file.getPath(), BufferUtils.getIncreasingByteArray(length));
+    return file.getPath();
+  }
+}
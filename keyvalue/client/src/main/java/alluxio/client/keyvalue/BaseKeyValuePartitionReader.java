@@ -21,8 +21,11 @@ import com.google.common.base.Preconditions;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 
 /**
@@ -75,6 +78,48 @@ final class BaseKeyValuePartitionReader implements KeyValuePartitionReader {
     mClosed = true;
   }
 
+  /**
+   * Gets the values of a batch of keys in this partition with a single RPC.
+   *
+   * @param keys the keys to lookup
+   * @return the values in the order of the keys, null for the keys not found
+   */
+  List<ByteBuffer> multiGet(List<ByteBuffer> keys) throws IOException, AlluxioException {
+    Preconditions.checkState(!mClosed, "Can not query a reader closed");
+    List<ByteBuffer> values = new ArrayList<>(keys.size());
+    for (ByteBuffer value : mClient.multiGet(Collections.nCopies(keys.size(), mBlockId), keys)) {
+      values.add(value.remaining() == 0 ? null : value);
+    }
+    return values;
+  }
+
+  /**
+   * Gets a batch of keys next to the given key in this partition.
+   *
+   * @param key the current key, or null to get the initial batch of keys
+   * @param numKeys maximum number of keys to get
+   * @return the next batch of keys, empty if there are no more keys
+   */
+  List<ByteBuffer> getNextKeys(ByteBuffer key, int numKeys) throws IOException, AlluxioException {
+    Preconditions.checkState(!mClosed, "Can not query a reader closed");
+    return mClient.getNextKeys(mBlockId, key, numKeys);
+  }
+
+  /**
+   * Gets the Bloom filter of the keys in this partition.
+   *
+   * @return the Bloom filter, or null if the partition has none
+   */
+  @Nullable
+  PartitionBloomFilter getBloomFilter() throws IOException, AlluxioException {
+    Preconditions.checkState(!mClosed, "Can not query a reader closed");
+    ByteBuffer section = mClient.getBloomFilter(mBlockId);
+    if (section.remaining() == 0) {
+      return null;
+    }
+    return PartitionBloomFilter.fromSection(section);
+  }
+
   /**
    * Returns the value in {@link ByteBuffer} in this partition, or null if not found.
    *
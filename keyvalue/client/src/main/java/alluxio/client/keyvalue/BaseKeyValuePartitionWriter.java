@@ -20,6 +20,7 @@ import alluxio.util.io.ByteIOUtils;
 import com.google.common.base.Preconditions;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
@@ -30,6 +31,7 @@ import javax.annotation.concurrent.NotThreadSafe;
  * A partition file consists of:
  * <ul>
  *   <li>A payload buffer which is an array of (key,value) pairs;</li>
+ *   <li>An optional Bloom filter of the keys, see {@link PartitionBloomFilter};</li>
  *   <li>A index which is a hash table maps each key to the offset in bytes into the payload
  *   buffer;</li>
  *   <li>A 4-bytes pointer in the end indicating the offset of the index.</li>
@@ -52,6 +54,10 @@ final class BaseKeyValuePartitionWriter implements KeyValuePartitionWriter {
   private boolean mCanceled;
   /** Maximum size of this partition in bytes. */
   private long mMaxSizeBytes;
+  /** False positive probability of the Bloom filter, or 0 to write no filter. */
+  private final double mBloomFilterFpp;
+  /** Hashes of the keys added, to build the Bloom filter. */
+  private long[] mKeyHashes;
 
   /**
    * Constructs a {@link BaseKeyValuePartitionWriter} given an output stream.
@@ -67,6 +73,10 @@ final class BaseKeyValuePartitionWriter implements KeyValuePartitionWriter {
     mClosed = false;
     mCanceled = false;
     mMaxSizeBytes = Configuration.getBytes(PropertyKey.KEY_VALUE_PARTITION_SIZE_BYTES_MAX);
+    mBloomFilterFpp = Configuration.getDouble(PropertyKey.KEY_VALUE_PARTITION_BLOOM_FILTER_FPP);
+    Preconditions.checkArgument(mBloomFilterFpp >= 0 && mBloomFilterFpp < 1,
+        "%s must be in [0, 1)", PropertyKey.KEY_VALUE_PARTITION_BLOOM_FILTER_FPP);
+    mKeyHashes = new long[0];
   }
 
   @Override
@@ -97,6 +107,12 @@ final class BaseKeyValuePartitionWriter implements KeyValuePartitionWriter {
     Preconditions.checkArgument(value.length > 0, "Cannot put an empty value");
     Preconditions.checkState(!mClosed);
     mIndex.put(key, value, mPayloadWriter);
+    if (mBloomFilterFpp > 0) {
+      if (mKeyCount == mKeyHashes.length) {
+        mKeyHashes = Arrays.copyOf(mKeyHashes, Math.max(16, mKeyHashes.length * 2));
+      }
+      mKeyHashes[mKeyCount] = PartitionBloomFilter.hash(key);
+    }
     mKeyCount++;
   }
 
@@ -122,12 +138,21 @@ final class BaseKeyValuePartitionWriter implements KeyValuePartitionWriter {
   public long byteCount() {
     Preconditions.checkState(!mClosed);
     // last pointer to index
-    return mFileOutStream.getBytesWritten() + mIndex.byteCount() + Integer.SIZE / Byte.SIZE;
+    long bytes = mFileOutStream.getBytesWritten() + mIndex.byteCount() + Integer.SIZE / Byte.SIZE;
+    if (mBloomFilterFpp > 0) {
+      // the filter of one more key, in case this is called to check whether a key can be added
+      bytes += PartitionBloomFilter.sectionBytes(mKeyCount + 1, mBloomFilterFpp);
+    }
+    return bytes;
   }
 
   private void build() throws IOException {
     Preconditions.checkState(!mClosed);
     mFileOutStream.flush();
+    if (mBloomFilterFpp > 0 && mKeyCount > 0) {
+      mFileOutStream.write(
+          PartitionBloomFilter.create(mKeyHashes, mKeyCount, mBloomFilterFpp).toSection());
+    }
     int indexOffset = mFileOutStream.getBytesWritten();
     mFileOutStream.write(mIndex.getBytes());
     ByteIOUtils.writeInt(mFileOutStream, indexOffset);
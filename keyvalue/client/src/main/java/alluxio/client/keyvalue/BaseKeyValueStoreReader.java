@@ -12,18 +12,31 @@
 package alluxio.client.keyvalue;
 
 import alluxio.AlluxioURI;
+import alluxio.Configuration;
+import alluxio.PropertyKey;
+import alluxio.client.block.AlluxioBlockStore;
 import alluxio.exception.AlluxioException;
 import alluxio.master.MasterClientConfig;
 import alluxio.thrift.PartitionInfo;
 import alluxio.util.io.BufferUtils;
+import alluxio.wire.WorkerNetAddress;
 
+import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.google.common.collect.Lists;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.annotation.concurrent.NotThreadSafe;
 import javax.annotation.Nullable;
@@ -34,18 +47,48 @@ import javax.annotation.Nullable;
 @NotThreadSafe
 class BaseKeyValueStoreReader implements KeyValueStoreReader {
   private static final Logger LOG = LoggerFactory.getLogger(BaseKeyValueStoreReader.class);
-
+  /** Maximum number of keys looked up in one RPC, to bound the size of the RPC frames. */
+  private static final int MULTI_GET_BATCH_SIZE = 1024;
   private final KeyValueMasterClient mMasterClient;
 
+  /**
+   * Bloom filters of the partitions looked up, absent for the partitions without one. Partitions
+   * are immutable once completed, so the filters are shared by the readers of a key-value system.
+   */
+  private final Cache<Long, Optional<PartitionBloomFilter>> mBloomFilters;
+
   /** A list of partitions of the store. */
   private final List<PartitionInfo> mPartitions;
 
+  /** The range iterators created by {@link #scan}, which may hold partition readers open. */
+  private final List<KeyValueStoreRangeIterator> mRangeIterators = new ArrayList<>();
+
+  /**
+   * @return a cache for the Bloom filters of partitions, bounded by
+   *         {@link PropertyKey#KEY_VALUE_CLIENT_BLOOM_FILTER_CACHE_SIZE_BYTES}
+   */
+  static Cache<Long, Optional<PartitionBloomFilter>> createBloomFilterCache() {
+    return CacheBuilder.newBuilder()
+        .maximumWeight(
+            Configuration.getBytes(PropertyKey.KEY_VALUE_CLIENT_BLOOM_FILTER_CACHE_SIZE_BYTES))
+        .weigher(new Weigher<Long, Optional<PartitionBloomFilter>>() {
+          @Override
+          public int weigh(Long blockId, Optional<PartitionBloomFilter> filter) {
+            return filter.isPresent() ? filter.get().getSizeBytes() : 1;
+          }
+        })
+        .build();
+  }
+
   /**
    * Constructs a {@link BaseKeyValueStoreReader} instance.
    *
    * @param uri URI of the key-value store
+   * @param bloomFilters the cache of partition Bloom filters, see {@link #createBloomFilterCache()}
    */
-  BaseKeyValueStoreReader(AlluxioURI uri) throws IOException {
+  BaseKeyValueStoreReader(AlluxioURI uri, Cache<Long, Optional<PartitionBloomFilter>> bloomFilters)
+      throws IOException {
+    mBloomFilters = Preconditions.checkNotNull(bloomFilters, "bloomFilters");
     // TODO(binfan): use a thread pool to manage the client.
     LOG.info("Create KeyValueStoreReader for {}", uri);
     mMasterClient = new KeyValueMasterClient(MasterClientConfig.defaults());
@@ -55,6 +98,10 @@ class BaseKeyValueStoreReader implements KeyValueStoreReader {
 
   @Override
   public void close() {
+    for (KeyValueStoreRangeIterator iterator : mRangeIterators) {
+      iterator.close();
+    }
+    mRangeIterators.clear();
   }
 
   @Override
@@ -71,6 +118,111 @@ class BaseKeyValueStoreReader implements KeyValueStoreReader {
   @Nullable
   public ByteBuffer get(ByteBuffer key) throws IOException, AlluxioException {
     Preconditions.checkNotNull(key, "key");
+    PartitionInfo partition = findPartition(key);
+    if (partition == null) {
+      return null;
+    }
+    long blockId = partition.getBlockId();
+    if (!mightContain(blockId, key)) {
+      return null;
+    }
+    try (BaseKeyValuePartitionReader reader = new BaseKeyValuePartitionReader(blockId)) {
+      if (mBloomFilters.getIfPresent(blockId) == null) {
+        mBloomFilters.put(blockId, Optional.fromNullable(reader.getBloomFilter()));
+        if (!mightContain(blockId, key)) {
+          return null;
+        }
+      }
+      return reader.get(key);
+    }
+  }
+
+  @Override
+  public List<ByteBuffer> multiGet(List<ByteBuffer> keys) throws IOException, AlluxioException {
+    Preconditions.checkNotNull(keys, "keys");
+    List<ByteBuffer> values = new ArrayList<>(Collections.nCopies(keys.size(), (ByteBuffer) null));
+    // Groups the positions of the keys by the worker serving their partitions
+    AlluxioBlockStore blockStore = AlluxioBlockStore.create();
+    Map<Long, WorkerNetAddress> workers = new HashMap<>();
+    Map<WorkerNetAddress, List<Integer>> positionsByWorker = new HashMap<>();
+    long[] blockIds = new long[keys.size()];
+    for (int i = 0; i < keys.size(); i++) {
+      PartitionInfo partition = findPartition(Preconditions.checkNotNull(keys.get(i), "key"));
+      if (partition == null || !mightContain(partition.getBlockId(), keys.get(i))) {
+        continue;
+      }
+      blockIds[i] = partition.getBlockId();
+      WorkerNetAddress worker = workers.get(blockIds[i]);
+      if (worker == null) {
+        worker = blockStore.getInfo(blockIds[i]).getLocations().get(0).getWorkerAddress();
+        workers.put(blockIds[i], worker);
+      }
+      List<Integer> positions = positionsByWorker.get(worker);
+      if (positions == null) {
+        positions = new ArrayList<>();
+        positionsByWorker.put(worker, positions);
+      }
+      positions.add(i);
+    }
+    for (Map.Entry<WorkerNetAddress, List<Integer>> entry : positionsByWorker.entrySet()) {
+      try (KeyValueWorkerClient client = new KeyValueWorkerClient(entry.getKey())) {
+        // Drops the keys ruled out by the Bloom filters fetched from this worker
+        List<Integer> positions = new ArrayList<>(entry.getValue().size());
+        for (int position : entry.getValue()) {
+          long blockId = blockIds[position];
+          if (mBloomFilters.getIfPresent(blockId) == null) {
+            ByteBuffer section = client.getBloomFilter(blockId);
+            mBloomFilters.put(blockId, section.remaining() == 0
+                ? Optional.<PartitionBloomFilter>absent()
+                : Optional.of(PartitionBloomFilter.fromSection(section)));
+          }
+          if (mightContain(blockId, keys.get(position))) {
+            positions.add(position);
+          }
+        }
+        for (List<Integer> batch : Lists.partition(positions, MULTI_GET_BATCH_SIZE)) {
+          List<Long> batchBlockIds = new ArrayList<>(batch.size());
+          List<ByteBuffer> batchKeys = new ArrayList<>(batch.size());
+          for (int position : batch) {
+            batchBlockIds.add(blockIds[position]);
+            batchKeys.add(keys.get(position));
+          }
+          List<ByteBuffer> batchValues = client.multiGet(batchBlockIds, batchKeys);
+          for (int i = 0; i < batch.size(); i++) {
+            ByteBuffer value = batchValues.get(i);
+            values.set(batch.get(i), value.remaining() == 0 ? null : value);
+          }
+        }
+      }
+    }
+    return values;
+  }
+
+  @Override
+  public KeyValueIterator scan(ByteBuffer startKey, ByteBuffer endKey)
+      throws IOException, AlluxioException {
+    KeyValueStoreRangeIterator iterator =
+        new KeyValueStoreRangeIterator(mPartitions, startKey, endKey);
+    mRangeIterators.add(iterator);
+    return iterator;
+  }
+
+  /**
+   * @param blockId the block id of the partition
+   * @param key the key
+   * @return false if the cached Bloom filter of the partition rules out the key, true otherwise
+   */
+  private boolean mightContain(long blockId, ByteBuffer key) {
+    Optional<PartitionBloomFilter> filter = mBloomFilters.getIfPresent(blockId);
+    return filter == null || !filter.isPresent() || filter.get().mightContain(key);
+  }
+
+  /**
+   * @param key the key
+   * @return the partition which may contain the key, or null if the key is not in the store
+   */
+  @Nullable
+  private PartitionInfo findPartition(ByteBuffer key) {
     int left = 0;
     int right = mPartitions.size();
     while (left < right) {
@@ -83,10 +235,7 @@ class BaseKeyValueStoreReader implements KeyValueStoreReader {
         left = middle + 1;
       } else {
         // The key is either in this partition or not in the key-value store
-        long blockId = partition.getBlockId();
-        try (KeyValuePartitionReader reader = KeyValuePartitionReader.Factory.create(blockId)) {
-          return reader.get(key);
-        }
+        return partition;
       }
     }
     return null;
@@ -22,7 +22,9 @@ import alluxio.exception.status.NotFoundException;
 import alluxio.exception.status.UnavailableException;
 import alluxio.master.MasterClientConfig;
 
+import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
 
 import java.io.IOException;
 
@@ -38,6 +40,8 @@ import javax.annotation.concurrent.ThreadSafe;
 public final class BaseKeyValueSystem implements KeyValueSystem {
   private final KeyValueMasterClient mMasterClient =
       new KeyValueMasterClient(MasterClientConfig.defaults());
+  private final Cache<Long, Optional<PartitionBloomFilter>> mBloomFilters =
+      BaseKeyValueStoreReader.createBloomFilterCache();
 
   /**
    * Constructs a new {@link BaseKeyValueSystem}.
@@ -48,7 +52,7 @@ public final class BaseKeyValueSystem implements KeyValueSystem {
   public KeyValueStoreReader openStore(AlluxioURI uri) throws IOException, AlluxioException {
     Preconditions.checkNotNull(uri, PreconditionMessage.URI_KEY_VALUE_STORE_NULL);
     try {
-      return new BaseKeyValueStoreReader(uri);
+      return new BaseKeyValueStoreReader(uri, mBloomFilters);
     } catch (UnavailableException e) {
       throw e;
     } catch (AlluxioStatusException e) {
@@ -11,6 +11,7 @@
 
 package alluxio.client.keyvalue;
 
+import alluxio.Constants;
 import alluxio.exception.AlluxioException;
 import alluxio.util.io.BufferUtils;
 import alluxio.util.io.ByteIOUtils;
@@ -24,6 +25,7 @@ import java.nio.ByteBuffer;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 
 /**
@@ -35,10 +37,11 @@ public final class ByteBufferKeyValuePartitionReader implements KeyValuePartitio
   private static final Logger LOG =
       LoggerFactory.getLogger(ByteBufferKeyValuePartitionReader.class);
 
-  private Index mIndex;
+  private LinearProbingIndex mIndex;
   private PayloadReader mPayloadReader;
   private ByteBuffer mBuf;
   private int mBufferLength;
+  private int mIndexOffset;
   /** Whether this writer is closed. */
   private boolean mClosed;
 
@@ -55,10 +58,10 @@ public final class ByteBufferKeyValuePartitionReader implements KeyValuePartitio
     mClosed = false;
   }
 
-  private Index createIndex() {
-    int indexOffset = ByteIOUtils.readInt(mBuf, mBufferLength - 4);
+  private LinearProbingIndex createIndex() {
+    mIndexOffset = ByteIOUtils.readInt(mBuf, mBufferLength - 4);
     ByteBuffer indexBytes =
-        BufferUtils.sliceByteBuffer(mBuf, indexOffset, mBufferLength - 4 - indexOffset);
+        BufferUtils.sliceByteBuffer(mBuf, mIndexOffset, mBufferLength - 4 - mIndexOffset);
     return LinearProbingIndex.loadFromByteArray(indexBytes);
   }
 
@@ -130,6 +133,28 @@ public final class ByteBufferKeyValuePartitionReader implements KeyValuePartitio
     return mIndex;
   }
 
+  /**
+   * @return the Bloom filter section of the partition, or null if the partition has none
+   */
+  @Nullable
+  public ByteBuffer getBloomFilterSection() {
+    return PartitionBloomFilter.findSection(mBuf, getPayloadEnd(), mIndexOffset);
+  }
+
+  /**
+   * @return the offset of the end of the last record of the payload
+   */
+  private int getPayloadEnd() {
+    int lastRecordOffset = mIndex.maxPayloadOffset();
+    if (lastRecordOffset < 0) {
+      return 0;
+    }
+    // A record is the key length, the value length, the key and the value
+    return lastRecordOffset + 2 * Constants.BYTES_IN_INTEGER
+        + mPayloadReader.getKey(lastRecordOffset).remaining()
+        + mPayloadReader.getValue(lastRecordOffset).remaining();
+  }
+
   /**
    * @return the {@link PayloadReader} for reading payloads from the byte buffer
    */
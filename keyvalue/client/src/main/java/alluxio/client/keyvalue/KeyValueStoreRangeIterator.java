@@ -0,0 +1,183 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.keyvalue;
+
+import alluxio.exception.AlluxioException;
+import alluxio.thrift.PartitionInfo;
+
+import com.google.common.base.Preconditions;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * {@link KeyValueIterator} to iterate over the key-value pairs of a key-value store whose keys are
+ * in a range. Partitions are sorted by their key ranges, so only the partitions overlapping with
+ * the range are read. Keys are fetched from each of them in batches, and the values of the keys
+ * in the range are fetched with one RPC per batch.
+ *
+ * The iterator keeps a reader of the partition being visited open until the partition is fully
+ * read or {@link #close()} is called.
+ */
+@NotThreadSafe
+final class KeyValueStoreRangeIterator implements KeyValueIterator, Closeable {
+  /** Maximum number of keys fetched from a partition in one RPC. */
+  private static final int KEY_BATCH_SIZE = 256;
+
+  /** Lower bound of the keys, inclusive, or null for no lower bound. */
+  private final ByteBuffer mStartKey;
+  /** Upper bound of the keys, exclusive, or null for no upper bound. */
+  private final ByteBuffer mEndKey;
+  /** Partitions overlapping with the range, in key order. */
+  private final List<PartitionInfo> mPartitions;
+  /** Pairs fetched but not returned yet. */
+  private final Deque<KeyValuePair> mPairs = new ArrayDeque<>();
+  /** Index of the partition being visited. */
+  private int mPartitionIndex = -1;
+  /** Reader of the partition being visited, or null if it has been fully read. */
+  private BaseKeyValuePartitionReader mReader;
+  /** The last key fetched from the partition being visited. */
+  private ByteBuffer mLastKey;
+
+  /**
+   * @param partitions all the partitions of the store, in key order
+   * @param startKey the lower bound of the keys, inclusive, or null for no lower bound
+   * @param endKey the upper bound of the keys, exclusive, or null for no upper bound
+   */
+  KeyValueStoreRangeIterator(List<PartitionInfo> partitions, @Nullable ByteBuffer startKey,
+      @Nullable ByteBuffer endKey) throws IOException, AlluxioException {
+    Preconditions.checkNotNull(partitions, "partitions");
+    mStartKey = startKey;
+    mEndKey = endKey;
+    mPartitions = new ArrayList<>();
+    // NOTE: keyStart and keyLimit are both inclusive
+    for (int i = firstPartition(partitions); i < partitions.size(); i++) {
+      PartitionInfo partition = partitions.get(i);
+      if (mEndKey != null && partition.bufferForKeyStart().compareTo(mEndKey) >= 0) {
+        break;
+      }
+      mPartitions.add(partition);
+    }
+    try {
+      fetch();
+    } catch (IOException | AlluxioException | RuntimeException e) {
+      close();
+      throw e;
+    }
+  }
+
+  @Override
+  public void close() {
+    if (mReader != null) {
+      mReader.close();
+      mReader = null;
+    }
+    mPartitionIndex = mPartitions.size();
+    mPairs.clear();
+  }
+
+  @Override
+  public boolean hasNext() {
+    return !mPairs.isEmpty();
+  }
+
+  @Override
+  public KeyValuePair next() throws IOException, AlluxioException {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    KeyValuePair ret = mPairs.poll();
+    if (mPairs.isEmpty()) {
+      fetch();
+    }
+    return ret;
+  }
+
+  /**
+   * @param partitions the partitions in key order
+   * @return the index of the first partition whose keys are not all below the start key
+   */
+  private int firstPartition(List<PartitionInfo> partitions) {
+    if (mStartKey == null) {
+      return 0;
+    }
+    int left = 0;
+    int right = partitions.size();
+    while (left < right) {
+      int middle = (left + right) / 2;
+      if (partitions.get(middle).bufferForKeyLimit().compareTo(mStartKey) < 0) {
+        left = middle + 1;
+      } else {
+        right = middle;
+      }
+    }
+    return left;
+  }
+
+  /**
+   * @param key the key
+   * @return whether the key is in the range
+   */
+  private boolean inRange(ByteBuffer key) {
+    return (mStartKey == null || key.compareTo(mStartKey) >= 0)
+        && (mEndKey == null || key.compareTo(mEndKey) < 0);
+  }
+
+  /**
+   * Fetches batches of pairs in the range until at least one pair is fetched or all the
+   * partitions are read.
+   */
+  private void fetch() throws IOException, AlluxioException {
+    while (mPairs.isEmpty()) {
+      if (mReader == null) {
+        if (mPartitionIndex + 1 >= mPartitions.size()) {
+          return;
+        }
+        mPartitionIndex++;
+        mReader = new BaseKeyValuePartitionReader(mPartitions.get(mPartitionIndex).getBlockId());
+        mLastKey = null;
+      }
+      List<ByteBuffer> keys = mReader.getNextKeys(mLastKey, KEY_BATCH_SIZE);
+      if (keys.isEmpty()) {
+        mReader.close();
+        mReader = null;
+        continue;
+      }
+      mLastKey = keys.get(keys.size() - 1);
+      List<ByteBuffer> keysInRange = new ArrayList<>(keys.size());
+      for (ByteBuffer key : keys) {
+        if (inRange(key)) {
+          keysInRange.add(key);
+        }
+      }
+      if (keysInRange.isEmpty()) {
+        continue;
+      }
+      List<ByteBuffer> values = mReader.multiGet(keysInRange);
+      for (int i = 0; i < keysInRange.size(); i++) {
+        ByteBuffer value = values.get(i);
+        // The worker returns empty values as not found
+        mPairs.add(new KeyValuePair(keysInRange.get(i),
+            value == null ? ByteBuffer.allocate(0) : value));
+      }
+    }
+  }
+}
@@ -17,6 +17,7 @@ import alluxio.exception.AlluxioException;
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.List;
 
 /**
  * Interface for readers which accesses key-value stores in Alluxio.
@@ -41,6 +42,28 @@ public interface KeyValueStoreReader extends Closeable, KeyValueIterable {
    */
   ByteBuffer get(ByteBuffer key) throws IOException, AlluxioException;
 
+  /**
+   * Gets the values associated with a batch of keys. The keys are grouped by the worker serving
+   * their partitions, and each worker is queried with a single RPC, which is much faster than
+   * calling {@link #get(ByteBuffer)} for each key.
+   *
+   * @param keys keys to get, none of them can be null
+   * @return values associated with the given keys in the same order, null for keys not found
+   */
+  List<ByteBuffer> multiGet(List<ByteBuffer> keys) throws IOException, AlluxioException;
+
+  /**
+   * Gets an iterator over the key-value pairs whose keys are in the range from {@code startKey}
+   * inclusive to {@code endKey} exclusive. Only the partitions overlapping with the range are read.
+   * Partitions are visited in key order, but the pairs within a partition are not sorted.
+   *
+   * @param startKey the lower bound of the keys, inclusive, or null for no lower bound
+   * @param endKey the upper bound of the keys, exclusive, or null for no upper bound
+   * @return the iterator over the key-value pairs in the range
+   */
+  KeyValueIterator scan(ByteBuffer startKey, ByteBuffer endKey)
+      throws IOException, AlluxioException;
+
   /**
    * @return the number of key-value pairs in the store
    */
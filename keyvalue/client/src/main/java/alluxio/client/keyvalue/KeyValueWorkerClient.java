@@ -16,17 +16,21 @@ import alluxio.Constants;
 import alluxio.exception.AlluxioException;
 import alluxio.thrift.AlluxioService;
 import alluxio.thrift.AlluxioTException;
+import alluxio.thrift.GetBloomFilterTOptions;
 import alluxio.thrift.GetNextKeysTOptions;
 import alluxio.thrift.GetSizeTOptions;
 import alluxio.thrift.GetTOptions;
 import alluxio.thrift.KeyValueWorkerClientService;
+import alluxio.thrift.MultiGetTOptions;
 import alluxio.util.network.NetworkAddressUtils;
 import alluxio.wire.WorkerNetAddress;
 
+import org.apache.thrift.TApplicationException;
 import org.apache.thrift.TException;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.annotation.concurrent.ThreadSafe;
@@ -40,6 +44,10 @@ import javax.annotation.concurrent.ThreadSafe;
 @ThreadSafe
 public final class KeyValueWorkerClient extends AbstractClient {
   private KeyValueWorkerClientService.Client mClient = null;
+  /** Whether the worker may support multiGet, false once it replied that it does not. */
+  private boolean mMultiGetSupported;
+  /** Whether the worker may support getBloomFilter, false once it replied that it does not. */
+  private boolean mBloomFilterSupported;
 
   /**
    * Creates a {@link KeyValueWorkerClient}.
@@ -68,6 +76,18 @@ public final class KeyValueWorkerClient extends AbstractClient {
   @Override
   protected void afterConnect() throws IOException {
     mClient = new KeyValueWorkerClientService.Client(mProtocol);
+    // The worker may have been upgraded since the last connection.
+    mMultiGetSupported = true;
+    mBloomFilterSupported = true;
+  }
+
+  /**
+   * @param e an exception thrown by an RPC
+   * @return whether the exception is the reply of a worker which does not have the RPC method
+   */
+  private static boolean isUnknownMethod(TException e) {
+    return e instanceof TApplicationException
+        && ((TApplicationException) e).getType() == TApplicationException.UNKNOWN_METHOD;
   }
 
   /**
@@ -87,6 +107,39 @@ public final class KeyValueWorkerClient extends AbstractClient {
     });
   }
 
+  /**
+   * Gets the values of a batch of keys in one RPC. Each key is looked up in the key-value block
+   * with the block id at the same position. Workers without multiGet get one RPC per key.
+   *
+   * @param blockIds the ids of the blocks, one per key
+   * @param keys the keys to get the values for
+   * @return ByteBuffers of values in the order of the keys, empty if the key is not found
+   */
+  public synchronized List<ByteBuffer> multiGet(final List<Long> blockIds,
+      final List<ByteBuffer> keys) throws IOException, AlluxioException {
+    return retryRPC(new RpcCallable<List<ByteBuffer>>() {
+      @Override
+      public List<ByteBuffer> call() throws AlluxioTException, TException {
+        if (mMultiGetSupported) {
+          try {
+            return mClient.multiGet(blockIds, keys, new MultiGetTOptions()).getValues();
+          } catch (TException e) {
+            if (!isUnknownMethod(e)) {
+              throw e;
+            }
+            mMultiGetSupported = false;
+          }
+        }
+        List<ByteBuffer> values = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+          values.add(mClient.get(blockIds.get(i), keys.get(i), new GetTOptions())
+              .bufferForData());
+        }
+        return values;
+      }
+    });
+  }
+
   /**
    * Gets a batch of keys next to the current key in the partition.
    * <p>
@@ -120,4 +173,30 @@ public final class KeyValueWorkerClient extends AbstractClient {
       }
     });
   }
+
+  /**
+   * Gets the Bloom filter section of a partition.
+   *
+   * @param blockId the id of the partition
+   * @return the Bloom filter section, empty if the partition or the worker has none
+   */
+  public synchronized ByteBuffer getBloomFilter(final long blockId)
+      throws IOException, AlluxioException {
+    return retryRPC(new RpcCallable<ByteBuffer>() {
+      @Override
+      public ByteBuffer call() throws AlluxioTException, TException {
+        if (mBloomFilterSupported) {
+          try {
+            return mClient.getBloomFilter(blockId, new GetBloomFilterTOptions()).bufferForData();
+          } catch (TException e) {
+            if (!isUnknownMethod(e)) {
+              throw e;
+            }
+            mBloomFilterSupported = false;
+          }
+        }
+        return ByteBuffer.allocate(0);
+      }
+    });
+  }
 }
@@ -167,6 +167,21 @@ public final class LinearProbingIndex implements Index {
     return -1;
   }
 
+  /**
+   * @return the largest payload offset of the keys in this index, which is the offset of the last
+   *         record of the payload, or -1 if there is no key
+   */
+  public int maxPayloadOffset() {
+    int maxOffset = -1;
+    final int bufLimit = mHashTableBuf.limit();
+    for (int bucketOffset = 0; bucketOffset < bufLimit; bucketOffset += BUCKET_SIZE_BYTES) {
+      if (ByteIOUtils.readByte(mHashTableBuf, bucketOffset) != 0) {
+        maxOffset = Math.max(maxOffset, ByteIOUtils.readInt(mHashTableBuf, bucketOffset + 1));
+      }
+    }
+    return maxOffset;
+  }
+
   @Override
   public byte[] getBytes() {
     // No byte array copy happens.
@@ -0,0 +1,234 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.keyvalue;
+
+import alluxio.Constants;
+import alluxio.util.io.BufferUtils;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.nio.ByteBuffer;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A Bloom filter of the keys of a key-value partition, which lets readers answer lookups of absent
+ * keys without querying the partition.
+ * <p>
+ * The filter is stored as an optional section between the payload and the index of a partition
+ * file. The section consists of:
+ * <ul>
+ *   <li>The bit array of the filter, as an array of 8-bytes words;</li>
+ *   <li>A 4-bytes number of hash functions;</li>
+ *   <li>A 4-bytes number of words in the bit array;</li>
+ *   <li>The 8-bytes {@link #MAGIC} number.</li>
+ * </ul>
+ * Neither the offsets of the payload nor the offset of the index depend on the section, so readers
+ * unaware of it can still read partitions containing it.
+ * <p>
+ * Readers do not detect the section from its content, which could also be the end of the last
+ * value of a partition without a filter. The section is whatever lies between the end of the last
+ * record of the payload, which readers find through the index, and the index. In partitions
+ * without a filter, the index immediately follows the payload, so they are always read as having
+ * no filter. The footer of the section only validates it.
+ */
+@ThreadSafe
+final class PartitionBloomFilter {
+  /** Magic number ending a Bloom filter section, "ALXBLOOM" in ASCII. */
+  static final long MAGIC = 0x414C58424C4F4F4DL;
+  /** Number of bytes following the bit array in a section. */
+  private static final int FOOTER_BYTES = Constants.BYTES_IN_INTEGER * 2 + Long.SIZE / Byte.SIZE;
+  private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+  /** The bit array. */
+  private final long[] mBits;
+  /** The number of bits set for each key. */
+  private final int mNumHashFunctions;
+
+  private PartitionBloomFilter(long[] bits, int numHashFunctions) {
+    mBits = bits;
+    mNumHashFunctions = numHashFunctions;
+  }
+
+  /**
+   * Creates a Bloom filter of a number of keys.
+   *
+   * @param keyHashes the hashes of the keys, computed by {@link #hash(byte[])}
+   * @param numKeys the number of keys, which is the number of valid elements in keyHashes
+   * @param fpp the desired false positive probability, in (0, 1)
+   * @return the filter
+   */
+  static PartitionBloomFilter create(long[] keyHashes, int numKeys, double fpp) {
+    Preconditions.checkArgument(numKeys > 0, "numKeys must be positive");
+    Preconditions.checkArgument(fpp > 0 && fpp < 1, "fpp must be in (0, 1)");
+    int numWords = numWords(numKeys, fpp);
+    long numBits = (long) numWords * Long.SIZE;
+    int numHashFunctions = Math.max(1, (int) Math.round((double) numBits / numKeys * Math.log(2)));
+    PartitionBloomFilter filter = new PartitionBloomFilter(new long[numWords], numHashFunctions);
+    for (int i = 0; i < numKeys; i++) {
+      filter.put(keyHashes[i]);
+    }
+    return filter;
+  }
+
+  /**
+   * @param numKeys the number of keys
+   * @param fpp the desired false positive probability, in (0, 1)
+   * @return the number of bytes of the section of a filter of the keys
+   */
+  static long sectionBytes(int numKeys, double fpp) {
+    return (long) numWords(numKeys, fpp) * (Long.SIZE / Byte.SIZE) + FOOTER_BYTES;
+  }
+
+  private static int numWords(int numKeys, double fpp) {
+    double numBits = -numKeys * Math.log(fpp) / (Math.log(2) * Math.log(2));
+    return (int) Math.max(1, (long) Math.ceil(numBits / Long.SIZE));
+  }
+
+  /**
+   * @param key the key
+   * @return the hash of the key
+   */
+  static long hash(byte[] key) {
+    return HASH_FUNCTION.hashBytes(key).asLong();
+  }
+
+  /**
+   * @param key the key
+   * @return the hash of the key
+   */
+  static long hash(ByteBuffer key) {
+    if (key.hasArray()) {
+      return HASH_FUNCTION.hashBytes(key.array(), key.arrayOffset() + key.position(),
+          key.remaining()).asLong();
+    }
+    return hash(BufferUtils.newByteArrayFromByteBuffer(key));
+  }
+
+  /**
+   * Finds the Bloom filter section of a partition.
+   *
+   * @param partition the partition
+   * @param payloadEnd the offset of the end of the last record of the payload in the partition
+   * @param indexOffset the offset of the index in the partition
+   * @return the section, or null if the partition has no Bloom filter
+   */
+  @Nullable
+  static ByteBuffer findSection(ByteBuffer partition, int payloadEnd, int indexOffset) {
+    if (payloadEnd >= indexOffset) {
+      // The index follows the payload, so there is no section
+      return null;
+    }
+    ByteBuffer section =
+        BufferUtils.sliceByteBuffer(partition, payloadEnd, indexOffset - payloadEnd);
+    // Anything else between the payload and the index is not read as a filter, since a filter
+    // which misses keys would answer lookups wrongly
+    return isSection(section) ? section : null;
+  }
+
+  /**
+   * @param section the bytes between the payload and the index of a partition
+   * @return whether the bytes are a valid Bloom filter section
+   */
+  private static boolean isSection(ByteBuffer section) {
+    int end = section.limit();
+    if (section.remaining() < FOOTER_BYTES
+        || section.getLong(end - Long.SIZE / Byte.SIZE) != MAGIC) {
+      return false;
+    }
+    int numHashFunctions = section.getInt(end - FOOTER_BYTES);
+    int numWords = section.getInt(end - FOOTER_BYTES + Constants.BYTES_IN_INTEGER);
+    return numWords > 0 && numHashFunctions > 0
+        && section.remaining() == (long) numWords * (Long.SIZE / Byte.SIZE) + FOOTER_BYTES;
+  }
+
+  /**
+   * Reads a Bloom filter from its section.
+   *
+   * @param section the section, as returned by {@link #findSection}
+   * @return the filter
+   */
+  static PartitionBloomFilter fromSection(ByteBuffer section) {
+    Preconditions.checkArgument(isSection(section), "Invalid Bloom filter section");
+    int end = section.limit();
+    int numHashFunctions = section.getInt(end - FOOTER_BYTES);
+    int numWords = section.getInt(end - FOOTER_BYTES + Constants.BYTES_IN_INTEGER);
+    long[] bits = new long[numWords];
+    ByteBuffer words = section.duplicate();
+    words.limit(end - FOOTER_BYTES);
+    words.asLongBuffer().get(bits);
+    return new PartitionBloomFilter(bits, numHashFunctions);
+  }
+
+  /**
+   * @return the section of the filter
+   */
+  byte[] toSection() {
+    ByteBuffer section = ByteBuffer.allocate(getSizeBytes());
+    section.asLongBuffer().put(mBits);
+    section.position(mBits.length * (Long.SIZE / Byte.SIZE));
+    section.putInt(mNumHashFunctions);
+    section.putInt(mBits.length);
+    section.putLong(MAGIC);
+    return section.array();
+  }
+
+  /**
+   * @return the number of bytes of the section of the filter
+   */
+  int getSizeBytes() {
+    return mBits.length * (Long.SIZE / Byte.SIZE) + FOOTER_BYTES;
+  }
+
+  /**
+   * @param key the key
+   * @return false if the key is definitely not in the partition, true if it might be
+   */
+  boolean mightContain(ByteBuffer key) {
+    long hash = hash(key);
+    long numBits = (long) mBits.length * Long.SIZE;
+    int hash1 = (int) hash;
+    int hash2 = (int) (hash >>> 32);
+    for (int i = 1; i <= mNumHashFunctions; i++) {
+      long bit = index(hash1, hash2, i, numBits);
+      if ((mBits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void put(long hash) {
+    long numBits = (long) mBits.length * Long.SIZE;
+    int hash1 = (int) hash;
+    int hash2 = (int) (hash >>> 32);
+    for (int i = 1; i <= mNumHashFunctions; i++) {
+      long bit = index(hash1, hash2, i, numBits);
+      mBits[(int) (bit >>> 6)] |= 1L << bit;
+    }
+  }
+
+  /**
+   * Derives the i-th bit of a key from two halves of its hash, see "Less Hashing, Same Performance:
+   * Building a Better Bloom Filter" by Kirsch and Mitzenmacher.
+   */
+  private static long index(int hash1, int hash2, int i, long numBits) {
+    long combined = hash1 + (long) i * hash2;
+    if (combined < 0) {
+      combined = ~combined;
+    }
+    return combined % numBits;
+  }
+}
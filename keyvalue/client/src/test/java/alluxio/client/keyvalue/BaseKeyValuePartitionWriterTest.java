@@ -16,6 +16,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertNotNull;
 
 import alluxio.Configuration;
 import alluxio.ConfigurationTestUtils;
@@ -127,6 +128,70 @@ public final class BaseKeyValuePartitionWriterTest {
     reader.close();
   }
 
+  /**
+   * Tests {@link BaseKeyValuePartitionWriter#close()} writes a Bloom filter of the keys.
+   */
+  @Test
+  public void bloomFilter() throws Exception {
+    mWriter.put(KEY1, VALUE1);
+    mWriter.put(KEY2, VALUE2);
+    mWriter.close();
+    ByteBufferKeyValuePartitionReader reader =
+        new ByteBufferKeyValuePartitionReader(ByteBuffer.wrap(mOutStream.toByteArray()));
+    ByteBuffer section = reader.getBloomFilterSection();
+    assertNotNull(section);
+    PartitionBloomFilter filter = PartitionBloomFilter.fromSection(section);
+    assertTrue(filter.mightContain(ByteBuffer.wrap(KEY1)));
+    assertTrue(filter.mightContain(ByteBuffer.wrap(KEY2)));
+    reader.close();
+  }
+
+  /**
+   * Tests partitions written without a Bloom filter can be read.
+   */
+  @Test
+  public void putAndGetWithoutBloomFilter() throws Exception {
+    Configuration.set(PropertyKey.KEY_VALUE_PARTITION_BLOOM_FILTER_FPP, "0");
+    mWriter = new BaseKeyValuePartitionWriter(mOutStream);
+    mWriter.put(KEY1, VALUE1);
+    mWriter.put(KEY2, VALUE2);
+    mWriter.close();
+    ConfigurationTestUtils.resetConfiguration();
+    ByteBufferKeyValuePartitionReader reader =
+        new ByteBufferKeyValuePartitionReader(ByteBuffer.wrap(mOutStream.toByteArray()));
+    assertNull(reader.getBloomFilterSection());
+    assertArrayEquals(VALUE1, reader.get(KEY1));
+    assertArrayEquals(VALUE2, reader.get(KEY2));
+    assertNull(reader.get("NoSuchKey".getBytes()));
+    reader.close();
+  }
+
+  /**
+   * Tests a partition without a Bloom filter, whose last value ends with a valid Bloom filter
+   * section, is read as having no filter.
+   */
+  @Test
+  public void lastValueEndsWithBloomFilterSection() throws Exception {
+    Configuration.set(PropertyKey.KEY_VALUE_PARTITION_BLOOM_FILTER_FPP, "0");
+    mWriter = new BaseKeyValuePartitionWriter(mOutStream);
+    // A filter of another key, which would most likely rule out KEY1 if it was read
+    byte[] section = PartitionBloomFilter.create(
+        new long[] {PartitionBloomFilter.hash("other".getBytes())}, 1, 0.01).toSection();
+    byte[] value = new byte[VALUE2.length + section.length];
+    System.arraycopy(VALUE2, 0, value, 0, VALUE2.length);
+    System.arraycopy(section, 0, value, VALUE2.length, section.length);
+    mWriter.put(KEY1, VALUE1);
+    mWriter.put(KEY2, value);
+    mWriter.close();
+    ConfigurationTestUtils.resetConfiguration();
+    ByteBufferKeyValuePartitionReader reader =
+        new ByteBufferKeyValuePartitionReader(ByteBuffer.wrap(mOutStream.toByteArray()));
+    assertNull(reader.getBloomFilterSection());
+    assertArrayEquals(VALUE1, reader.get(KEY1));
+    assertArrayEquals(value, reader.get(KEY2));
+    reader.close();
+  }
+
   /**
    * Tests {@link BaseKeyValuePartitionWriter#canPut} works.
    */
@@ -0,0 +1,115 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.keyvalue;
+
+import alluxio.util.io.BufferUtils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Unit tests of {@link PartitionBloomFilter}.
+ */
+public final class PartitionBloomFilterTest {
+  private static final int NUM_KEYS = 10000;
+  private static final double FPP = 0.01;
+
+  private static PartitionBloomFilter createFilter() {
+    long[] hashes = new long[NUM_KEYS];
+    for (int i = 0; i < NUM_KEYS; i++) {
+      hashes[i] = PartitionBloomFilter.hash(key(i));
+    }
+    return PartitionBloomFilter.create(hashes, NUM_KEYS, FPP);
+  }
+
+  private static byte[] key(int i) {
+    return String.format("key_%d", i).getBytes();
+  }
+
+  /**
+   * Tests the filter contains all its keys and rules out most of the other keys.
+   */
+  @Test
+  public void mightContain() {
+    PartitionBloomFilter filter = createFilter();
+    for (int i = 0; i < NUM_KEYS; i++) {
+      Assert.assertTrue(filter.mightContain(ByteBuffer.wrap(key(i))));
+    }
+    int falsePositives = 0;
+    for (int i = NUM_KEYS; i < 2 * NUM_KEYS; i++) {
+      if (filter.mightContain(ByteBuffer.wrap(key(i)))) {
+        falsePositives++;
+      }
+    }
+    Assert.assertTrue("Too many false positives: " + falsePositives,
+        falsePositives < 3 * FPP * NUM_KEYS);
+  }
+
+  /**
+   * Tests a filter read from its section is the same as the original filter.
+   */
+  @Test
+  public void sectionRoundTrip() {
+    PartitionBloomFilter filter = createFilter();
+    byte[] section = filter.toSection();
+    Assert.assertEquals(filter.getSizeBytes(), section.length);
+    Assert.assertEquals(PartitionBloomFilter.sectionBytes(NUM_KEYS, FPP), section.length);
+    PartitionBloomFilter read = PartitionBloomFilter.fromSection(ByteBuffer.wrap(section));
+    for (int i = 0; i < 2 * NUM_KEYS; i++) {
+      ByteBuffer key = ByteBuffer.wrap(key(i));
+      Assert.assertEquals(filter.mightContain(key), read.mightContain(key));
+    }
+  }
+
+  /**
+   * Tests {@link PartitionBloomFilter#findSection} finds the section between the payload and the
+   * index.
+   */
+  @Test
+  public void findSection() {
+    byte[] payload = BufferUtils.getIncreasingByteArray(100);
+    byte[] section = createFilter().toSection();
+    ByteBuffer partition = ByteBuffer.allocate(payload.length + section.length + 10);
+    partition.put(payload).put(section);
+    int indexOffset = partition.position();
+    Assert.assertEquals(ByteBuffer.wrap(section),
+        PartitionBloomFilter.findSection(partition, payload.length, indexOffset));
+  }
+
+  /**
+   * Tests {@link PartitionBloomFilter#findSection} finds nothing in partitions without a section,
+   * even when their payload ends with a valid section.
+   */
+  @Test
+  public void findNoSection() {
+    byte[] section = createFilter().toSection();
+    ByteBuffer partition = ByteBuffer.allocate(100 + section.length);
+    partition.put(BufferUtils.getIncreasingByteArray(100)).put(section);
+    int indexOffset = partition.position();
+    Assert.assertNull(PartitionBloomFilter.findSection(partition, 0, 0));
+    Assert.assertNull(PartitionBloomFilter.findSection(partition, indexOffset, indexOffset));
+  }
+
+  /**
+   * Tests {@link PartitionBloomFilter#findSection} does not read invalid bytes between the payload
+   * and the index as a filter.
+   */
+  @Test
+  public void findInvalidSection() {
+    ByteBuffer partition = ByteBuffer.wrap(BufferUtils.getIncreasingByteArray(100));
+    // Ends with the magic number, but the size does not match
+    partition.putLong(42, PartitionBloomFilter.MAGIC);
+    Assert.assertNull(PartitionBloomFilter.findSection(partition, 20, 50));
+  }
+}
@@ -3,6 +3,11 @@ namespace java alluxio.thrift
 include "common.thrift"
 include "exception.thrift"
 
+struct GetBloomFilterTOptions {}
+struct GetBloomFilterTResponse {
+  1: binary data
+}
+
 struct GetTOptions {}
 struct GetTResponse {
   1: binary data
@@ -18,6 +23,11 @@ struct GetSizeTResponse {
   1: i32 size
 }
 
+struct MultiGetTOptions {}
+struct MultiGetTResponse {
+  1: list<binary> values
+}
+
 service KeyValueWorkerClientService extends common.AlluxioService {
   /**
    * Looks up a key in the block with the given block id.
@@ -50,4 +60,24 @@ service KeyValueWorkerClientService extends common.AlluxioService {
     /** the method options */ 2: GetSizeTOptions options,
     )
     throws (1: exception.AlluxioTException e)
+
+  /**
+   * Looks up a batch of keys, each in the block with the block id at the same position.
+   * The values are returned in the order of the keys, an empty value means the key is not found.
+   */
+  MultiGetTResponse multiGet(
+    /** the ids of the blocks being accessed, one per key */ 1: list<i64> blockIds,
+    /** binaries of the keys */ 2: list<binary> keys,
+    /** the method options */ 3: MultiGetTOptions options,
+    )
+    throws (1: exception.AlluxioTException e)
+
+  /**
+   * Gets the Bloom filter section of the partition, empty if the partition has none.
+   */
+  GetBloomFilterTResponse getBloomFilter(
+    /** the id of the partition */ 1: i64 blockId,
+    /** the method options */ 2: GetBloomFilterTOptions options,
+    )
+    throws (1: exception.AlluxioTException e)
 }
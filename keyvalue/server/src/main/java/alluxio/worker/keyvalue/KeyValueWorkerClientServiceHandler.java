@@ -11,7 +11,9 @@
 
 package alluxio.worker.keyvalue;
 
+import alluxio.Configuration;
 import alluxio.Constants;
+import alluxio.PropertyKey;
 import alluxio.RpcUtils;
 import alluxio.RpcUtils.RpcCallableThrowsIOException;
 import alluxio.Sessions;
@@ -22,6 +24,8 @@ import alluxio.exception.AlluxioException;
 import alluxio.exception.BlockDoesNotExistException;
 import alluxio.exception.InvalidWorkerStateException;
 import alluxio.thrift.AlluxioTException;
+import alluxio.thrift.GetBloomFilterTOptions;
+import alluxio.thrift.GetBloomFilterTResponse;
 import alluxio.thrift.GetNextKeysTOptions;
 import alluxio.thrift.GetNextKeysTResponse;
 import alluxio.thrift.GetServiceVersionTOptions;
@@ -31,9 +35,11 @@ import alluxio.thrift.GetSizeTResponse;
 import alluxio.thrift.GetTOptions;
 import alluxio.thrift.GetTResponse;
 import alluxio.thrift.KeyValueWorkerClientService;
+import alluxio.thrift.MultiGetTOptions;
+import alluxio.thrift.MultiGetTResponse;
 import alluxio.util.io.BufferUtils;
 import alluxio.worker.block.BlockWorker;
-import alluxio.worker.block.io.BlockReader;
+import alluxio.worker.keyvalue.PartitionReaderCache.Partition;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
@@ -42,7 +48,11 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -57,12 +67,17 @@ public final class KeyValueWorkerClientServiceHandler implements KeyValueWorkerC
 
   /** BlockWorker handler for access block info. */
   private final BlockWorker mBlockWorker;
+  /** Cache of the mapped partitions being served. */
+  private final PartitionReaderCache mPartitionReaderCache;
 
   /**
    * @param blockWorker the {@link BlockWorker}
    */
   KeyValueWorkerClientServiceHandler(BlockWorker blockWorker) {
     mBlockWorker = Preconditions.checkNotNull(blockWorker, "blockWorker");
+    mPartitionReaderCache = new PartitionReaderCache(blockWorker,
+        Configuration.getInt(PropertyKey.KEY_VALUE_WORKER_PARTITION_READER_CACHE_SIZE));
+    blockWorker.getBlockStore().registerBlockStoreEventListener(mPartitionReaderCache);
   }
 
   @Override
@@ -76,11 +91,49 @@ public final class KeyValueWorkerClientServiceHandler implements KeyValueWorkerC
     return RpcUtils.call(LOG, new RpcCallableThrowsIOException<GetTResponse>() {
       @Override
       public GetTResponse call() throws AlluxioException, IOException {
-        ByteBuffer value = getInternal(blockId, key);
+        ByteBuffer value = getInternal(blockId, Collections.singletonList(key)).get(0);
         if (value == null) {
           return new GetTResponse(ByteBuffer.allocate(0));
         }
-        return new GetTResponse(copyAsNonDirectBuffer(value));
+        return new GetTResponse(value);
+      }
+    });
+  }
+
+  @Override
+  public MultiGetTResponse multiGet(final List<Long> blockIds, final List<ByteBuffer> keys,
+      MultiGetTOptions options) throws AlluxioTException {
+    return RpcUtils.call(LOG, new RpcCallableThrowsIOException<MultiGetTResponse>() {
+      @Override
+      public MultiGetTResponse call() throws AlluxioException, IOException {
+        Preconditions.checkArgument(blockIds.size() == keys.size(),
+            "Number of block ids %s does not match number of keys %s", blockIds.size(),
+            keys.size());
+        // Groups the positions of the keys by block, to look up each block under a single lock.
+        Map<Long, List<Integer>> positionsByBlock = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+          List<Integer> positions = positionsByBlock.get(blockIds.get(i));
+          if (positions == null) {
+            positions = new ArrayList<>();
+            positionsByBlock.put(blockIds.get(i), positions);
+          }
+          positions.add(i);
+        }
+        List<ByteBuffer> values = new ArrayList<>(Collections.nCopies(keys.size(),
+            ByteBuffer.allocate(0)));
+        for (Map.Entry<Long, List<Integer>> entry : positionsByBlock.entrySet()) {
+          List<ByteBuffer> blockKeys = new ArrayList<>(entry.getValue().size());
+          for (int position : entry.getValue()) {
+            blockKeys.add(keys.get(position));
+          }
+          List<ByteBuffer> blockValues = getInternal(entry.getKey(), blockKeys);
+          for (int i = 0; i < blockValues.size(); i++) {
+            if (blockValues.get(i) != null) {
+              values.set(entry.getValue().get(i), blockValues.get(i));
+            }
+          }
+        }
+        return new MultiGetTResponse(values);
       }
     });
   }
@@ -92,37 +145,34 @@ public final class KeyValueWorkerClientServiceHandler implements KeyValueWorkerC
   }
 
   /**
-   * Internal logic to get value from the given block.
+   * Internal logic to get values from the given block.
    *
    * @param blockId Block Id
-   * @param keyBuffer bytes of key
-   * @return key found in the key-value block or null if not found
+   * @param keyBuffers bytes of keys
+   * @return non-direct copies of the values found in the key-value block, in the order of the
+   *         keys, with null for the keys not found
    * @throws BlockDoesNotExistException if the worker is not serving this block
    */
-  private ByteBuffer getInternal(long blockId, ByteBuffer keyBuffer)
+  private List<ByteBuffer> getInternal(long blockId, List<ByteBuffer> keyBuffers)
       throws BlockDoesNotExistException, IOException {
     final long sessionId = Sessions.KEYVALUE_SESSION_ID;
     final long lockId = mBlockWorker.lockBlock(sessionId, blockId);
-    try {
-      return getReader(sessionId, lockId, blockId).get(keyBuffer);
+    try (Partition partition = mPartitionReaderCache.acquire(sessionId, lockId, blockId)) {
+      ByteBufferKeyValuePartitionReader reader = partition.getReader();
+      List<ByteBuffer> values = new ArrayList<>(keyBuffers.size());
+      for (ByteBuffer keyBuffer : keyBuffers) {
+        ByteBuffer value = reader.get(keyBuffer);
+        // The value is a slice of the mapped partition, so copy it before releasing the partition.
+        values.add(value == null ? null : copyAsNonDirectBuffer(value));
+      }
+      return values;
     } catch (InvalidWorkerStateException e) {
       // We shall never reach here
       LOG.error("Reaching invalid state to get a key", e);
     } finally {
       mBlockWorker.unlockBlock(lockId);
     }
-    return null;
-  }
-
-  private ByteBufferKeyValuePartitionReader getReader(long sessionId, long lockId, long blockId)
-      throws InvalidWorkerStateException, BlockDoesNotExistException, IOException {
-    BlockReader blockReader = mBlockWorker.readBlockRemote(sessionId, blockId, lockId);
-    ByteBuffer fileBuffer = blockReader.read(0, blockReader.getLength());
-    ByteBufferKeyValuePartitionReader reader = new ByteBufferKeyValuePartitionReader(fileBuffer);
-    // TODO(binfan): clean fileBuffer which is a direct byte buffer
-
-    blockReader.close();
-    return reader;
+    return Collections.nCopies(keyBuffers.size(), null);
   }
 
   @Override
@@ -133,8 +183,8 @@ public final class KeyValueWorkerClientServiceHandler implements KeyValueWorkerC
       public GetNextKeysTResponse call() throws AlluxioException, IOException {
         final long sessionId = Sessions.KEYVALUE_SESSION_ID;
         final long lockId = mBlockWorker.lockBlock(sessionId, blockId);
-        try {
-          ByteBufferKeyValuePartitionReader reader = getReader(sessionId, lockId, blockId);
+        try (Partition partition = mPartitionReaderCache.acquire(sessionId, lockId, blockId)) {
+          ByteBufferKeyValuePartitionReader reader = partition.getReader();
           Index index = reader.getIndex();
           PayloadReader payloadReader = reader.getPayloadReader();
 
@@ -169,8 +219,8 @@ public final class KeyValueWorkerClientServiceHandler implements KeyValueWorkerC
       public GetSizeTResponse call() throws AlluxioException, IOException {
         final long sessionId = Sessions.KEYVALUE_SESSION_ID;
         final long lockId = mBlockWorker.lockBlock(sessionId, blockId);
-        try {
-          return new GetSizeTResponse(getReader(sessionId, lockId, blockId).size());
+        try (Partition partition = mPartitionReaderCache.acquire(sessionId, lockId, blockId)) {
+          return new GetSizeTResponse(partition.getReader().size());
         } catch (InvalidWorkerStateException e) {
           // We shall never reach here
           LOG.error("Reaching invalid state to get size", e);
@@ -181,4 +231,28 @@ public final class KeyValueWorkerClientServiceHandler implements KeyValueWorkerC
       }
     });
   }
+
+  @Override
+  public GetBloomFilterTResponse getBloomFilter(final long blockId,
+      GetBloomFilterTOptions options) throws AlluxioTException {
+    return RpcUtils.call(LOG, new RpcCallableThrowsIOException<GetBloomFilterTResponse>() {
+      @Override
+      public GetBloomFilterTResponse call() throws AlluxioException, IOException {
+        final long sessionId = Sessions.KEYVALUE_SESSION_ID;
+        final long lockId = mBlockWorker.lockBlock(sessionId, blockId);
+        try (Partition partition = mPartitionReaderCache.acquire(sessionId, lockId, blockId)) {
+          ByteBuffer section = partition.getReader().getBloomFilterSection();
+          if (section != null) {
+            return new GetBloomFilterTResponse(copyAsNonDirectBuffer(section));
+          }
+        } catch (InvalidWorkerStateException e) {
+          // We shall never reach here
+          LOG.error("Reaching invalid state to get Bloom filter", e);
+        } finally {
+          mBlockWorker.unlockBlock(lockId);
+        }
+        return new GetBloomFilterTResponse(ByteBuffer.allocate(0));
+      }
+    });
+  }
 }
@@ -0,0 +1,221 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.keyvalue;
+
+import alluxio.client.keyvalue.ByteBufferKeyValuePartitionReader;
+import alluxio.exception.BlockDoesNotExistException;
+import alluxio.exception.InvalidWorkerStateException;
+import alluxio.metrics.MetricsSystem;
+import alluxio.util.io.BufferUtils;
+import alluxio.worker.block.AbstractBlockStoreEventListener;
+import alluxio.worker.block.BlockStoreLocation;
+import alluxio.worker.block.BlockWorker;
+import alluxio.worker.block.io.BlockReader;
+
+import com.codahale.metrics.Counter;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A bounded cache of mapped key-value partitions, keyed by block id, shared by all the key-value
+ * RPCs of a worker. A partition is mapped and its index is loaded on the first access to the block,
+ * and later lookups are served from the cached reader without touching the block file.
+ *
+ * Partitions are reference counted: the cache holds one reference and every caller of
+ * {@link #acquire} holds another one until it closes the partition. The mapping of a partition is
+ * unmapped once it has been dropped from the cache and all callers have closed it. Partitions of
+ * blocks which are moved or removed are dropped on the corresponding block store events.
+ */
+@ThreadSafe
+final class PartitionReaderCache extends AbstractBlockStoreEventListener {
+  private final BlockWorker mBlockWorker;
+  private final Cache<Long, Partition> mCache;
+  private final boolean mEnabled;
+
+  /**
+   * @param blockWorker the block worker to read the partitions from
+   * @param maxPartitions the maximum number of partitions to cache, 0 to disable the cache
+   */
+  PartitionReaderCache(BlockWorker blockWorker, int maxPartitions) {
+    Preconditions.checkArgument(maxPartitions >= 0, "maxPartitions must be non-negative");
+    mBlockWorker = Preconditions.checkNotNull(blockWorker, "blockWorker");
+    mEnabled = maxPartitions > 0;
+    mCache = CacheBuilder.newBuilder()
+        .maximumSize(maxPartitions)
+        .removalListener(new RemovalListener<Long, Partition>() {
+          @Override
+          public void onRemoval(RemovalNotification<Long, Partition> notification) {
+            notification.getValue().release();
+          }
+        })
+        .build();
+  }
+
+  /**
+   * Acquires the partition stored in a block. The caller must hold a lock on the block until it
+   * closes the returned partition.
+   *
+   * @param sessionId the id of the session reading the block
+   * @param lockId the id of the lock held on the block
+   * @param blockId the block id
+   * @return the partition, which must be closed after use
+   * @throws BlockDoesNotExistException if the worker is not serving this block
+   * @throws InvalidWorkerStateException if the lock does not belong to the session or block
+   */
+  Partition acquire(long sessionId, long lockId, long blockId)
+      throws BlockDoesNotExistException, InvalidWorkerStateException, IOException {
+    if (!mEnabled) {
+      return open(sessionId, lockId, blockId);
+    }
+    while (true) {
+      Partition partition = mCache.getIfPresent(blockId);
+      if (partition != null) {
+        Metrics.PARTITION_READER_CACHE_HITS.inc();
+      } else {
+        Metrics.PARTITION_READER_CACHE_MISSES.inc();
+        Partition opened = open(sessionId, lockId, blockId);
+        partition = mCache.asMap().putIfAbsent(blockId, opened);
+        if (partition == null) {
+          partition = opened;
+        } else {
+          // Another RPC cached the same partition first.
+          opened.release();
+        }
+      }
+      if (partition.retain()) {
+        return partition;
+      }
+      // The partition was dropped from the cache and unmapped in the meantime, try again.
+    }
+  }
+
+  /**
+   * Drops the partition of a block, if any.
+   *
+   * @param blockId the block id
+   */
+  void invalidate(long blockId) {
+    mCache.invalidate(blockId);
+  }
+
+  @Override
+  public void onMoveBlockByClient(long sessionId, long blockId, BlockStoreLocation oldLocation,
+      BlockStoreLocation newLocation) {
+    invalidate(blockId);
+  }
+
+  @Override
+  public void onMoveBlockByWorker(long sessionId, long blockId, BlockStoreLocation oldLocation,
+      BlockStoreLocation newLocation) {
+    invalidate(blockId);
+  }
+
+  @Override
+  public void onRemoveBlockByClient(long sessionId, long blockId) {
+    invalidate(blockId);
+  }
+
+  @Override
+  public void onRemoveBlockByWorker(long sessionId, long blockId) {
+    invalidate(blockId);
+  }
+
+  private Partition open(long sessionId, long lockId, long blockId)
+      throws BlockDoesNotExistException, InvalidWorkerStateException, IOException {
+    try (BlockReader blockReader = mBlockWorker.readBlockRemote(sessionId, blockId, lockId)) {
+      // The mapping stays valid after the block reader is closed.
+      return new Partition(blockReader.read(0, blockReader.getLength()));
+    }
+  }
+
+  /**
+   * A reference counted, mapped key-value partition. Closing it releases the reference of the
+   * caller which acquired it.
+   */
+  @ThreadSafe
+  static final class Partition implements Closeable {
+    private final ByteBuffer mBuffer;
+    private final ByteBufferKeyValuePartitionReader mReader;
+    /** The number of references, starting with the one of the creator. */
+    private final AtomicInteger mRefCount = new AtomicInteger(1);
+
+    /**
+     * @param buffer the mapped block file
+     */
+    private Partition(ByteBuffer buffer) {
+      mBuffer = buffer;
+      mReader = new ByteBufferKeyValuePartitionReader(buffer);
+    }
+
+    /**
+     * @return the reader of the partition, only valid until the partition is closed
+     */
+    ByteBufferKeyValuePartitionReader getReader() {
+      return mReader;
+    }
+
+    /**
+     * @return true if a reference was taken, false if the partition has been unmapped already
+     */
+    private boolean retain() {
+      while (true) {
+        int count = mRefCount.get();
+        if (count == 0) {
+          return false;
+        }
+        if (mRefCount.compareAndSet(count, count + 1)) {
+          return true;
+        }
+      }
+    }
+
+    /**
+     * Releases a reference, unmapping the partition when the last one is released.
+     */
+    private void release() {
+      if (mRefCount.decrementAndGet() == 0) {
+        mReader.close();
+        if (mBuffer.isDirect()) {
+          BufferUtils.cleanDirectBuffer(mBuffer);
+        }
+      }
+    }
+
+    @Override
+    public void close() {
+      release();
+    }
+  }
+
+  /**
+   * Class that contains metrics about the partition reader cache.
+   */
+  @ThreadSafe
+  private static final class Metrics {
+    private static final Counter PARTITION_READER_CACHE_HITS =
+        MetricsSystem.workerCounter("KeyValuePartitionReaderCacheHits");
+    private static final Counter PARTITION_READER_CACHE_MISSES =
+        MetricsSystem.workerCounter("KeyValuePartitionReaderCacheMisses");
+
+    private Metrics() {} // prevent instantiation
+  }
+}
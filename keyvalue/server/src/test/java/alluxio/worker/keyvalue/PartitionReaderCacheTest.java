@@ -0,0 +1,175 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.keyvalue;
+
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import alluxio.client.keyvalue.LinearProbingIndex;
+import alluxio.util.io.ByteIOUtils;
+import alluxio.worker.block.BlockWorker;
+import alluxio.worker.block.io.BlockReader;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Unit tests for {@link PartitionReaderCache}.
+ */
+public final class PartitionReaderCacheTest {
+  private static final long SESSION_ID = 1L;
+  private static final long LOCK_ID = 2L;
+  private static final ByteBuffer KEY = ByteBuffer.wrap("key".getBytes());
+
+  /** An empty partition: an index without keys followed by the offset of the index. */
+  private static final byte[] PARTITION;
+
+  static {
+    byte[] index = LinearProbingIndex.createEmptyIndex().getBytes();
+    PARTITION = new byte[index.length + 4];
+    System.arraycopy(index, 0, PARTITION, 0, index.length);
+    ByteIOUtils.writeInt(PARTITION, index.length, 0);
+  }
+
+  @Rule
+  public ExpectedException mThrown = ExpectedException.none();
+
+  private BlockWorker mBlockWorker;
+
+  @Before
+  public void before() throws Exception {
+    mBlockWorker = mock(BlockWorker.class);
+    when(mBlockWorker.readBlockRemote(eq(SESSION_ID), anyLong(), eq(LOCK_ID)))
+        .thenAnswer(new Answer<BlockReader>() {
+          @Override
+          public BlockReader answer(InvocationOnMock invocation) throws Throwable {
+            BlockReader reader = mock(BlockReader.class);
+            when(reader.getLength()).thenReturn((long) PARTITION.length);
+            when(reader.read(0, PARTITION.length)).thenReturn(ByteBuffer.wrap(PARTITION));
+            return reader;
+          }
+        });
+  }
+
+  /**
+   * Tests that a partition is opened once and shared by later acquires.
+   */
+  @Test
+  public void acquireCached() throws Exception {
+    PartitionReaderCache cache = new PartitionReaderCache(mBlockWorker, 2);
+    try (PartitionReaderCache.Partition first = cache.acquire(SESSION_ID, LOCK_ID, 1L);
+         PartitionReaderCache.Partition second = cache.acquire(SESSION_ID, LOCK_ID, 1L)) {
+      Assert.assertSame(first, second);
+      Assert.assertNull(second.getReader().get(KEY));
+    }
+    verify(mBlockWorker, times(1)).readBlockRemote(SESSION_ID, 1L, LOCK_ID);
+  }
+
+  /**
+   * Tests that a partition evicted from the cache stays readable until its last holder closes it.
+   */
+  @Test
+  public void evictWhileAcquired() throws Exception {
+    PartitionReaderCache cache = new PartitionReaderCache(mBlockWorker, 1);
+    PartitionReaderCache.Partition evicted = cache.acquire(SESSION_ID, LOCK_ID, 1L);
+    // Caching the second block evicts the first one.
+    cache.acquire(SESSION_ID, LOCK_ID, 2L).close();
+    Assert.assertNull(evicted.getReader().get(KEY));
+
+    evicted.close();
+    mThrown.expect(IllegalStateException.class);
+    evicted.getReader().get(KEY);
+  }
+
+  /**
+   * Tests that a block whose partition was dropped is opened again on the next acquire.
+   */
+  @Test
+  public void reacquireAfterEviction() throws Exception {
+    PartitionReaderCache cache = new PartitionReaderCache(mBlockWorker, 1);
+    PartitionReaderCache.Partition first = cache.acquire(SESSION_ID, LOCK_ID, 1L);
+    first.close();
+    cache.invalidate(1L);
+    try (PartitionReaderCache.Partition second = cache.acquire(SESSION_ID, LOCK_ID, 1L)) {
+      Assert.assertNotSame(first, second);
+      Assert.assertNull(second.getReader().get(KEY));
+    }
+    verify(mBlockWorker, times(2)).readBlockRemote(SESSION_ID, 1L, LOCK_ID);
+  }
+
+  /**
+   * Tests that a disabled cache opens the partition on every acquire and unmaps it on close.
+   */
+  @Test
+  public void disabled() throws Exception {
+    PartitionReaderCache cache = new PartitionReaderCache(mBlockWorker, 0);
+    PartitionReaderCache.Partition partition = cache.acquire(SESSION_ID, LOCK_ID, 1L);
+    cache.acquire(SESSION_ID, LOCK_ID, 1L).close();
+    verify(mBlockWorker, times(2)).readBlockRemote(SESSION_ID, 1L, LOCK_ID);
+
+    partition.close();
+    mThrown.expect(IllegalStateException.class);
+    partition.getReader().get(KEY);
+  }
+
+  /**
+   * Tests that threads acquiring and releasing partitions while they are evicted never read a
+   * partition which was unmapped.
+   */
+  @Test
+  public void acquireReleaseAcrossThreads() throws Exception {
+    final PartitionReaderCache cache = new PartitionReaderCache(mBlockWorker, 1);
+    final int numThreads = 8;
+    final int numIterations = 1000;
+    ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    try {
+      List<Future<Void>> futures = new ArrayList<>();
+      for (int i = 0; i < numThreads; i++) {
+        final long blockId = i % 2;
+        futures.add(executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() throws Exception {
+            for (int j = 0; j < numIterations; j++) {
+              try (PartitionReaderCache.Partition partition =
+                       cache.acquire(SESSION_ID, LOCK_ID, blockId)) {
+                Assert.assertNull(partition.getReader().get(KEY));
+              }
+            }
+            return null;
+          }
+        }));
+      }
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
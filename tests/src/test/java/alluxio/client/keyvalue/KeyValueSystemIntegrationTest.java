@@ -36,6 +36,7 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -252,6 +253,52 @@ public final class KeyValueSystemIntegrationTest extends BaseIntegrationTest {
     mReader.close();
   }
 
+  /**
+   * Tests getting a batch of keys spread over several partitions, including a key not found.
+   */
+  @Test
+  public void multiGet() throws Exception {
+    List<KeyValuePair> pairs = new ArrayList<>();
+    AlluxioURI storeUri = createStoreOfMultiplePartitions(3, pairs);
+
+    mReader = sKeyValueSystem.openStore(storeUri);
+    List<ByteBuffer> values = mReader.multiGet(Arrays.asList(pairs.get(2).getKey(),
+        ByteBuffer.wrap(KEY1), pairs.get(0).getKey(), pairs.get(1).getKey()));
+    Assert.assertEquals(4, values.size());
+    Assert.assertEquals(pairs.get(2).getValue(), values.get(0));
+    Assert.assertNull(values.get(1));
+    Assert.assertEquals(pairs.get(0).getValue(), values.get(2));
+    Assert.assertEquals(pairs.get(1).getValue(), values.get(3));
+    mReader.close();
+  }
+
+  /**
+   * Tests scanning the key-value pairs in a range of keys spread over several partitions.
+   */
+  @Test
+  public void scan() throws Exception {
+    List<KeyValuePair> pairs = new ArrayList<>();
+    AlluxioURI storeUri = createStoreOfMultiplePartitions(4, pairs);
+
+    mReader = sKeyValueSystem.openStore(storeUri);
+    Assert.assertEquals(pairs.subList(1, 3),
+        scanAll(mReader.scan(pairs.get(1).getKey(), pairs.get(3).getKey())));
+    Assert.assertEquals(pairs.subList(2, 4), scanAll(mReader.scan(pairs.get(2).getKey(), null)));
+    Assert.assertEquals(pairs.subList(0, 1), scanAll(mReader.scan(null, pairs.get(1).getKey())));
+    Assert.assertEquals(pairs, scanAll(mReader.scan(null, null)));
+    Assert.assertTrue(scanAll(mReader.scan(pairs.get(1).getKey(), pairs.get(1).getKey()))
+        .isEmpty());
+    mReader.close();
+  }
+
+  private List<KeyValuePair> scanAll(KeyValueIterator iterator) throws Exception {
+    List<KeyValuePair> pairs = new ArrayList<>();
+    while (iterator.hasNext()) {
+      pairs.add(iterator.next());
+    }
+    return pairs;
+  }
+
   /**
    * Tests putting a key-value pair that is larger than the max key-value partition size,
    * expecting exception thrown.
@@ -36,6 +36,7 @@ import org.junit.rules.ExpectedException;
 
 import java.io.EOFException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -171,6 +172,27 @@ public final class HdfsFileInputStreamIntegrationTest extends BaseIntegrationTes
     Assert.assertEquals(-1, length);
   }
 
+  /**
+   * Tests {@link HdfsFileInputStream#read(ByteBuffer)} with a direct buffer.
+   */
+  @Test
+  public void readByteBuffer() throws Exception {
+    ByteBuffer buf = ByteBuffer.allocateDirect(FILE_LEN);
+    Assert.assertEquals(FILE_LEN, mInMemInputStream.read(buf));
+    buf.flip();
+    Assert.assertTrue(BufferUtils.equalIncreasingByteBuffer(0, FILE_LEN, buf));
+
+    createUfsInStream(ReadType.NO_CACHE);
+    buf.clear();
+    Assert.assertEquals(FILE_LEN, mUfsInputStream.read(buf));
+    buf.flip();
+    Assert.assertTrue(BufferUtils.equalIncreasingByteBuffer(0, FILE_LEN, buf));
+
+    buf.clear();
+    Assert.assertEquals(-1, mInMemInputStream.read(buf));
+    Assert.assertEquals(-1, mUfsInputStream.read(buf));
+  }
+
   /**
    * Tests {@link HdfsFileInputStream#read(long, byte[], int, int)}.
    */